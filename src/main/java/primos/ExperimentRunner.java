@@ -1,17 +1,64 @@
 package primos;
 
+import primos.async.PrimeFlow;
+import primos.async.PrimePublisher;
+import primos.budget.ResourceMeter;
+import primos.budget.ResourceUsage;
+import primos.generators.BbsGenerator;
+import primos.generators.ChaCha20Generator;
 import primos.generators.LcgGenerator;
 import primos.generators.PseudoRandomGenerator;
+import primos.generators.VectorLcgGenerator;
+import primos.io.DecimalPreview;
+import primos.io.OutputFormat;
+import primos.io.PrimeWriter;
+import primos.io.RandomExporter;
+import primos.math.NttSquarer;
+import primos.primality.CachingPrimalityTester;
+import primos.primality.MillerRabinTester;
 import primos.primality.PrimalityTester;
-
+import primos.primality.PrimeCertificate;
+import primos.primality.ProvablePrimeGenerator;
+import primos.primality.SpecialFormTester;
+import primos.primality.StagedPrimalityTester;
+import primos.sieve.Constellation;
+import primos.sieve.ConstellationSearch;
+import primos.sieve.SegmentedSieve;
+import primos.tuning.AutoTuner;
+import primos.tuning.TuningProfile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
 
 public class ExperimentRunner {
 
     public static final int BATCHSIZE = 10;
 
+    /**
+     * Maior número em que {@link #benchmarkSpecialForm} mede de fato a rodada de Miller-Rabin.
+     */
+    static final int EXACT_MILLER_RABIN_BITS = 25_000;
+
     /**
      * Busca e RETORNA um número provavelmente primo de um determinado tamanho.
      * <p>
@@ -33,18 +80,36 @@ public class ExperimentRunner {
         PrimalityTester tester = testerClass.getDeclaredConstructor().newInstance();
         PseudoRandomGenerator generator = generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength);
 
+        return findPrime(tester, generator, certainty);
+    }
+
+    /**
+     * Busca e RETORNA um número provavelmente primo usando instâncias já criadas.
+     * <p>
+     * O tamanho em bits é o do próprio gerador. Como os geradores guardam estado,
+     * cada thread de busca deve usar o seu; o testador pode ser compartilhado.
+     *
+     * @param tester    O testador de primalidade.
+     * @param generator O gerador de candidatos.
+     * @param certainty Parâmetro de certeza para o teste de primalidade.
+     * @return Um {@link BigInteger} que é provavelmente primo.
+     */
+    public static BigInteger findPrime(PrimalityTester tester, PseudoRandomGenerator generator, int certainty) {
+        return findPrime(tester, generator, certainty, BATCHSIZE);
+    }
+
+    /**
+     * Como {@link #findPrime(PrimalityTester, PseudoRandomGenerator, int)}, com um tamanho de lote escolhido.
+     *
+     * @param batchSize Quantos números gerar por candidato (ver {@link #nextCandidate(PseudoRandomGenerator, int)}).
+     */
+    public static BigInteger findPrime(PrimalityTester tester, PseudoRandomGenerator generator, int certainty,
+                                       int batchSize) {
         BigInteger primeCandidate;
 
         // 2. Loop de busca infinito até que um primo seja encontrado.
         while (true) {
-            // Gera um lote de candidatos e pega o último
-            List<BigInteger> candidates = generator.generate(BATCHSIZE);
-            primeCandidate = candidates.get(candidates.size() - 1);
-
-            // Garante que o candidato seja ímpar
-            if (!primeCandidate.testBit(0)) {
-                primeCandidate = primeCandidate.setBit(0);
-            }
+            primeCandidate = nextCandidate(generator, batchSize);
 
             // Testa a primalidade
             if (tester.isPrime(primeCandidate, certainty)) {
@@ -54,6 +119,122 @@ public class ExperimentRunner {
         }
     }
 
+    /**
+     * Busca e RETORNA um número provavelmente primo com a configuração calibrada para
+     * este tamanho: gerador, testador, crivo, lote, certeza e threads vêm da entrada
+     * mais próxima do perfil ({@link TuningProfile#current()}), carregado automaticamente
+     * na primeira busca. Sem perfil, usa LCG e Miller-Rabin, com a certeza de
+     * {@link AutoTuner#certaintyFor}. As demais buscas não leem o perfil.
+     * <p>
+     * Com mais de uma thread, cada uma busca com o seu gerador, em um pool compartilhado
+     * entre as chamadas, e vale o primeiro primo encontrado. As outras buscas são
+     * avisadas para parar, e o método só retorna depois que elas terminam o candidato em curso.
+     *
+     * @param bitLength Tamanho em bits do primo desejado.
+     * @return Um {@link BigInteger} que é provavelmente primo.
+     * @throws ReflectiveOperationException se houver um erro ao instanciar as classes via reflexão.
+     */
+    public static BigInteger findPrime(int bitLength) throws ReflectiveOperationException {
+        TuningProfile.Entry entry = TuningProfile.current().entryFor(bitLength);
+        if (entry == null) {
+            return findPrime(MillerRabinTester.class, LcgGenerator.class, bitLength, AutoTuner.certaintyFor(bitLength));
+        }
+        PrimalityTester tester = entry.newTester();
+        if (entry.threads() == 1) {
+            return findPrime(tester, entry.newGenerator(bitLength), entry.certainty(), entry.batchSize());
+        }
+
+        List<PseudoRandomGenerator> generators = new ArrayList<>();
+        for (int t = 0; t < entry.threads(); t++) {
+            generators.add(entry.newGenerator(bitLength));
+        }
+        // as tarefas nunca são canceladas, só avisadas: assim todas chegam ao countDown
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(generators.size());
+        CompletionService<BigInteger> searches = new ExecutorCompletionService<>(SearchPool.EXECUTOR);
+        for (PseudoRandomGenerator generator : generators) {
+            searches.submit(() -> {
+                try {
+                    while (!stop.get()) {
+                        BigInteger candidate = nextCandidate(generator, entry.batchSize());
+                        if (tester.isPrime(candidate, entry.certainty())) {
+                            return candidate;
+                        }
+                    }
+                    return null;
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        boolean interrupted = false;
+        try {
+            return searches.take().get();
+        } catch (InterruptedException e) {
+            interrupted = true;
+            throw new IllegalStateException("Busca interrompida.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na busca.", e.getCause());
+        } finally {
+            stop.set(true);
+            // as buscas perdedoras terminam o candidato em curso antes de o método retornar
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Threads das buscas paralelas de {@link #findPrime(int)}: daemon, criadas sob demanda
+     * e reaproveitadas entre as chamadas.
+     */
+    private static final class SearchPool {
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "busca-perfil");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Produz o próximo candidato da busca: gera um lote de {@link #BATCHSIZE}
+     * números, pega o último e garante que ele seja ímpar.
+     *
+     * @param generator O gerador de candidatos.
+     * @return O candidato.
+     */
+    public static BigInteger nextCandidate(PseudoRandomGenerator generator) {
+        return nextCandidate(generator, BATCHSIZE);
+    }
+
+    /**
+     * Produz o próximo candidato da busca: gera um lote de {@code batchSize}
+     * números, pega o último e garante que ele seja ímpar.
+     *
+     * @param generator O gerador de candidatos.
+     * @param batchSize Quantos números gerar por candidato.
+     * @return O candidato.
+     */
+    public static BigInteger nextCandidate(PseudoRandomGenerator generator, int batchSize) {
+        // Gera um lote de candidatos e pega o último
+        List<BigInteger> candidates = generator.generate(batchSize);
+        BigInteger primeCandidate = candidates.get(candidates.size() - 1);
+
+        // Garante que o candidato seja ímpar
+        if (!primeCandidate.testBit(0)) {
+            primeCandidate = primeCandidate.setBit(0);
+        }
+        return primeCandidate;
+    }
+
     /**
      * Executa o teste para um gerador específico, mede o tempo e imprime os resultados.
      * @param generator A instância do gerador a ser testado.
@@ -174,11 +355,7 @@ public class ExperimentRunner {
                     totalTimeMs);
 
             //versão truncada do primo encontrado
-            String primeString = primeCandidate.toString();
-            if (primeString.length() > 60) {
-                primeString = primeString.substring(0, 30) + "..." + primeString.substring(primeString.length() - 30);
-            }
-            System.out.println("  \\-> Primo encontrado: " + primeString);
+            System.out.println("  \\-> Primo encontrado: " + DecimalPreview.truncate(primeCandidate, 30));
 
 
         } catch (Exception e) {
@@ -276,4 +453,549 @@ public class ExperimentRunner {
         System.out.println("Aquecimento do testador concluído.");
     }
 
-}
\ No newline at end of file
+    /**
+     * Compara a vazão de um testador compartilhado entre várias threads com a de
+     * uma instância por thread.
+     * <p>
+     * Cada thread recebe sua própria lista de candidatos ímpares (gerados antes da
+     * medição) e executa {@code isPrime} sobre todos eles. O benchmark roda duas
+     * vezes: primeiro com uma única instância do testador usada por todas as
+     * threads, depois com uma instância exclusiva por thread. Se o testador não
+     * tiver estado compartilhado, as duas vazões devem ser equivalentes.
+     *
+     * @param testerClass    A CLASSE do testador de primalidade a ser medido.
+     * @param bitLength      O tamanho em bits dos candidatos.
+     * @param certainty      O parâmetro de certeza para os testes.
+     * @param threads        O número de threads concorrentes.
+     * @param testsPerThread Quantos candidatos cada thread testa.
+     */
+    public static void benchmarkSharedTester(Class<? extends PrimalityTester> testerClass,
+                                             int bitLength,
+                                             int certainty,
+                                             int threads,
+                                             int testsPerThread) {
+        try {
+            List<List<BigInteger>> candidates = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                List<BigInteger> own = new ArrayList<>(testsPerThread);
+                for (BigInteger candidate : new LcgGenerator(bitLength).generate(testsPerThread)) {
+                    own.add(candidate.setBit(0));
+                }
+                candidates.add(own);
+            }
+
+            PrimalityTester shared = testerClass.getDeclaredConstructor().newInstance();
+            List<PrimalityTester> perThread = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                perThread.add(testerClass.getDeclaredConstructor().newInstance());
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                // rodada descartada para aquecer o JIT antes das medições
+                timeConcurrentTests(pool, candidates, certainty, perThread::get);
+
+                long sharedNs = timeConcurrentTests(pool, candidates, certainty, t -> shared);
+                long perThreadNs = timeConcurrentTests(pool, candidates, certainty, perThread::get);
+
+                long totalTests = (long) threads * testsPerThread;
+                System.out.printf("%-25s | %-12d | %-8d | %-12s | %-20.4f | %-12.1f%n",
+                        testerClass.getSimpleName(), bitLength, threads, "compartilhado",
+                        sharedNs / 1_000_000.0, totalTests / (sharedNs / 1e9));
+                System.out.printf("%-25s | %-12d | %-8d | %-12s | %-20.4f | %-12.1f%n",
+                        testerClass.getSimpleName(), bitLength, threads, "por thread",
+                        perThreadNs / 1_000_000.0, totalTests / (perThreadNs / 1e9));
+            } finally {
+                pool.shutdown();
+            }
+        } catch (Exception e) {
+            System.err.println("ERRO: Falha ao executar o benchmark concorrente do testador.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Executa os testes de cada thread no pool e retorna o tempo total de parede.
+     */
+    private static long timeConcurrentTests(ExecutorService pool,
+                                            List<List<BigInteger>> candidates,
+                                            int certainty,
+                                            IntFunction<PrimalityTester> testerForThread)
+            throws Exception {
+        List<Future<?>> futures = new ArrayList<>(candidates.size());
+        long startTime = System.nanoTime();
+        for (int t = 0; t < candidates.size(); t++) {
+            PrimalityTester tester = testerForThread.apply(t);
+            List<BigInteger> own = candidates.get(t);
+            futures.add(pool.submit(() -> {
+                for (BigInteger candidate : own) {
+                    tester.isPrime(candidate, certainty);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Mede quantos bytes uma chamada de {@code isPrime} aloca, em média, e quanto tempo leva.
+     * <p>
+     * Os candidatos são primos (obtidos com {@link BigInteger#probablePrime}), para que
+     * todas as rodadas do teste sejam executadas. A alocação é lida do contador por
+     * thread da JVM, através do {@link ResourceMeter}.
+     *
+     * @param testerClass   A CLASSE do testador de primalidade.
+     * @param bitLength     O tamanho em bits dos números testados.
+     * @param certainty     O parâmetro de certeza dos testes.
+     * @param numberOfTests Quantas chamadas de {@code isPrime} medir.
+     */
+    public static void benchmarkAllocation(Class<? extends PrimalityTester> testerClass,
+                                           int bitLength,
+                                           int certainty,
+                                           int numberOfTests) {
+        try {
+            PrimalityTester tester = testerClass.getDeclaredConstructor().newInstance();
+            Random rand = new Random(bitLength);
+            List<BigInteger> primes = new ArrayList<>(numberOfTests);
+            for (int i = 0; i < numberOfTests; i++) {
+                primes.add(BigInteger.probablePrime(bitLength, rand));
+            }
+
+            ResourceUsage usage = ResourceMeter.measure(numberOfTests, () -> {
+                for (BigInteger prime : primes) {
+                    tester.isPrime(prime, certainty);
+                }
+            });
+
+            System.out.printf("%-30s | %-12d | %-12d | %-20.1f | %-20.4f%n",
+                    testerClass.getSimpleName(),
+                    bitLength,
+                    numberOfTests,
+                    usage.bytesPerOperation() / 1024.0,
+                    usage.wallMsPerOperation());
+
+        } catch (Exception e) {
+            System.err.println("ERRO: Falha ao executar o benchmark de alocação.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Mede a vazão sustentada da exportação de bytes brutos de um gerador.
+     * <p>
+     * Os bytes são descartados, para medir só o gerador e a cópia para o canal.
+     *
+     * @param generator O gerador a ser medido.
+     * @param bitLength O tamanho em bits configurado no gerador (apenas para o relatório).
+     * @param bytes     Quantos bytes exportar.
+     */
+    public static void benchmarkExport(PseudoRandomGenerator generator, int bitLength, long bytes) {
+        try {
+            WritableByteChannel sink = Channels.newChannel(OutputStream.nullOutputStream());
+            long elapsedNs = new RandomExporter().export(generator, bytes, sink);
+
+            System.out.printf("%-25s | %-12d | %-12d | %-20.4f | %-12.3f%n",
+                    generator.name(), bitLength, bytes, elapsedNs / 1_000_000.0,
+                    RandomExporter.megabytesPerSecond(bytes, elapsedNs));
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha ao exportar bytes do gerador.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Compara o preenchimento em massa do LCG de várias pistas nas implementações
+     * escalar e vetorial.
+     * <p>
+     * Sem {@code --add-modules jdk.incubator.vector} na JVM, as duas linhas usam o
+     * laço escalar, e a coluna de implementação mostra isso.
+     *
+     * @param words  Quantas palavras de 64 bits gerar por preenchimento (múltiplo de {@link VectorLcgGenerator#LANES}).
+     * @param rounds Quantos preenchimentos medir, após um preenchimento de aquecimento.
+     */
+    public static void benchmarkVectorLcg(int words, int rounds) {
+        long[] dst = new long[words];
+        for (boolean allowVector : new boolean[]{false, true}) {
+            VectorLcgGenerator generator = new VectorLcgGenerator(64, allowVector);
+            for (int i = 0; i < 20; i++) {
+                generator.fillWords(dst);
+            }
+
+            long startTime = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                generator.fillWords(dst);
+            }
+            long totalTimeNs = System.nanoTime() - startTime;
+
+            System.out.printf("%-25s | %-25s | %-12d | %-20.4f | %-12.1f%n",
+                    generator.name(), generator.backend(), words,
+                    totalTimeNs / 1_000_000.0 / rounds,
+                    (double) words * rounds / (totalTimeNs / 1e3));
+        }
+    }
+
+    /**
+     * Mede o tempo para contar os primos até cada limite com o crivo segmentado.
+     * @param limits Os limites superiores.
+     */
+    public static void benchmarkSieve(List<Long> limits) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        SegmentedSieve sieve = new SegmentedSieve(threads);
+        for (long limit : limits) {
+            try {
+                long startTime = System.nanoTime();
+                long count = sieve.count(1, limit);
+                long totalTimeNs = System.nanoTime() - startTime;
+
+                System.out.printf("%-25s | %-15d | %-12d | %-12d | %-20.4f%n",
+                        "Crivo segmentado", limit, threads, count, totalTimeNs / 1_000_000.0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Mede o efeito do {@link CachingPrimalityTester} em uma carga com números repetidos:
+     * {@code distinct} candidatos são testados {@code repetitions} vezes, em ordem embaralhada.
+     * @param bitLength O tamanho dos candidatos.
+     * @param certainty Número de iterações dos testes.
+     * @param distinct Quantos números distintos há na carga.
+     * @param repetitions Quantas vezes cada número é pedido.
+     */
+    public static void benchmarkCache(int bitLength, int certainty, int distinct, int repetitions) {
+        List<BigInteger> workload = new ArrayList<>(distinct * repetitions);
+        Random random = new Random(bitLength);
+        List<BigInteger> numbers = new ArrayList<>(distinct);
+        for (int i = 0; i < distinct; i++) {
+            // metade primos, metade compostos ímpares
+            numbers.add(i % 2 == 0 ? BigInteger.probablePrime(bitLength, random)
+                    : new BigInteger(bitLength, random).setBit(bitLength - 1).setBit(0));
+        }
+        for (int r = 0; r < repetitions; r++) {
+            workload.addAll(numbers);
+        }
+        Collections.shuffle(workload, random);
+
+        PrimalityTester plain = new MillerRabinTester();
+        CachingPrimalityTester cached = new CachingPrimalityTester(new MillerRabinTester(), 16L * 1024 * 1024);
+
+        long plainNs = timeSequentialTests(plain, workload, certainty);
+        long cachedNs = timeSequentialTests(cached, workload, certainty);
+
+        System.out.printf("%-30s | %-12d | %-12d | %-20.4f | %-12s%n",
+                "MillerRabinTester", bitLength, workload.size(), plainNs / 1_000_000.0, "-");
+        System.out.printf("%-30s | %-12d | %-12d | %-20.4f | %-12.1f%n",
+                "CachingPrimalityTester", bitLength, workload.size(), cachedNs / 1_000_000.0,
+                100 * cached.hitRate());
+    }
+
+    private static long timeSequentialTests(PrimalityTester tester, List<BigInteger> workload, int certainty) {
+        long startTime = System.nanoTime();
+        for (BigInteger n : workload) {
+            tester.isPrime(n, certainty);
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Mede o tempo para encontrar primos com uma cadeia de estágios e imprime
+     * quantos candidatos cada estágio rejeitou.
+     * @param chain A especificação da cadeia (ver {@link StagedPrimalityTester#parse}).
+     * @param bitLength O tamanho dos primos.
+     * @param certainty Número de iterações dos testes.
+     * @param primes Quantos primos encontrar.
+     */
+    public static void benchmarkChain(String chain, int bitLength, int certainty, int primes) {
+        StagedPrimalityTester tester = StagedPrimalityTester.parse(chain);
+        LcgGenerator generator = new LcgGenerator(bitLength);
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < primes; i++) {
+            findPrime(tester, generator, certainty);
+        }
+        long totalTimeNs = System.nanoTime() - startTime;
+
+        StringBuilder rejections = new StringBuilder();
+        for (int i = 0; i < chain.split(",").length; i++) {
+            if (i > 0) {
+                rejections.append(" / ");
+            }
+            rejections.append(tester.rejected(i));
+        }
+        System.out.printf("%-25s | %-12d | %-12d | %-20.4f | %s%n",
+                tester.chain(), bitLength, tester.entered(0), totalTimeNs / 1_000_000.0 / primes, rejections);
+    }
+
+    /**
+     * Mede o tempo de construção do {@link BbsGenerator}, dominado pela busca dos primos de Blum.
+     * @param bitLength O tamanho em bits do gerador (p e q têm metade disso).
+     * @param runs Quantas construções medir.
+     */
+    public static void benchmarkBbsSetup(int bitLength, int runs) {
+        long minNs = Long.MAX_VALUE;
+        long totalNs = 0;
+        for (int i = 0; i < runs; i++) {
+            long startTime = System.nanoTime();
+            new BbsGenerator(bitLength);
+            long elapsedNs = System.nanoTime() - startTime;
+            minNs = Math.min(minNs, elapsedNs);
+            totalNs += elapsedNs;
+        }
+        System.out.printf("%-25s | %-12d | %-12d | %-20.1f | %-20.1f%n",
+                "BBS", bitLength, runs, totalNs / 1_000_000.0 / runs, minNs / 1_000_000.0);
+    }
+
+    /**
+     * Compara o BBS comum (quadrado módulo M) com o modo CRT (quadrados módulo p e q),
+     * em bits de saída por segundo, tanto por {@code generate} quanto por {@code fill}.
+     * @param bitLength O tamanho em bits do módulo M.
+     * @param outputBytes Quantos bytes de saída medir em cada caminho.
+     */
+    public static void benchmarkBbsCrt(int bitLength, int outputBytes) {
+        for (BbsGenerator generator : List.of(new BbsGenerator(bitLength, false), new BbsGenerator(bitLength, true))) {
+            // generate produz bitLength bits por número
+            int numbers = Math.max(1, outputBytes * 8 / bitLength);
+            long startTime = System.nanoTime();
+            generator.generate(numbers);
+            double generateSeconds = (System.nanoTime() - startTime) / 1e9;
+
+            ByteBuffer buffer = ByteBuffer.allocate(outputBytes);
+            startTime = System.nanoTime();
+            generator.fill(buffer);
+            double fillSeconds = (System.nanoTime() - startTime) / 1e9;
+
+            System.out.printf("%-25s | %-12d | %-20.0f | %-20.0f%n", generator.name(), bitLength,
+                    (double) numbers * bitLength / generateSeconds, outputBytes * 8 / fillSeconds);
+        }
+    }
+
+    /**
+     * Mede quanto custa gravar primos em cada {@link OutputFormat}, com a saída descartada,
+     * e compara a exibição truncada de {@link DecimalPreview} com {@code toString()} seguido de corte.
+     * @param bitLength O tamanho em bits dos números.
+     * @param count Quantos números gravar em cada formato.
+     */
+    public static void benchmarkOutputFormats(int bitLength, int count) {
+        Random random = new Random(bitLength);
+        List<BigInteger> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(new BigInteger(bitLength, random).setBit(bitLength - 1));
+        }
+        try {
+            for (OutputFormat format : OutputFormat.values()) {
+                PrimeWriter writer = new PrimeWriter(Channels.newChannel(OutputStream.nullOutputStream()), format);
+                long startTime = System.nanoTime();
+                for (BigInteger n : numbers) {
+                    writer.write(n);
+                }
+                writer.flush();
+                long elapsedNs = System.nanoTime() - startTime;
+                System.out.printf("%-25s | %-12d | %-12d | %-20.4f%n",
+                        format, bitLength, writer.bytesWritten(), elapsedNs / 1_000.0 / count);
+            }
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha ao gravar os números.");
+            e.printStackTrace();
+        }
+
+        long startTime = System.nanoTime();
+        for (BigInteger n : numbers) {
+            String text = n.toString();
+            if (text.length() > 70) {
+                text = text.substring(0, 35) + "..." + text.substring(text.length() - 35);
+            }
+        }
+        long elapsedNs = System.nanoTime() - startTime;
+        System.out.printf("%-25s | %-12d | %-12s | %-20.4f%n",
+                "toString + corte", bitLength, "-", elapsedNs / 1_000.0 / count);
+
+        startTime = System.nanoTime();
+        for (BigInteger n : numbers) {
+            DecimalPreview.truncate(n, 35);
+        }
+        elapsedNs = System.nanoTime() - startTime;
+        System.out.printf("%-25s | %-12d | %-12s | %-20.4f%n",
+                "DecimalPreview", bitLength, "-", elapsedNs / 1_000.0 / count);
+    }
+
+    /**
+     * Compara a geração de primos demonstráveis ({@link ProvablePrimeGenerator}) com o
+     * {@code findPrime} probabilístico, sobre o ChaCha20, com Miller-Rabin de 100 e 200 rodadas.
+     * Para os primos demonstráveis, mede também a verificação do certificado.
+     * @param bitLength O tamanho em bits dos primos.
+     * @param primes Quantos primos gerar em cada modo.
+     */
+    public static void benchmarkProvable(int bitLength, int primes) {
+        ProvablePrimeGenerator provable = new ProvablePrimeGenerator();
+        long generateNs = 0;
+        long verifyNs = 0;
+        for (int i = 0; i < primes; i++) {
+            long startTime = System.nanoTime();
+            PrimeCertificate certificate = provable.generate(bitLength);
+            long verifyStart = System.nanoTime();
+            if (!certificate.verify()) {
+                throw new IllegalStateException("Certificado inválido para " + certificate.prime());
+            }
+            generateNs += verifyStart - startTime;
+            verifyNs += System.nanoTime() - verifyStart;
+        }
+        System.out.printf("%-25s | %-12d | %-20.4f | %-20.4f%n",
+                "Pocklington (Maurer)", bitLength, generateNs / 1_000_000.0 / primes, verifyNs / 1_000_000.0 / primes);
+
+        PrimalityTester tester = new MillerRabinTester();
+        PseudoRandomGenerator generator = new ChaCha20Generator(bitLength);
+        for (int certainty : new int[]{100, 200}) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < primes; i++) {
+                findPrime(tester, generator, certainty);
+            }
+            long elapsedNs = System.nanoTime() - startTime;
+            System.out.printf("%-25s | %-12d | %-20.4f | %-20s%n",
+                    "MillerRabin k=" + certainty, bitLength, elapsedNs / 1_000_000.0 / primes, "-");
+        }
+    }
+
+    /**
+     * Mede a busca de constelações ({@link ConstellationSearch}) para um padrão: constelações
+     * por hora e a fração dos candidatos que sobreviveu ao crivo de vários deslocamentos.
+     * O progresso da busca é descartado; só a linha da tabela é impressa.
+     * @param pattern O padrão procurado.
+     * @param bitLength O tamanho em bits do primeiro membro.
+     * @param count Quantas constelações encontrar.
+     * @param certainty O parâmetro de certeza do teste.
+     */
+    public static void benchmarkConstellation(Constellation pattern, int bitLength, int count, int certainty) {
+        ConstellationSearch search = new ConstellationSearch(pattern, new MillerRabinTester(), certainty,
+                Runtime.getRuntime().availableProcessors());
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        long startTime = System.nanoTime();
+        try (PrimeWriter writer = new PrimeWriter(Channels.newChannel(OutputStream.nullOutputStream()), OutputFormat.DECIMAL)) {
+            search.run(bitLength, count, writer, discard);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha na busca de constelações", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long elapsedNs = System.nanoTime() - startTime;
+        System.out.printf("%-25s | %-12d | %-12d | %-20.1f | %-12.4f%n",
+                pattern.name(), bitLength, count, count * 3600e9 / elapsedNs,
+                100.0 * search.survivors() / Math.max(1, search.candidates()));
+    }
+
+    /**
+     * Mede um {@link PrimePublisher} compartilhado por vários assinantes, cada um pedindo
+     * um primo por vez ({@code request(1)} a cada {@code onNext}) e cancelando ao receber
+     * a sua cota. Imprime a vazão e quantos primos foram encontrados além dos entregues,
+     * que ficam limitados à reserva do publicador.
+     * @param bitLength O tamanho em bits dos primos.
+     * @param subscribers Quantos assinantes simultâneos.
+     * @param primesPerSubscriber A cota de cada assinante.
+     * @param certainty O parâmetro de certeza do teste.
+     */
+    public static void benchmarkPublisher(int bitLength, int subscribers, int primesPerSubscriber, int certainty) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        try (PrimeFlow flow = new PrimeFlow(ChaCha20Generator::new, new MillerRabinTester(), certainty, parallelism)) {
+            PrimePublisher publisher = flow.publisher(bitLength);
+            CountDownLatch delivered = new CountDownLatch(subscribers * primesPerSubscriber);
+            long startTime = System.nanoTime();
+            for (int s = 0; s < subscribers; s++) {
+                publisher.subscribe(new Flow.Subscriber<>() {
+                    private Flow.Subscription subscription;
+                    private int received;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(BigInteger prime) {
+                        delivered.countDown();
+                        if (++received < primesPerSubscriber) {
+                            subscription.request(1);
+                        } else {
+                            subscription.cancel();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        error.printStackTrace();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+            }
+            delivered.await();
+            long elapsedNs = System.nanoTime() - startTime;
+            long total = (long) subscribers * primesPerSubscriber;
+            System.out.printf("%-25s | %-12d | %-12d | %-20.2f | %-12d%n",
+                    subscribers + " assinante(s)", bitLength, total, total * 1e9 / elapsedNs,
+                    publisher.found() - total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Compara o quadrado do {@link BigInteger#multiply} (Toom-Cook 3) com o do
+     * {@link NttSquarer}; é a medida que fixa o limite da NTT no {@link SpecialFormTester}.
+     * @param bitLength O tamanho em bits do número elevado ao quadrado.
+     * @param repetitions Quantos quadrados medir em cada implementação.
+     */
+    public static void benchmarkSquaring(int bitLength, int repetitions) {
+        BigInteger x = new BigInteger(bitLength, new Random(bitLength)).setBit(bitLength - 1);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            x.multiply(x);
+        }
+        long multiplyNs = System.nanoTime() - startTime;
+        startTime = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            NttSquarer.square(x);
+        }
+        long nttNs = System.nanoTime() - startTime;
+        System.out.printf("%-25s | %-12d | %-20.4f | %-20.4f%n",
+                "x * x", bitLength, multiplyNs / 1_000_000.0 / repetitions, nttNs / 1_000_000.0 / repetitions);
+    }
+
+    /**
+     * Compara o {@link SpecialFormTester} com uma rodada do {@link MillerRabinTester} em
+     * um número de forma especial. Acima de {@link #EXACT_MILLER_RABIN_BITS}, a rodada de
+     * Miller-Rabin levaria minutos e é estimada (marcada com {@code ~}) pelo tempo de uma
+     * exponenciação com um expoente de 1024 bits, proporcional ao tamanho do expoente.
+     * @param label O nome do número na tabela.
+     * @param n O número, de Mersenne ou de Proth.
+     */
+    public static void benchmarkSpecialForm(String label, BigInteger n) {
+        SpecialFormTester special = new SpecialFormTester();
+        long startTime = System.nanoTime();
+        boolean prime = special.isPrime(n, 1);
+        long specialNs = System.nanoTime() - startTime;
+
+        String millerRabin;
+        if (n.bitLength() <= EXACT_MILLER_RABIN_BITS) {
+            startTime = System.nanoTime();
+            new MillerRabinTester().isPrime(n, 1);
+            millerRabin = String.format("%.1f", (System.nanoTime() - startTime) / 1_000_000.0);
+        } else {
+            BigInteger exponent = BigInteger.ONE.shiftLeft(1024).subtract(BigInteger.ONE);
+            startTime = System.nanoTime();
+            BigInteger.valueOf(3).modPow(exponent, n);
+            double perBitNs = (System.nanoTime() - startTime) / 1024.0;
+            millerRabin = String.format("~%.1f", perBitNs * n.bitLength() / 1_000_000.0);
+        }
+        System.out.printf("%-25s | %-12d | %-20s | %-20s%n",
+                label + (prime ? " (primo)" : " (composto)"), n.bitLength(),
+                String.format("%.1f", specialNs / 1_000_000.0), millerRabin);
+    }
+
+}
@@ -1,22 +1,66 @@
 package primos;
 
+import primos.async.AsyncPrimeFinder;
+import primos.async.SearchStats;
+import primos.async.SearchTimeoutException;
+import primos.bulk.BulkGenerator;
+import primos.bulk.BulkVerifier;
+import primos.distributed.SearchCoordinator;
+import primos.distributed.SearchWorker;
+import primos.generators.BbsCrtGenerator;
 import primos.generators.BbsGenerator;
+import primos.generators.ChaCha20Generator;
 import primos.generators.LcgGenerator;
 import primos.generators.PseudoRandomGenerator;
+import primos.generators.VectorLcgGenerator;
+import primos.generators.XoshiroGenerator;
+import primos.io.DecimalPreview;
+import primos.io.MappedNumberReader;
+import primos.io.OutputFormat;
+import primos.io.PrimeWriter;
+import primos.io.RandomExporter;
+import primos.primality.CachingPrimalityTester;
 import primos.primality.FermatTester;
 import primos.primality.FermatWeakTester;
+import primos.primality.LucasTester;
 import primos.primality.MillerRabinTester;
+import primos.primality.MontgomeryMillerRabinTester;
 import primos.primality.PrimalityTester;
+import primos.primality.PrimeCertificate;
+import primos.primality.ProvablePrimeGenerator;
+import primos.primality.SpecialFormTester;
+import primos.primality.StagedPrimalityTester;
+import primos.server.PrimeServer;
+import primos.sieve.Constellation;
+import primos.sieve.ConstellationSearch;
+import primos.sieve.SegmentedSieve;
+import primos.tuning.AutoTuner;
+import primos.tuning.TuningProfile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import static primos.ExperimentRunner.*;
 
 public class Main {
 
+    /**
+     * Limite de primos pendentes no modo servidor antes de recusar novas requisições.
+     */
+    private static final int SERVER_MAX_PENDING_PRIMES = 1000;
+
     public static void main(String[] args) {
 
         List<String> argList = new ArrayList<>(Arrays.asList(args));
@@ -47,10 +91,77 @@ public class Main {
             return;
         }
 
+        if (argList.remove("-server")) {
+            runServer(argList);
+            return;
+        }
+
+        if (argList.remove("-bulk")) {
+            runBulk(argList);
+            return;
+        }
+
+        if (argList.remove("-verify")) {
+            runVerify(argList);
+            return;
+        }
+
+        if (argList.remove("-export")) {
+            runExport(argList);
+            return;
+        }
+
+        if (argList.remove("-range")) {
+            runRange(argList);
+            return;
+        }
+
+        if (argList.remove("-tuple")) {
+            runTuple(argList);
+            return;
+        }
+
+        if (argList.remove("-special")) {
+            runSpecial(argList);
+            return;
+        }
+
+        if (argList.remove("-autotune")) {
+            runAutotune(argList);
+            return;
+        }
+
+        if (argList.remove("-auto")) {
+            runAuto(argList);
+            return;
+        }
+
+        if (argList.remove("-provable")) {
+            runProvable(argList);
+            return;
+        }
+
+        if (argList.remove("-check-cert")) {
+            runCheckCertificate(argList);
+            return;
+        }
+
+        if (argList.remove("-coordinator")) {
+            runCoordinator(argList);
+            return;
+        }
+
+        if (argList.remove("-worker")) {
+            runWorker(argList);
+            return;
+        }
+
         if (argList.remove("-nt")) {
             truncateOutput = false;
         }
 
+        String timeoutSeconds = removeOption(argList, "-timeout=", null);
+
         if (argList.size() != 4) {
             printUsage();
             return;
@@ -61,23 +172,15 @@ public class Main {
         String bitLengthStr = argList.get(2);
         String certaintyStr = argList.get(3);
 
-        Class<? extends PseudoRandomGenerator> generatorClass = null;
-        if ("lcg".equalsIgnoreCase(generatorName)) {
-            generatorClass = LcgGenerator.class;
-        } else if ("bbs".equalsIgnoreCase(generatorName)) {
-            generatorClass = BbsGenerator.class;
-        } else {
+        Class<? extends PseudoRandomGenerator> generatorClass = parseGenerator(generatorName);
+        if (generatorClass == null) {
             System.err.println("ERRO: Gerador '" + generatorName + "' inválido.");
             printUsage();
             return;
         }
 
-        Class<? extends PrimalityTester> testerClass = null;
-        if ("millerrabin".equalsIgnoreCase(testerName)) {
-            testerClass = MillerRabinTester.class;
-        } else if ("fermat".equalsIgnoreCase(testerName)) {
-            testerClass = FermatTester.class;
-        } else {
+        PrimalityTester tester = createTester(testerName);
+        if (tester == null) {
             System.err.println("ERRO: Testador '" + testerName + "' inválido.");
             printUsage();
             return;
@@ -85,28 +188,39 @@ public class Main {
 
         int bitLength;
         int certainty;
+        Duration timeout = null;
         try {
             bitLength = Integer.parseInt(bitLengthStr);
             certainty = Integer.parseInt(certaintyStr);
+            if (timeoutSeconds != null) {
+                timeout = Duration.ofMillis((long) (Double.parseDouble(timeoutSeconds) * 1000));
+            }
         } catch (NumberFormatException e) {
-            System.err.println("ERRO: O tamanho em bits e a certeza devem ser números inteiros.");
+            System.err.println("ERRO: O tamanho em bits, a certeza e o prazo devem ser números.");
             printUsage();
             return;
         }
 
         System.out.println("Buscando um primo de " + bitLength + " bits...");
         System.out.println(" -> Usando gerador: " + generatorClass.getSimpleName());
-        System.out.println(" -> Usando testador: " + testerClass.getSimpleName());
+        System.out.println(" -> Usando testador: " + describe(tester));
 
         try {
             long startTime = System.nanoTime();
 
-            BigInteger foundPrime = findPrime(
-                    testerClass,
-                    generatorClass,
-                    bitLength,
-                    certainty
-            );
+            BigInteger foundPrime;
+            if (timeout == null) {
+                foundPrime = findPrime(
+                        tester,
+                        generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength),
+                        certainty
+                );
+            } else {
+                foundPrime = findPrimeWithTimeout(generatorClass, tester, bitLength, certainty, timeout);
+                if (foundPrime == null) {
+                    return;
+                }
+            }
 
             long endTime = System.nanoTime();
             double totalTimeMs = (endTime - startTime) / 1_000_000.0;
@@ -114,14 +228,17 @@ public class Main {
             System.out.println("\nProcesso Concluído!");
             System.out.printf("Tempo total da busca: %.4f ms%n", totalTimeMs);
 
-            if (truncateOutput && foundPrime.toString().length() > 70) {
-                String primeString = foundPrime.toString();
-                primeString = primeString.substring(0, 35) + "..." + primeString.substring(primeString.length() - 35);
-                System.out.println("Primo encontrado: " + primeString);
+            if (truncateOutput) {
+                System.out.println("Primo encontrado: " + DecimalPreview.truncate(foundPrime, 35));
             } else {
                 System.out.println("Primo encontrado: " + foundPrime);
             }
 
+            if (tester instanceof StagedPrimalityTester) {
+                System.out.println("\nEstatísticas da cadeia " + ((StagedPrimalityTester) tester).chain() + ":");
+                System.out.print(((StagedPrimalityTester) tester).stats());
+            }
+
             // testes estatísticos
             if (!statisticalTestsToRun.isEmpty()) {
                 System.out.println("\n--- INICIANDO TESTES ESTATÍSTICOS ---");
@@ -151,6 +268,713 @@ public class Main {
         }
     }
 
+    /**
+     * Busca um primo pela API assíncrona, desistindo quando o prazo passar.
+     * @return O primo encontrado, ou {@code null} se o prazo tiver se esgotado.
+     */
+    private static BigInteger findPrimeWithTimeout(Class<? extends PseudoRandomGenerator> generatorClass,
+                                                   PrimalityTester tester,
+                                                   int bitLength,
+                                                   int certainty,
+                                                   Duration timeout) throws Exception {
+        try (AsyncPrimeFinder finder = AsyncPrimeFinder.withVirtualThreads()) {
+            return finder.findPrime(generatorClass, tester, bitLength, certainty, timeout).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SearchTimeoutException) {
+                SearchStats stats = ((SearchTimeoutException) e.getCause()).stats();
+                System.out.printf("%nPrazo de %.3f s esgotado sem encontrar um primo.%n", timeout.toMillis() / 1000.0);
+                System.out.println("Busca interrompida: " + stats);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Converte o nome de um gerador na sua classe.
+     * @param name O nome informado na linha de comando.
+     * @return A classe do gerador, ou {@code null} se o nome for inválido.
+     */
+    private static Class<? extends PseudoRandomGenerator> parseGenerator(String name) {
+        if ("lcg".equalsIgnoreCase(name)) {
+            return LcgGenerator.class;
+        } else if ("bbs".equalsIgnoreCase(name)) {
+            return BbsGenerator.class;
+        } else if ("bbs-crt".equalsIgnoreCase(name)) {
+            return BbsCrtGenerator.class;
+        } else if ("xoshiro".equalsIgnoreCase(name)) {
+            return XoshiroGenerator.class;
+        } else if ("chacha20".equalsIgnoreCase(name)) {
+            return ChaCha20Generator.class;
+        } else if ("lcg-simd".equalsIgnoreCase(name)) {
+            return VectorLcgGenerator.class;
+        }
+        return null;
+    }
+
+    /**
+     * Converte o nome de um testador na sua classe.
+     * @param name O nome informado na linha de comando.
+     * @return A classe do testador, ou {@code null} se o nome for inválido.
+     */
+    private static Class<? extends PrimalityTester> parseTester(String name) {
+        if ("millerrabin".equalsIgnoreCase(name)) {
+            return MillerRabinTester.class;
+        } else if ("fermat".equalsIgnoreCase(name)) {
+            return FermatTester.class;
+        } else if ("montgomery".equalsIgnoreCase(name)) {
+            return MontgomeryMillerRabinTester.class;
+        } else if ("lucas".equalsIgnoreCase(name)) {
+            return LucasTester.class;
+        } else if ("chain".equalsIgnoreCase(name)) {
+            return StagedPrimalityTester.class;
+        } else if ("special".equalsIgnoreCase(name)) {
+            return SpecialFormTester.class;
+        }
+        return null;
+    }
+
+    /**
+     * Cria o testador indicado na linha de comando. Além dos nomes aceitos por
+     * {@link #parseTester}, aceita {@code Chain:<estágios>} (ex: {@code Chain:td=1000,f2,mr})
+     * para montar uma cadeia de estágios específica.
+     * @param name O nome informado na linha de comando.
+     * @return O testador, ou {@code null} se o nome ou a cadeia forem inválidos.
+     */
+    private static PrimalityTester createTester(String name) {
+        if (name.regionMatches(true, 0, "chain:", 0, 6)) {
+            try {
+                return StagedPrimalityTester.parse(name.substring(6));
+            } catch (IllegalArgumentException e) {
+                System.err.println("ERRO: " + e.getMessage());
+                return null;
+            }
+        }
+        Class<? extends PrimalityTester> testerClass = parseTester(name);
+        if (testerClass == null) {
+            return null;
+        }
+        try {
+            return testerClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar o testador " + testerClass.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Nome do testador para exibição, incluindo os estágios no caso de uma cadeia.
+     */
+    private static String describe(PrimalityTester tester) {
+        if (tester instanceof StagedPrimalityTester) {
+            return "StagedPrimalityTester (" + ((StagedPrimalityTester) tester).chain() + ")";
+        }
+        return tester.getClass().getSimpleName();
+    }
+
+    /**
+     * Inicia o servidor local de primos e bloqueia até o processo ser encerrado.
+     * Argumentos esperados: {@code <gerador> <testador> <porta>}.
+     */
+    private static void runServer(List<String> argList) {
+        if (argList.size() != 3) {
+            printUsage();
+            return;
+        }
+        Class<? extends PseudoRandomGenerator> generatorClass = parseGenerator(argList.get(0));
+        PrimalityTester tester = createTester(argList.get(1));
+        if (generatorClass == null || tester == null) {
+            System.err.println("ERRO: Gerador ou testador inválido.");
+            printUsage();
+            return;
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        try (PrimeServer server = new PrimeServer(
+                Integer.parseInt(argList.get(2)),
+                generatorClass,
+                tester,
+                workers,
+                SERVER_MAX_PENDING_PRIMES)) {
+            System.out.println("Servidor de primos escutando em localhost:" + server.port()
+                    + " (" + workers + " threads de busca)");
+            server.serve();
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: A porta deve ser um número inteiro.");
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro no servidor:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gera muitos primos em um único processo e os grava em um arquivo ou na saída padrão.
+     * Argumentos esperados: {@code [-format=dec|hex|base64|raw|der|pem] [-out=arquivo] <gerador> <testador>
+     * <bits[,bits...]> <certeza> <quantidade>}. O progresso vai para a saída de erro,
+     * para não se misturar aos primos quando a saída padrão for um pipe.
+     */
+    private static void runBulk(List<String> argList) {
+        String formatName = removeOption(argList, "-format=", "dec");
+        String outPath = removeOption(argList, "-out=", null);
+        if (argList.size() != 5) {
+            printUsage();
+            return;
+        }
+        Class<? extends PseudoRandomGenerator> generatorClass = parseGenerator(argList.get(0));
+        PrimalityTester tester = createTester(argList.get(1));
+        if (generatorClass == null || tester == null) {
+            System.err.println("ERRO: Gerador ou testador inválido.");
+            printUsage();
+            return;
+        }
+
+        List<Integer> bitLengths = new ArrayList<>();
+        int certainty;
+        long count;
+        OutputFormat format;
+        try {
+            for (String bits : argList.get(2).split(",")) {
+                bitLengths.add(Integer.parseInt(bits.trim()));
+            }
+            certainty = Integer.parseInt(argList.get(3));
+            count = Long.parseLong(argList.get(4));
+            format = OutputFormat.parse(formatName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.err.println("Gerando " + count + " primo(s) de " + bitLengths + " bits com "
+                + threads + " thread(s)...");
+        try (PrimeWriter writer = PrimeWriter.open(outPath == null ? null : Path.of(outPath), format)) {
+            BulkGenerator bulk = new BulkGenerator(generatorClass, tester, certainty, threads);
+            bulk.run(bitLengths, count, writer, System.err);
+            if (tester instanceof StagedPrimalityTester) {
+                System.err.print(((StagedPrimalityTester) tester).stats());
+            }
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro durante a geração em massa:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Verifica a primalidade de todos os números de um arquivo e escreve um resultado por linha.
+     * Argumentos esperados: {@code [-format=dec|hex|raw] [-out=arquivo] [-cache=MB] <testador> <certeza> <arquivo>}.
+     * Com {@code -cache}, números repetidos são respondidos por um {@link CachingPrimalityTester}.
+     */
+    private static void runVerify(List<String> argList) {
+        String formatName = removeOption(argList, "-format=", "dec");
+        String outPath = removeOption(argList, "-out=", null);
+        String cacheMegabytes = removeOption(argList, "-cache=", null);
+        if (argList.size() != 3) {
+            printUsage();
+            return;
+        }
+        PrimalityTester tester = createTester(argList.get(0));
+        if (tester == null) {
+            System.err.println("ERRO: Testador '" + argList.get(0) + "' inválido.");
+            printUsage();
+            return;
+        }
+
+        int certainty;
+        OutputFormat format;
+        try {
+            certainty = Integer.parseInt(argList.get(1));
+            format = OutputFormat.parse(formatName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (MappedNumberReader reader = new MappedNumberReader(Path.of(argList.get(2)), format);
+             WritableByteChannel output = PrimeWriter.openChannel(outPath == null ? null : Path.of(outPath))) {
+            CachingPrimalityTester cache = null;
+            if (cacheMegabytes != null) {
+                cache = new CachingPrimalityTester(tester, Long.parseLong(cacheMegabytes) * 1024 * 1024);
+                tester = cache;
+            }
+            BulkVerifier verifier = new BulkVerifier(tester, certainty, threads);
+            verifier.run(reader, output, System.err);
+            if (cache != null) {
+                System.err.println(cache.stats());
+            }
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro durante a verificação:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Exporta a saída de um gerador como bytes brutos para um arquivo ou para a saída padrão.
+     * Argumentos esperados: {@code [-out=arquivo] <gerador> <bits> <bytes>}.
+     */
+    private static void runExport(List<String> argList) {
+        String outPath = removeOption(argList, "-out=", null);
+        if (argList.size() != 3) {
+            printUsage();
+            return;
+        }
+        Class<? extends PseudoRandomGenerator> generatorClass = parseGenerator(argList.get(0));
+        if (generatorClass == null) {
+            System.err.println("ERRO: Gerador '" + argList.get(0) + "' inválido.");
+            printUsage();
+            return;
+        }
+
+        int bitLength;
+        long bytes;
+        try {
+            bitLength = Integer.parseInt(argList.get(1));
+            bytes = Long.parseLong(argList.get(2));
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: O tamanho em bits e a quantidade de bytes devem ser números inteiros.");
+            printUsage();
+            return;
+        }
+
+        try (WritableByteChannel output = PrimeWriter.openChannel(outPath == null ? null : Path.of(outPath))) {
+            PseudoRandomGenerator generator = generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength);
+            long elapsedNs = new RandomExporter().export(generator, bytes, output);
+            System.err.printf("Exportados %d bytes de %s em %.3f s (%.3f MB/s)%n",
+                    bytes, generator.name(), elapsedNs / 1e9, RandomExporter.megabytesPerSecond(bytes, elapsedNs));
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro durante a exportação:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Enumera (ou apenas conta) todos os primos de um intervalo com o crivo segmentado.
+     * Argumentos esperados: {@code [-count] [-out=arquivo] <início> <fim>}. Os primos vão,
+     * em ordem crescente, para o arquivo ou a saída padrão; o resumo vai para a saída de erro.
+     */
+    private static void runRange(List<String> argList) {
+        boolean countOnly = argList.remove("-count");
+        String outPath = removeOption(argList, "-out=", null);
+        if (argList.size() != 2) {
+            printUsage();
+            return;
+        }
+
+        long from;
+        long to;
+        try {
+            from = Long.parseLong(argList.get(0));
+            to = Long.parseLong(argList.get(1));
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: O início e o fim do intervalo devem ser números inteiros.");
+            printUsage();
+            return;
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        SegmentedSieve sieve = new SegmentedSieve(threads);
+        try {
+            long startTime = System.nanoTime();
+            long count;
+            if (countOnly) {
+                count = sieve.count(from, to);
+                System.out.println(count);
+            } else {
+                try (PrimeWriter writer = PrimeWriter.open(outPath == null ? null : Path.of(outPath), OutputFormat.DECIMAL)) {
+                    count = sieve.stream(from, to, prime -> {
+                        try {
+                            writer.write(prime);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+            System.err.printf("%d primo(s) em [%d, %d] com %d thread(s) em %.3f s%n",
+                    count, from, to, threads, (System.nanoTime() - startTime) / 1e9);
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro durante o crivo:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Procura constelações de primos (gêmeos, trios, quádruplas...) com o crivo de vários deslocamentos.
+     * Argumentos esperados: {@code [-pattern=nome|d1,d2,...] [-format=dec|hex|base64|raw|der|pem]
+     * [-out=arquivo] <testador> <bits> <certeza> <quantidade>}. É escrito o primeiro membro de cada
+     * constelação; o progresso e as constelações por hora vão para a saída de erro.
+     */
+    private static void runTuple(List<String> argList) {
+        String patternName = removeOption(argList, "-pattern=", "twin");
+        String formatName = removeOption(argList, "-format=", "dec");
+        String outPath = removeOption(argList, "-out=", null);
+        if (argList.size() != 4) {
+            printUsage();
+            return;
+        }
+        PrimalityTester tester = createTester(argList.get(0));
+        if (tester == null) {
+            System.err.println("ERRO: Testador '" + argList.get(0) + "' inválido.");
+            printUsage();
+            return;
+        }
+
+        Constellation pattern;
+        int bitLength;
+        int certainty;
+        long count;
+        OutputFormat format;
+        try {
+            pattern = Constellation.parse(patternName);
+            bitLength = Integer.parseInt(argList.get(1));
+            certainty = Integer.parseInt(argList.get(2));
+            count = Long.parseLong(argList.get(3));
+            format = OutputFormat.parse(formatName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.err.println("Procurando " + count + " constelação(ões) " + pattern + " de " + bitLength
+                + " bits com " + threads + " thread(s)...");
+        try (PrimeWriter writer = PrimeWriter.open(outPath == null ? null : Path.of(outPath), format)) {
+            new ConstellationSearch(pattern, tester, certainty, threads).run(bitLength, count, writer, System.err);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro durante a busca de constelações:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Testa um número de Mersenne ou de Proth com o {@link SpecialFormTester}.
+     * Argumentos esperados: {@code mersenne <p>} para {@code 2^p - 1} ou
+     * {@code proth <k> <m>} para {@code k * 2^m + 1}.
+     */
+    private static void runSpecial(List<String> argList) {
+        if (argList.size() < 2) {
+            printUsage();
+            return;
+        }
+        SpecialFormTester tester = new SpecialFormTester();
+        String form = argList.get(0).toLowerCase();
+        try {
+            long startTime = System.nanoTime();
+            String description;
+            boolean prime;
+            if (form.equals("mersenne") && argList.size() == 2) {
+                int p = Integer.parseInt(argList.get(1));
+                description = "2^" + p + " - 1";
+                prime = tester.isMersennePrime(p);
+            } else if (form.equals("proth") && argList.size() == 3) {
+                long k = Long.parseLong(argList.get(1));
+                int m = Integer.parseInt(argList.get(2));
+                description = k + " * 2^" + m + " + 1";
+                prime = tester.isProthPrime(k, m);
+            } else {
+                printUsage();
+                return;
+            }
+            System.out.printf("%s é %s (%.4f ms)%n", description, prime ? "primo" : "composto",
+                    (System.nanoTime() - startTime) / 1_000_000.0);
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: O expoente e o multiplicador devem ser números inteiros.");
+            printUsage();
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calibra a busca nesta máquina e grava o perfil que a busca {@code -auto} lê.
+     * Argumentos esperados: {@code [-bits=64,256,...] [-goal=vazao|latencia] [-budget=ms]
+     * [-certainty=k] [-threads=N] [-profile=arquivo]}.
+     */
+    private static void runAutotune(List<String> argList) {
+        String bitsOption = removeOption(argList, "-bits=", "64,256,512,1024,2048");
+        String goalName = removeOption(argList, "-goal=", "vazao");
+        String budgetMillis = removeOption(argList, "-budget=", "300");
+        String certaintyOption = removeOption(argList, "-certainty=", "0");
+        String threadsOption = removeOption(argList, "-threads=",
+                Integer.toString(Runtime.getRuntime().availableProcessors()));
+        String profilePath = removeOption(argList, "-profile=", null);
+        if (!argList.isEmpty()) {
+            printUsage();
+            return;
+        }
+
+        List<Integer> bitLengths = new ArrayList<>();
+        AutoTuner tuner;
+        try {
+            for (String bits : bitsOption.split(",")) {
+                bitLengths.add(Integer.parseInt(bits.trim()));
+            }
+            tuner = new AutoTuner(TuningProfile.Goal.parse(goalName), Long.parseLong(budgetMillis),
+                    Integer.parseInt(certaintyOption), Integer.parseInt(threadsOption));
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: Os tamanhos, o tempo por medida, a certeza e as threads devem ser números.");
+            printUsage();
+            return;
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            return;
+        }
+
+        Path path = profilePath != null ? Path.of(profilePath) : TuningProfile.defaultPath();
+        System.out.printf("Calibrando %s para %s (%s ms por medida)...%n", bitLengths, goalName, budgetMillis);
+        try {
+            TuningProfile profile = tuner.tune(bitLengths, System.out);
+
+            System.out.println("\nPerfil escolhido:");
+            System.out.printf("%-5s | %-85s | %12s | %12s%n", "Bits", "Configuração", "Primos/s", "ms/primo");
+            for (TuningProfile.Entry entry : profile.entries()) {
+                System.out.printf("%-5d | %-85s | %12.2f | %12.3f%n", entry.bitLength(), entry.describe(),
+                        entry.primesPerSecond(), entry.millisPerPrime());
+            }
+            profile.save(path, "Calibrado em " + Runtime.getRuntime().availableProcessors() + " CPU(s), Java "
+                    + System.getProperty("java.version"));
+            System.out.println("\nPerfil gravado em " + path);
+        } catch (IOException e) {
+            System.err.println("ERRO: Não foi possível gravar o perfil: " + e.getMessage());
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Ocorreu um erro durante a calibração:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Busca um primo com a configuração do perfil calibrado.
+     * Argumentos esperados: {@code [-nt] <bits>}.
+     */
+    private static void runAuto(List<String> argList) {
+        boolean truncateOutput = !argList.remove("-nt");
+        if (argList.size() != 1) {
+            printUsage();
+            return;
+        }
+        int bitLength;
+        try {
+            bitLength = Integer.parseInt(argList.get(0));
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: O tamanho em bits deve ser um número.");
+            printUsage();
+            return;
+        }
+
+        TuningProfile.Entry entry = TuningProfile.current().entryFor(bitLength);
+        System.out.println("Buscando um primo de " + bitLength + " bits...");
+        System.out.println(entry == null
+                ? " -> Sem perfil calibrado (" + TuningProfile.defaultPath() + "); usando LcgGenerator e MillerRabinTester."
+                : " -> Perfil de " + entry.bitLength() + " bits: " + entry.describe());
+        try {
+            long startTime = System.nanoTime();
+            BigInteger foundPrime = ExperimentRunner.findPrime(bitLength);
+            System.out.printf("%nTempo total da busca: %.4f ms%n", (System.nanoTime() - startTime) / 1_000_000.0);
+            System.out.println("Primo encontrado: "
+                    + (truncateOutput ? DecimalPreview.truncate(foundPrime, 35) : foundPrime));
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Ocorreu um erro durante a execução:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gera um primo demonstrável e confere o seu certificado de Pocklington.
+     * Argumentos esperados: {@code [-nt] [-cert=arquivo] <bits>}. Com {@code -cert},
+     * o certificado é gravado no arquivo, para ser conferido depois com {@code -check-cert}.
+     */
+    private static void runProvable(List<String> argList) {
+        boolean truncateOutput = !argList.remove("-nt");
+        String certPath = removeOption(argList, "-cert=", null);
+        if (argList.size() != 1) {
+            printUsage();
+            return;
+        }
+        int bitLength;
+        try {
+            bitLength = Integer.parseInt(argList.get(0));
+        } catch (NumberFormatException e) {
+            System.err.println("ERRO: O número de bits deve ser um número inteiro.");
+            printUsage();
+            return;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            PrimeCertificate certificate = new ProvablePrimeGenerator().generate(bitLength);
+            long generatedTime = System.nanoTime();
+            boolean valid = certificate.verify();
+            long verifiedTime = System.nanoTime();
+
+            BigInteger prime = certificate.prime();
+            System.out.printf("Primo demonstrável gerado em %.4f ms (%d níveis de Pocklington)%n",
+                    (generatedTime - startTime) / 1_000_000.0, certificate.depth() - 1);
+            System.out.printf("Certificado %s em %.4f ms%n",
+                    valid ? "conferido" : "INVÁLIDO", (verifiedTime - generatedTime) / 1_000_000.0);
+            System.out.println("Primo encontrado: " + (truncateOutput ? DecimalPreview.truncate(prime, 35) : prime));
+            if (certPath != null) {
+                Files.writeString(Path.of(certPath), certificate.toText(), StandardCharsets.US_ASCII);
+                System.out.println("Certificado gravado em " + certPath);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Ocorreu um erro ao gravar o certificado:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Confere um certificado gravado por {@code -provable -cert=arquivo}.
+     * Argumentos esperados: {@code <arquivo>}.
+     */
+    private static void runCheckCertificate(List<String> argList) {
+        if (argList.size() != 1) {
+            printUsage();
+            return;
+        }
+        try {
+            PrimeCertificate certificate = PrimeCertificate.parse(
+                    Files.readString(Path.of(argList.get(0)), StandardCharsets.US_ASCII));
+            long startTime = System.nanoTime();
+            boolean valid = certificate.verify();
+            double elapsedMs = (System.nanoTime() - startTime) / 1_000_000.0;
+            System.out.printf("%s: primo de %d bits, certificado %s em %.4f ms%n",
+                    DecimalPreview.truncate(certificate.prime(), 35), certificate.prime().bitLength(),
+                    valid ? "válido" : "INVÁLIDO", elapsedMs);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Ocorreu um erro ao ler o certificado:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Coordena uma busca de primos dividida entre vários processos trabalhadores.
+     * Argumentos esperados: {@code [-workers=N] [-listen=porta] [-safe] [-format=dec|hex|base64|raw|der|pem]
+     * [-out=arquivo] <testador> <bits> <certeza> <quantidade>}. Os primos vão para o arquivo
+     * ou a saída padrão; o progresso e as quedas de trabalhadores vão para a saída de erro.
+     */
+    private static void runCoordinator(List<String> argList) {
+        String workersOption = removeOption(argList, "-workers=", null);
+        String listenPort = removeOption(argList, "-listen=", null);
+        boolean safe = argList.remove("-safe");
+        String formatName = removeOption(argList, "-format=", "dec");
+        String outPath = removeOption(argList, "-out=", null);
+        if (argList.size() != 4) {
+            printUsage();
+            return;
+        }
+        String testerName = argList.get(0);
+        if (createTester(testerName) == null) {
+            System.err.println("ERRO: Testador '" + testerName + "' inválido.");
+            printUsage();
+            return;
+        }
+
+        int workers;
+        int bitLength;
+        int certainty;
+        long count;
+        OutputFormat format;
+        try {
+            // com -listen, os trabalhadores podem vir todos de fora
+            workers = workersOption != null ? Integer.parseInt(workersOption)
+                    : listenPort != null ? 0 : Runtime.getRuntime().availableProcessors();
+            bitLength = Integer.parseInt(argList.get(1));
+            certainty = Integer.parseInt(argList.get(2));
+            count = Long.parseLong(argList.get(3));
+            format = OutputFormat.parse(formatName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            printUsage();
+            return;
+        }
+        if (bitLength < (safe ? 5 : 3)) {
+            System.err.println("ERRO: O número de bits é pequeno demais para a busca.");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try (PrimeWriter writer = PrimeWriter.open(outPath == null ? null : Path.of(outPath), format);
+             SearchCoordinator coordinator = new SearchCoordinator(createTester(testerName), bitLength, certainty,
+                     safe, Math.max(64, 4 * bitLength))) {
+            if (listenPort != null) {
+                // -listen=porta escuta só em localhost; -listen=0.0.0.0:porta aceita outras máquinas
+                int colon = listenPort.lastIndexOf(':');
+                int port = colon < 0
+                        ? coordinator.listen(Integer.parseInt(listenPort))
+                        : coordinator.listen(InetAddress.getByName(listenPort.substring(0, colon)),
+                        Integer.parseInt(listenPort.substring(colon + 1)));
+                System.err.println("Aceitando trabalhadores na porta " + port
+                        + " (java Main -worker -connect=" + (colon < 0 ? "localhost" : "<host>") + ":" + port
+                        + " " + testerName + ")");
+            }
+            coordinator.spawnLocalWorkers(workers, testerName);
+            System.err.println("Procurando " + count + " primo(s)" + (safe ? " seguro(s)" : "") + " de "
+                    + bitLength + " bits com " + workers + " trabalhador(es) local(is)...");
+            long tested = coordinator.run(count, writer, System.err);
+            System.err.printf("%d primo(s) em %.3f s; %d candidatos testados nas fatias concluídas%n",
+                    count, (System.nanoTime() - startTime) / 1e9, tested);
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro durante a busca distribuída:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Atende as fatias de um coordenador. Argumentos esperados: {@code [-connect=host:porta]
+     * <testador>}. Sem {@code -connect}, conversa pela entrada e saída padrão, como os processos
+     * iniciados pelo próprio coordenador; por isso nada mais deve ser escrito na saída padrão.
+     */
+    private static void runWorker(List<String> argList) {
+        String address = removeOption(argList, "-connect=", null);
+        if (argList.size() != 1) {
+            printUsage();
+            return;
+        }
+        PrimalityTester tester = createTester(argList.get(0));
+        if (tester == null) {
+            System.err.println("ERRO: Testador '" + argList.get(0) + "' inválido.");
+            return;
+        }
+
+        SearchWorker worker = new SearchWorker(tester);
+        try {
+            if (address == null) {
+                worker.serve(System.in, System.out);
+            } else {
+                int colon = address.lastIndexOf(':');
+                try (Socket socket = new Socket(address.substring(0, colon),
+                        Integer.parseInt(address.substring(colon + 1)))) {
+                    socket.setTcpNoDelay(true);
+                    worker.serve(socket.getInputStream(), socket.getOutputStream());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Ocorreu um erro no trabalhador:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Remove de {@code argList} a primeira opção no formato {@code prefixo=valor}.
+     * @return O valor da opção, ou {@code defaultValue} se ela não estiver presente.
+     */
+    private static String removeOption(List<String> argList, String prefix, String defaultValue) {
+        for (int i = 0; i < argList.size(); i++) {
+            if (argList.get(i).startsWith(prefix)) {
+                return argList.remove(i).substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
     /**
      * Imprime as instruções de uso do programa no console.
      */
@@ -158,17 +982,58 @@ public class Main {
         // ALTERAÇÃO: Instruções de uso atualizadas com as novas flags.
         System.err.println("\nUso: java Main [opções] <gerador> <testador> <bits> <certeza>");
         System.err.println("\nArgumentos Obrigatórios:");
-        System.err.println("  <gerador>    LCG | BBS");
-        System.err.println("  <testador>   MillerRabin | Fermat");
+        System.err.println("  <gerador>    LCG | BBS | BBS-CRT | Xoshiro | ChaCha20 | LCG-SIMD");
+        System.err.println("  <testador>   MillerRabin | Fermat | Montgomery | Lucas | Special | Chain[:estágios]");
+        System.err.println("               Chain:td=1000,f2,mr divide por primos até 1000, faz um Fermat na base 2");
+        System.err.println("               e termina com Miller-Rabin; os estágios são td[=limite], f2, mr, fermat e lucas.");
         System.err.println("  <bits>       O número de bits do primo (ex: 256)");
         System.err.println("  <certeza>    O número de iterações do teste (ex: 100)");
         System.err.println("\nOpções:");
         System.err.println("  -nt          Não truncar a saída do número primo encontrado.");
+        System.err.println("  -timeout=s   Desiste da busca após s segundos, mostrando quantos candidatos foram testados.");
         System.err.println("  -t           Executa uma série de benchmarks pré-definidos e encerra.");
         System.err.println("  -stat-freq   Executa o Teste de Frequência.");
         System.err.println("  -stat-runs   Executa o Teste de Runs.");
         System.err.println("  -stat-poker  Executa o Teste de Pôquer.");
         System.err.println("  -stat-all    Executa todos os testes estatísticos.");
+        System.err.println("\nModo servidor:");
+        System.err.println("  java Main -server <gerador> <testador> <porta>");
+        System.err.println("  Atende pedidos de primos e testes de primalidade em localhost (ver PrimeClient).");
+        System.err.println("\nModo de geração em massa:");
+        System.err.println("  java Main -bulk [-format=dec|hex|base64|raw|der|pem] [-out=arquivo] <gerador> <testador> <bits[,bits...]> <certeza> <quantidade>");
+        System.err.println("  Gera <quantidade> primos de cada tamanho; sem -out, escreve na saída padrão.");
+        System.err.println("\nModo de verificação em massa:");
+        System.err.println("  java Main -verify [-format=dec|hex|raw] [-out=arquivo] [-cache=MB] <testador> <certeza> <arquivo>");
+        System.err.println("  Testa cada número do arquivo e escreve 1 (primo) ou 0 (composto) por linha, na ordem de entrada.");
+        System.err.println("  -cache=MB guarda os resultados em um cache de até MB megabytes, para arquivos com números repetidos.");
+        System.err.println("\nExportação de bytes brutos:");
+        System.err.println("  java Main -export [-out=arquivo] <gerador> <bits> <bytes>");
+        System.err.println("  Escreve <bytes> bytes da saída do gerador; sem -out, escreve na saída padrão.");
+        System.err.println("\nPrimos de um intervalo:");
+        System.err.println("  java Main -range [-count] [-out=arquivo] <início> <fim>");
+        System.err.println("  Lista, em ordem, todos os primos em [início, fim] (até 10^16); com -count, apenas os conta.");
+        System.err.println("\nConstelações de primos:");
+        System.err.println("  java Main -tuple [-pattern=nome|0,2,6,...] [-format=dec|hex|base64|raw|der|pem] [-out=arquivo] <testador> <bits> <certeza> <quantidade>");
+        System.err.println("  Padrões: twin, cousin, sexy, triplet, triplet-b, quadruplet, quintuplet, sextuplet ou deslocamentos;");
+        System.err.println("  escreve o primeiro membro de cada constelação encontrada.");
+        System.err.println("\nFormas especiais:");
+        System.err.println("  java Main -special mersenne <p>      testa 2^p - 1 (Lucas-Lehmer)");
+        System.err.println("  java Main -special proth <k> <m>     testa k * 2^m + 1 (Proth/Pépin)");
+        System.err.println("\nCalibração automática:");
+        System.err.println("  java Main -autotune [-bits=64,256,...] [-goal=vazao|latencia] [-budget=ms] [-certainty=k] [-threads=N] [-profile=arquivo]");
+        System.err.println("  java Main -auto [-nt] <bits>");
+        System.err.println("  Mede geradores, testadores, crivo, lote e threads para cada tamanho e grava o melhor em um perfil");
+        System.err.println("  (padrão ~/.primos/perfil.properties, ou -Dprimos.profile=arquivo), lido só pelo -auto; os demais modos não o consultam.");
+        System.err.println("\nPrimos demonstráveis:");
+        System.err.println("  java Main -provable [-nt] [-cert=arquivo] <bits>");
+        System.err.println("  java Main -check-cert <arquivo>");
+        System.err.println("  Gera um primo pela construção de Maurer, com um certificado de Pocklington que dispensa testes probabilísticos.");
+        System.err.println("\nBusca distribuída:");
+        System.err.println("  java Main -coordinator [-workers=N] [-listen=[endereço:]porta] [-safe] [-format=dec|hex|base64|raw|der|pem] [-out=arquivo] <testador> <bits> <certeza> <quantidade>");
+        System.err.println("  java Main -worker [-connect=host:porta] <testador>");
+        System.err.println("  O coordenador inicia N processos trabalhadores e, com -listen, aceita outros em localhost,");
+        System.err.println("  ou pela rede com -listen=0.0.0.0:porta; os primos recebidos são conferidos antes de gravados.");
+        System.err.println("  As fatias de um trabalhador que cair são redistribuídas. -safe procura primos seguros.");
         System.err.println("\nExemplo de uso com testes estatísticos:");
         System.err.println("  java Main -stat-all BBS MillerRabin 256 100");
     }
@@ -184,6 +1049,10 @@ public class Main {
 
         generateBbs(bitLengths, numbersToGenerate);
 
+        generateXoshiro(bitLengths, numbersToGenerate);
+
+        generateChaCha20(bitLengths, numbersToGenerate);
+
         verifyMillerRabin(bitLengths, certainty);
 
         verifyFermat(bitLengths, certainty);
@@ -193,6 +1062,155 @@ public class Main {
         benchmarkPrimalityTestLCG(bitLengths, certainty, FermatTester.class);
 
         benchmarkPrimalityTestLCG(bitLengths, certainty, MillerRabinTester.class);
+
+        benchmarkConcurrentTesters(List.of(256, 1024), certainty);
+
+        benchmarkAllocationRates(List.of(256, 1024, 2048), certainty);
+
+        benchmarkByteExport(List.of(64, 1024));
+
+        System.out.printf("%-25s | %-12s | %-12s | %-20s%n",
+                "Formato", "Bits", "Bytes", "µs por número");
+        benchmarkOutputFormats(512, 2000); // aquece o JIT
+        for (int bitLength : List.of(1024, 4096)) {
+            benchmarkOutputFormats(bitLength, 2000);
+        }
+
+        System.out.printf("%-25s | %-12s | %-20s | %-20s%n",
+                "Método", "Bits", "ms por primo", "Verificação (ms)");
+        benchmarkProvable(256, 5); // aquece o JIT
+        for (int bitLength : List.of(512, 1024, 2048, 4096)) {
+            benchmarkProvable(bitLength, bitLength >= 4096 ? 1 : 5);
+        }
+
+        System.out.printf("%-25s | %-12s | %-20s | %-20s%n",
+                "Quadrado", "Bits", "BigInteger (ms)", "NTT (ms)");
+        benchmarkSquaring(32768, 200); // aquece o JIT
+        for (int bitLength : List.of(16384, 65536, 131072, 262144, 524288)) {
+            benchmarkSquaring(bitLength, Math.max(10, 4_000_000 / bitLength));
+        }
+
+        System.out.printf("%-25s | %-12s | %-20s | %-20s%n",
+                "Forma especial", "Bits", "Especial (ms)", "MillerRabin k=1 (ms)");
+        for (int p : List.of(9941, 21701, 44497)) {
+            benchmarkSpecialForm("M" + p, BigInteger.ONE.shiftLeft(p).subtract(BigInteger.ONE));
+        }
+        for (int m : List.of(20909, 42294)) {
+            benchmarkSpecialForm("3*2^" + m + "+1", BigInteger.valueOf(3).shiftLeft(m).add(BigInteger.ONE));
+        }
+
+        System.out.printf("%-25s | %-12s | %-12s | %-20s | %-12s%n",
+                "Publicador", "Bits", "Primos", "Primos/s", "Excedentes");
+        for (int subscribers : List.of(1, 4, 16)) {
+            benchmarkPublisher(1024, subscribers, 64 / subscribers, certainty);
+        }
+
+        System.out.printf("%-25s | %-12s | %-12s | %-20s | %-12s%n",
+                "Constelação", "Bits", "Encontradas", "Por hora", "% após crivo");
+        for (Constellation pattern : Constellation.standard()) {
+            // a densidade cai como 1/ln(n)^k: padrões maiores com menos bits, para o -t não levar minutos
+            int bitLength = pattern.size() <= 3 ? 256 : pattern.size() == 4 ? 128 : 64;
+            benchmarkConstellation(pattern, bitLength, pattern.size() >= 4 ? 2 : 5, certainty);
+        }
+
+        System.out.printf("%-25s | %-25s | %-12s | %-20s | %-12s%n",
+                "Gerador", "Implementação", "Palavras", "ms por preenchimento", "Mpalavras/s");
+        benchmarkVectorLcg(1 << 20, 50);
+
+        System.out.printf("%-25s | %-15s | %-12s | %-12s | %-20s%n",
+                "Algoritmo", "Limite", "Threads", "Primos", "Tempo (ms)");
+        benchmarkSieve(List.of(10_000_000L, 100_000_000L, 1_000_000_000L));
+
+        System.out.printf("%-30s | %-12s | %-12s | %-20s | %-12s%n",
+                "Testador", "Bits", "Consultas", "Tempo (ms)", "Acertos (%)");
+        benchmarkCache(1024, certainty, 200, 10);
+
+        benchmarkStagedChains(List.of(512, 1024), certainty);
+
+        System.out.printf("%-25s | %-12s | %-12s | %-20s | %-20s%n",
+                "Gerador", "Bits", "Construções", "ms (média)", "ms (mínimo)");
+        new BbsGenerator(512); // aquece o JIT
+        for (int bitLength : List.of(1024, 2048, 4096)) {
+            benchmarkBbsSetup(bitLength, 3);
+        }
+
+        System.out.printf("%-25s | %-12s | %-20s | %-20s%n",
+                "Gerador", "Bits", "bits/s (generate)", "bits/s (fill)");
+        benchmarkBbsCrt(512, 256); // aquece o JIT
+        for (int bitLength : List.of(1024, 2048, 4096)) {
+            benchmarkBbsCrt(bitLength, 1024);
+        }
+    }
+
+    /**
+     * Compara cadeias de estágios na busca de primos, para escolher a mais barata por tamanho.
+     * @param bitLengths Os tamanhos de número desejados.
+     * @param certainty Número de iterações dos testes.
+     */
+    private static void benchmarkStagedChains(List<Integer> bitLengths, int certainty) {
+        List<String> chains = List.of("mr", "td=1000,mr", "td=1000,f2,mr", "td=10000,f2,mr", "td=1000,f2,lucas");
+        // rodada descartada para aquecer o JIT
+        for (String chain : chains) {
+            benchmarkChain(chain, 256, 10, 5);
+        }
+        System.out.printf("%-25s | %-12s | %-12s | %-20s | %s%n",
+                "Cadeia", "Bits", "Candidatos", "ms por primo", "Rejeitados por estágio");
+        for (int bitLength : bitLengths) {
+            for (String chain : chains) {
+                benchmarkChain(chain, bitLength, certainty, 5);
+            }
+        }
+    }
+
+    /**
+     * Mede a vazão (MB/s) da exportação de bytes brutos de cada gerador.
+     * O BBS produz um bit por quadrado modular, então exporta um volume bem menor.
+     * @param bitLengths Os tamanhos de número desejados.
+     */
+    private static void benchmarkByteExport(List<Integer> bitLengths) {
+        System.out.printf("%-25s | %-12s | %-12s | %-20s | %-12s%n",
+                "Gerador", "Bits", "Bytes", "Tempo (ms)", "MB/s");
+        for (int bitLength : bitLengths) {
+            benchmarkExport(new LcgGenerator(bitLength), bitLength, 64L * 1024 * 1024);
+            benchmarkExport(new BbsGenerator(bitLength), bitLength, 64L * 1024);
+            benchmarkExport(new XoshiroGenerator(bitLength), bitLength, 64L * 1024 * 1024);
+            benchmarkExport(new ChaCha20Generator(bitLength), bitLength, 64L * 1024 * 1024);
+            benchmarkExport(new VectorLcgGenerator(bitLength), bitLength, 64L * 1024 * 1024);
+        }
+    }
+
+    /**
+     * Compara a alocação por chamada de isPrime do Miller-Rabin com BigInteger
+     * e da variante sobre o kernel de Montgomery.
+     * @param bitLengths Os tamanhos de número desejados.
+     * @param certainty Número de iterações dos testes.
+     */
+    private static void benchmarkAllocationRates(List<Integer> bitLengths, int certainty) {
+        for (int bitLength : bitLengths) {
+            // rodada descartada para aquecer o JIT
+            benchmarkAllocation(MillerRabinTester.class, bitLength, 10, 10);
+            benchmarkAllocation(MontgomeryMillerRabinTester.class, bitLength, 10, 10);
+        }
+        System.out.printf("%-30s | %-12s | %-12s | %-20s | %-20s%n",
+                "Testador", "Bits", "Testes", "KB por isPrime", "ms por isPrime");
+        for (int bitLength : bitLengths) {
+            benchmarkAllocation(MillerRabinTester.class, bitLength, certainty, 10);
+            benchmarkAllocation(MontgomeryMillerRabinTester.class, bitLength, certainty, 10);
+        }
+    }
+
+    /**
+     * Mede a vazão dos testadores com várias threads, comparando uma instância
+     * compartilhada com uma instância por thread.
+     * @param bitLengths Os tamanhos de número desejados.
+     * @param certainty Número de iterações dos testes.
+     */
+    private static void benchmarkConcurrentTesters(List<Integer> bitLengths, int certainty) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int bitLength : bitLengths) {
+            benchmarkSharedTester(MillerRabinTester.class, bitLength, certainty, threads, 50);
+            benchmarkSharedTester(FermatTester.class, bitLength, certainty, threads, 50);
+        }
     }
 
     private static void carmichaelTesting() {
@@ -258,6 +1276,22 @@ public class Main {
         }
     }
 
+    private static void generateXoshiro(List<Integer> bitLengths, int numbersToGenerate) {
+        prepareJit(XoshiroGenerator.class, bitLengths, numbersToGenerate);
+
+        for (int bitLength : bitLengths) {
+            runFor(new XoshiroGenerator(bitLength), bitLength, numbersToGenerate);
+        }
+    }
+
+    private static void generateChaCha20(List<Integer> bitLengths, int numbersToGenerate) {
+        prepareJit(ChaCha20Generator.class, bitLengths, numbersToGenerate);
+
+        for (int bitLength : bitLengths) {
+            runFor(new ChaCha20Generator(bitLength), bitLength, numbersToGenerate);
+        }
+    }
+
     private static <T extends PrimalityTester> void benchmarkPrimalityTestLCG(List<Integer> bitLengths, int certainty, Class<T> clazz) {
         List<Integer> reduced = new ArrayList<>(bitLengths.subList(0, bitLengths.size() - 2));
 
@@ -0,0 +1,178 @@
+package primos.async;
+
+import primos.ExperimentRunner;
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.PrimalityTester;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API assíncrona para a busca de primos, com prazo e cancelamento.
+ * <p>
+ * Cada busca roda como uma tarefa no executor configurado e devolve um
+ * {@link CompletableFuture}. O laço é o mesmo de {@link ExperimentRunner#findPrime},
+ * mas entre um candidato e outro ele confere se o futuro já foi concluído (por
+ * exemplo, com {@code cancel}) e se o prazo já passou. O cancelamento e o prazo são
+ * cooperativos: um {@code isPrime} em andamento não é interrompido, então a latência
+ * extra é de no máximo um teste de primalidade.
+ * <p>
+ * Quando o prazo passa, o futuro falha com uma {@link SearchTimeoutException} que
+ * carrega as estatísticas da busca até ali.
+ */
+public class AsyncPrimeFinder implements AutoCloseable {
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Usa um executor fornecido pelo chamador, que continua responsável por encerrá-lo.
+     *
+     * @param executor O executor das buscas.
+     */
+    public AsyncPrimeFinder(Executor executor) {
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    private AsyncPrimeFinder(ExecutorService ownedExecutor) {
+        this.executor = ownedExecutor;
+        this.ownedExecutor = ownedExecutor;
+    }
+
+    /**
+     * Cria um buscador com uma thread virtual por busca, quando a JVM oferece threads
+     * virtuais (Java 21 ou posterior). Como o projeto é compilado para o Java 17, a
+     * fábrica é obtida por reflexão; em JVMs mais antigas, usa um pool de threads
+     * daemon que cresce sob demanda.
+     *
+     * @return O buscador, dono do executor criado.
+     */
+    public static AsyncPrimeFinder withVirtualThreads() {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return new AsyncPrimeFinder(virtual);
+        } catch (ReflectiveOperationException e) {
+            return new AsyncPrimeFinder(Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "busca-primo");
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Inicia uma busca, instanciando o gerador por reflexão já dentro da tarefa: a criação
+     * (cara no BBS) não bloqueia o chamador e conta para o prazo. Um cancelamento durante
+     * a criação vale a partir do primeiro candidato.
+     *
+     * @param generatorClass A classe do gerador; precisa de um construtor {@code (int bitLength)}.
+     * @param tester         O testador, que pode ser compartilhado entre buscas.
+     * @param bitLength      Tamanho em bits do primo desejado.
+     * @param certainty      Parâmetro de certeza para o teste de primalidade.
+     * @param timeout        O prazo da busca, ou {@code null} para nenhum.
+     * @return O futuro com o primo encontrado.
+     */
+    public CompletableFuture<BigInteger> findPrime(Class<? extends PseudoRandomGenerator> generatorClass,
+                                                  PrimalityTester tester,
+                                                  int bitLength,
+                                                  int certainty,
+                                                  Duration timeout) {
+        return start(() -> generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength),
+                tester, bitLength, certainty, timeout);
+    }
+
+    /**
+     * Inicia uma busca com um gerador já criado, que passa a ser usado só por ela.
+     *
+     * @param generator O gerador de candidatos, de uso exclusivo desta busca.
+     * @param tester    O testador, que pode ser compartilhado entre buscas.
+     * @param bitLength Tamanho em bits do primo desejado, usado nas estatísticas.
+     * @param certainty Parâmetro de certeza para o teste de primalidade.
+     * @param timeout   O prazo da busca, ou {@code null} para nenhum.
+     * @return O futuro com o primo encontrado.
+     */
+    public CompletableFuture<BigInteger> findPrime(PseudoRandomGenerator generator,
+                                                  PrimalityTester tester,
+                                                  int bitLength,
+                                                  int certainty,
+                                                  Duration timeout) {
+        return start(() -> generator, tester, bitLength, certainty, timeout);
+    }
+
+    private CompletableFuture<BigInteger> start(Callable<PseudoRandomGenerator> generatorFactory,
+                                                PrimalityTester tester,
+                                                int bitLength,
+                                                int certainty,
+                                                Duration timeout) {
+        CompletableFuture<BigInteger> result = new CompletableFuture<>();
+        long startTime = System.nanoTime();
+        long timeoutNs = timeout == null ? Long.MAX_VALUE : timeout.toNanos();
+        try {
+            executor.execute(() -> search(generatorFactory, tester, bitLength, certainty, startTime, timeoutNs, result));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static void search(Callable<PseudoRandomGenerator> generatorFactory,
+                               PrimalityTester tester,
+                               int bitLength,
+                               int certainty,
+                               long startTime,
+                               long timeoutNs,
+                               CompletableFuture<BigInteger> result) {
+        long tested = 0;
+        try {
+            PseudoRandomGenerator generator = generatorFactory.call();
+            // o futuro concluído por fora (cancel, complete) encerra a busca
+            while (!result.isDone()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // executor encerrado com close()
+                    result.cancel(false);
+                    return;
+                }
+                long elapsedNs = System.nanoTime() - startTime;
+                if (elapsedNs > timeoutNs) {
+                    result.completeExceptionally(
+                            new SearchTimeoutException(new SearchStats(bitLength, tested, elapsedNs)));
+                    return;
+                }
+                BigInteger candidate = ExperimentRunner.nextCandidate(generator);
+                tested++;
+                if (tester.isPrime(candidate, certainty)) {
+                    result.complete(candidate);
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Encerra o executor, se ele tiver sido criado por este buscador. As threads são
+     * interrompidas, e cada busca em andamento cancela o seu futuro no próximo candidato.
+     * Se a thread que fecha for interrompida enquanto espera, a espera termina e a
+     * interrupção é preservada.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+            try {
+                ownedExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
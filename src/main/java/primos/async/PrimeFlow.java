@@ -0,0 +1,76 @@
+package primos.async;
+
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.PrimalityTester;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Um {@link PrimePublisher} por tamanho em bits, todos sobre o mesmo par gerador/testador
+ * e o mesmo pool de threads.
+ * <p>
+ * Serviços que pedem primos de 2048 bits recebem sempre o mesmo publicador, e por isso
+ * dividem os mesmos trabalhadores, em vez de cada um abrir a sua busca. As threads do
+ * pool são daemon e criadas sob demanda; sem demanda, nenhuma fica ocupada.
+ */
+public class PrimeFlow implements AutoCloseable {
+
+    private final IntFunction<PseudoRandomGenerator> generatorFactory;
+    private final PrimalityTester tester;
+    private final int certainty;
+    private final int parallelism;
+    private final ExecutorService executor = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "publicador-primos");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, PrimePublisher> publishers = new ConcurrentHashMap<>();
+
+    /**
+     * @param generatorFactory Cria um gerador para um tamanho em bits, como {@code ChaCha20Generator::new}.
+     * @param tester           O testador, compartilhado por todos os trabalhadores.
+     * @param certainty        Parâmetro de certeza do teste de primalidade.
+     * @param parallelism      Máximo de trabalhadores simultâneos por tamanho em bits.
+     */
+    public PrimeFlow(IntFunction<PseudoRandomGenerator> generatorFactory,
+                     PrimalityTester tester,
+                     int certainty,
+                     int parallelism) {
+        this.generatorFactory = generatorFactory;
+        this.tester = tester;
+        this.certainty = certainty;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * O publicador de primos de {@code bitLength} bits, criado no primeiro pedido.
+     */
+    public PrimePublisher publisher(int bitLength) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("PrimeFlow já foi fechado.");
+        }
+        return publishers.computeIfAbsent(bitLength,
+                bits -> new PrimePublisher(generatorFactory, tester, bits, certainty, parallelism, executor));
+    }
+
+    /**
+     * Fecha todos os publicadores, o que conclui as assinaturas, e encerra o pool.
+     * Se a thread que fecha for interrompida enquanto espera, a espera termina e a
+     * interrupção é preservada.
+     */
+    @Override
+    public void close() {
+        publishers.values().forEach(PrimePublisher::close);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
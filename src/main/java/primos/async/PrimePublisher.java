@@ -0,0 +1,336 @@
+package primos.async;
+
+import primos.ExperimentRunner;
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.PrimalityTester;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Fonte de primos de um tamanho em bits no modelo reativo de {@link Flow}, com
+ * contrapressão: só se procuram tantos primos quanto os assinantes pediram com
+ * {@link Flow.Subscription#request}.
+ * <p>
+ * Todos os assinantes compartilham os mesmos trabalhadores, no máximo
+ * {@code parallelism} tarefas no executor, e nunca mais que a demanda pendente
+ * somada. Cada trabalhador usa o laço de {@link ExperimentRunner#findPrime} com um
+ * gerador próprio, reaproveitado entre uma rodada e outra, e entrega o primo
+ * encontrado ao próximo assinante com demanda, em rodízio. Quando a demanda acaba
+ * (pedidos atendidos ou assinaturas canceladas), os trabalhadores percebem no
+ * próximo candidato e terminam a tarefa, sem ficar parados ocupando threads; um
+ * novo {@code request} os inicia de novo.
+ * <p>
+ * Como vários trabalhadores podem terminar juntos a busca do último primo pedido,
+ * os excedentes ficam em uma reserva de no máximo {@code parallelism} primos, usada
+ * antes de uma nova busca. Nenhuma fila cresce sem limite.
+ * <p>
+ * Os sinais de cada assinante ({@code onNext}, {@code onError}, {@code onComplete})
+ * são serializados, como exige a especificação; um assinante lento segura apenas o
+ * trabalhador que lhe está entregando um primo.
+ */
+public class PrimePublisher implements Flow.Publisher<BigInteger>, AutoCloseable {
+
+    private final IntFunction<PseudoRandomGenerator> generatorFactory;
+    private final PrimalityTester tester;
+    private final int bitLength;
+    private final int certainty;
+    private final int parallelism;
+    private final Executor executor;
+
+    private final List<PrimeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<BigInteger> spare;
+    private final BlockingQueue<PseudoRandomGenerator> idleGenerators;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicLong tested = new AtomicLong();
+    private final AtomicLong found = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param generatorFactory Cria um gerador para um tamanho em bits; cada trabalhador usa o seu.
+     * @param tester           O testador, compartilhado pelos trabalhadores.
+     * @param bitLength        Tamanho em bits dos primos.
+     * @param certainty        Parâmetro de certeza do teste de primalidade.
+     * @param parallelism      Máximo de trabalhadores simultâneos.
+     * @param executor         Onde rodam os trabalhadores; não é encerrado por {@link #close()}.
+     */
+    public PrimePublisher(IntFunction<PseudoRandomGenerator> generatorFactory,
+                          PrimalityTester tester,
+                          int bitLength,
+                          int certainty,
+                          int parallelism,
+                          Executor executor) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("É preciso pelo menos um trabalhador.");
+        }
+        this.generatorFactory = generatorFactory;
+        this.tester = tester;
+        this.bitLength = bitLength;
+        this.certainty = certainty;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.spare = new ArrayBlockingQueue<>(parallelism);
+        this.idleGenerators = new ArrayBlockingQueue<>(parallelism);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BigInteger> subscriber) {
+        PrimeSubscription subscription = new PrimeSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete(new IllegalStateException("O publicador de primos já foi fechado."));
+        }
+    }
+
+    /**
+     * O tamanho em bits dos primos publicados.
+     */
+    public int bitLength() {
+        return bitLength;
+    }
+
+    /**
+     * Quantos candidatos já foram testados, somando todos os trabalhadores.
+     */
+    public long tested() {
+        return tested.get();
+    }
+
+    /**
+     * Quantos primos já foram encontrados, incluindo os que estão na reserva.
+     */
+    public long found() {
+        return found.get();
+    }
+
+    /**
+     * Quantos trabalhadores estão buscando agora.
+     */
+    public int activeWorkers() {
+        return activeWorkers.get();
+    }
+
+    /**
+     * Demanda pendente somada, limitada a {@code Long.MAX_VALUE}.
+     */
+    private long pendingDemand() {
+        long total = 0;
+        for (PrimeSubscription subscription : subscriptions) {
+            total += subscription.demand.get();
+            if (total < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Inicia trabalhadores até o limite de paralelismo e da demanda pendente.
+     */
+    private void startWorkers() {
+        while (tryAddWorker()) {
+            try {
+                executor.execute(this::work);
+            } catch (RuntimeException e) {
+                activeWorkers.decrementAndGet();
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    private boolean tryAddWorker() {
+        while (true) {
+            int active = activeWorkers.get();
+            if (closed || active >= Math.min(parallelism, pendingDemand())) {
+                return false;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * A tarefa de um trabalhador: busca e entrega primos enquanto houver demanda.
+     */
+    private void work() {
+        PseudoRandomGenerator generator = idleGenerators.poll();
+        try {
+            if (generator == null) {
+                generator = generatorFactory.apply(bitLength);
+            }
+            while (true) {
+                searchWhileDemanded(generator);
+                activeWorkers.decrementAndGet();
+                // um request pode ter chegado entre o fim do laço e o decremento
+                if (!tryAddWorker()) {
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            activeWorkers.decrementAndGet();
+            fail(e);
+        } finally {
+            if (generator != null) {
+                idleGenerators.offer(generator);
+            }
+        }
+    }
+
+    private void searchWhileDemanded(PseudoRandomGenerator generator) {
+        while (!closed && pendingDemand() > 0) {
+            BigInteger prime = spare.poll();
+            if (prime == null) {
+                prime = search(generator);
+                if (prime == null) {
+                    return; // a demanda acabou durante a busca
+                }
+            }
+            deliver(prime);
+        }
+    }
+
+    /**
+     * O laço de {@code findPrime}, que desiste se a demanda acabar ou o publicador for fechado.
+     */
+    private BigInteger search(PseudoRandomGenerator generator) {
+        while (!closed && pendingDemand() > 0) {
+            BigInteger candidate = ExperimentRunner.nextCandidate(generator);
+            tested.incrementAndGet();
+            if (tester.isPrime(candidate, certainty)) {
+                found.incrementAndGet();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Entrega o primo ao próximo assinante com demanda, em rodízio; sem nenhum, ele vai para a reserva.
+     */
+    private void deliver(BigInteger prime) {
+        int size = subscriptions.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            PrimeSubscription subscription;
+            try {
+                subscription = subscriptions.get((start + i) % size);
+            } catch (IndexOutOfBoundsException e) {
+                break; // a lista encolheu com um cancelamento
+            }
+            if (subscription.claim()) {
+                subscription.next(prime);
+                return;
+            }
+        }
+        spare.offer(prime); // reserva cheia: o primo é descartado
+    }
+
+    private void fail(Throwable error) {
+        for (PrimeSubscription subscription : subscriptions) {
+            subscription.complete(error);
+        }
+    }
+
+    /**
+     * Conclui todas as assinaturas com {@code onComplete}; os trabalhadores param no próximo candidato.
+     * Novas assinaturas recebem {@code onError}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (PrimeSubscription subscription : subscriptions) {
+            subscription.complete(null);
+        }
+    }
+
+    /**
+     * A assinatura de um assinante: a sua demanda pendente e a serialização dos sinais.
+     */
+    private final class PrimeSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super BigInteger> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean done;
+
+        PrimeSubscription(Flow.Subscriber<? super BigInteger> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                complete(new IllegalArgumentException("request(" + n + "): a demanda deve ser positiva."));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum; // demanda ilimitada
+            });
+            startWorkers();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            demand.set(0);
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Reserva uma unidade da demanda para um primo a ser entregue.
+         */
+        boolean claim() {
+            while (!done) {
+                long current = demand.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (current == Long.MAX_VALUE || demand.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void next(BigInteger prime) {
+            if (done) {
+                return;
+            }
+            try {
+                subscriber.onNext(prime);
+            } catch (Throwable e) {
+                // um assinante que lança exceção é tratado como cancelado
+                cancel();
+            }
+        }
+
+        /**
+         * Sinal terminal: {@code onError} se {@code error} não for nulo, senão {@code onComplete}.
+         */
+        synchronized void complete(Throwable error) {
+            if (done) {
+                return;
+            }
+            cancel();
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package primos.async;
+
+/**
+ * Estatísticas de uma busca assíncrona, completa ou interrompida.
+ */
+public final class SearchStats {
+
+    private final int bitLength;
+    private final long candidatesTested;
+    private final long elapsedNs;
+
+    SearchStats(int bitLength, long candidatesTested, long elapsedNs) {
+        this.bitLength = bitLength;
+        this.candidatesTested = candidatesTested;
+        this.elapsedNs = elapsedNs;
+    }
+
+    /**
+     * O tamanho em bits pedido.
+     */
+    public int bitLength() {
+        return bitLength;
+    }
+
+    /**
+     * Quantos candidatos passaram pelo testador.
+     */
+    public long candidatesTested() {
+        return candidatesTested;
+    }
+
+    /**
+     * Tempo decorrido desde o início da busca, em nanossegundos.
+     */
+    public long elapsedNs() {
+        return elapsedNs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bits, %d candidato(s) testado(s) em %.3f ms",
+                bitLength, candidatesTested, elapsedNs / 1_000_000.0);
+    }
+}
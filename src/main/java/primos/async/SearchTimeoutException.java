@@ -0,0 +1,29 @@
+package primos.async;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Indica que uma busca assíncrona atingiu o prazo sem encontrar um primo.
+ * Carrega as estatísticas da busca até o momento da interrupção.
+ */
+public class SearchTimeoutException extends TimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SearchStats stats;
+
+    /**
+     * @param stats As estatísticas da busca interrompida.
+     */
+    public SearchTimeoutException(SearchStats stats) {
+        super("Prazo esgotado sem encontrar um primo: " + stats);
+        this.stats = stats;
+    }
+
+    /**
+     * As estatísticas da busca até o prazo.
+     */
+    public SearchStats stats() {
+        return stats;
+    }
+}
@@ -0,0 +1,59 @@
+package primos.budget;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mede os bytes alocados e o tempo de CPU gastos pela thread atual em um trecho de código.
+ * <p>
+ * Usa a extensão {@link com.sun.management.ThreadMXBean} da JVM HotSpot, que
+ * contabiliza as alocações de cada thread sem precisar de um profiler. As medidas
+ * valem só para a thread que executa o trecho: trabalho delegado a outras threads
+ * não entra na conta.
+ */
+public final class ResourceMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private ResourceMeter() {
+    }
+
+    /**
+     * Trecho de código a ser medido, que pode lançar exceções verificadas.
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /**
+     * Indica se a JVM consegue medir alocação e tempo de CPU por thread.
+     */
+    public static boolean isSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadCpuTimeSupported();
+    }
+
+    /**
+     * Executa {@code work} na thread atual e mede o que ele consumiu.
+     *
+     * @param operations Quantas operações o trecho executa, para as médias por operação.
+     * @param work       O trecho a ser medido.
+     * @return O consumo medido.
+     * @throws Exception se o trecho lançar uma exceção.
+     */
+    public static ResourceUsage measure(long operations, Work work) throws Exception {
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        THREADS.setThreadCpuTimeEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+        long startCpu = THREADS.getCurrentThreadCpuTime();
+        long startTime = System.nanoTime();
+        work.run();
+        long wallNs = System.nanoTime() - startTime;
+        long cpuNs = THREADS.getCurrentThreadCpuTime() - startCpu;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+
+        return new ResourceUsage(operations, bytes, cpuNs, wallNs);
+    }
+}
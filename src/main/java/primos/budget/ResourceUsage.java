@@ -0,0 +1,74 @@
+package primos.budget;
+
+/**
+ * Consumo medido por {@link ResourceMeter}: totais e médias por operação.
+ */
+public final class ResourceUsage {
+
+    private final long operations;
+    private final long bytes;
+    private final long cpuNs;
+    private final long wallNs;
+
+    ResourceUsage(long operations, long bytes, long cpuNs, long wallNs) {
+        this.operations = operations;
+        this.bytes = bytes;
+        this.cpuNs = cpuNs;
+        this.wallNs = wallNs;
+    }
+
+    /**
+     * Quantas operações foram medidas.
+     */
+    public long operations() {
+        return operations;
+    }
+
+    /**
+     * Total de bytes alocados pela thread.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Tempo total de CPU da thread, em nanossegundos.
+     */
+    public long cpuNs() {
+        return cpuNs;
+    }
+
+    /**
+     * Tempo de relógio, em nanossegundos.
+     */
+    public long wallNs() {
+        return wallNs;
+    }
+
+    /**
+     * Bytes alocados por operação.
+     */
+    public double bytesPerOperation() {
+        return (double) bytes / operations;
+    }
+
+    /**
+     * Milissegundos de CPU por operação.
+     */
+    public double cpuMsPerOperation() {
+        return cpuNs / 1_000_000.0 / operations;
+    }
+
+    /**
+     * Milissegundos de relógio por operação.
+     */
+    public double wallMsPerOperation() {
+        return wallNs / 1_000_000.0 / operations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f KB e %.4f ms de CPU por operação (%d operações)",
+                bytesPerOperation() / 1024.0, cpuMsPerOperation(), operations);
+    }
+}
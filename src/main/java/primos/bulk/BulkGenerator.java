@@ -0,0 +1,140 @@
+package primos.bulk;
+
+import primos.ExperimentRunner;
+import primos.generators.PseudoRandomGenerator;
+import primos.io.PrimeWriter;
+import primos.primality.PrimalityTester;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gera muitos primos em um único processo, distribuindo a busca entre núcleos.
+ * <p>
+ * Cada thread de busca reivindica o próximo "bilhete" de um contador atômico;
+ * o bilhete define o tamanho em bits do primo, alternando entre os tamanhos
+ * pedidos. Cada thread mantém seus próprios geradores, e o testador é
+ * compartilhado. Os primos encontrados passam por uma fila limitada até a thread
+ * que chamou {@link #run}, a única que escreve na saída. Como a fila é limitada e
+ * nada é acumulado, o uso de memória não depende da quantidade pedida.
+ */
+public class BulkGenerator {
+
+    /**
+     * Quantos primos cada thread pode deixar na fila antes de bloquear.
+     */
+    private static final int QUEUE_SLOTS_PER_THREAD = 64;
+
+    /**
+     * Intervalo entre as linhas de progresso.
+     */
+    private static final long PROGRESS_INTERVAL_NS = 1_000_000_000L;
+
+    private final Class<? extends PseudoRandomGenerator> generatorClass;
+    private final PrimalityTester tester;
+    private final int certainty;
+    private final int threads;
+
+    /**
+     * @param generatorClass A CLASSE do gerador de candidatos.
+     * @param tester         O testador de primalidade, compartilhado pelas threads.
+     * @param certainty      O parâmetro de certeza do teste.
+     * @param threads        O número de threads de busca.
+     */
+    public BulkGenerator(Class<? extends PseudoRandomGenerator> generatorClass,
+                         PrimalityTester tester,
+                         int certainty,
+                         int threads) {
+        this.generatorClass = generatorClass;
+        this.tester = tester;
+        this.certainty = certainty;
+        this.threads = threads;
+    }
+
+    /**
+     * Gera {@code countPerLength} primos de cada tamanho em {@code bitLengths} e os
+     * escreve em {@code writer} na ordem em que são encontrados.
+     *
+     * @param bitLengths     Os tamanhos em bits desejados.
+     * @param countPerLength Quantos primos gerar de cada tamanho.
+     * @param writer         O destino dos primos.
+     * @param progress       Onde imprimir o progresso e o resumo final.
+     * @return O total de primos escritos.
+     * @throws IOException          se a escrita falhar.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public long run(List<Integer> bitLengths, long countPerLength, PrimeWriter writer, PrintStream progress)
+            throws IOException, InterruptedException {
+
+        long total = countPerLength * bitLengths.size();
+        AtomicLong tickets = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        BlockingQueue<BigInteger> found = new ArrayBlockingQueue<>(threads * QUEUE_SLOTS_PER_THREAD);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                Map<Integer, PseudoRandomGenerator> generators = new HashMap<>();
+                try {
+                    long ticket;
+                    while ((ticket = tickets.getAndIncrement()) < total) {
+                        int bitLength = bitLengths.get((int) (ticket % bitLengths.size()));
+                        PseudoRandomGenerator generator = generators.get(bitLength);
+                        if (generator == null) {
+                            generator = generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength);
+                            generators.put(bitLength, generator);
+                        }
+                        found.put(ExperimentRunner.findPrime(tester, generator, certainty));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        pool.shutdown();
+
+        long startTime = System.nanoTime();
+        long lastReport = startTime;
+        long written = 0;
+        try {
+            while (written < total) {
+                BigInteger prime = found.poll(100, TimeUnit.MILLISECONDS);
+                if (prime != null) {
+                    writer.write(prime);
+                    written++;
+                } else if (failure.get() != null) {
+                    throw new IOException("Falha em uma thread de busca", failure.get());
+                }
+
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NS) {
+                    lastReport = now;
+                    progress.printf("Progresso: %d/%d primos (%.1f%%), %.1f primos/s%n",
+                            written, total, 100.0 * written / total, written / ((now - startTime) / 1e9));
+                }
+            }
+            writer.flush();
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        double totalTimeS = (System.nanoTime() - startTime) / 1e9;
+        progress.printf("Concluído: %d primos em %.3f s (%.1f primos/s, %.2f MB escritos)%n",
+                written, totalTimeS, written / totalTimeS, writer.bytesWritten() / 1e6);
+        return written;
+    }
+}
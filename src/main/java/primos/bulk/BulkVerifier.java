@@ -0,0 +1,120 @@
+package primos.bulk;
+
+import primos.io.MappedNumberReader;
+import primos.primality.PrimalityTester;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica em paralelo a primalidade de todos os números de um arquivo.
+ * <p>
+ * A thread que chama {@link #run} lê os números e submete cada teste a um pool.
+ * As tarefas pendentes ficam em uma janela limitada, na ordem de leitura; quando
+ * a janela enche, a tarefa mais antiga é aguardada e seu resultado é escrito.
+ * Assim a saída sai na mesma ordem da entrada e o uso de memória não depende do
+ * tamanho do arquivo.
+ * <p>
+ * A saída tem uma linha por número: {@code 1} se for provavelmente primo,
+ * {@code 0} se for composto.
+ */
+public class BulkVerifier {
+
+    /**
+     * Quantos testes por thread podem estar em andamento ao mesmo tempo.
+     */
+    private static final int WINDOW_PER_THREAD = 16;
+
+    private final PrimalityTester tester;
+    private final int certainty;
+    private final int threads;
+
+    /**
+     * @param tester    O testador de primalidade, compartilhado pelas threads.
+     * @param certainty O parâmetro de certeza do teste.
+     * @param threads   O número de threads de teste.
+     */
+    public BulkVerifier(PrimalityTester tester, int certainty, int threads) {
+        this.tester = tester;
+        this.certainty = certainty;
+        this.threads = threads;
+    }
+
+    /**
+     * Testa todos os números de {@code reader} e escreve os resultados em {@code output}.
+     *
+     * @param reader   A fonte dos números.
+     * @param output   O destino dos resultados.
+     * @param progress Onde imprimir o resumo final.
+     * @return A quantidade de números verificados.
+     * @throws IOException          se a leitura ou a escrita falharem.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public long run(MappedNumberReader reader, WritableByteChannel output, PrintStream progress)
+            throws IOException, InterruptedException {
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Boolean>> pending = new ArrayDeque<>();
+        ByteBuffer results = ByteBuffer.allocateDirect(64 * 1024);
+        int window = threads * WINDOW_PER_THREAD;
+
+        long startTime = System.nanoTime();
+        long total = 0;
+        long primes = 0;
+        try {
+            BigInteger n;
+            while ((n = reader.next()) != null) {
+                BigInteger candidate = n;
+                pending.add(pool.submit(() -> tester.isPrime(candidate, certainty)));
+                if (pending.size() >= window) {
+                    primes += writeResult(pending.poll(), results, output);
+                    total++;
+                }
+            }
+            while (!pending.isEmpty()) {
+                primes += writeResult(pending.poll(), results, output);
+                total++;
+            }
+            results.flip();
+            while (results.hasRemaining()) {
+                output.write(results);
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        double totalTimeS = (System.nanoTime() - startTime) / 1e9;
+        progress.printf("Verificados: %d números (%d primos, %d compostos) em %.3f s (%.1f números/s)%n",
+                total, primes, total - primes, totalTimeS, total / totalTimeS);
+        return total;
+    }
+
+    private int writeResult(Future<Boolean> result, ByteBuffer buffer, WritableByteChannel output)
+            throws IOException, InterruptedException {
+        boolean prime;
+        try {
+            prime = result.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Falha ao testar um número", e.getCause());
+        }
+        if (buffer.remaining() < 2) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                output.write(buffer);
+            }
+            buffer.clear();
+        }
+        buffer.put((byte) (prime ? '1' : '0')).put((byte) '\n');
+        return prime ? 1 : 0;
+    }
+}
@@ -0,0 +1,427 @@
+package primos.distributed;
+
+import primos.io.PrimeWriter;
+import primos.primality.PrimalityTester;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lado coordenador da busca distribuída.
+ * <p>
+ * Os trabalhadores são processos {@code java primos.Main -worker}, iniciados pelo
+ * próprio coordenador (e ligados a ele pela entrada e saída padrão) ou conectados
+ * por TCP, de outra máquina ou de outro terminal. O coordenador divide o espaço de
+ * candidatos em fatias disjuntas ({@link SearchJob}), cada uma começando em um
+ * ponto sorteado de um {@link SecureRandom}, e mantém até {@link #JOBS_PER_WORKER}
+ * fatias pendentes por trabalhador.
+ * <p>
+ * Se um trabalhador cai (fim do fluxo, erro de E/S ou processo encerrado), as
+ * fatias que estavam com ele voltam para a fila e são redistribuídas aos demais.
+ * Como uma fatia refeita pode repetir primos já recebidos, os primos são
+ * deduplicados antes de serem gravados.
+ * <p>
+ * Nada do que um trabalhador envia é aceito sem conferência: um primo só é gravado
+ * se pertencer a uma fatia pendente do próprio trabalhador, tiver o tamanho pedido e
+ * passar pelo testador do coordenador. Uma linha malformada ou um primo recusado
+ * derruba a conexão, e as fatias dela são redistribuídas como numa queda. Por isso, e
+ * porque não há autenticação, {@link #listen(int)} escuta apenas em {@code localhost};
+ * aceitar máquinas de fora é uma escolha explícita, com {@link #listen(InetAddress, int)}.
+ * <p>
+ * Toda a comunicação com os trabalhadores é feita pela thread que chama
+ * {@link #run}; cada conexão tem apenas uma thread leitora, que repassa as
+ * mensagens por uma fila.
+ */
+public class SearchCoordinator implements Closeable {
+
+    /**
+     * Fatias pendentes por trabalhador: uma em andamento e uma na fila, para que
+     * o trabalhador não fique ocioso esperando a próxima.
+     */
+    static final int JOBS_PER_WORKER = 2;
+
+    private static final long PROGRESS_INTERVAL_NS = 1_000_000_000L;
+
+    private final PrimalityTester tester;
+    private final int bitLength;
+    private final int certainty;
+    private final boolean safe;
+    private final int sliceLength;
+    private final SecureRandom random = new SecureRandom();
+
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+    private ServerSocket serverSocket;
+    private int nextConnectionId;
+    /**
+     * Conexões registradas cuja leitora ainda não terminou e que não foram derrubadas.
+     */
+    private final AtomicInteger liveConnections = new AtomicInteger();
+
+    /**
+     * @param tester      O testador com que os primos recebidos são conferidos.
+     * @param bitLength   Tamanho em bits dos primos.
+     * @param certainty   Parâmetro de certeza do teste de primalidade.
+     * @param safe        Se {@code true}, procura primos seguros.
+     * @param sliceLength Quantos candidatos cada fatia cobre.
+     */
+    public SearchCoordinator(PrimalityTester tester, int bitLength, int certainty, boolean safe, int sliceLength) {
+        this.tester = tester;
+        this.bitLength = bitLength;
+        this.certainty = certainty;
+        this.safe = safe;
+        this.sliceLength = sliceLength;
+    }
+
+    /**
+     * Inicia trabalhadores locais, executando esta mesma aplicação com {@code -worker}.
+     * O java, as opções da JVM e o classpath são os do processo atual; a saída de erro dos filhos é
+     * herdada, para que suas falhas apareçam no terminal.
+     *
+     * @param workers    Quantos processos iniciar.
+     * @param testerName O nome do testador, como na linha de comando.
+     * @throws IOException se algum processo não puder ser iniciado.
+     */
+    public void spawnLocalWorkers(int workers, String testerName) throws IOException {
+        String java = ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        // repete as opções da JVM atual (ex: --add-modules jdk.incubator.vector)
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), "primos.Main", "-worker", testerName));
+        for (int i = 0; i < workers; i++) {
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            processes.add(process);
+            connect(process.getInputStream(), process.getOutputStream(), "processo " + process.pid(),
+                    process::destroyForcibly);
+        }
+    }
+
+    /**
+     * Aceita trabalhadores ({@code -worker -connect=localhost:porta}) da própria máquina em segundo plano.
+     *
+     * @param port A porta TCP, ou 0 para uma porta livre.
+     * @return A porta efetivamente usada.
+     * @throws IOException se a porta não puder ser aberta.
+     */
+    public int listen(int port) throws IOException {
+        return listen(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Aceita trabalhadores remotos ({@code -worker -connect=host:porta}) em segundo plano.
+     * Qualquer um que alcance o endereço pode se oferecer como trabalhador.
+     *
+     * @param address O endereço local, como {@code 0.0.0.0} para todas as interfaces.
+     * @param port    A porta TCP, ou 0 para uma porta livre.
+     * @return A porta efetivamente usada.
+     * @throws IOException se a porta não puder ser aberta.
+     */
+    public int listen(InetAddress address, int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, address);
+        Thread acceptor = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    socket.setTcpNoDelay(true);
+                    connect(socket.getInputStream(), socket.getOutputStream(),
+                            "socket " + socket.getRemoteSocketAddress(), socket);
+                } catch (IOException e) {
+                    // servidor fechado em close()
+                }
+            }
+        }, "coordenador-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Registra um trabalhador ligado por um par de fluxos, criando a sua thread leitora.
+     * Pode ser chamado de qualquer thread; a conexão só entra na lista pela fila de
+     * eventos, quando o trabalhador envia {@code READY}.
+     *
+     * @param input       As mensagens do trabalhador.
+     * @param output      Para onde vão as fatias.
+     * @param description Como o trabalhador aparece no progresso.
+     * @param link        Fechado quando a conexão é derrubada (o socket, o processo etc.).
+     */
+    void connect(InputStream input, OutputStream output, String description, Closeable link) {
+        Connection connection;
+        synchronized (this) {
+            connection = new Connection(nextConnectionId++, description,
+                    new OutputStreamWriter(output, StandardCharsets.US_ASCII), link);
+        }
+        liveConnections.incrementAndGet();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII))) {
+                String line;
+                while (!connection.dropped && (line = in.readLine()) != null) {
+                    events.add(new Event(connection, line));
+                }
+            } catch (IOException e) {
+                // tratado como queda do trabalhador
+            }
+            events.add(new Event(connection, null));
+        }, "coordenador-leitor-" + connection.id);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Distribui fatias até que {@code count} primos distintos tenham sido gravados.
+     *
+     * @param count    Quantos primos encontrar.
+     * @param writer   Onde gravar os primos.
+     * @param progress Onde imprimir o progresso e as quedas de trabalhadores.
+     * @return Quantos candidatos foram testados ao todo, incluindo fatias refeitas.
+     * @throws IOException          se a gravação falhar ou se não restar trabalhador algum.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public long run(long count, PrimeWriter writer, PrintStream progress) throws IOException, InterruptedException {
+        ArrayDeque<SearchJob> retry = new ArrayDeque<>();
+        Set<BigInteger> found = new HashSet<>();
+        long nextJobId = 0;
+        long tested = 0;
+
+        long lastReport = System.nanoTime();
+        while (found.size() < count) {
+            Event event = events.poll(100, TimeUnit.MILLISECONDS);
+            if (event != null && event.line == null) {
+                // trabalhador caiu: devolve suas fatias para a fila
+                if (!event.connection.dropped) {
+                    drop(event.connection, retry, progress, "caiu");
+                }
+            } else if (event != null && !event.connection.dropped) {
+                try {
+                    tested += handle(event.connection, event.line, count, found, writer, progress);
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    drop(event.connection, retry, progress, "enviou uma mensagem inválida (" + e.getMessage() + ")");
+                }
+            }
+
+            if (liveConnections.get() == 0 && serverSocket == null) {
+                throw new IOException("Todos os trabalhadores caíram antes de terminar a busca.");
+            }
+
+            // completa as filas dos trabalhadores, primeiro com as fatias a refazer
+            for (Connection connection : new ArrayList<>(connections)) {
+                while (connection.jobs.size() < JOBS_PER_WORKER && found.size() < count) {
+                    SearchJob job = retry.isEmpty() ? newJob(nextJobId++) : retry.poll();
+                    if (!connection.send(job.toLine())) {
+                        retry.addFirst(job);
+                        break; // a leitora vai notar a queda e gerar o evento
+                    }
+                    connection.jobs.add(job);
+                }
+            }
+
+            long now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NS) {
+                lastReport = now;
+                progress.printf("Progresso: %d/%d primos, %d trabalhador(es), %d candidatos testados%n",
+                        found.size(), count, connections.size(), tested);
+            }
+        }
+        writer.flush();
+        return tested;
+    }
+
+    /**
+     * Trata uma linha de um trabalhador.
+     *
+     * @return Quantos candidatos a mensagem relata como testados.
+     * @throws IllegalArgumentException se a linha estiver malformada ou relatar um primo
+     *                                  que não pertence a uma fatia pendente do trabalhador.
+     */
+    private long handle(Connection connection, String line, long count, Set<BigInteger> found,
+                        PrimeWriter writer, PrintStream progress) throws IOException {
+        String[] parts = line.split(" ", 3);
+        switch (parts[0]) {
+            case "READY":
+                if (parts.length != 1 || connection.ready) {
+                    throw new IllegalArgumentException("READY inesperado");
+                }
+                connection.ready = true;
+                connections.add(connection);
+                return 0;
+            case "PRIME": {
+                SearchJob job = pendingJob(connection, parts, 3);
+                BigInteger prime = new BigInteger(parts[2], 16);
+                if (!job.contains(prime) || !job.isHit(tester, prime)) {
+                    throw new IllegalArgumentException("primo recusado na fatia " + job.id());
+                }
+                if (found.size() < count && found.add(prime)) {
+                    writer.write(prime);
+                }
+                return 0;
+            }
+            case "DONE": {
+                SearchJob job = pendingJob(connection, parts, 3);
+                long tested = Long.parseLong(parts[2]);
+                if (tested < 0 || tested > job.count()) {
+                    throw new IllegalArgumentException("contagem inválida na fatia " + job.id());
+                }
+                connection.jobs.remove(job);
+                return tested;
+            }
+            case "ERROR": {
+                if (parts.length < 2 || parts[1].equals("-")) {
+                    // o trabalhador não leu uma fatia nossa: não há como saber qual ficou pendente
+                    throw new IllegalArgumentException("ERROR " + (parts.length == 3 ? parts[2] : ""));
+                }
+                // a fatia falhou e não terá DONE; uma fatia nova, com outro início, toma o lugar dela
+                SearchJob job = pendingJob(connection, parts, 2);
+                connection.jobs.remove(job);
+                progress.println("Trabalhador " + connection.description + ": fatia " + job.id()
+                        + " descartada: " + (parts.length == 3 ? parts[2] : ""));
+                return 0;
+            }
+            default:
+                throw new IllegalArgumentException("mensagem desconhecida");
+        }
+    }
+
+    /**
+     * A fatia pendente do trabalhador cujo id está em {@code parts[1]}.
+     */
+    private static SearchJob pendingJob(Connection connection, String[] parts, int minParts) {
+        if (!connection.ready || parts.length < minParts) {
+            throw new IllegalArgumentException("campos faltando");
+        }
+        long jobId = Long.parseLong(parts[1]);
+        for (SearchJob job : connection.jobs) {
+            if (job.id() == jobId) {
+                return job;
+            }
+        }
+        throw new IllegalArgumentException("fatia " + jobId + " não está com o trabalhador");
+    }
+
+    /**
+     * Derruba a conexão, devolvendo as suas fatias para a fila.
+     */
+    private void drop(Connection connection, ArrayDeque<SearchJob> retry, PrintStream progress, String reason) {
+        connection.dropped = true;
+        liveConnections.decrementAndGet();
+        connections.remove(connection);
+        retry.addAll(connection.jobs);
+        progress.printf("Trabalhador %s %s; %d fatia(s) redistribuída(s)%n",
+                connection.description, reason, connection.jobs.size());
+        connection.jobs.clear();
+        try {
+            connection.link.close();
+        } catch (IOException e) {
+            // a conexão já está sendo descartada
+        }
+    }
+
+    /**
+     * Sorteia o início de uma nova fatia, com o bit mais alto ligado.
+     */
+    private SearchJob newJob(long id) {
+        BigInteger start = new BigInteger(bitLength, random).setBit(bitLength - 1);
+        return new SearchJob(id, bitLength, certainty, safe, start, sliceLength);
+    }
+
+    /**
+     * Pede aos trabalhadores que parem, fecha as conexões e encerra os processos filhos.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Connection connection : connections) {
+            connection.send("STOP");
+        }
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Estado de um trabalhador, acessado apenas pela thread de {@link #run}.
+     */
+    private static final class Connection {
+        final int id;
+        final String description;
+        final Writer out;
+        final Closeable link;
+        final List<SearchJob> jobs = new ArrayList<>();
+        boolean ready;
+        /**
+         * Lido também pela thread leitora, que para de repassar linhas.
+         */
+        volatile boolean dropped;
+
+        Connection(int id, String description, Writer out, Closeable link) {
+            this.id = id;
+            this.description = description;
+            this.out = out;
+            this.link = link;
+        }
+
+        /**
+         * Envia uma linha, devolvendo {@code false} se a conexão já tiver caído.
+         */
+        boolean send(String line) {
+            try {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Uma linha recebida de um trabalhador; {@code line == null} indica a queda da conexão.
+     */
+    private static final class Event {
+        final Connection connection;
+        final String line;
+
+        Event(Connection connection, String line) {
+            this.connection = connection;
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package primos.distributed;
+
+import primos.primality.PrimalityTester;
+
+import java.math.BigInteger;
+
+/**
+ * Uma fatia do espaço de candidatos, enviada pelo coordenador a um trabalhador.
+ * <p>
+ * A fatia cobre até {@code count} candidatos a partir de {@code start}: ímpares
+ * consecutivos na busca comum e, na busca de primos seguros, os números
+ * {@code ≡ 11 (mod 12)}, únicos que podem ser primos seguros maiores que 7.
+ * O trabalhador para no primeiro primo, de modo que cada primo vem de um início
+ * sorteado independente, como em {@code ExperimentRunner.findPrime}; uma fatia
+ * sem primos apenas termina e dá lugar a outra.
+ * Na linha de protocolo, a fatia é
+ * {@code JOB <id> <bits> <certeza> <seguro 0|1> <início em hex> <quantidade>}.
+ */
+public final class SearchJob {
+
+    private static final BigInteger TWELVE = BigInteger.valueOf(12);
+    private static final BigInteger ELEVEN = BigInteger.valueOf(11);
+
+    private final long id;
+    private final int bitLength;
+    private final int certainty;
+    private final boolean safe;
+    private final BigInteger start;
+    private final int count;
+
+    public SearchJob(long id, int bitLength, int certainty, boolean safe, BigInteger start, int count) {
+        this.id = id;
+        this.bitLength = bitLength;
+        this.certainty = certainty;
+        this.safe = safe;
+        this.start = start;
+        this.count = count;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public int bitLength() {
+        return bitLength;
+    }
+
+    public int certainty() {
+        return certainty;
+    }
+
+    /**
+     * Indica se a fatia procura primos seguros ({@code p} e {@code (p - 1) / 2} primos).
+     */
+    public boolean safe() {
+        return safe;
+    }
+
+    public BigInteger start() {
+        return start;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * O primeiro candidato da fatia: o ímpar a partir de {@link #start()} ou, na busca de
+     * primos seguros, o primeiro número {@code ≡ 11 (mod 12)} a partir dele.
+     */
+    public BigInteger firstCandidate() {
+        if (safe) {
+            // p = 3 (mod 4) e p = 2 (mod 3)
+            int offset = (11 - start.mod(TWELVE).intValue() + 12) % 12;
+            return start.add(BigInteger.valueOf(offset));
+        }
+        return start.setBit(0);
+    }
+
+    /**
+     * A distância entre candidatos consecutivos: 2, ou 12 na busca de primos seguros.
+     */
+    public BigInteger step() {
+        return safe ? TWELVE : BigInteger.TWO;
+    }
+
+    /**
+     * Indica se {@code n} é um dos candidatos da fatia, com o tamanho em bits pedido.
+     */
+    public boolean contains(BigInteger n) {
+        if (n.bitLength() != bitLength) {
+            return false;
+        }
+        BigInteger offset = n.subtract(firstCandidate());
+        if (offset.signum() < 0) {
+            return false;
+        }
+        BigInteger[] position = offset.divideAndRemainder(step());
+        return position[1].signum() == 0 && position[0].compareTo(BigInteger.valueOf(count)) < 0;
+    }
+
+    /**
+     * Indica se o candidato é o que a fatia procura: um primo ou, na busca de primos
+     * seguros, um primo {@code p} com {@code (p - 1) / 2} também primo.
+     */
+    public boolean isHit(PrimalityTester tester, BigInteger candidate) {
+        if (safe) {
+            // o primo de Sophie Germain (p - 1) / 2 é testado primeiro: a maioria falha nele
+            return candidate.mod(TWELVE).equals(ELEVEN)
+                    && tester.isPrime(candidate.shiftRight(1), certainty)
+                    && tester.isPrime(candidate, certainty);
+        }
+        return tester.isPrime(candidate, certainty);
+    }
+
+    /**
+     * Serializa a fatia como uma linha do protocolo, sem a quebra de linha.
+     */
+    public String toLine() {
+        return "JOB " + id + " " + bitLength + " " + certainty + " " + (safe ? 1 : 0) + " "
+                + start.toString(16) + " " + count;
+    }
+
+    /**
+     * Lê uma fatia de uma linha {@code JOB ...}.
+     *
+     * @throws IllegalArgumentException se a linha estiver malformada.
+     */
+    public static SearchJob parse(String line) {
+        String[] parts = line.trim().split(" ");
+        if (parts.length != 7 || !parts[0].equals("JOB")) {
+            throw new IllegalArgumentException("Linha de fatia inválida: " + line);
+        }
+        SearchJob job = new SearchJob(
+                Long.parseLong(parts[1]),
+                Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[3]),
+                parts[4].equals("1"),
+                new BigInteger(parts[5], 16),
+                Integer.parseInt(parts[6]));
+        if (job.bitLength < 2 || job.certainty < 1 || job.count < 1 || job.start.signum() <= 0) {
+            throw new IllegalArgumentException("Fatia fora dos limites: " + line);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,103 @@
+package primos.distributed;
+
+import primos.primality.PrimalityTester;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lado trabalhador da busca distribuída.
+ * <p>
+ * Lê fatias ({@link SearchJob}) de um fluxo de entrada e responde no fluxo de
+ * saída, uma mensagem por linha. O mesmo laço serve para um processo filho
+ * (entrada e saída padrão, como um pipe) e para um trabalhador remoto conectado
+ * por socket ao coordenador. Mensagens enviadas:
+ * <ul>
+ *     <li>{@code READY}: pronto para receber fatias (enviada ao iniciar);</li>
+ *     <li>{@code PRIME <id> <primo em hex>}: um primo encontrado na fatia {@code id};</li>
+ *     <li>{@code DONE <id> <testados>}: a fatia terminou;</li>
+ *     <li>{@code ERROR <id> <mensagem>}: a fatia {@code id} falhou e não terá {@code DONE};
+ *     {@code id} é {@code -} se a linha recebida nem chegou a ser lida como fatia.</li>
+ * </ul>
+ * A linha {@code STOP}, ou o fim da entrada, encerra o trabalhador.
+ */
+public class SearchWorker {
+
+    private final PrimalityTester tester;
+
+    /**
+     * @param tester O testador de primalidade.
+     */
+    public SearchWorker(PrimalityTester tester) {
+        this.tester = tester;
+    }
+
+    /**
+     * Atende fatias até receber {@code STOP} ou até o fim da entrada.
+     *
+     * @param input  De onde vêm as fatias.
+     * @param output Para onde vão os resultados.
+     * @throws IOException se a comunicação com o coordenador falhar.
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII));
+        Writer out = new OutputStreamWriter(output, StandardCharsets.US_ASCII);
+        send(out, "READY");
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals("STOP")) {
+                return;
+            }
+            SearchJob job;
+            try {
+                job = SearchJob.parse(line);
+            } catch (IllegalArgumentException e) {
+                send(out, "ERROR - " + e.getMessage());
+                continue;
+            }
+            try {
+                long tested = search(job, out);
+                send(out, "DONE " + job.id() + " " + tested);
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                send(out, "ERROR " + job.id() + " " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Percorre a fatia até o primeiro primo, que é enviado assim que aparece.
+     *
+     * @return Quantos candidatos foram testados.
+     */
+    private long search(SearchJob job, Writer out) throws IOException {
+        BigInteger candidate = job.firstCandidate();
+        BigInteger step = job.step();
+
+        long tested = 0;
+        for (int i = 0; i < job.count(); i++, candidate = candidate.add(step)) {
+            if (candidate.bitLength() != job.bitLength()) {
+                break; // a fatia passou do tamanho pedido
+            }
+            tested++;
+            if (job.isHit(tester, candidate)) {
+                send(out, "PRIME " + job.id() + " " + candidate.toString(16));
+                break;
+            }
+        }
+        return tested;
+    }
+
+    private static void send(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+    }
+}
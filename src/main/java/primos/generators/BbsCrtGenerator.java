@@ -0,0 +1,18 @@
+package primos.generators;
+
+/**
+ * O {@link BbsGenerator} no modo CRT, com um construtor {@code (int bitLength)} para
+ * poder ser escolhido pelo nome {@code BBS-CRT}, como os demais geradores.
+ * <p>
+ * Produz a mesma sequência de bits que o BBS comum com os mesmos p, q e semente,
+ * mas cada passo eleva ao quadrado módulo p e módulo q, com a metade da largura.
+ */
+public class BbsCrtGenerator extends BbsGenerator {
+
+    /**
+     * @param bitLength O tamanho (em bits) de cada número aleatório a ser gerado.
+     */
+    public BbsCrtGenerator(int bitLength) {
+        super(bitLength, true);
+    }
+}
@@ -1,10 +1,15 @@
 package primos.generators;
 
+import primos.math.MontgomeryKernel;
+
 import java.math.BigInteger;
-// Removido: import java.security.SecureRandom;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random; // Importa a classe Random padrão
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementação do gerador de números pseudo-aleatórios Blum Blum Shub (BBS).
@@ -12,6 +17,15 @@ import java.util.Random; // Importa a classe Random padrão
  * O BBS é um gerador criptograficamente seguro, baseado na dificuldade de
  * fatorar inteiros. Sua fórmula de geração é: X_n+1 = (X_n)^2 mod M.
  * <p>
+ * No modo CRT ({@link BbsCrtGenerator}), o estado é guardado como os restos
+ * X mod p e X mod q, e cada passo faz dois quadrados com a metade da largura em
+ * vez de um quadrado módulo M. O bit de saída, que depende de X inteiro, vem da
+ * recombinação de Garner: X = Xq + q * ((Xp - Xq) * q^-1 mod p). Como q é ímpar,
+ * o LSB de X é o LSB de Xq xor o LSB de (Xp - Xq) * q^-1 mod p, então basta uma
+ * multiplicação módulo p por bit. Os restos ficam na forma de Montgomery, em um
+ * {@link MontgomeryKernel} para p e outro para q, tanto em {@link #generate} quanto
+ * em {@link #fill}. A sequência de bits é idêntica à do modo comum.
+ * <p>
  * Referência: Blum, L., Blum, M., & Shub, M. (1986). A Simple Unpredictable
  * Pseudo-Random Number Generator. SIAM Journal on Computing, 15(2), 364–383.
  */
@@ -23,10 +37,28 @@ public class BbsGenerator implements PseudoRandomGenerator {
     private final BigInteger m;
 
     /**
-     * O estado atual do gerador (X_n).
+     * Se {@code true}, o estado é mantido como restos módulo p e q (modo CRT).
+     */
+    private final boolean crt;
+
+    /**
+     * O estado atual do gerador (X_n). No modo CRT, vale só na construção: o estado
+     * passa a ser {@code stateP} e {@code stateQ}.
      */
     private BigInteger currentState;
 
+    // estado do modo CRT; todos nulos no modo comum
+    private final MontgomeryKernel kernelP;
+    private final MontgomeryKernel kernelQ;
+    private final int[] modulusP;
+    private final int[] qInverseM; // q^-1 * R mod p, o coeficiente de Garner na forma de Montgomery
+    private final int[] stateP;    // X_n * R mod p
+    private final int[] stateQ;    // X_n * R mod q
+    private final int[] plainP;
+    private final int[] plainQ;
+    private final int[] difference;
+    private final int[] garner;
+
     /**
      * O tamanho em bits dos números que serão gerados.
      */
@@ -37,6 +69,21 @@ public class BbsGenerator implements PseudoRandomGenerator {
     private static final BigInteger FOUR = BigInteger.valueOf(4);
     private static final BigInteger TWO = BigInteger.valueOf(2);
 
+    /**
+     * Certeza do isProbablePrime na busca de p e q (erro menor que 2^-100, como o probablePrime).
+     */
+    private static final int BLUM_PRIME_CERTAINTY = 100;
+
+    /**
+     * Abaixo deste tamanho de primo, a busca peneirada não compensa e usa-se o probablePrime.
+     */
+    private static final int MIN_SIEVED_BITS = 32;
+
+    /**
+     * Primos ímpares usados para peneirar os candidatos a primo de Blum.
+     */
+    private static final int[] SIEVE_PRIMES = smallOddPrimes(1 << 14);
+
     /**
      * Construtor para o gerador Blum Blum Shub.
      * <p>
@@ -46,26 +93,98 @@ public class BbsGenerator implements PseudoRandomGenerator {
      * @param bitLength O tamanho (em bits) de cada número aleatório a ser gerado.
      */
     public BbsGenerator(int bitLength) {
+        this(bitLength, false);
+    }
+
+    /**
+     * Cria o gerador no modo comum ou no modo CRT; a inicialização é a mesma.
+     *
+     * @param bitLength O tamanho (em bits) de cada número aleatório a ser gerado.
+     * @param crt       Se {@code true}, eleva ao quadrado módulo p e q separadamente.
+     */
+    public BbsGenerator(int bitLength, boolean crt) {
+        this(randomSetup(bitLength), bitLength, crt);
+    }
+
+    /**
+     * Cria o gerador com primos e semente conhecidos, para comparar os dois modos.
+     *
+     * @param p         Um primo ≡ 3 (mod 4).
+     * @param q         Outro primo ≡ 3 (mod 4), diferente de p e com o mesmo número de bits.
+     * @param seed      O estado inicial X_0, coprimo com p * q.
+     * @param bitLength O tamanho (em bits) de cada número aleatório a ser gerado.
+     * @param crt       Se {@code true}, usa o modo CRT.
+     */
+    BbsGenerator(BigInteger p, BigInteger q, BigInteger seed, int bitLength, boolean crt) {
+        this(new BigInteger[]{p, q, seed}, bitLength, crt);
+    }
+
+    private BbsGenerator(BigInteger[] setup, int bitLength, boolean crt) {
+        BigInteger p = setup[0];
+        BigInteger q = setup[1];
+        this.m = p.multiply(q);
+        this.bitLength = bitLength;
+        this.crt = crt;
+        this.currentState = setup[2];
+        if (crt) {
+            this.kernelP = new MontgomeryKernel(p);
+            this.kernelQ = new MontgomeryKernel(q);
+            this.modulusP = kernelP.newElement();
+            kernelP.load(p, modulusP);
+            this.qInverseM = kernelP.newElement();
+            kernelP.load(q.modInverse(p), qInverseM);
+            kernelP.toMontgomery(qInverseM, qInverseM);
+            this.stateP = kernelP.newElement();
+            kernelP.load(currentState.mod(p), stateP);
+            kernelP.toMontgomery(stateP, stateP);
+            this.stateQ = kernelQ.newElement();
+            kernelQ.load(currentState.mod(q), stateQ);
+            kernelQ.toMontgomery(stateQ, stateQ);
+            this.plainP = kernelP.newElement();
+            this.plainQ = kernelQ.newElement();
+            this.difference = kernelP.newElement();
+            this.garner = kernelP.newElement();
+        } else {
+            this.kernelP = null;
+            this.kernelQ = null;
+            this.modulusP = null;
+            this.qInverseM = null;
+            this.stateP = null;
+            this.stateQ = null;
+            this.plainP = null;
+            this.plainQ = null;
+            this.difference = null;
+            this.garner = null;
+        }
+    }
+
+    /**
+     * Sorteia p, q e a semente: devolve {@code {p, q, x0}}.
+     */
+    private static BigInteger[] randomSetup(int bitLength) {
         if (bitLength < 2) {
             throw new IllegalArgumentException("O tamanho em bits deve ser pelo menos 2.");
         }
-        this.bitLength = bitLength;
 
-        Random rand = new Random(System.nanoTime());
+        // Semente e candidatos vêm de uma fonte de entropia do sistema, não do relógio.
+        SecureRandom rand = new SecureRandom();
 
         // Encontrar dois primos grandes, p e q, distintos.
         // Ambos devem ser congruentes a 3 (mod 4).
         // Para que M = p*q tenha 'bitLength' bits, p e q devem ter ~bitLength/2 bits.
         int primeBitLength = bitLength / 2;
 
+        // q é procurado em outra thread enquanto esta procura p.
+        CompletableFuture<BigInteger> qSearch =
+                CompletableFuture.supplyAsync(() -> findBlumPrime(primeBitLength, rand));
         BigInteger p = findBlumPrime(primeBitLength, rand);
-        BigInteger q;
-        do {
+        BigInteger q = qSearch.join();
+        while (p.equals(q)) { // Garante que p e q são diferentes.
             q = findBlumPrime(primeBitLength, rand);
-        } while (p.equals(q)); // Garante que p e q são diferentes.
+        }
 
         // Calcular o módulo M = p * q.
-        this.m = p.multiply(q);
+        BigInteger m = p.multiply(q);
 
         // Escolher uma semente 's' (ou x0).
         // A semente deve ser um inteiro aleatório e coprimo com M.
@@ -75,25 +194,84 @@ public class BbsGenerator implements PseudoRandomGenerator {
             x = new BigInteger(bitLength, rand);
         } while (x.equals(BigInteger.ZERO) || x.equals(BigInteger.ONE));
 
-        this.currentState = x.modPow(TWO, this.m);
+        return new BigInteger[]{p, q, x.modPow(TWO, m)};
     }
 
     /**
      * Método auxiliar para encontrar um número primo 'p' que satisfaça a
      * condição p ≡ 3 (mod 4). Vide relatório.
+     * <p>
+     * Em vez de sortear primos quaisquer e descartar metade deles, sorteia uma base
+     * com os dois bits mais altos ligados (para que p*q tenha o tamanho completo) e
+     * os dois mais baixos iguais a 11, e percorre os candidatos base + 4k, que são
+     * todos ≡ 3 (mod 4). Uma janela desses candidatos é antes peneirada pelos primos
+     * pequenos, e só os que sobram passam pelo teste de primalidade.
      *
      * @param bitLength O número de bits desejado para o primo.
      * @param rand      A fonte de aleatoriedade.
      * @return Um BigInteger que é um provável primo e satisfaz a condição.
      */
-    private BigInteger findBlumPrime(int bitLength, Random rand) {
-        BigInteger p;
-        do {
-            // Gera um número que é provavelmente primo.
-            p = BigInteger.probablePrime(bitLength, rand);
-            // Verifica se ele atende à condição de Blum: p % 4 == 3
-        } while (!p.mod(FOUR).equals(THREE));
-        return p;
+    static BigInteger findBlumPrime(int bitLength, Random rand) {
+        if (bitLength < MIN_SIEVED_BITS) {
+            BigInteger p;
+            do {
+                // Gera um número que é provavelmente primo.
+                p = BigInteger.probablePrime(bitLength, rand);
+                // Verifica se ele atende à condição de Blum: p % 4 == 3
+            } while (!p.mod(FOUR).equals(THREE));
+            return p;
+        }
+
+        int window = Math.max(1024, 4 * bitLength);
+        boolean[] composite = new boolean[window];
+        while (true) {
+            BigInteger base = new BigInteger(bitLength, rand)
+                    .setBit(bitLength - 1).setBit(bitLength - 2)
+                    .setBit(1).setBit(0);
+
+            // marca os k em que algum primo pequeno r divide base + 4k
+            Arrays.fill(composite, false);
+            for (int r : SIEVE_PRIMES) {
+                int baseMod = base.mod(BigInteger.valueOf(r)).intValue();
+                long inverseOfTwo = (r + 1) / 2;
+                long inverseOfFour = inverseOfTwo * inverseOfTwo % r;
+                // base + 4k = 0 (mod r)  <=>  k = -base / 4 (mod r)
+                int k = (int) ((r - baseMod) % r * inverseOfFour % r);
+                for (; k < window; k += r) {
+                    composite[k] = true;
+                }
+            }
+
+            for (int k = 0; k < window; k++) {
+                if (composite[k]) {
+                    continue;
+                }
+                BigInteger candidate = base.add(BigInteger.valueOf(4L * k));
+                if (candidate.bitLength() != bitLength) {
+                    break; // passou do tamanho pedido: sorteia outra base
+                }
+                if (candidate.isProbablePrime(BLUM_PRIME_CERTAINTY)) {
+                    return candidate;
+                }
+            }
+        }
+    }
+
+    /**
+     * Primos ímpares menores que {@code limit}, por um crivo simples.
+     */
+    private static int[] smallOddPrimes(int limit) {
+        boolean[] composite = new boolean[limit];
+        List<Integer> primes = new ArrayList<>();
+        for (int i = 3; i < limit; i += 2) {
+            if (!composite[i]) {
+                primes.add(i);
+                for (long j = (long) i * i; j < limit; j += 2L * i) {
+                    composite[(int) j] = true;
+                }
+            }
+        }
+        return primes.stream().mapToInt(Integer::intValue).toArray();
     }
 
     /**
@@ -108,20 +286,38 @@ public class BbsGenerator implements PseudoRandomGenerator {
         BigInteger result = BigInteger.ZERO;
 
         for (int i = 0; i < this.bitLength; i++) {
-            // Passo de geração: X_n+1 = (X_n)^2 mod M
-            this.currentState = this.currentState.modPow(TWO, this.m);
-
-            // O bit pseudo-aleatório é o bit menos significativo (LSB) do estado atual.
             // Para construir o número final, deslocamos o resultado para a esquerda...
             result = result.shiftLeft(1);
             // ...e adicionamos o novo bit na posição 0.
-            if (this.currentState.testBit(0)) { // testBit(0) retorna true se o LSB for 1.
+            if (this.crt ? nextBitCrt() : nextBit()) {
                 result = result.setBit(0);
             }
         }
         return result;
     }
 
+    private boolean nextBit() {
+        // Passo de geração: X_n+1 = (X_n)^2 mod M
+        this.currentState = this.currentState.modPow(TWO, this.m);
+
+        // O bit pseudo-aleatório é o bit menos significativo (LSB) do estado atual.
+        return this.currentState.testBit(0); // testBit(0) retorna true se o LSB for 1.
+    }
+
+    private boolean nextBitCrt() {
+        // X_n+1 mod p e X_n+1 mod q, cada um com a metade da largura de M
+        kernelP.square(stateP, stateP);
+        kernelQ.square(stateQ, stateQ);
+        kernelP.fromMontgomery(stateP, plainP);
+        kernelQ.fromMontgomery(stateQ, plainQ);
+
+        // Garner: X = Xq + q * h, com h = (Xp - Xq) * q^-1 mod p; LSB(X) = LSB(Xq) xor LSB(h).
+        // O produto de Montgomery por q^-1 * R cancela o R^-1 e deixa h fora da forma de Montgomery.
+        subtractMod(plainP, plainQ, modulusP, difference);
+        kernelP.multiply(difference, qInverseM, garner);
+        return ((plainQ[0] ^ garner[0]) & 1) != 0;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -134,8 +330,81 @@ public class BbsGenerator implements PseudoRandomGenerator {
         return numbers;
     }
 
+    /**
+     * Escreve os bits do BBS direto no buffer, oito por byte, do mais para o menos significativo.
+     * <p>
+     * A sequência de bits é a mesma de {@link #generate}, mas o estado é mantido
+     * na forma de Montgomery em um {@link MontgomeryKernel}, e cada quadrado é
+     * feito no lugar, sem criar objetos. O estado é devolvido a
+     * {@code currentState} no final, então chamadas a {@code generate} e
+     * {@code fill} podem ser intercaladas.
+     */
+    @Override
+    public void fill(ByteBuffer dst) {
+        if (!dst.hasRemaining()) {
+            return;
+        }
+        if (this.crt) {
+            fillCrt(dst);
+            return;
+        }
+        MontgomeryKernel kernel = new MontgomeryKernel(this.m);
+        int[] state = kernel.newElement();
+        int[] plain = kernel.newElement();
+        kernel.load(this.currentState, state);
+        kernel.toMontgomery(state, state);
+
+        while (dst.hasRemaining()) {
+            int b = 0;
+            for (int i = 0; i < 8; i++) {
+                // X_n+1 = (X_n)^2 mod M; o bit de saída é o LSB do estado fora da forma de Montgomery.
+                kernel.square(state, state);
+                kernel.fromMontgomery(state, plain);
+                b = (b << 1) | (plain[0] & 1);
+            }
+            dst.put((byte) b);
+        }
+        this.currentState = kernel.toBigInteger(plain);
+    }
+
+    /**
+     * O {@link #fill} do modo CRT: o estado já está nos kernels, então basta tirar um bit por passo.
+     */
+    private void fillCrt(ByteBuffer dst) {
+        while (dst.hasRemaining()) {
+            int b = 0;
+            for (int i = 0; i < 8; i++) {
+                b = (b << 1) | (nextBitCrt() ? 1 : 0);
+            }
+            dst.put((byte) b);
+        }
+    }
+
+    /**
+     * {@code out = (a - b) mod n}, para {@code a < n} e {@code b < 2n}, palavra a palavra.
+     * p e q têm o mesmo número de bits, então Xq < q < 2p.
+     */
+    private static void subtractMod(int[] a, int[] b, int[] n, int[] out) {
+        long borrow = 0;
+        for (int i = 0; i < n.length; i++) {
+            long d = (a[i] & 0xffffffffL) - (b[i] & 0xffffffffL) + borrow;
+            out[i] = (int) d;
+            borrow = d >> 32;
+        }
+        // soma n enquanto o resultado for negativo: no máximo duas vezes
+        while (borrow < 0) {
+            long carry = 0;
+            for (int i = 0; i < n.length; i++) {
+                long sum = (out[i] & 0xffffffffL) + (n[i] & 0xffffffffL) + carry;
+                out[i] = (int) sum;
+                carry = sum >>> 32;
+            }
+            borrow += carry;
+        }
+    }
+
     @Override
     public String name() {
-        return "BBS";
+        return this.crt ? "BBS-CRT" : "BBS";
     }
 }
\ No newline at end of file
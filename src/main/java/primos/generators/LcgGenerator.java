@@ -1,6 +1,7 @@
 package primos.generators;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,8 +13,21 @@ public class LcgGenerator implements PseudoRandomGenerator {
     private final BigInteger a;
     private final BigInteger c;
     private final BigInteger m;
+    private final int bitLength;
     private BigInteger seed;
 
+    /**
+     * Quantos bytes do número atual (o {@code seed}) o último {@link #fill} não chegou a escrever.
+     */
+    private int pendingBytes;
+
+    /**
+     * Os mesmos parâmetros a e c, como long, para o caminho sem objetos de {@link #fill}.
+     */
+    private static final long A = 6364136223846793005L;
+    private static final long C = 1442695040888963407L;
+    private static final long MASK = 0xffffffffL;
+
     /**
      * Construtor para o Linear Congruential Generator.
      * Trata-se basicamente de constantes pré-definidas, explicadas no relatório,
@@ -26,16 +40,26 @@ public class LcgGenerator implements PseudoRandomGenerator {
         this.c = new BigInteger("1442695040888963407");
 
         this.m = BigInteger.ONE.shiftLeft(bitLength);
+        this.bitLength = bitLength;
 
         // utilizando o tempo atual como seed
         this.seed = new BigInteger(String.valueOf(System.nanoTime()));
     }
 
+    /**
+     * Construtor com semente explícita, para sequências reproduzíveis nos testes.
+     */
+    LcgGenerator(int bitLength, BigInteger seed) {
+        this(bitLength);
+        this.seed = seed.mod(m);
+    }
+
     /**
      * Aplica a fórmula (a * seed + c) % m.
      * @return Próximo número da sequência
      */
     private BigInteger next() {
+        this.pendingBytes = 0;
         this.seed = a.multiply(seed).add(c).mod(m);
         return this.seed;
     }
@@ -51,6 +75,82 @@ public class LcgGenerator implements PseudoRandomGenerator {
         return numbers;
     }
 
+    /**
+     * Escreve a sequência do LCG direto no buffer, sem criar um BigInteger por número.
+     * <p>
+     * O estado é copiado para um vetor de palavras de 32 bits, avançado no lugar com
+     * a mesma fórmula (a * seed + c) mod 2^bitLength, e devolvido ao campo
+     * {@code seed} no final. Cada número ocupa {@code ceil(bitLength / 8)} bytes em
+     * big-endian, então a saída é idêntica à dos números de {@link #generate}
+     * escritos com largura fixa.
+     * <p>
+     * Se o último número não couber inteiro, os bytes que faltam abrem a próxima
+     * chamada, então chamadas sucessivas formam um fluxo contínuo. Uma chamada a
+     * {@link #generate} no meio descarta esse resto.
+     */
+    @Override
+    public void fill(ByteBuffer dst) {
+        int limbs = (bitLength + 31) / 32;
+        int topBits = bitLength - 32 * (limbs - 1);
+        int topMask = topBits == 32 ? -1 : (1 << topBits) - 1;
+        int bytesPerNumber = (bitLength + 7) / 8;
+
+        int[] state = new int[limbs];
+        long[] next = new long[limbs];
+        for (int i = 0; i < limbs * 32; i++) {
+            if (seed.testBit(i)) {
+                state[i / 32] |= 1 << (i % 32);
+            }
+        }
+
+        long a0 = A & MASK;
+        long a1 = A >>> 32;
+        // primeiro, os bytes do número atual que a chamada anterior não escreveu
+        int k = pendingBytes - 1;
+        while (true) {
+            for (; k >= 0 && dst.hasRemaining(); k--) {
+                dst.put((byte) (state[k / 4] >>> (8 * (k % 4))));
+            }
+            if (!dst.hasRemaining()) {
+                break;
+            }
+
+            // next = a * state + c, truncado em 2^(32 * limbs)
+            for (int i = 0; i < limbs; i++) {
+                next[i] = 0;
+            }
+            long carry = 0;
+            for (int i = 0; i < limbs; i++) {
+                long s = next[i] + (state[i] & MASK) * a0 + carry;
+                next[i] = s & MASK;
+                carry = s >>> 32;
+            }
+            carry = 0;
+            for (int i = 0; i + 1 < limbs; i++) {
+                long s = next[i + 1] + (state[i] & MASK) * a1 + carry;
+                next[i + 1] = s & MASK;
+                carry = s >>> 32;
+            }
+            carry = 0;
+            for (int i = 0; i < limbs; i++) {
+                long addend = i == 0 ? C & MASK : i == 1 ? C >>> 32 : 0;
+                long s = next[i] + addend + carry;
+                state[i] = (int) s;
+                carry = s >>> 32;
+            }
+            // ... e reduzido a 2^bitLength
+            state[limbs - 1] &= topMask;
+            k = bytesPerNumber - 1;
+        }
+        pendingBytes = k + 1;
+
+        BigInteger value = BigInteger.ZERO;
+        for (int i = limbs - 1; i >= 0; i--) {
+            value = value.shiftLeft(32).or(BigInteger.valueOf(state[i] & MASK));
+        }
+        this.seed = value;
+    }
+
     @Override
     public String name() {
         return "LCG";
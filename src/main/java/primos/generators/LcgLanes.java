@@ -0,0 +1,33 @@
+package primos.generators;
+
+/**
+ * Avanço em bloco de várias sequências LCG independentes de 64 bits.
+ * <p>
+ * Cada pista {@code i} segue {@code x_i = A * x_i + c_i (mod 2^64)}. A cada passo,
+ * as pistas produzem uma palavra cada, escritas em ordem no destino; assim, as
+ * palavras de saída intercalam as pistas.
+ */
+interface LcgLanes {
+
+    /**
+     * Multiplicador comum a todas as pistas (o mesmo do {@link LcgGenerator}).
+     */
+    long A = 6364136223846793005L;
+
+    /**
+     * Avança as pistas {@code steps} vezes, escrevendo {@code steps * states.length}
+     * palavras em {@code dst} a partir de {@code offset}.
+     *
+     * @param states     O estado de cada pista, atualizado no lugar.
+     * @param increments O incremento (ímpar) de cada pista.
+     * @param dst        O destino das palavras.
+     * @param offset     A posição inicial em {@code dst}.
+     * @param steps      Quantos passos avançar.
+     */
+    void advance(long[] states, long[] increments, long[] dst, int offset, int steps);
+
+    /**
+     * Nome da implementação, para relatórios.
+     */
+    String name();
+}
@@ -1,6 +1,7 @@
 package primos.generators;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public interface PseudoRandomGenerator {
@@ -12,6 +13,28 @@ public interface PseudoRandomGenerator {
      */
     List<BigInteger> generate(int n);
 
+    /**
+     * Preenche o espaço restante de {@code dst} com a saída do gerador, como uma
+     * sequência contínua de bytes.
+     * <p>
+     * A implementação padrão gera um número por vez e escreve seus bytes em
+     * big-endian (sem o byte de sinal); os geradores que precisam de vazão
+     * sobrescrevem este método para escrever direto no buffer, sem criar um objeto
+     * por número. Como ela não guarda estado, se o último número não couber inteiro,
+     * o restante dele é descartado e a próxima chamada começa um número novo. Todos os
+     * geradores deste pacote sobrescrevem o método sem essa perda: o que sobra de uma
+     * chamada abre a seguinte, e a saída não depende do tamanho dos buffers.
+     *
+     * @param dst O buffer de destino; ao final, {@code dst.hasRemaining()} é {@code false}.
+     */
+    default void fill(ByteBuffer dst) {
+        while (dst.hasRemaining()) {
+            byte[] bytes = generate(1).get(0).toByteArray();
+            int offset = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+            dst.put(bytes, offset, Math.min(bytes.length - offset, dst.remaining()));
+        }
+    }
+
     /**
      * Retorna o nome abreviado do gerador para print.
      * @return O nome
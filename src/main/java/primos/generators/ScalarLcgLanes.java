@@ -0,0 +1,25 @@
+package primos.generators;
+
+/**
+ * Implementação escalar de {@link LcgLanes}: um passo de uma pista por vez.
+ * Usada quando o módulo {@code jdk.incubator.vector} não está disponível.
+ */
+final class ScalarLcgLanes implements LcgLanes {
+
+    @Override
+    public void advance(long[] states, long[] increments, long[] dst, int offset, int steps) {
+        int lanes = states.length;
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < lanes; i++) {
+                long x = A * states[i] + increments[i];
+                states[i] = x;
+                dst[offset++] = x;
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "escalar";
+    }
+}
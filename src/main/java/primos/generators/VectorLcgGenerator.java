@@ -0,0 +1,193 @@
+package primos.generators;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LCG de várias pistas, avançadas em paralelo com instruções SIMD.
+ * <p>
+ * Em vez de um único LCG sobre BigInteger, mantém {@link #LANES} geradores
+ * independentes de 64 bits ({@code x = A * x + c_i mod 2^64}, com o mesmo
+ * multiplicador do {@link LcgGenerator} e um incremento ímpar distinto por pista).
+ * A cada passo, todas as pistas produzem uma palavra, e as palavras intercaladas
+ * formam os candidatos largos.
+ * <p>
+ * O avanço das pistas usa a Vector API ({@code jdk.incubator.vector}) quando o
+ * módulo está disponível e recai sobre um laço escalar equivalente caso
+ * contrário. As duas implementações produzem exatamente a mesma sequência.
+ */
+public class VectorLcgGenerator implements PseudoRandomGenerator {
+
+    /**
+     * Número de pistas; múltiplo de 8 para ocupar registradores de 512 bits inteiros.
+     */
+    public static final int LANES = 16;
+
+    /**
+     * Quantos passos são gerados de uma vez para alimentar {@link #generate} e {@link #fill}.
+     */
+    private static final int STEPS_PER_CHUNK = 256;
+
+    private final int bitLength;
+    private final LcgLanes lanes;
+    private final long[] states = new long[LANES];
+    private final long[] increments = new long[LANES];
+
+    private final long[] chunk = new long[LANES * STEPS_PER_CHUNK];
+    private int chunkPosition = chunk.length;
+
+    /**
+     * A última palavra de {@link #fill} e quantos bytes dela ainda não foram escritos.
+     */
+    private long pendingWord;
+    private int pendingBytes;
+
+    /**
+     * Construtor que usa a implementação vetorial, se disponível.
+     *
+     * @param bitLength O tamanho (em bits) de cada número gerado.
+     */
+    public VectorLcgGenerator(int bitLength) {
+        this(bitLength, true);
+    }
+
+    /**
+     * Construtor que permite forçar a implementação escalar, para comparação.
+     *
+     * @param bitLength   O tamanho (em bits) de cada número gerado.
+     * @param allowVector Se {@code false}, usa sempre o laço escalar.
+     */
+    public VectorLcgGenerator(int bitLength, boolean allowVector) {
+        this(bitLength, allowVector, System.nanoTime());
+    }
+
+    /**
+     * Construtor com semente explícita, para sequências reproduzíveis nos testes.
+     */
+    VectorLcgGenerator(int bitLength, boolean allowVector, long seed) {
+        if (bitLength < 1) {
+            throw new IllegalArgumentException("O tamanho em bits deve ser pelo menos 1.");
+        }
+        this.bitLength = bitLength;
+        this.lanes = allowVector ? selectLanes() : new ScalarLcgLanes();
+
+        // sementes e incrementos distintos por pista, derivados da semente
+        for (int i = 0; i < LANES; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            states[i] = mix(seed);
+            increments[i] = mix(seed ^ 0x632BE59BD9B4E019L) | 1;
+        }
+    }
+
+    /**
+     * Tenta carregar a implementação vetorial; sem o módulo incubado, a carga da
+     * classe falha com um {@link LinkageError} e o laço escalar é usado.
+     */
+    private static LcgLanes selectLanes() {
+        try {
+            LcgLanes vector = new VectorLcgLanes();
+            if (LANES % VectorLcgLanes.SPECIES.length() == 0) {
+                return vector;
+            }
+        } catch (LinkageError e) {
+            // módulo jdk.incubator.vector ausente
+        }
+        return new ScalarLcgLanes();
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Nome da implementação em uso ("vetorial" ou "escalar").
+     */
+    public String backend() {
+        return lanes.name();
+    }
+
+    /**
+     * Preenche {@code dst} inteiro com palavras de 64 bits, sem passar pelo buffer interno.
+     * O tamanho de {@code dst} deve ser múltiplo de {@link #LANES}.
+     *
+     * @param dst O destino.
+     */
+    public void fillWords(long[] dst) {
+        if (dst.length % LANES != 0) {
+            throw new IllegalArgumentException("O tamanho do destino deve ser múltiplo de " + LANES + ".");
+        }
+        lanes.advance(states, increments, dst, 0, dst.length / LANES);
+    }
+
+    private long nextWord() {
+        if (chunkPosition == chunk.length) {
+            lanes.advance(states, increments, chunk, 0, STEPS_PER_CHUNK);
+            chunkPosition = 0;
+        }
+        return chunk[chunkPosition++];
+    }
+
+    /**
+     * Monta um número de {@code bitLength} bits a partir de palavras consecutivas.
+     */
+    private BigInteger next() {
+        int bytesPerNumber = (bitLength + 7) / 8;
+        byte[] bytes = new byte[bytesPerNumber];
+        int i = 0;
+        while (i < bytes.length) {
+            long word = nextWord();
+            for (int k = 0; k < 8 && i < bytes.length; k++, i++) {
+                bytes[i] = (byte) (word >>> (56 - 8 * k));
+            }
+        }
+        int extraBits = bytesPerNumber * 8 - bitLength;
+        bytes[0] &= (byte) (0xff >>> extraBits);
+        return new BigInteger(1, bytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BigInteger> generate(int count) {
+        List<BigInteger> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(next());
+        }
+        return numbers;
+    }
+
+    /**
+     * Escreve as palavras intercaladas das pistas direto no buffer, em big-endian.
+     * <p>
+     * Os bytes da última palavra que não couberem ficam guardados e abrem a próxima
+     * chamada, então chamadas sucessivas formam um fluxo contínuo.
+     */
+    @Override
+    public void fill(ByteBuffer dst) {
+        drainPending(dst);
+        while (dst.remaining() >= Long.BYTES) {
+            dst.putLong(nextWord());
+        }
+        if (dst.hasRemaining()) {
+            pendingWord = nextWord();
+            pendingBytes = Long.BYTES;
+            drainPending(dst);
+        }
+    }
+
+    private void drainPending(ByteBuffer dst) {
+        while (pendingBytes > 0 && dst.hasRemaining()) {
+            dst.put((byte) (pendingWord >>> (8 * --pendingBytes)));
+        }
+    }
+
+    @Override
+    public String name() {
+        return "LCG-SIMD";
+    }
+}
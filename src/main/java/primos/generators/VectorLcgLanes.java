@@ -0,0 +1,41 @@
+package primos.generators;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementação de {@link LcgLanes} com a Vector API ({@code jdk.incubator.vector}).
+ * <p>
+ * Cada instrução vetorial avança {@code SPECIES.length()} pistas de uma vez (8 com
+ * AVX-512, 4 com AVX2). O número de pistas deve ser múltiplo desse tamanho.
+ * <p>
+ * Esta classe só é carregada se o módulo estiver presente (a JVM precisa ser
+ * iniciada com {@code --add-modules jdk.incubator.vector}); caso contrário, o
+ * {@link VectorLcgGenerator} recai sobre o {@link ScalarLcgLanes}.
+ */
+final class VectorLcgLanes implements LcgLanes {
+
+    static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void advance(long[] states, long[] increments, long[] dst, int offset, int steps) {
+        int lanes = states.length;
+        int width = SPECIES.length();
+        for (int base = 0; base < lanes; base += width) {
+            LongVector x = LongVector.fromArray(SPECIES, states, base);
+            LongVector c = LongVector.fromArray(SPECIES, increments, base);
+            int position = offset + base;
+            for (int step = 0; step < steps; step++) {
+                x = x.mul(A).add(c);
+                x.intoArray(dst, position);
+                position += lanes;
+            }
+            x.intoArray(states, base);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vetorial (" + SPECIES.length() + " x 64 bits)";
+    }
+}
@@ -0,0 +1,63 @@
+package primos.io;
+
+import java.math.BigInteger;
+
+/**
+ * Exibição truncada de números grandes em decimal ({@code 123...789}) sem converter
+ * o número inteiro com {@link BigInteger#toString()}.
+ * <p>
+ * O número de dígitos sai do tamanho em bits: um número de {@code b} bits tem
+ * {@code floor(b * log10(2)) + 1} dígitos ou um a menos, e uma única comparação com
+ * a potência de 10 correspondente decide entre os dois. Os primeiros dígitos são o
+ * quociente por {@code 10^(dígitos - k)}, uma divisão com quociente pequeno, e os
+ * últimos são o resto por {@code 10^k}. Para 4096 bits, isso custa uma fração da
+ * conversão completa, que só vale a pena quando todos os dígitos serão impressos.
+ */
+public final class DecimalPreview {
+
+    private static final double LOG10_2 = Math.log10(2);
+
+    private DecimalPreview() {
+    }
+
+    /**
+     * Número de dígitos decimais de {@code n}, não negativo.
+     */
+    public static int digitCount(BigInteger n) {
+        if (n.signum() == 0) {
+            return 1;
+        }
+        int upper = (int) (n.bitLength() * LOG10_2) + 1;
+        // 2^(b-1) <= n < 2^b: o número tem 'upper' dígitos, a menos que seja menor que 10^(upper-1)
+        return n.compareTo(BigInteger.TEN.pow(upper - 1)) < 0 ? upper - 1 : upper;
+    }
+
+    /**
+     * Os {@code edgeDigits} primeiros e os {@code edgeDigits} últimos dígitos de {@code n},
+     * separados por {@code ...}; se o número tiver até {@code 2 * edgeDigits} dígitos,
+     * devolve-o inteiro.
+     *
+     * @param n          O número, não negativo.
+     * @param edgeDigits Quantos dígitos mostrar em cada ponta.
+     * @return A representação truncada.
+     */
+    public static String truncate(BigInteger n, int edgeDigits) {
+        if (n.bitLength() * LOG10_2 < 2 * edgeDigits) {
+            return n.toString(); // cabe inteiro: a conversão já é barata
+        }
+        int digits = digitCount(n);
+        if (digits <= 2 * edgeDigits) {
+            return n.toString();
+        }
+        String leading = n.divide(BigInteger.TEN.pow(digits - edgeDigits)).toString();
+        String trailing = n.mod(BigInteger.TEN.pow(edgeDigits)).toString();
+
+        StringBuilder text = new StringBuilder(2 * edgeDigits + 3);
+        text.append(leading).append("...");
+        // o resto perde os zeros à esquerda
+        for (int i = trailing.length(); i < edgeDigits; i++) {
+            text.append('0');
+        }
+        return text.append(trailing).toString();
+    }
+}
@@ -0,0 +1,244 @@
+package primos.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lê números de um arquivo mapeado em memória, sem criar Strings intermediárias.
+ * <p>
+ * O arquivo é mapeado em janelas de tamanho fixo, de modo que arquivos maiores
+ * que o heap (e maiores que os 2 GB de um único {@link MappedByteBuffer}) possam
+ * ser percorridos. Quando um número atravessa o fim da janela, a janela é
+ * remapeada a partir do início desse número.
+ * <p>
+ * Os formatos aceitos são {@code dec}, {@code hex} e {@code raw} de {@link OutputFormat}:
+ * um número decimal ou hexadecimal por linha (linhas vazias são ignoradas, e o
+ * prefixo {@code 0x} é opcional), ou registros binários {@code [int n][n bytes de magnitude]}.
+ */
+public class MappedNumberReader implements Closeable {
+
+    /**
+     * Tamanho padrão de cada janela mapeada.
+     */
+    public static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+
+    /**
+     * Maior potência de 10 que cabe em um long, usada para agrupar dígitos decimais.
+     */
+    private static final int DECIMAL_CHUNK_DIGITS = 18;
+    private static final BigInteger[] POWERS_OF_TEN = new BigInteger[DECIMAL_CHUNK_DIGITS + 1];
+
+    static {
+        for (int i = 0; i <= DECIMAL_CHUNK_DIGITS; i++) {
+            POWERS_OF_TEN[i] = BigInteger.TEN.pow(i);
+        }
+    }
+
+    private final FileChannel channel;
+    private final OutputFormat format;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Abre um arquivo com a janela padrão.
+     *
+     * @param path   O arquivo de entrada.
+     * @param format O formato dos números no arquivo.
+     * @throws IOException se o arquivo não puder ser aberto.
+     */
+    public MappedNumberReader(Path path, OutputFormat format) throws IOException {
+        this(path, format, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Abre um arquivo com um tamanho de janela escolhido.
+     *
+     * @param path       O arquivo de entrada.
+     * @param format     O formato dos números no arquivo.
+     * @param windowSize O tamanho de cada janela mapeada, em bytes.
+     * @throws IOException se o arquivo não puder ser aberto.
+     */
+    public MappedNumberReader(Path path, OutputFormat format, int windowSize) throws IOException {
+        if (format != OutputFormat.DECIMAL && format != OutputFormat.HEX && format != OutputFormat.RAW) {
+            throw new IllegalArgumentException("O formato " + format + " não é aceito na leitura (use dec, hex ou raw).");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.format = format;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        map(0);
+    }
+
+    /**
+     * Lê o próximo número do arquivo.
+     *
+     * @return O número, ou {@code null} no fim do arquivo.
+     * @throws IOException se o arquivo estiver malformado ou a leitura falhar.
+     */
+    public BigInteger next() throws IOException {
+        return format == OutputFormat.RAW ? nextBinary() : nextText(format == OutputFormat.HEX);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private BigInteger nextBinary() throws IOException {
+        if (!ensureAvailable(4)) {
+            if (window.hasRemaining()) {
+                throw new IOException("Registro binário truncado em " + (windowStart + window.position()));
+            }
+            return null;
+        }
+        int length = window.getInt(window.position());
+        // em long: com um cabeçalho corrompido, 4 + length passaria de Integer.MAX_VALUE
+        if (length <= 0 || !ensureAvailable(4 + (long) length)) {
+            throw new IOException("Registro binário inválido em " + (windowStart + window.position()));
+        }
+        window.position(window.position() + 4);
+        byte[] magnitude = new byte[length];
+        window.get(magnitude);
+        return new BigInteger(1, magnitude);
+    }
+
+    private BigInteger nextText(boolean hex) throws IOException {
+        // pula espaços e quebras de linha
+        while (true) {
+            if (!window.hasRemaining() && !remapAt(windowStart + window.position())) {
+                return null;
+            }
+            byte b = window.get(window.position());
+            if (b != '\n' && b != '\r' && b != ' ' && b != '\t') {
+                break;
+            }
+            window.position(window.position() + 1);
+        }
+
+        // localiza o fim do número, remapeando se ele atravessar a janela
+        int start = window.position();
+        int end = start;
+        while (true) {
+            if (end == window.limit()) {
+                if (windowStart + end == fileSize) {
+                    break;
+                }
+                if (start == 0) {
+                    throw new IOException("Número maior que a janela de leitura em " + windowStart);
+                }
+                remapAt(windowStart + start);
+                end -= start;
+                start = 0;
+                continue;
+            }
+            byte b = window.get(end);
+            if (b == '\n' || b == '\r' || b == ' ' || b == '\t') {
+                break;
+            }
+            end++;
+        }
+
+        BigInteger value = hex ? parseHex(start, end) : parseDecimal(start, end);
+        window.position(end);
+        return value;
+    }
+
+    private BigInteger parseDecimal(int start, int end) throws IOException {
+        BigInteger value = BigInteger.ZERO;
+        long chunk = 0;
+        int chunkDigits = 0;
+        for (int i = start; i < end; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Dígito decimal inválido em " + (windowStart + i));
+            }
+            chunk = chunk * 10 + digit;
+            if (++chunkDigits == DECIMAL_CHUNK_DIGITS) {
+                value = value.multiply(POWERS_OF_TEN[chunkDigits]).add(BigInteger.valueOf(chunk));
+                chunk = 0;
+                chunkDigits = 0;
+            }
+        }
+        if (chunkDigits > 0) {
+            value = value.multiply(POWERS_OF_TEN[chunkDigits]).add(BigInteger.valueOf(chunk));
+        }
+        return value;
+    }
+
+    private BigInteger parseHex(int start, int end) throws IOException {
+        if (end - start > 2 && window.get(start) == '0' && (window.get(start + 1) | 0x20) == 'x') {
+            start += 2;
+        }
+        int digits = end - start;
+        byte[] magnitude = new byte[(digits + 1) / 2];
+        // preenche de trás para frente, dois dígitos por byte
+        int index = magnitude.length - 1;
+        for (int i = end - 1; i >= start; i -= 2) {
+            int low = hexValue(i);
+            int high = i - 1 >= start ? hexValue(i - 1) : 0;
+            magnitude[index--] = (byte) ((high << 4) | low);
+        }
+        return new BigInteger(1, magnitude);
+    }
+
+    private int hexValue(int index) throws IOException {
+        int c = window.get(index);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        c |= 0x20;
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        throw new IOException("Dígito hexadecimal inválido em " + (windowStart + index));
+    }
+
+    /**
+     * Garante que {@code bytes} bytes a partir da posição atual estejam na janela.
+     *
+     * O tamanho é conferido contra o fim do arquivo e contra a janela antes de remapear.
+     *
+     * @return {@code false} se o arquivo terminar antes disso.
+     */
+    private boolean ensureAvailable(long bytes) throws IOException {
+        if (window.remaining() >= bytes) {
+            return true;
+        }
+        long absolute = windowStart + window.position();
+        if (absolute + bytes > fileSize) {
+            return false;
+        }
+        if (bytes > windowSize) {
+            throw new IOException("Registro maior que a janela de leitura em " + absolute);
+        }
+        remapAt(absolute);
+        return true;
+    }
+
+    /**
+     * Mapeia uma nova janela começando em {@code position}.
+     *
+     * @return {@code false} se {@code position} já for o fim do arquivo.
+     */
+    private boolean remapAt(long position) throws IOException {
+        if (position >= fileSize) {
+            return false;
+        }
+        map(position);
+        return true;
+    }
+
+    private void map(long position) throws IOException {
+        long length = Math.min(windowSize, fileSize - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        windowStart = position;
+    }
+}
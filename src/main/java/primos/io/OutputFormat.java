@@ -0,0 +1,233 @@
+package primos.io;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formatos de saída para números gravados em massa.
+ * <p>
+ * Os formatos textuais escrevem um número por linha. O formato binário escreve
+ * cada número como {@code [int n][n bytes]}, com a magnitude sem sinal em
+ * big-endian, e é o mais barato de produzir e de ler de volta.
+ * <p>
+ * Só o decimal passa por {@link BigInteger#toString()}; os demais partem dos bytes
+ * da magnitude e escrevem direto no buffer. {@code der} grava cada número como um
+ * INTEGER do ASN.1 (tag 0x02, tamanho e complemento de dois mínimo), e {@code pem}
+ * é esse mesmo DER em base64, entre as linhas {@code -----BEGIN INTEGER-----} e
+ * {@code -----END INTEGER-----}, com 64 caracteres por linha.
+ */
+public enum OutputFormat {
+
+    DECIMAL("dec") {
+        @Override
+        int maxEncodedLength(BigInteger n) {
+            // log10(2) < 0.30103; +2 para o arredondamento e a quebra de linha
+            return (int) (n.bitLength() * 0.30103) + 2;
+        }
+
+        @Override
+        void encode(BigInteger n, ByteBuffer dst) {
+            putAscii(n.toString(), dst);
+            dst.put((byte) '\n');
+        }
+    },
+
+    HEX("hex") {
+        @Override
+        int maxEncodedLength(BigInteger n) {
+            return (n.bitLength() + 3) / 4 + 2;
+        }
+
+        @Override
+        void encode(BigInteger n, ByteBuffer dst) {
+            byte[] bytes = n.toByteArray();
+            int offset = signByteOffset(bytes);
+            // o primeiro byte não leva zero à esquerda, como em toString(16)
+            int first = bytes[offset] & 0xff;
+            if (first > 0xf) {
+                dst.put(HEX_DIGITS[first >>> 4]);
+            }
+            dst.put(HEX_DIGITS[first & 0xf]);
+            for (int i = offset + 1; i < bytes.length; i++) {
+                dst.put(HEX_DIGITS[(bytes[i] >>> 4) & 0xf]);
+                dst.put(HEX_DIGITS[bytes[i] & 0xf]);
+            }
+            dst.put((byte) '\n');
+        }
+    },
+
+    BASE64("base64") {
+        @Override
+        int maxEncodedLength(BigInteger n) {
+            return base64Length((n.bitLength() + 7) / 8 + 1) + 1;
+        }
+
+        @Override
+        void encode(BigInteger n, ByteBuffer dst) {
+            byte[] bytes = n.toByteArray();
+            int offset = signByteOffset(bytes);
+            putBase64(bytes, offset, bytes.length - offset, 0, dst);
+            dst.put((byte) '\n');
+        }
+    },
+
+    RAW("raw") {
+        @Override
+        int maxEncodedLength(BigInteger n) {
+            return 4 + (n.bitLength() + 7) / 8;
+        }
+
+        @Override
+        void encode(BigInteger n, ByteBuffer dst) {
+            byte[] bytes = n.toByteArray();
+            int offset = signByteOffset(bytes);
+            dst.putInt(bytes.length - offset);
+            dst.put(bytes, offset, bytes.length - offset);
+        }
+    },
+
+    DER("der") {
+        @Override
+        int maxEncodedLength(BigInteger n) {
+            return derLength(n.bitLength() / 8 + 1);
+        }
+
+        @Override
+        void encode(BigInteger n, ByteBuffer dst) {
+            // toByteArray já é o complemento de dois mínimo que o DER exige
+            byte[] bytes = n.toByteArray();
+            putDerHeader(bytes.length, dst);
+            dst.put(bytes);
+        }
+    },
+
+    PEM("pem") {
+        @Override
+        int maxEncodedLength(BigInteger n) {
+            int base64 = base64Length(derLength(n.bitLength() / 8 + 1));
+            return PEM_BEGIN.length + base64 + (base64 + PEM_LINE - 1) / PEM_LINE + PEM_END.length;
+        }
+
+        @Override
+        void encode(BigInteger n, ByteBuffer dst) {
+            byte[] bytes = n.toByteArray();
+            byte[] der = new byte[derLength(bytes.length)];
+            ByteBuffer derBuffer = ByteBuffer.wrap(der);
+            putDerHeader(bytes.length, derBuffer);
+            derBuffer.put(bytes);
+
+            dst.put(PEM_BEGIN);
+            putBase64(der, 0, der.length, PEM_LINE, dst);
+            dst.put((byte) '\n');
+            dst.put(PEM_END);
+        }
+    };
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64_DIGITS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PEM_BEGIN = "-----BEGIN INTEGER-----\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PEM_END = "-----END INTEGER-----\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int PEM_LINE = 64;
+    private static final byte DER_INTEGER_TAG = 0x02;
+
+    private final String shortName;
+
+    OutputFormat(String shortName) {
+        this.shortName = shortName;
+    }
+
+    /**
+     * Limite superior para o número de bytes que {@link #encode} escreverá.
+     */
+    abstract int maxEncodedLength(BigInteger n);
+
+    /**
+     * Escreve a representação de {@code n} em {@code dst}, que deve ter pelo menos
+     * {@link #maxEncodedLength} bytes livres.
+     */
+    abstract void encode(BigInteger n, ByteBuffer dst);
+
+    /**
+     * Converte o nome curto usado na linha de comando ({@code dec}, {@code hex}, {@code base64},
+     * {@code raw}, {@code der}, {@code pem}).
+     *
+     * @param name O nome do formato.
+     * @return O formato correspondente.
+     * @throws IllegalArgumentException se o nome não for reconhecido.
+     */
+    public static OutputFormat parse(String name) {
+        for (OutputFormat format : values()) {
+            if (format.shortName.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Formato de saída inválido: " + name);
+    }
+
+    private static void putAscii(String text, ByteBuffer dst) {
+        for (int i = 0; i < text.length(); i++) {
+            dst.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Pula o byte de sinal que toByteArray acrescenta quando o bit mais alto é 1.
+     */
+    private static int signByteOffset(byte[] bytes) {
+        return bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+    }
+
+    private static int base64Length(int bytes) {
+        return (bytes + 2) / 3 * 4;
+    }
+
+    /**
+     * Escreve {@code length} bytes em base64 com preenchimento {@code =}, quebrando a linha a
+     * cada {@code lineLength} caracteres (0 para não quebrar). Não escreve a quebra final.
+     */
+    private static void putBase64(byte[] src, int offset, int length, int lineLength, ByteBuffer dst) {
+        int end = offset + length;
+        int column = 0;
+        for (int i = offset; i < end; i += 3) {
+            if (lineLength > 0 && column == lineLength) {
+                dst.put((byte) '\n');
+                column = 0;
+            }
+            int remaining = end - i;
+            int chunk = (src[i] & 0xff) << 16
+                    | (remaining > 1 ? (src[i + 1] & 0xff) << 8 : 0)
+                    | (remaining > 2 ? src[i + 2] & 0xff : 0);
+            dst.put(BASE64_DIGITS[chunk >>> 18]);
+            dst.put(BASE64_DIGITS[(chunk >>> 12) & 0x3f]);
+            dst.put(remaining > 1 ? BASE64_DIGITS[(chunk >>> 6) & 0x3f] : (byte) '=');
+            dst.put(remaining > 2 ? BASE64_DIGITS[chunk & 0x3f] : (byte) '=');
+            column += 4;
+        }
+    }
+
+    /**
+     * Tamanho total de um INTEGER do DER com {@code contentLength} bytes de conteúdo.
+     */
+    private static int derLength(int contentLength) {
+        int lengthBytes = contentLength < 0x80 ? 1 : 1 + (32 - Integer.numberOfLeadingZeros(contentLength) + 7) / 8;
+        return 1 + lengthBytes + contentLength;
+    }
+
+    /**
+     * Escreve a tag e o tamanho (forma curta até 127 bytes, longa acima disso) de um INTEGER.
+     */
+    private static void putDerHeader(int contentLength, ByteBuffer dst) {
+        dst.put(DER_INTEGER_TAG);
+        if (contentLength < 0x80) {
+            dst.put((byte) contentLength);
+            return;
+        }
+        int lengthBytes = (32 - Integer.numberOfLeadingZeros(contentLength) + 7) / 8;
+        dst.put((byte) (0x80 | lengthBytes));
+        for (int i = lengthBytes - 1; i >= 0; i--) {
+            dst.put((byte) (contentLength >>> (8 * i)));
+        }
+    }
+}
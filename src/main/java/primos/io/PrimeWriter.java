@@ -0,0 +1,193 @@
+package primos.io;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escreve números em um canal através de um buffer direto reaproveitado.
+ * <p>
+ * Não é seguro para uso concorrente: deve haver uma única thread escritora.
+ */
+public class PrimeWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final OutputFormat format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long bytesWritten;
+
+    /**
+     * @param channel O canal de destino.
+     * @param format  O formato de cada número.
+     */
+    public PrimeWriter(WritableByteChannel channel, OutputFormat format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    /**
+     * Abre um escritor para um arquivo, ou para a saída padrão se {@code path} for {@code null}.
+     *
+     * @param path   O arquivo de destino (sobrescrito se existir), ou {@code null}.
+     * @param format O formato de cada número.
+     * @return O escritor.
+     * @throws IOException se o arquivo não puder ser aberto.
+     */
+    public static PrimeWriter open(Path path, OutputFormat format) throws IOException {
+        return new PrimeWriter(openChannel(path), format);
+    }
+
+    /**
+     * Abre um canal de escrita para um arquivo, ou para a saída padrão se {@code path} for {@code null}.
+     * Fechar o canal da saída padrão não fecha o descritor, que continua servindo ao {@code System.out}.
+     *
+     * @param path O arquivo de destino (sobrescrito se existir), ou {@code null}.
+     * @return O canal.
+     * @throws IOException se o arquivo não puder ser aberto.
+     */
+    public static WritableByteChannel openChannel(Path path) throws IOException {
+        if (path == null) {
+            return new StandardOutputChannel();
+        }
+        return FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Acrescenta um número à saída.
+     *
+     * @param n O número.
+     * @throws IOException se a escrita no canal falhar.
+     */
+    public void write(BigInteger n) throws IOException {
+        int needed = format.maxEncodedLength(n);
+        if (buffer.remaining() < needed) {
+            flush();
+        }
+        if (buffer.remaining() < needed) {
+            // número maior que o buffer inteiro: codifica em um buffer avulso
+            ByteBuffer large = ByteBuffer.allocate(needed);
+            format.encode(n, large);
+            writeFully(large.flip());
+            return;
+        }
+        format.encode(n, buffer);
+    }
+
+    /**
+     * Acrescenta um número que cabe em um {@code long}. Em decimal, os dígitos são
+     * escritos direto no buffer, sem criar um {@link BigInteger} nem uma {@link String}.
+     *
+     * @param n O número, não negativo.
+     * @throws IOException se a escrita no canal falhar.
+     */
+    public void write(long n) throws IOException {
+        if (format != OutputFormat.DECIMAL) {
+            write(BigInteger.valueOf(n));
+            return;
+        }
+        // 19 dígitos no máximo, mais a quebra de linha
+        if (buffer.remaining() < 20) {
+            flush();
+        }
+        int digits = 1;
+        for (long bound = 10; digits < 19 && n >= bound; bound *= 10) {
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + n % 10));
+            n /= 10;
+        }
+        buffer.position(end);
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Envia ao canal tudo o que está no buffer.
+     *
+     * @throws IOException se a escrita no canal falhar.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Retorna o total de bytes já enviados ao canal.
+     */
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            bytesWritten += channel.write(source);
+        }
+    }
+
+    /**
+     * Canal sobre a saída padrão cujo {@link #close()} só o invalida, sem fechar o descritor.
+     * <p>
+     * Escreve direto no {@link FileOutputStream} do descritor, em vez de usar
+     * {@code Channels.newChannel} ou um {@link FileChannel}: esses são interrompíveis, e uma
+     * interrupção durante a escrita também fecharia a saída padrão.
+     */
+    private static final class StandardOutputChannel implements WritableByteChannel {
+        private final FileOutputStream out = new FileOutputStream(FileDescriptor.out);
+        private byte[] chunk;
+        private boolean open = true;
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            int length = source.remaining();
+            if (source.hasArray()) {
+                out.write(source.array(), source.arrayOffset() + source.position(), length);
+                source.position(source.limit());
+                return length;
+            }
+            if (chunk == null) {
+                chunk = new byte[BUFFER_SIZE];
+            }
+            while (source.hasRemaining()) {
+                int n = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (open) {
+                open = false;
+                out.flush();
+            }
+        }
+    }
+}
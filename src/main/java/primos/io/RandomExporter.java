@@ -0,0 +1,57 @@
+package primos.io;
+
+import primos.generators.PseudoRandomGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Exporta a saída de um gerador como um fluxo bruto de bytes.
+ * <p>
+ * Os bytes são produzidos por {@link PseudoRandomGenerator#fill} direto em um
+ * {@link ByteBuffer} direto, que é então enviado ao canal (um {@code FileChannel}
+ * ou a saída padrão). O mesmo buffer é reaproveitado do início ao fim, então a
+ * exportação não cria objetos por número. Os geradores do projeto guardam entre
+ * chamadas os bytes do número que não couberam no buffer, então o fluxo exportado é
+ * contínuo, sem lacunas a cada megabyte. Útil para alimentar baterias de testes
+ * estatísticos externas (como o dieharder) ou para semear outros sistemas.
+ */
+public class RandomExporter {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Escreve {@code targetBytes} bytes do gerador no canal.
+     *
+     * @param generator   O gerador.
+     * @param targetBytes O total de bytes a exportar.
+     * @param out         O canal de destino.
+     * @return O tempo total, em nanossegundos.
+     * @throws IOException se a escrita falhar.
+     */
+    public long export(PseudoRandomGenerator generator, long targetBytes, WritableByteChannel out) throws IOException {
+        long startTime = System.nanoTime();
+        long remaining = targetBytes;
+        while (remaining > 0) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), remaining));
+            generator.fill(buffer);
+            buffer.flip();
+            remaining -= buffer.remaining();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Converte bytes e tempo em MB/s (1 MB = 10^6 bytes).
+     */
+    public static double megabytesPerSecond(long bytes, long elapsedNs) {
+        return bytes / 1e6 / (elapsedNs / 1e9);
+    }
+}
@@ -0,0 +1,398 @@
+package primos.math;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Aritmética modular mutável de largura fixa, na forma de Montgomery.
+ * <p>
+ * Os elementos são vetores {@code int[]} com {@link #limbs()} palavras de 32 bits,
+ * da menos para a mais significativa. Todas as operações escrevem em vetores
+ * fornecidos pelo chamador e reutilizam os buffers internos do kernel, de modo
+ * que um laço de exponenciações e quadrados não aloca nenhum objeto.
+ * <p>
+ * Na forma de Montgomery, um valor {@code x} é guardado como {@code x * R mod n},
+ * com {@code R = 2^(32 * limbs)}. A multiplicação usa o método CIOS (Coarsely
+ * Integrated Operand Scanning) de Koç, Acar e Kaliski.
+ * <p>
+ * Uma instância pertence a um único módulo e guarda buffers de rascunho, então
+ * não deve ser compartilhada entre threads; o uso esperado é criar uma por
+ * chamada de {@code isPrime} (ou por gerador) e descartá-la ao final.
+ */
+public final class MontgomeryKernel {
+
+    private static final long MASK = 0xffffffffL;
+
+    /**
+     * Tamanho da janela da exponenciação: 2^4 = 16 potências pré-calculadas.
+     */
+    private static final int WINDOW_BITS = 4;
+
+    private final int len;
+    private final int modulusBits;
+    private final int[] n;
+    private final int nInv;
+
+    private final int[] r2;
+    private final int[] oneM;
+    private final int[] minusOneM;
+
+    // buffers de rascunho reutilizados
+    private final long[] t;
+    private final long[] wide;
+    private final int[] product;
+    private final int[][] table;
+
+    /**
+     * Prepara o kernel para um módulo ímpar.
+     *
+     * @param modulus O módulo; deve ser ímpar e maior que 1.
+     * @throws IllegalArgumentException se o módulo for par ou menor que 3.
+     */
+    public MontgomeryKernel(BigInteger modulus) {
+        if (!modulus.testBit(0) || modulus.compareTo(BigInteger.ONE) <= 0) {
+            throw new IllegalArgumentException("O módulo deve ser ímpar e maior que 1.");
+        }
+        this.modulusBits = modulus.bitLength();
+        this.len = (modulusBits + 31) / 32;
+        this.n = new int[len];
+        load(modulus, n);
+        this.nInv = -inverse32(n[0]);
+
+        this.t = new long[len + 2];
+        this.wide = new long[2 * len];
+        this.product = new int[len];
+        this.table = new int[1 << WINDOW_BITS][len];
+
+        // constantes calculadas uma única vez com BigInteger
+        BigInteger r = BigInteger.ONE.shiftLeft(32 * len);
+        this.r2 = newElement();
+        load(r.multiply(r).mod(modulus), r2);
+        BigInteger rModN = r.mod(modulus);
+        this.oneM = newElement();
+        load(rModN, oneM);
+        this.minusOneM = newElement();
+        load(modulus.subtract(rModN).mod(modulus), minusOneM);
+    }
+
+    /**
+     * Número de palavras de 32 bits de cada elemento.
+     */
+    public int limbs() {
+        return len;
+    }
+
+    /**
+     * Aloca um novo elemento zerado. Deve ser chamado fora dos laços críticos.
+     */
+    public int[] newElement() {
+        return new int[len];
+    }
+
+    /**
+     * Copia um {@link BigInteger} não negativo, menor que o módulo, para {@code out}.
+     */
+    public void load(BigInteger value, int[] out) {
+        for (int i = 0; i < out.length; i++) {
+            // reconstrói a palavra a partir dos bits, sem alocar
+            int word = 0;
+            for (int b = 0; b < 32; b++) {
+                if (value.testBit(i * 32 + b)) {
+                    word |= 1 << b;
+                }
+            }
+            out[i] = word;
+        }
+    }
+
+    /**
+     * Converte um elemento em {@link BigInteger}. Aloca; use apenas fora dos laços críticos.
+     */
+    public BigInteger toBigInteger(int[] a) {
+        byte[] bytes = new byte[len * 4 + 1];
+        for (int i = 0; i < len; i++) {
+            int word = a[i];
+            int base = bytes.length - 1 - i * 4;
+            bytes[base] = (byte) word;
+            bytes[base - 1] = (byte) (word >>> 8);
+            bytes[base - 2] = (byte) (word >>> 16);
+            bytes[base - 3] = (byte) (word >>> 24);
+        }
+        return new BigInteger(bytes);
+    }
+
+    /**
+     * {@code out = a * R mod n}: leva um elemento comum para a forma de Montgomery.
+     */
+    public void toMontgomery(int[] a, int[] out) {
+        multiply(a, r2, out);
+    }
+
+    /**
+     * {@code out = a * R^-1 mod n}: traz um elemento da forma de Montgomery de volta.
+     */
+    public void fromMontgomery(int[] a, int[] out) {
+        // redução de Montgomery de um valor de uma só largura: metade do custo de multiply(a, 1)
+        long[] w = this.wide;
+        int[] n = this.n;
+        int len = this.len;
+        for (int i = 0; i < len; i++) {
+            w[i] = a[i] & MASK;
+            w[len + i] = 0;
+        }
+        for (int i = 0; i < len; i++) {
+            long m = ((int) w[i] * nInv) & MASK;
+            long carry = 0;
+            for (int j = 0; j < len; j++) {
+                long s = w[i + j] + m * (n[j] & MASK) + carry;
+                w[i + j] = s & MASK;
+                carry = s >>> 32;
+            }
+            w[i + len] += carry;
+        }
+        // como a < n, o resultado já é menor que n
+        for (int j = 0; j < len; j++) {
+            out[j] = (int) w[len + j];
+        }
+    }
+
+    /**
+     * Copia em {@code out} o elemento 1 na forma de Montgomery.
+     */
+    public void setOne(int[] out) {
+        System.arraycopy(oneM, 0, out, 0, len);
+    }
+
+    /**
+     * Produto de Montgomery: {@code out = a * b * R^-1 mod n}. {@code out} pode ser o próprio {@code a} ou {@code b}.
+     */
+    public void multiply(int[] a, int[] b, int[] out) {
+        long[] t = this.t;
+        int[] n = this.n;
+        int len = this.len;
+        for (int i = 0; i < len + 2; i++) {
+            t[i] = 0;
+        }
+
+        for (int i = 0; i < len; i++) {
+            // t += a[i] * b
+            long ai = a[i] & MASK;
+            long carry = 0;
+            for (int j = 0; j < len; j++) {
+                long s = t[j] + ai * (b[j] & MASK) + carry;
+                t[j] = s & MASK;
+                carry = s >>> 32;
+            }
+            long s = t[len] + carry;
+            t[len] = s & MASK;
+            t[len + 1] = s >>> 32;
+
+            // t = (t + m * n) / 2^32, escolhendo m para zerar a palavra mais baixa
+            long m = ((int) t[0] * nInv) & MASK;
+            carry = (t[0] + m * (n[0] & MASK)) >>> 32;
+            for (int j = 1; j < len; j++) {
+                s = t[j] + m * (n[j] & MASK) + carry;
+                t[j - 1] = s & MASK;
+                carry = s >>> 32;
+            }
+            s = t[len] + carry;
+            t[len - 1] = s & MASK;
+            t[len] = t[len + 1] + (s >>> 32);
+        }
+
+        // resultado em t[0..len]; subtrai n uma vez se t >= n
+        boolean subtract = t[len] != 0 || compareLimbs(t, 0, n) >= 0;
+        if (subtract) {
+            long borrow = 0;
+            for (int j = 0; j < len; j++) {
+                long d = t[j] - (n[j] & MASK) - borrow;
+                out[j] = (int) d;
+                borrow = (d >>> 63);
+            }
+        } else {
+            for (int j = 0; j < len; j++) {
+                out[j] = (int) t[j];
+            }
+        }
+    }
+
+    /**
+     * Quadrado de Montgomery: {@code out = a^2 * R^-1 mod n}. {@code out} pode ser o próprio {@code a}.
+     */
+    public void square(int[] a, int[] out) {
+        long[] w = this.wide;
+        int[] n = this.n;
+        int len = this.len;
+        for (int i = 0; i < w.length; i++) {
+            w[i] = 0;
+        }
+
+        // produtos cruzados a[i] * a[j], i < j; cada um aparece duas vezes no quadrado
+        for (int i = 0; i < len - 1; i++) {
+            long ai = a[i] & MASK;
+            long carry = 0;
+            for (int j = i + 1; j < len; j++) {
+                long s = w[i + j] + ai * (a[j] & MASK) + carry;
+                w[i + j] = s & MASK;
+                carry = s >>> 32;
+            }
+            w[i + len] = carry;
+        }
+
+        // dobra os produtos cruzados e soma os quadrados da diagonal
+        long carry = 0;
+        for (int i = 0; i < len; i++) {
+            long ai = a[i] & MASK;
+            long diagonal = ai * ai;
+            long low = (w[2 * i] << 1) + (diagonal & MASK) + carry;
+            w[2 * i] = low & MASK;
+            long high = (w[2 * i + 1] << 1) + (diagonal >>> 32) + (low >>> 32);
+            w[2 * i + 1] = high & MASK;
+            carry = high >>> 32;
+        }
+
+        // redução de Montgomery palavra a palavra: w = w / R mod n
+        long extra = 0;
+        for (int i = 0; i < len; i++) {
+            long m = ((int) w[i] * nInv) & MASK;
+            carry = 0;
+            for (int j = 0; j < len; j++) {
+                long s = w[i + j] + m * (n[j] & MASK) + carry;
+                w[i + j] = s & MASK;
+                carry = s >>> 32;
+            }
+            long s = w[i + len] + carry + extra;
+            w[i + len] = s & MASK;
+            extra = s >>> 32;
+        }
+
+        // resultado em w[len..2*len-1], com 'extra' como palavra mais alta
+        boolean subtract = extra != 0 || compareLimbs(w, len, n) >= 0;
+        if (subtract) {
+            long borrow = 0;
+            for (int j = 0; j < len; j++) {
+                long d = w[len + j] - (n[j] & MASK) - borrow;
+                out[j] = (int) d;
+                borrow = (d >>> 63);
+            }
+        } else {
+            for (int j = 0; j < len; j++) {
+                out[j] = (int) w[len + j];
+            }
+        }
+    }
+
+    /**
+     * Exponenciação com janela fixa: {@code out = base^exponent}, com base e resultado na forma de Montgomery.
+     * {@code out} não pode ser o próprio {@code base}.
+     */
+    public void pow(int[] base, BigInteger exponent, int[] out) {
+        // tabela de potências base^0 .. base^15
+        setOne(table[0]);
+        System.arraycopy(base, 0, table[1], 0, len);
+        for (int i = 2; i < table.length; i++) {
+            multiply(table[i - 1], base, table[i]);
+        }
+
+        setOne(out);
+        int bits = exponent.bitLength();
+        int top = ((bits + WINDOW_BITS - 1) / WINDOW_BITS) * WINDOW_BITS;
+        for (int position = top - WINDOW_BITS; position >= 0; position -= WINDOW_BITS) {
+            for (int k = 0; k < WINDOW_BITS; k++) {
+                square(out, out);
+            }
+            int window = 0;
+            for (int k = WINDOW_BITS - 1; k >= 0; k--) {
+                window = (window << 1) | (exponent.testBit(position + k) ? 1 : 0);
+            }
+            if (window != 0) {
+                multiply(out, table[window], product);
+                System.arraycopy(product, 0, out, 0, len);
+            }
+        }
+    }
+
+    /**
+     * Verifica se um elemento na forma de Montgomery vale 1.
+     */
+    public boolean isOne(int[] a) {
+        return equalLimbs(a, oneM);
+    }
+
+    /**
+     * Verifica se um elemento na forma de Montgomery vale n - 1, isto é, -1 mod n.
+     */
+    public boolean isMinusOne(int[] a) {
+        return equalLimbs(a, minusOneM);
+    }
+
+    /**
+     * Sorteia em {@code out} um elemento comum (fora da forma de Montgomery)
+     * uniforme no intervalo [2, n-2], por rejeição e sem alocar.
+     */
+    public void randomBase(Random rand, int[] out) {
+        int topBits = modulusBits - 32 * (len - 1);
+        int topMask = topBits == 32 ? -1 : (1 << topBits) - 1;
+        do {
+            for (int i = 0; i < len; i++) {
+                out[i] = rand.nextInt();
+            }
+            out[len - 1] &= topMask;
+        } while (!isBaseInRange(out));
+    }
+
+    /**
+     * Verifica 2 <= a <= n-2, comparando as palavras diretamente.
+     */
+    private boolean isBaseInRange(int[] a) {
+        boolean high = false;
+        for (int i = 1; i < len; i++) {
+            if (a[i] != 0) {
+                high = true;
+                break;
+            }
+        }
+        if (!high && Integer.compareUnsigned(a[0], 2) < 0) {
+            return false;
+        }
+        // a <= n - 2  <=>  a + 2 <= n  <=>  a < n - 1
+        for (int i = len - 1; i >= 0; i--) {
+            long ai = a[i] & MASK;
+            long ni = (n[i] & MASK) - (i == 0 ? 1 : 0);
+            if (ai != ni) {
+                return ai < ni;
+            }
+        }
+        return false;
+    }
+
+    private static int compareLimbs(long[] t, int offset, int[] n) {
+        for (int i = n.length - 1; i >= 0; i--) {
+            long ni = n[i] & MASK;
+            if (t[offset + i] != ni) {
+                return t[offset + i] < ni ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private boolean equalLimbs(int[] a, int[] b) {
+        for (int i = 0; i < len; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inverso de um inteiro ímpar módulo 2^32 pela iteração de Newton.
+     */
+    private static int inverse32(int a) {
+        int x = a; // correto nos 3 bits mais baixos, pois a*a = 1 mod 8
+        for (int i = 0; i < 4; i++) {
+            x *= 2 - a * x;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,212 @@
+package primos.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Quadrado de inteiros grandes pela transformada teórica dos números (NTT).
+ * <p>
+ * O número é quebrado em dígitos, e o quadrado vira a convolução cíclica desses
+ * dígitos, calculada com uma transformada direta, o quadrado ponto a ponto e a
+ * transformada inversa, em {@code O(n log n)}. A aritmética é feita módulo o primo
+ * {@code p = 29 * 2^57 + 1}, que tem raízes da unidade de ordem até {@code 2^57}.
+ * Cada coeficiente da convolução é menor que {@code (número de dígitos) * 2^(2w)},
+ * para dígitos de {@code w} bits, e precisa caber em {@code p > 2^61}: até
+ * {@link #MAX_WIDE_DIGITS} dígitos usam-se dígitos de 24 bits (cerca de 350 mil
+ * bits), e acima disso, de 16. As multiplicações módulo {@code p} usam a redução de
+ * Montgomery com {@code R = 2^64}, sobre {@link Math#multiplyHigh}.
+ * <p>
+ * A transformada direta é de dizimação na frequência e a inversa, no tempo; assim,
+ * a saída embaralhada da primeira é a entrada esperada pela segunda, e nenhuma
+ * das duas precisa da permutação por bits invertidos.
+ * <p>
+ * O {@link BigInteger#multiply} do Java 17 usa Toom-Cook 3, de custo
+ * {@code O(n^1.465)}; a NTT só compensa a partir de algumas dezenas de milhares
+ * de bits (ver {@link #square}). As tabelas de raízes de cada tamanho de
+ * transformada são calculadas uma vez e compartilhadas; a classe é segura entre threads.
+ */
+public final class NttSquarer {
+
+    private static final long P = 4179340454199820289L; // 29 * 2^57 + 1
+    private static final long GENERATOR = 3;
+    private static final int MAX_LOG_SIZE = 30;
+
+    /**
+     * Máximo de dígitos de 24 bits: {@code digitos * 2^48 < p}.
+     */
+    static final int MAX_WIDE_DIGITS = 14_000;
+
+    /**
+     * {@code -p^(-1) mod 2^64}, para a redução de Montgomery.
+     */
+    private static final long P_NEG_INV;
+    /**
+     * {@code R^2 mod p}, que leva um valor para a forma de Montgomery.
+     */
+    private static final long R2;
+
+    static {
+        long inverse = P; // Newton: cada passo dobra os bits corretos do inverso módulo 2^64
+        for (int i = 0; i < 6; i++) {
+            inverse *= 2 - P * inverse;
+        }
+        P_NEG_INV = -inverse;
+        BigInteger p = BigInteger.valueOf(P);
+        R2 = BigInteger.ONE.shiftLeft(128).mod(p).longValueExact();
+    }
+
+    private static final ConcurrentMap<Integer, long[][]> ROOTS = new ConcurrentHashMap<>();
+
+    private NttSquarer() {
+    }
+
+    /**
+     * Calcula {@code x * x}.
+     *
+     * @param x O número, de qualquer sinal.
+     * @return O quadrado.
+     */
+    public static BigInteger square(BigInteger x) {
+        if (x.signum() == 0) {
+            return BigInteger.ZERO;
+        }
+        byte[] bytes = x.abs().toByteArray();
+        int digitBytes = (bytes.length + 2) / 3 <= MAX_WIDE_DIGITS ? 3 : 2;
+        int digits = (bytes.length + digitBytes - 1) / digitBytes;
+        int logSize = 1;
+        while ((1 << logSize) < 2 * digits) {
+            logSize++;
+        }
+        if (logSize > MAX_LOG_SIZE) {
+            throw new IllegalArgumentException("Número grande demais para a NTT: " + x.bitLength() + " bits.");
+        }
+        int size = 1 << logSize;
+
+        // dígitos do menos significativo, já na forma de Montgomery
+        long[] a = new long[size];
+        for (int i = 0; i < digits; i++) {
+            int low = bytes.length - 1 - digitBytes * i;
+            long digit = 0;
+            for (int b = 0; b < digitBytes && low - b >= 0; b++) {
+                digit |= (bytes[low - b] & 0xffL) << (8 * b);
+            }
+            a[i] = montMul(digit, R2);
+        }
+
+        long[][] roots = roots(logSize);
+        forward(a, roots[0]);
+        for (int i = 0; i < size; i++) {
+            a[i] = montMul(a[i], a[i]);
+        }
+        inverse(a, roots[1]);
+
+        // tira da forma de Montgomery e divide por size de uma vez
+        long sizeInverse = roots[2][0];
+        byte[] out = new byte[digitBytes * size + 8];
+        long carry = 0;
+        int pos = out.length - 1;
+        for (int i = 0; i < size; i++) {
+            long coefficient = montMul(a[i], sizeInverse) + carry;
+            for (int b = 0; b < digitBytes; b++) {
+                out[pos--] = (byte) (coefficient >>> (8 * b));
+            }
+            carry = coefficient >>> (8 * digitBytes);
+        }
+        while (carry != 0) {
+            out[pos--] = (byte) carry;
+            carry >>>= 8;
+        }
+        return new BigInteger(1, out);
+    }
+
+    /**
+     * Transformada direta in loco (Gentleman-Sande, dizimação na frequência): recebe os
+     * dígitos na ordem natural e deixa o espectro na ordem de bits invertidos.
+     * {@code twiddles[half + k]} é a raiz de ordem {@code 2 * half} elevada a {@code k}.
+     */
+    private static void forward(long[] a, long[] twiddles) {
+        int size = a.length;
+        for (int half = size >> 1; half >= 1; half >>= 1) {
+            for (int start = 0; start < size; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    long u = a[start + k];
+                    long v = a[start + k + half];
+                    long sum = u + v;
+                    a[start + k] = sum >= P ? sum - P : sum;
+                    long difference = u - v;
+                    a[start + k + half] = montMul(difference < 0 ? difference + P : difference, twiddles[half + k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Transformada inversa in loco (Cooley-Tukey, dizimação no tempo): recebe o espectro
+     * na ordem de bits invertidos e devolve a ordem natural, ainda sem dividir por {@code size}.
+     */
+    private static void inverse(long[] a, long[] twiddles) {
+        int size = a.length;
+        for (int half = 1; half < size; half <<= 1) {
+            for (int start = 0; start < size; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    long u = a[start + k];
+                    long v = montMul(a[start + k + half], twiddles[half + k]);
+                    long sum = u + v;
+                    a[start + k] = sum >= P ? sum - P : sum;
+                    long difference = u - v;
+                    a[start + k + half] = difference < 0 ? difference + P : difference;
+                }
+            }
+        }
+    }
+
+    /**
+     * As raízes diretas, as inversas e {@code size^(-1)} de uma transformada de {@code 2^logSize} pontos.
+     */
+    private static long[][] roots(int logSize) {
+        return ROOTS.computeIfAbsent(logSize, log -> {
+            int size = 1 << log;
+            BigInteger p = BigInteger.valueOf(P);
+            BigInteger root = BigInteger.valueOf(GENERATOR).modPow(p.subtract(BigInteger.ONE).shiftRight(log), p);
+            long[] forward = twiddles(root.longValueExact(), size);
+            long[] inverse = twiddles(root.modInverse(p).longValueExact(), size);
+            // sizeInverse * R^(-1) * (valor * R) = valor / size, já fora da forma de Montgomery
+            long sizeInverse = BigInteger.valueOf(size).modInverse(p).longValueExact();
+            return new long[][]{forward, inverse, {sizeInverse}};
+        });
+    }
+
+    private static long[] twiddles(long root, int size) {
+        long[] twiddles = new long[Math.max(2, size)];
+        long rootM = montMul(root, R2);
+        long oneM = montMul(1, R2);
+        // a raiz de ordem 2 * half é root^(size / (2 * half))
+        for (int half = size >> 1; half >= 1; half >>= 1) {
+            long step = rootM;
+            for (int s = half; s < size >> 1; s <<= 1) {
+                step = montMul(step, step);
+            }
+            long w = oneM;
+            for (int k = 0; k < half; k++) {
+                twiddles[half + k] = w;
+                w = montMul(w, step);
+            }
+        }
+        return twiddles;
+    }
+
+    /**
+     * {@code a * b * 2^(-64) mod p}, para {@code 0 <= a, b < p}.
+     */
+    private static long montMul(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        long m = low * P_NEG_INV;
+        // parte alta sem sinal de m * p (p é positivo)
+        long mpHigh = Math.multiplyHigh(m, P) + ((m >> 63) & P);
+        // low + m * p = 0 (mod 2^64): há vai-um sempre que low != 0
+        long t = high + mpHigh + (low != 0 ? 1 : 0);
+        return t >= P ? t - P : t;
+    }
+}
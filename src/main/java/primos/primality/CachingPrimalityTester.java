@@ -0,0 +1,311 @@
+package primos.primality;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorador que guarda os resultados de outro testador em um cache limitado.
+ * <p>
+ * Pensado para cargas de verificação em que os mesmos módulos e primos de grupo
+ * são testados repetidamente. Características:
+ * <ul>
+ *     <li>O cache é dividido em {@link #STRIPES} partes, cada uma com seu próprio
+ *     lock, escolhidas pelo hash do número; o teste em si roda fora do lock.</li>
+ *     <li>A chave é um hash de 64 bits da magnitude; a entrada guarda o número
+ *     para conferir a igualdade exata, e uma colisão conta como falta.</li>
+ *     <li>O limite é em bytes, estimados pelo tamanho de cada número. Cada parte
+ *     mantém ordem de acesso (LRU) e decide a admissão ao estilo TinyLFU: um número
+ *     novo só desaloja a entrada mais antiga se tiver sido pedido mais vezes que
+ *     ela, segundo um count-min sketch com envelhecimento periódico.</li>
+ *     <li>Cada entrada guarda a certeza com que foi provada. Um composto é
+ *     definitivo (foi encontrada uma testemunha), então atende qualquer certeza.
+ *     Um primo atende pedidos de certeza menor ou igual; para uma certeza maior,
+ *     roda-se só a diferença de rodadas, o que vale para testadores cujas rodadas
+ *     usam bases independentes, como {@link MillerRabinTester} e {@link FermatTester}.</li>
+ * </ul>
+ */
+public class CachingPrimalityTester implements PrimalityTester {
+
+    static final int STRIPES = 16;
+
+    /**
+     * Custo fixo estimado de uma entrada (nó do mapa, chave, entrada e BigInteger), em bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private static final int DEFINITIVE = Integer.MAX_VALUE;
+
+    private final PrimalityTester delegate;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder upgrades = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param delegate O testador cujos resultados serão guardados.
+     * @param maxBytes O limite aproximado de memória do cache, em bytes.
+     */
+    public CachingPrimalityTester(PrimalityTester delegate, long maxBytes) {
+        if (maxBytes < STRIPES * (long) ENTRY_OVERHEAD) {
+            throw new IllegalArgumentException("O limite do cache deve ser pelo menos "
+                    + STRIPES * ENTRY_OVERHEAD + " bytes.");
+        }
+        this.delegate = delegate;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBytes / STRIPES);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isPrime(BigInteger n, int certainty) {
+        long hash = hash(n);
+        Stripe stripe = stripes[(int) (hash >>> 60) & (STRIPES - 1)];
+
+        Entry cached = stripe.get(hash, n);
+        if (cached != null && cached.certainty >= certainty) {
+            hits.increment();
+            return cached.prime;
+        }
+
+        boolean prime;
+        if (cached != null) {
+            // primo provado com menos rodadas: completa apenas as que faltam
+            upgrades.increment();
+            prime = delegate.isPrime(n, certainty - cached.certainty);
+        } else {
+            misses.increment();
+            prime = delegate.isPrime(n, certainty);
+        }
+        stripe.put(hash, new Entry(n, prime, prime ? certainty : DEFINITIVE));
+        return prime;
+    }
+
+    /**
+     * Hash de 64 bits do número: a palavra mais baixa e o tamanho em bits, misturados
+     * com o {@code hashCode}, que percorre a magnitude inteira. Nenhuma das três
+     * chamadas aloca ou copia o número; o custo é uma leitura de cada palavra.
+     */
+    static long hash(BigInteger n) {
+        long h = mix(n.bitLength() * 0x9E3779B97F4A7C15L ^ n.longValue());
+        return mix(h ^ n.hashCode());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Quantidade de consultas respondidas pelo cache.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Quantidade de consultas que precisaram do testador, inclusive as complementações de certeza.
+     */
+    public long misses() {
+        return misses.sum() + upgrades.sum();
+    }
+
+    /**
+     * Quantidade de consultas em que só foram rodadas as rodadas que faltavam para a certeza pedida.
+     */
+    public long upgrades() {
+        return upgrades.sum();
+    }
+
+    /**
+     * Fração das consultas respondidas pelo cache.
+     */
+    public double hitRate() {
+        long h = hits();
+        long total = h + misses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Quantidade de entradas desalojadas para dar lugar a outras.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Quantidade de resultados que a política de admissão não deixou entrar no cache.
+     */
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Quantidade de entradas no cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Estimativa da memória ocupada pelas entradas, em bytes.
+     */
+    public long weightedSize() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Resumo das métricas em uma linha.
+     */
+    public String stats() {
+        return String.format("cache: %d acertos, %d faltas (%d complementos), taxa de acerto %.1f%%, "
+                        + "%d entradas (%d KB), %d desalojadas, %d rejeitadas",
+                hits(), misses(), upgrades(), 100 * hitRate(), size(), weightedSize() / 1024,
+                evictions(), rejections());
+    }
+
+    private static final class Entry {
+        final BigInteger n;
+        final boolean prime;
+        final int certainty;
+        final int weight;
+
+        Entry(BigInteger n, boolean prime, int certainty) {
+            this.n = n;
+            this.prime = prime;
+            this.certainty = certainty;
+            this.weight = ENTRY_OVERHEAD + (n.bitLength() + 7) / 8;
+        }
+    }
+
+    /**
+     * Uma parte do cache: um mapa em ordem de acesso limitado em bytes e o sketch de frequências.
+     */
+    private final class Stripe {
+        final LinkedHashMap<Long, Entry> map = new LinkedHashMap<>(64, 0.75f, true);
+        final FrequencySketch sketch;
+        final long maxBytes;
+        long bytes;
+
+        Stripe(long maxBytes) {
+            this.maxBytes = maxBytes;
+            this.sketch = new FrequencySketch((int) Math.min(1 << 16, Math.max(64, maxBytes / ENTRY_OVERHEAD)));
+        }
+
+        synchronized Entry get(long hash, BigInteger n) {
+            sketch.increment(hash);
+            Entry entry = map.get(hash);
+            return entry != null && entry.n.equals(n) ? entry : null;
+        }
+
+        synchronized void put(long hash, Entry entry) {
+            if (entry.weight > maxBytes) {
+                rejections.increment();
+                return;
+            }
+            Entry previous = map.remove(hash);
+            if (previous != null) {
+                bytes -= previous.weight;
+            }
+
+            // abre espaço desalojando as entradas mais antigas, se o candidato for mais frequente
+            int candidateFrequency = sketch.frequency(hash);
+            Iterator<Map.Entry<Long, Entry>> eldest = map.entrySet().iterator();
+            while (bytes + entry.weight > maxBytes) {
+                Map.Entry<Long, Entry> victim = eldest.next();
+                if (previous == null && sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                    rejections.increment();
+                    return;
+                }
+                eldest.remove();
+                bytes -= victim.getValue().weight;
+                evictions.increment();
+            }
+            map.put(hash, entry);
+            bytes += entry.weight;
+        }
+    }
+
+    /**
+     * Count-min sketch com contadores de 4 bits, para estimar quantas vezes cada
+     * chave foi pedida recentemente. Depois de {@code 10 * largura} incrementos, todos os
+     * contadores são divididos por dois, para que frequências antigas percam o peso.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final long[] SEEDS = {
+                0x97CB3127A3F1E6C5L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+            // 16 contadores de 4 bits por long
+            this.table = new long[width * DEPTH / 16];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        void increment(long key) {
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(key, i);
+                int word = index >>> 4;
+                int shift = (index & 15) << 2;
+                if (((table[word] >>> shift) & 0xF) != 0xF) {
+                    table[word] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(long key) {
+            int min = 0xF;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(key, i);
+                min = Math.min(min, (int) (table[index >>> 4] >>> ((index & 15) << 2)) & 0xF);
+            }
+            return min;
+        }
+
+        private int index(long key, int row) {
+            long h = (key ^ SEEDS[row]) * 0x9E3779B97F4A7C15L;
+            int column = (int) (h >>> 40) & mask;
+            return row * (mask + 1) + column;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            }
+            additions = 0;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package primos.primality;
 
 import java.math.BigInteger;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Implementação do Teste de Primalidade de Fermat.
@@ -18,14 +18,13 @@ public class FermatTester implements PrimalityTester {
     protected static final BigInteger TWO = BigInteger.valueOf(2);
     protected static final BigInteger THREE = BigInteger.valueOf(3);
 
-    private final Random rand;
-
     /**
-     * Construtor que inicializa a fonte de aleatoriedade.
+     * Construtor padrão.
+     * <p>
+     * Assim como o {@link MillerRabinTester}, não há estado mutável: as bases
+     * vêm de {@link ThreadLocalRandom}, e a instância é segura entre threads.
      */
     public FermatTester() {
-        // Usa o tempo do sistema como semente.
-        this.rand = new Random(System.nanoTime());
     }
 
     /**
@@ -74,6 +73,7 @@ public class FermatTester implements PrimalityTester {
      */
     protected BigInteger getRandomBase(BigInteger n) {
         BigInteger nMinusTwo = n.subtract(TWO);
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
         BigInteger a;
         do {
             a = new BigInteger(n.bitLength(), rand);
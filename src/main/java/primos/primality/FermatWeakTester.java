@@ -14,7 +14,6 @@ public class FermatWeakTester extends FermatTester {
 
     /**
      * Construtor que chama o construtor da classe pai (FermatTester).
-     * Isso garante que a fonte de aleatoriedade 'rand' seja inicializada.
      */
     public FermatWeakTester() {
         super();
@@ -0,0 +1,181 @@
+package primos.primality;
+
+import java.math.BigInteger;
+
+/**
+ * Implementação do teste forte de Lucas (strong Lucas probable prime test).
+ * <p>
+ * Os parâmetros seguem o método A de Selfridge: {@code D} é o primeiro valor da
+ * sequência 5, -7, 9, -11, ... com símbolo de Jacobi {@code (D/n) = -1}, e
+ * {@code P = 1}, {@code Q = (1 - D) / 4}. Com {@code n + 1 = d * 2^s}, o número
+ * passa se {@code U_d = 0 (mod n)} ou se {@code V_(d*2^r) = 0 (mod n)} para algum
+ * {@code 0 <= r < s}.
+ * <p>
+ * O teste é determinístico: o parâmetro de certeza é ignorado. Combinado com um
+ * Miller-Rabin na base 2, forma o teste de Baillie-PSW, para o qual não se conhece
+ * nenhum pseudoprimo.
+ * <p>
+ * Referência: Baillie, R., & Wagstaff, S. S. (1980). Lucas Pseudoprimes.
+ * Mathematics of Computation, 35(152), 1391-1417.
+ */
+public class LucasTester implements PrimalityTester {
+
+    private static final BigInteger ONE = BigInteger.ONE;
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+    private static final BigInteger THREE = BigInteger.valueOf(3);
+
+    /**
+     * Construtor padrão. O testador não guarda estado e é seguro entre threads.
+     */
+    public LucasTester() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isPrime(BigInteger n, int certainty) {
+        if (n.compareTo(ONE) <= 0) return false;
+        if (n.compareTo(THREE) <= 0) return true;
+        if (!n.testBit(0)) return false;
+
+        // Em um quadrado perfeito nunca se acha D com (D/n) = -1.
+        BigInteger root = n.sqrt();
+        if (root.multiply(root).equals(n)) {
+            return false;
+        }
+
+        long d = selectD(n);
+        if (d == 0) {
+            // (D/n) = 0 com |D| < n: D e n têm um fator comum
+            return false;
+        }
+        BigInteger bigD = BigInteger.valueOf(d);
+        BigInteger q = BigInteger.valueOf((1 - d) / 4);
+
+        BigInteger nPlusOne = n.add(ONE);
+        int s = nPlusOne.getLowestSetBit();
+        BigInteger k = nPlusOne.shiftRight(s);
+
+        // U_1 = 1, V_1 = P = 1, Q^1 = Q
+        BigInteger u = ONE;
+        BigInteger v = ONE;
+        BigInteger qk = q.mod(n);
+        for (int i = k.bitLength() - 2; i >= 0; i--) {
+            // duplicação: U_2j = U_j V_j, V_2j = V_j^2 - 2 Q^j
+            u = u.multiply(v).mod(n);
+            v = v.multiply(v).subtract(qk.shiftLeft(1)).mod(n);
+            qk = qk.multiply(qk).mod(n);
+            if (k.testBit(i)) {
+                // incremento: U_(j+1) = (P U_j + V_j) / 2, V_(j+1) = (D U_j + P V_j) / 2
+                BigInteger nextU = halve(u.add(v), n);
+                BigInteger nextV = halve(bigD.multiply(u).add(v), n);
+                u = nextU;
+                v = nextV;
+                qk = qk.multiply(q).mod(n);
+            }
+        }
+
+        if (u.signum() == 0 || v.signum() == 0) {
+            return true;
+        }
+        for (int r = 1; r < s; r++) {
+            v = v.multiply(v).subtract(qk.shiftLeft(1)).mod(n);
+            if (v.signum() == 0) {
+                return true;
+            }
+            qk = qk.multiply(qk).mod(n);
+        }
+        return false;
+    }
+
+    /**
+     * Divide por 2 módulo {@code n} (ímpar), somando {@code n} antes se o valor for ímpar.
+     */
+    private static BigInteger halve(BigInteger x, BigInteger n) {
+        x = x.mod(n);
+        if (x.testBit(0)) {
+            x = x.add(n);
+        }
+        return x.shiftRight(1);
+    }
+
+    /**
+     * Procura D na sequência 5, -7, 9, -11, ... com (D/n) = -1.
+     *
+     * @return O valor de D, ou 0 se algum D tiver um fator comum não trivial com {@code n}.
+     */
+    static long selectD(BigInteger n) {
+        long d = 5;
+        while (true) {
+            int symbol = jacobi(d, n);
+            if (symbol == -1) {
+                return d;
+            }
+            if (symbol == 0 && BigInteger.valueOf(Math.abs(d)).compareTo(n) < 0) {
+                return 0;
+            }
+            d = d > 0 ? -(d + 2) : -d + 2;
+        }
+    }
+
+    /**
+     * Símbolo de Jacobi {@code (a/n)} para {@code a} pequeno e {@code n} ímpar positivo.
+     * A reciprocidade quadrática reduz o cálculo a números de 64 bits.
+     */
+    static int jacobi(long a, BigInteger n) {
+        int sign = 1;
+        if (a < 0) {
+            a = -a;
+            // (-1/n) = -1 se n = 3 (mod 4)
+            if (n.testBit(1)) {
+                sign = -sign;
+            }
+        }
+        while ((a & 1) == 0 && a != 0) {
+            a >>= 1;
+            // (2/n) = -1 se n = 3 ou 5 (mod 8)
+            int nMod8 = n.intValue() & 7;
+            if (nMod8 == 3 || nMod8 == 5) {
+                sign = -sign;
+            }
+        }
+        if (a == 1) {
+            return sign;
+        }
+        if (a == 0) {
+            return n.equals(ONE) ? sign : 0;
+        }
+        // (a/n) = (n/a) * (-1)^((a-1)/2 * (n-1)/2), com a ímpar
+        if ((a & 3) == 3 && n.testBit(1)) {
+            sign = -sign;
+        }
+        long m = n.mod(BigInteger.valueOf(a)).longValue();
+        return sign * jacobi(m, a);
+    }
+
+    /**
+     * Símbolo de Jacobi {@code (a/n)} em 64 bits, com {@code n} ímpar positivo.
+     */
+    private static int jacobi(long a, long n) {
+        int sign = 1;
+        a %= n;
+        while (a != 0) {
+            while ((a & 1) == 0) {
+                a >>= 1;
+                long r = n & 7;
+                if (r == 3 || r == 5) {
+                    sign = -sign;
+                }
+            }
+            long t = a;
+            a = n;
+            n = t;
+            if ((a & 3) == 3 && (n & 3) == 3) {
+                sign = -sign;
+            }
+            a %= n;
+        }
+        return n == 1 ? sign : 0;
+    }
+}
@@ -1,7 +1,7 @@
 package primos.primality;
 
 import java.math.BigInteger;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Implementação do teste de primalidade de Miller-Rabin.
@@ -18,14 +18,14 @@ public class MillerRabinTester implements PrimalityTester {
     private static final BigInteger TWO = BigInteger.valueOf(2);
     private static final BigInteger THREE = BigInteger.valueOf(3);
 
-    private final Random rand;
-
     /**
-     * Construtor que inicializa a fonte de aleatoriedade.
+     * Construtor padrão.
+     * <p>
+     * O testador não guarda estado mutável: as bases são sorteadas com
+     * {@link ThreadLocalRandom}, então uma mesma instância pode ser
+     * compartilhada entre threads sem disputa por uma semente comum.
      */
     public MillerRabinTester() {
-        // Usa o tempo do sistema como semente para consistência com os geradores.
-        this.rand = new Random(System.nanoTime());
     }
 
     /**
@@ -40,13 +40,14 @@ public class MillerRabinTester implements PrimalityTester {
 
         // Decompor n-1 em d * 2^s, onde d é ímpar ---
         BigInteger nMinusOne = n.subtract(ONE);
+        BigInteger nMinusTwo = n.subtract(TWO);
         int s = nMinusOne.getLowestSetBit();
         BigInteger d = nMinusOne.shiftRight(s);
 
         // Executar o teste 'certainty' vezes ---
         for (int i = 0; i < certainty; i++) {
             // Escolher uma testemunha aleatória 'a' no intervalo [2, n-2].
-            BigInteger a = getRandomBase(n);
+            BigInteger a = getRandomBase(n, nMinusTwo);
             // Calcular x = a^d mod n.
             BigInteger x = a.modPow(d, n);
 
@@ -57,7 +58,7 @@ public class MillerRabinTester implements PrimalityTester {
             }
 
             // Se a segunda condição não for satisfeita, o número é definitivamente composto.
-            if (!passesSecondCheck(x, s, n)) {
+            if (!passesSecondCheck(x, s, n, nMinusOne)) {
                 return false;
             }
         }
@@ -93,15 +94,16 @@ public class MillerRabinTester implements PrimalityTester {
      * @param x O valor inicial de x (a^d mod n).
      * @param s O expoente da potência de 2 na decomposição de n-1.
      * @param n O número sendo testado.
+     * @param nMinusOne O valor de n-1, já calculado pelo chamador.
      * @return {@code true} se a condição for satisfeita (n pode ser primo), {@code false} se n é certamente composto.
      */
-    private boolean passesSecondCheck(BigInteger x, int s, BigInteger n) {
+    private boolean passesSecondCheck(BigInteger x, int s, BigInteger n, BigInteger nMinusOne) {
         /* --- a^(2^r)d = -1 mod n --- */
-        BigInteger nMinusOne = n.subtract(ONE);
 
-        // Repetir o squaring s-1 vezes.
+        // Repetir o squaring s-1 vezes. Um quadrado simples seguido de redução é
+        // bem mais barato que modPow(TWO, n), que prepara uma exponenciação inteira.
         for (int r = 1; r < s; r++) {
-            x = x.modPow(TWO, n);
+            x = x.multiply(x).mod(n);
             // Se x se tornar 1, n é composto (raiz quadrada não trivial de 1).
             if (x.equals(ONE)) {
                 return false;
@@ -120,10 +122,11 @@ public class MillerRabinTester implements PrimalityTester {
      * Gera uma base aleatória 'a' no intervalo [2, n-2].
      *
      * @param n O limite superior (exclusivo) para a base.
+     * @param nMinusTwo O valor de n-2, já calculado pelo chamador.
      * @return um BigInteger aleatório 'a' tal que 2 <= a <= n-2.
      */
-    private BigInteger getRandomBase(BigInteger n) {
-        BigInteger nMinusTwo = n.subtract(TWO);
+    private BigInteger getRandomBase(BigInteger n, BigInteger nMinusTwo) {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
         BigInteger a;
         do {
             a = new BigInteger(n.bitLength(), rand);
@@ -0,0 +1,96 @@
+package primos.primality;
+
+import primos.math.MontgomeryKernel;
+
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Teste de Miller-Rabin sobre o {@link MontgomeryKernel}, praticamente sem alocação.
+ * <p>
+ * O algoritmo é o mesmo do {@link MillerRabinTester}, mas todas as rodadas
+ * trabalham sobre vetores {@code int[]} de largura fixa: as bases são sorteadas
+ * direto nas palavras do vetor, a exponenciação e os quadrados são feitos no
+ * lugar, e as comparações com 1 e -1 são feitas na forma de Montgomery. O kernel
+ * e seus buffers são criados uma vez por chamada de {@code isPrime} e ficam
+ * confinados à thread que a executa, então a instância pode ser compartilhada.
+ * <p>
+ * Na HotSpot, {@link BigInteger#modPow} usa rotinas de Montgomery intrínsecas,
+ * escritas em assembly, e por isso o {@link MillerRabinTester} continua mais
+ * rápido em CPU. Esta variante troca esse tempo de CPU por uma taxa de alocação
+ * quase nula, útil quando muitas threads testam em paralelo e a pressão sobre o
+ * coletor de lixo é o gargalo (ver {@code ExperimentRunner#benchmarkAllocation}).
+ */
+public class MontgomeryMillerRabinTester implements PrimalityTester {
+
+    private static final BigInteger ONE = BigInteger.ONE;
+    private static final BigInteger THREE = BigInteger.valueOf(3);
+
+    /**
+     * Construtor padrão. Não há estado mutável por instância.
+     */
+    public MontgomeryMillerRabinTester() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isPrime(BigInteger n, int certainty) {
+
+        if (n.compareTo(ONE) <= 0) return false;    // Números <= 1 não são primos.
+        if (n.compareTo(THREE) <= 0) return true;   // 2 e 3 são primos.
+        if (!n.testBit(0)) return false;            // Números pares (exceto 2) não são primos.
+
+        // Decompor n-1 em d * 2^s, onde d é ímpar.
+        BigInteger nMinusOne = n.subtract(ONE);
+        int s = nMinusOne.getLowestSetBit();
+        BigInteger d = nMinusOne.shiftRight(s);
+
+        // Buffers reutilizados por todas as rodadas desta chamada.
+        MontgomeryKernel kernel = new MontgomeryKernel(n);
+        int[] a = kernel.newElement();
+        int[] x = kernel.newElement();
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+        for (int i = 0; i < certainty; i++) {
+            // Escolher uma testemunha aleatória 'a' no intervalo [2, n-2].
+            kernel.randomBase(rand, a);
+            kernel.toMontgomery(a, a);
+            // Calcular x = a^d mod n.
+            kernel.pow(a, d, x);
+
+            // Primeira condição: a^d = 1 ou a^d = -1 (mod n).
+            if (kernel.isOne(x) || kernel.isMinusOne(x)) {
+                continue;
+            }
+
+            // Segunda condição: a^(d*2^r) = -1 (mod n) para algum 0 < r < s.
+            if (!passesSecondCheck(kernel, x, s)) {
+                return false;
+            }
+        }
+
+        // Se n passou em todos os testes, é provavelmente primo.
+        return true;
+    }
+
+    /**
+     * Eleva {@code x} ao quadrado até s-1 vezes, no lugar, procurando -1.
+     *
+     * @return {@code true} se encontrar -1 (n pode ser primo), {@code false} se n é certamente composto.
+     */
+    private boolean passesSecondCheck(MontgomeryKernel kernel, int[] x, int s) {
+        for (int r = 1; r < s; r++) {
+            kernel.square(x, x);
+            // Raiz quadrada não trivial de 1: n é composto.
+            if (kernel.isOne(x)) {
+                return false;
+            }
+            if (kernel.isMinusOne(x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
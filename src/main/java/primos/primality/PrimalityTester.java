@@ -7,6 +7,9 @@ import java.math.BigInteger;
  * <p>
  * O objetivo é permitir que diferentes métodos (como Miller-Rabin, Fermat, etc.)
  * sejam implementados e utilizados de forma intercambiável.
+ * <p>
+ * As implementações devem ser seguras para uso concorrente: uma única instância
+ * pode ser compartilhada por várias threads de busca.
  */
 public interface PrimalityTester {
 
@@ -0,0 +1,177 @@
+package primos.primality;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Certificado de Pocklington de que um número é primo, produzido por
+ * {@link ProvablePrimeGenerator}.
+ * <p>
+ * Cada nível afirma que {@code n = 2 * R * q + 1} é primo porque:
+ * <ol>
+ *     <li>{@code q} é primo (o nível seguinte da cadeia) e {@code q^2 > n};</li>
+ *     <li>{@code a^(n-1) = 1 (mod n)};</li>
+ *     <li>{@code mdc(a^(2R) - 1, n) = 1}.</li>
+ * </ol>
+ * Pelo teorema de Pocklington, todo fator primo {@code p} de {@code n} satisfaz
+ * {@code p = 1 (mod q)}, logo {@code p > q > sqrt(n)}, e {@code n} só pode ser primo.
+ * O último nível é um primo de até {@link #MAX_LEAF_BITS} bits, conferido por
+ * divisão direta.
+ * <p>
+ * A verificação custa duas exponenciações e um mdc por nível, e os níveis caem
+ * pela metade em tamanho: para 4096 bits, alguns milissegundos. Na forma de texto
+ * ({@link #toText()}), cada linha traz {@code <n em hex> <a em hex>}, do primo
+ * certificado até a folha, que só tem {@code n}.
+ */
+public final class PrimeCertificate {
+
+    /**
+     * Maior folha aceita: até 32 bits, a divisão por todos os ímpares até a raiz é imediata.
+     */
+    public static final int MAX_LEAF_BITS = 32;
+
+    private final BigInteger n;
+    private final BigInteger witness;
+    private final PrimeCertificate factor;
+
+    private PrimeCertificate(BigInteger n, BigInteger witness, PrimeCertificate factor) {
+        this.n = n;
+        this.witness = witness;
+        this.factor = factor;
+    }
+
+    /**
+     * Folha da cadeia: um primo pequeno, provado por divisão.
+     */
+    static PrimeCertificate leaf(BigInteger n) {
+        return new PrimeCertificate(n, null, null);
+    }
+
+    /**
+     * Um nível de Pocklington: {@code n = 2Rq + 1}, com a testemunha {@code a} e o certificado de {@code q}.
+     */
+    static PrimeCertificate pocklington(BigInteger n, BigInteger witness, PrimeCertificate factor) {
+        return new PrimeCertificate(n, witness, factor);
+    }
+
+    /**
+     * O primo certificado.
+     */
+    public BigInteger prime() {
+        return n;
+    }
+
+    /**
+     * Quantos níveis a cadeia tem, incluindo a folha.
+     */
+    public int depth() {
+        int depth = 1;
+        for (PrimeCertificate level = factor; level != null; level = level.factor) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Confere a cadeia inteira, sem nenhum teste probabilístico.
+     *
+     * @return {@code true} se todos os níveis forem válidos.
+     */
+    public boolean verify() {
+        for (PrimeCertificate level = this; level != null; level = level.factor) {
+            if (level.factor == null ? !isSmallPrime(level.n) : !level.verifyLevel()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean verifyLevel() {
+        BigInteger q = factor.n;
+        BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+        BigInteger[] division = nMinusOne.divideAndRemainder(q.shiftLeft(1));
+        if (division[1].signum() != 0 || q.multiply(q).compareTo(n) <= 0) {
+            return false;
+        }
+        if (witness.compareTo(BigInteger.TWO) < 0 || witness.compareTo(nMinusOne) >= 0) {
+            return false;
+        }
+        BigInteger power = witness.modPow(division[0].shiftLeft(1), n); // a^(2R) = a^((n-1)/q)
+        // a^(n-1) = (a^(2R))^q
+        return power.modPow(q, n).equals(BigInteger.ONE)
+                && power.subtract(BigInteger.ONE).gcd(n).equals(BigInteger.ONE);
+    }
+
+    /**
+     * Primalidade de um número de até {@link #MAX_LEAF_BITS} bits, por divisão pelos ímpares até a raiz.
+     */
+    static boolean isSmallPrime(BigInteger n) {
+        if (n.bitLength() > MAX_LEAF_BITS) {
+            return false;
+        }
+        long value = n.longValue();
+        if (value < 2) {
+            return false;
+        }
+        if (value % 2 == 0) {
+            return value == 2;
+        }
+        for (long d = 3; d * d <= value; d += 2) {
+            if (value % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serializa a cadeia, uma linha por nível, do primo até a folha.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (PrimeCertificate level = this; level != null; level = level.factor) {
+            text.append(level.n.toString(16));
+            if (level.witness != null) {
+                text.append(' ').append(level.witness.toString(16));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Lê uma cadeia escrita por {@link #toText()}. Não a verifica: chame {@link #verify()}.
+     *
+     * @throws IllegalArgumentException se o texto estiver malformado.
+     */
+    public static PrimeCertificate parse(String text) {
+        List<String[]> levels = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (!line.isBlank()) {
+                levels.add(line.trim().split("\\s+"));
+            }
+        }
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("Certificado vazio.");
+        }
+        try {
+            // monta de baixo para cima: a folha é a última linha
+            String[] last = levels.get(levels.size() - 1);
+            if (last.length != 1) {
+                throw new IllegalArgumentException("A última linha do certificado deve ter apenas o primo da folha.");
+            }
+            PrimeCertificate certificate = leaf(new BigInteger(last[0], 16));
+            for (int i = levels.size() - 2; i >= 0; i--) {
+                String[] level = levels.get(i);
+                if (level.length != 2) {
+                    throw new IllegalArgumentException("Linha de certificado inválida: " + String.join(" ", level));
+                }
+                certificate = pocklington(new BigInteger(level[0], 16), new BigInteger(level[1], 16), certificate);
+            }
+            return certificate;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido no certificado: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package primos.primality;
+
+import primos.math.NttSquarer;
+
+import java.math.BigInteger;
+
+/**
+ * Testes dedicados a números de forma especial, muito maiores que os das buscas comuns.
+ * <ul>
+ *     <li>Mersenne, {@code 2^p - 1}: teste de Lucas-Lehmer, com {@code s_0 = 4} e
+ *     {@code s_(i+1) = s_i^2 - 2}; o número é primo se e só se {@code s_(p-2) = 0}.</li>
+ *     <li>Proth, {@code k * 2^m + 1} com {@code k} ímpar e {@code k < 2^m}: teorema de
+ *     Proth, com uma base {@code a} tal que {@code (a/N) = -1}; o número é primo se e só
+ *     se {@code a^((N-1)/2) = -1 (mod N)}. Com {@code k = 1} (números de Fermat) e
+ *     {@code a = 3}, é o teste de Pépin.</li>
+ * </ul>
+ * Os dois testes são determinísticos, e o parâmetro de certeza é ignorado. Os demais
+ * números vão para o testador de reserva, por padrão o {@link MillerRabinTester}.
+ * <p>
+ * Nenhum dos dois usa {@code modPow}: cada passo é um quadrado seguido de uma redução
+ * feita só com deslocamentos e somas. Módulo {@code 2^p - 1}, {@code x = alto * 2^p + baixo}
+ * vira {@code alto + baixo}. Módulo {@code N = k * 2^m + 1}, o quociente é estimado por
+ * {@code (x >> m) / k}, uma divisão por um número de até 63 bits, e o resto sai com um
+ * deslocamento e duas subtrações. O custo por passo é o de um quadrado, em vez do de um
+ * quadrado mais uma redução de Montgomery ou uma divisão do tamanho do número.
+ * <p>
+ * Os quadrados usam o {@link BigInteger#multiply} (Toom-Cook 3) até
+ * {@link #DEFAULT_NTT_THRESHOLD_BITS} e, acima disso, o {@link NttSquarer}. O limite foi
+ * medido: na máquina de desenvolvimento, o Toom-Cook 3 ganha até cerca de 200 mil bits, e a
+ * NTT passa a ganhar perto de 2^18 bits. Como o ponto de cruzamento muda de uma máquina para
+ * outra, o limite pode ser ajustado no construtor; o benchmark {@code -t} mede os dois.
+ */
+public class SpecialFormTester implements PrimalityTester {
+
+    /**
+     * Tamanho, em bits, a partir do qual os quadrados passam para a NTT.
+     */
+    public static final int DEFAULT_NTT_THRESHOLD_BITS = 1 << 18;
+
+    /**
+     * Abaixo deste tamanho, os números vão direto para o testador de reserva.
+     */
+    private static final int MIN_SPECIAL_BITS = 64;
+
+    /**
+     * Maior {@code k} de Proth aceito: a redução divide por {@code k} a cada passo.
+     */
+    private static final int MAX_PROTH_K_BITS = 63;
+
+    /**
+     * Quantas bases ímpares tentar em busca de um não-resíduo quadrático.
+     */
+    private static final int MAX_PROTH_BASE = 1000;
+
+    private static final BigInteger ONE = BigInteger.ONE;
+    private static final BigInteger TWO = BigInteger.TWO;
+
+    private final PrimalityTester fallback;
+    private final int nttThresholdBits;
+
+    /**
+     * Usa o {@link MillerRabinTester} para os números sem forma especial e o limite padrão da NTT.
+     */
+    public SpecialFormTester() {
+        this(new MillerRabinTester(), DEFAULT_NTT_THRESHOLD_BITS);
+    }
+
+    /**
+     * @param fallback         O testador dos números que não são de Mersenne nem de Proth.
+     * @param nttThresholdBits Tamanho a partir do qual os quadrados usam a NTT.
+     */
+    public SpecialFormTester(PrimalityTester fallback, int nttThresholdBits) {
+        this.fallback = fallback;
+        this.nttThresholdBits = nttThresholdBits;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reconhece as formas de Mersenne e de Proth; os demais números vão para o testador de reserva.
+     */
+    @Override
+    public boolean isPrime(BigInteger n, int certainty) {
+        if (n.bitLength() < MIN_SPECIAL_BITS) {
+            return fallback.isPrime(n, certainty);
+        }
+        if (n.add(ONE).bitCount() == 1) {
+            return isMersennePrime(n.bitLength());
+        }
+        if (n.testBit(0)) {
+            BigInteger nMinusOne = n.subtract(ONE);
+            int m = nMinusOne.getLowestSetBit();
+            BigInteger k = nMinusOne.shiftRight(m);
+            if (k.bitLength() <= Math.min(m, MAX_PROTH_K_BITS)) {
+                Boolean proth = prothTest(k.longValue(), m, n);
+                if (proth != null) {
+                    return proth;
+                }
+            }
+        }
+        return fallback.isPrime(n, certainty);
+    }
+
+    /**
+     * Teste de Lucas-Lehmer para {@code 2^p - 1}.
+     *
+     * @param p O expoente.
+     * @return {@code true} se {@code 2^p - 1} for primo.
+     */
+    public boolean isMersennePrime(int p) {
+        if (p == 2) {
+            return true; // 3
+        }
+        if (!isSmallPrime(p)) {
+            return false; // 2^ab - 1 é divisível por 2^a - 1
+        }
+        BigInteger mersenne = ONE.shiftLeft(p).subtract(ONE);
+        BigInteger s = BigInteger.valueOf(4);
+        for (int i = 0; i < p - 2; i++) {
+            BigInteger t = square(s).subtract(TWO);
+            if (t.signum() < 0) {
+                t = t.add(mersenne);
+            }
+            s = reduceMersenne(t, p, mersenne);
+        }
+        return s.signum() == 0;
+    }
+
+    /**
+     * Teorema de Proth para {@code k * 2^m + 1}.
+     *
+     * @param k O multiplicador, ímpar, positivo e menor que {@code 2^m}.
+     * @param m O expoente.
+     * @return {@code true} se {@code k * 2^m + 1} for primo.
+     * @throws IllegalArgumentException se o número não estiver na forma de Proth.
+     */
+    public boolean isProthPrime(long k, int m) {
+        if (k <= 0 || (k & 1) == 0 || m < 1 || (m < 63 && k >= 1L << m)) {
+            throw new IllegalArgumentException("Forma de Proth inválida: k = " + k + ", m = " + m + ".");
+        }
+        BigInteger n = BigInteger.valueOf(k).shiftLeft(m).add(ONE);
+        if (n.bitLength() < MIN_SPECIAL_BITS) {
+            return n.isProbablePrime(64);
+        }
+        Boolean proth = prothTest(k, m, n);
+        // sem não-resíduo entre as bases tentadas, n é (quase certamente) um quadrado
+        return proth != null ? proth : fallback.isPrime(n, 64);
+    }
+
+    /**
+     * @return O resultado, ou {@code null} se nenhuma base servir.
+     */
+    private Boolean prothTest(long k, int m, BigInteger n) {
+        long base = 0;
+        for (long a = 3; a < MAX_PROTH_BASE; a += 2) {
+            int symbol = LucasTester.jacobi(a, n);
+            if (symbol == 0) {
+                return false; // a e n têm um fator comum, e a < n
+            }
+            if (symbol == -1) {
+                base = a;
+                break;
+            }
+        }
+        if (base == 0) {
+            return null;
+        }
+
+        // a^k por quadrados e multiplicações pela base pequena, depois m - 1 quadrados
+        BigInteger bigK = BigInteger.valueOf(k);
+        BigInteger bigBase = BigInteger.valueOf(base);
+        BigInteger y = ONE;
+        for (int bit = 63 - Long.numberOfLeadingZeros(k); bit >= 0; bit--) {
+            y = reduceProth(square(y), bigK, m, n);
+            if ((k >> bit & 1) != 0) {
+                y = reduceProth(y.multiply(bigBase), bigK, m, n);
+            }
+        }
+        for (int i = 0; i < m - 1; i++) {
+            y = reduceProth(square(y), bigK, m, n);
+        }
+        return y.equals(n.subtract(ONE));
+    }
+
+    private BigInteger square(BigInteger x) {
+        return x.bitLength() >= nttThresholdBits ? NttSquarer.square(x) : x.multiply(x);
+    }
+
+    /**
+     * {@code x mod (2^p - 1)} para {@code x >= 0}: como {@code 2^p = 1}, soma-se a parte
+     * alta à parte baixa até caber em {@code p} bits.
+     */
+    static BigInteger reduceMersenne(BigInteger x, int p, BigInteger mersenne) {
+        while (x.bitLength() > p) {
+            x = x.shiftRight(p).add(x.and(mersenne)); // 2^p - 1 é a máscara dos p bits baixos
+        }
+        return x.equals(mersenne) ? BigInteger.ZERO : x;
+    }
+
+    /**
+     * {@code x mod N} para {@code 0 <= x < N^2} e {@code N = k * 2^m + 1}. Com o quociente
+     * estimado {@code q = floor((x >> m) / k)}, o resto {@code x - q * N} fica em
+     * {@code (-N, 2N)}, e basta uma correção.
+     */
+    static BigInteger reduceProth(BigInteger x, BigInteger k, int m, BigInteger n) {
+        BigInteger high = x.shiftRight(m);
+        BigInteger q = k.equals(ONE) ? high : high.divide(k);
+        BigInteger r = x.subtract(q.multiply(k).shiftLeft(m)).subtract(q);
+        while (r.signum() < 0) {
+            r = r.add(n);
+        }
+        while (r.compareTo(n) >= 0) {
+            r = r.subtract(n);
+        }
+        return r;
+    }
+
+    private static boolean isSmallPrime(int p) {
+        if (p < 2) {
+            return false;
+        }
+        for (int d = 2; (long) d * d <= p; d++) {
+            if (p % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,347 @@
+package primos.primality;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Testador composto que aplica uma cadeia de estágios, do mais barato ao mais caro.
+ * <p>
+ * Cada estágio pode declarar o número composto (a cadeia para ali), primo com
+ * certeza (a cadeia também para) ou deixá-lo seguir para o próximo estágio. Um
+ * número que passa por todos os estágios é considerado provavelmente primo.
+ * Uma cadeia típica é divisão por primos pequenos, depois um único Fermat na
+ * base 2 e, por fim, o Miller-Rabin completo ou o teste forte de Lucas.
+ * <p>
+ * Para cada estágio são contados os números que chegaram até ele, os que ele
+ * rejeitou e o tempo gasto, permitindo ajustar a cadeia mais barata para cada
+ * tamanho em bits. A especificação textual aceita por {@link #parse} é uma lista
+ * separada por vírgulas de:
+ * <ul>
+ *     <li>{@code td[=limite]}: divisão pelos primos ímpares até o limite (padrão 1000);</li>
+ *     <li>{@code f2}: um teste de Fermat na base 2;</li>
+ *     <li>{@code mr}: Miller-Rabin com a certeza pedida;</li>
+ *     <li>{@code fermat}: Fermat com a certeza pedida;</li>
+ *     <li>{@code lucas}: teste forte de Lucas (ignora a certeza).</li>
+ * </ul>
+ */
+public class StagedPrimalityTester implements PrimalityTester {
+
+    /**
+     * Cadeia usada pelo construtor padrão.
+     */
+    public static final String DEFAULT_CHAIN = "td=1000,f2,mr";
+
+    private static final BigInteger ONE = BigInteger.ONE;
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+    private static final BigInteger THREE = BigInteger.valueOf(3);
+
+    /**
+     * Resultado de um estágio.
+     */
+    public enum Verdict {
+        /** O número é certamente composto. */
+        COMPOSITE,
+        /** O número é certamente primo. */
+        PRIME,
+        /** O estágio não decidiu; o número segue para o próximo. */
+        CONTINUE
+    }
+
+    /**
+     * Um estágio da cadeia. Recebe sempre um número ímpar maior que 3.
+     */
+    public interface Stage {
+
+        /**
+         * @param n         O número a ser testado, ímpar e maior que 3.
+         * @param certainty A certeza pedida ao testador composto.
+         * @return O veredito do estágio.
+         */
+        Verdict test(BigInteger n, int certainty);
+
+        /**
+         * Nome do estágio, usado nas estatísticas.
+         */
+        String name();
+    }
+
+    private final Stage[] stages;
+    private final LongAdder[] entered;
+    private final LongAdder[] rejected;
+    private final LongAdder[] nanos;
+
+    /**
+     * Construtor padrão, com a cadeia {@value #DEFAULT_CHAIN}. Permite criar o
+     * testador por reflexão, como os demais.
+     */
+    public StagedPrimalityTester() {
+        this(parseStages(DEFAULT_CHAIN));
+    }
+
+    /**
+     * @param stages Os estágios, na ordem em que serão aplicados.
+     */
+    public StagedPrimalityTester(List<Stage> stages) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("A cadeia precisa de pelo menos um estágio.");
+        }
+        this.stages = stages.toArray(new Stage[0]);
+        this.entered = newAdders(stages.size());
+        this.rejected = newAdders(stages.size());
+        this.nanos = newAdders(stages.size());
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Cria um testador a partir de uma especificação como {@code "td=1000,f2,mr"}.
+     *
+     * @param spec A lista de estágios separados por vírgula.
+     * @return O testador.
+     * @throws IllegalArgumentException se algum estágio for desconhecido.
+     */
+    public static StagedPrimalityTester parse(String spec) {
+        return new StagedPrimalityTester(parseStages(spec));
+    }
+
+    private static List<Stage> parseStages(String spec) {
+        List<Stage> stages = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            String name = item.trim().toLowerCase();
+            if (name.equals("td") || name.startsWith("td=")) {
+                int limit = name.equals("td") ? 1000 : Integer.parseInt(name.substring(3));
+                stages.add(trialDivision(limit));
+            } else if (name.equals("f2")) {
+                stages.add(fermatBase2());
+            } else if (name.equals("mr")) {
+                stages.add(fromTester("mr", new MillerRabinTester()));
+            } else if (name.equals("fermat")) {
+                stages.add(fromTester("fermat", new FermatTester()));
+            } else if (name.equals("lucas")) {
+                stages.add(fromTester("lucas", new LucasTester()));
+            } else {
+                throw new IllegalArgumentException("Estágio desconhecido na cadeia: " + item);
+            }
+        }
+        return stages;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isPrime(BigInteger n, int certainty) {
+        if (n.compareTo(ONE) <= 0) return false;
+        if (n.compareTo(THREE) <= 0) return true;
+        if (!n.testBit(0)) return false;
+
+        for (int i = 0; i < stages.length; i++) {
+            entered[i].increment();
+            long startTime = System.nanoTime();
+            Verdict verdict = stages[i].test(n, certainty);
+            nanos[i].add(System.nanoTime() - startTime);
+
+            if (verdict == Verdict.COMPOSITE) {
+                rejected[i].increment();
+                return false;
+            }
+            if (verdict == Verdict.PRIME) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estágio de divisão pelos primos ímpares até {@code limit}. Os primos são
+     * agrupados em produtos que cabem em um {@code long}, de modo que cada grupo
+     * custa uma única redução do número grande. Se {@code n < limit^2} e nenhum
+     * primo o divide, ele é declarado primo.
+     *
+     * @param limit O maior divisor testado.
+     * @return O estágio.
+     */
+    public static Stage trialDivision(int limit) {
+        return new TrialDivisionStage(limit);
+    }
+
+    /**
+     * Estágio com um único teste de Fermat na base 2: {@code 2^(n-1) = 1 (mod n)}.
+     *
+     * @return O estágio.
+     */
+    public static Stage fermatBase2() {
+        return new Stage() {
+            @Override
+            public Verdict test(BigInteger n, int certainty) {
+                return TWO.modPow(n.subtract(ONE), n).equals(ONE) ? Verdict.CONTINUE : Verdict.COMPOSITE;
+            }
+
+            @Override
+            public String name() {
+                return "f2";
+            }
+        };
+    }
+
+    /**
+     * Adapta um testador como estágio: {@code false} vira composto, {@code true} segue adiante.
+     *
+     * @param name   O nome do estágio.
+     * @param tester O testador.
+     * @return O estágio.
+     */
+    public static Stage fromTester(String name, PrimalityTester tester) {
+        return new Stage() {
+            @Override
+            public Verdict test(BigInteger n, int certainty) {
+                return tester.isPrime(n, certainty) ? Verdict.CONTINUE : Verdict.COMPOSITE;
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * Descrição da cadeia, no mesmo formato aceito por {@link #parse}.
+     */
+    public String chain() {
+        StringBuilder chain = new StringBuilder();
+        for (Stage stage : stages) {
+            if (chain.length() > 0) {
+                chain.append(',');
+            }
+            chain.append(stage.name());
+        }
+        return chain.toString();
+    }
+
+    /**
+     * Quantos números chegaram ao estágio {@code i}.
+     */
+    public long entered(int i) {
+        return entered[i].sum();
+    }
+
+    /**
+     * Quantos números o estágio {@code i} declarou compostos.
+     */
+    public long rejected(int i) {
+        return rejected[i].sum();
+    }
+
+    /**
+     * Tempo total gasto no estágio {@code i}, em nanossegundos.
+     */
+    public long timeNs(int i) {
+        return nanos[i].sum();
+    }
+
+    /**
+     * Zera as estatísticas de todos os estágios.
+     */
+    public void resetStats() {
+        for (int i = 0; i < stages.length; i++) {
+            entered[i].reset();
+            rejected[i].reset();
+            nanos[i].reset();
+        }
+    }
+
+    /**
+     * Tabela com as estatísticas de cada estágio, uma linha por estágio.
+     */
+    public String stats() {
+        StringBuilder table = new StringBuilder(String.format("%-12s | %-12s | %-12s | %-20s%n",
+                "Estágio", "Entradas", "Rejeitados", "Tempo (ms)"));
+        for (int i = 0; i < stages.length; i++) {
+            table.append(String.format("%-12s | %-12d | %-12d | %-20.4f%n",
+                    stages[i].name(), entered(i), rejected(i), timeNs(i) / 1_000_000.0));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Divisão por primos pequenos, com os primos agrupados em produtos de 63 bits.
+     */
+    private static final class TrialDivisionStage implements Stage {
+        private final int limit;
+        private final BigInteger limitSquared;
+        private final long[][] groups;
+        private final BigInteger[] products;
+
+        TrialDivisionStage(int limit) {
+            if (limit < 3) {
+                throw new IllegalArgumentException("O limite da divisão deve ser pelo menos 3.");
+            }
+            this.limit = limit;
+            this.limitSquared = BigInteger.valueOf(limit).multiply(BigInteger.valueOf(limit));
+
+            boolean[] composite = new boolean[limit + 1];
+            List<List<Long>> grouped = new ArrayList<>();
+            List<Long> current = new ArrayList<>();
+            long product = 1;
+            for (int p = 3; p <= limit; p += 2) {
+                if (composite[p]) {
+                    continue;
+                }
+                for (long m = (long) p * p; m <= limit; m += 2L * p) {
+                    composite[(int) m] = true;
+                }
+                if (product > Long.MAX_VALUE / p) {
+                    grouped.add(current);
+                    current = new ArrayList<>();
+                    product = 1;
+                }
+                current.add((long) p);
+                product *= p;
+            }
+            grouped.add(current);
+
+            this.groups = new long[grouped.size()][];
+            this.products = new BigInteger[grouped.size()];
+            for (int g = 0; g < grouped.size(); g++) {
+                List<Long> primes = grouped.get(g);
+                groups[g] = new long[primes.size()];
+                long groupProduct = 1;
+                for (int i = 0; i < primes.size(); i++) {
+                    groups[g][i] = primes.get(i);
+                    groupProduct *= primes.get(i);
+                }
+                products[g] = BigInteger.valueOf(groupProduct);
+            }
+        }
+
+        @Override
+        public Verdict test(BigInteger n, int certainty) {
+            boolean small = n.bitLength() < 63;
+            long value = small ? n.longValue() : 0;
+            for (int g = 0; g < groups.length; g++) {
+                long remainder = n.mod(products[g]).longValue();
+                for (long p : groups[g]) {
+                    if (remainder % p == 0) {
+                        // o próprio número pode ser um dos primos pequenos
+                        return small && value == p ? Verdict.PRIME : Verdict.COMPOSITE;
+                    }
+                }
+            }
+            return n.compareTo(limitSquared) < 0 ? Verdict.PRIME : Verdict.CONTINUE;
+        }
+
+        @Override
+        public String name() {
+            return "td=" + limit;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package primos.server;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cliente bloqueante para o {@link PrimeServer}.
+ * <p>
+ * Cada chamada envia uma requisição e espera a resposta correspondente. Uma
+ * instância pode ser usada por várias threads, mas as chamadas são serializadas;
+ * para paralelismo real, abra uma conexão por thread.
+ */
+public class PrimeClient implements Closeable {
+
+    private final SocketChannel channel;
+    private int nextRequestId = 1;
+
+    /**
+     * Conecta ao servidor em {@code localhost}.
+     *
+     * @param port A porta do servidor.
+     * @throws IOException se a conexão falhar.
+     */
+    public PrimeClient(int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Pede ao servidor {@code count} primos de {@code bitLength} bits.
+     *
+     * @param bitLength O tamanho em bits dos primos.
+     * @param count     A quantidade de primos.
+     * @param certainty O parâmetro de certeza do teste de primalidade.
+     * @return Os primos encontrados.
+     * @throws ServerBusyException se o servidor recusar a requisição por sobrecarga.
+     * @throws IOException         em falhas de comunicação ou erros reportados pelo servidor.
+     */
+    public synchronized List<BigInteger> generate(int bitLength, int count, int certainty) throws IOException {
+        int requestId = nextRequestId++;
+        writeFully(PrimeProtocol.generateRequest(requestId, bitLength, count, certainty));
+
+        ByteBuffer body = readResponse(requestId);
+        int received = body.getInt();
+        List<BigInteger> primes = new ArrayList<>(received);
+        for (int i = 0; i < received; i++) {
+            primes.add(PrimeProtocol.readNumber(body));
+        }
+        return primes;
+    }
+
+    /**
+     * Pede ao servidor que teste a primalidade de {@code n}.
+     *
+     * @param n         O número a ser testado.
+     * @param certainty O parâmetro de certeza do teste de primalidade.
+     * @return {@code true} se o servidor considerar o número provavelmente primo.
+     * @throws ServerBusyException se o servidor recusar a requisição por sobrecarga.
+     * @throws IOException         em falhas de comunicação ou erros reportados pelo servidor.
+     */
+    public synchronized boolean isPrime(BigInteger n, int certainty) throws IOException {
+        int requestId = nextRequestId++;
+        writeFully(PrimeProtocol.testRequest(requestId, n, certainty));
+        return readResponse(requestId).get() == 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Lê o próximo quadro de resposta e valida o identificador e o status.
+     *
+     * @return O corpo da resposta, posicionado logo após o status.
+     */
+    private ByteBuffer readResponse(int expectedId) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(header);
+        ByteBuffer body = ByteBuffer.allocate(header.flip().getInt());
+        readFully(body);
+        body.flip();
+
+        int requestId = body.getInt();
+        byte status = body.get();
+        if (requestId != expectedId) {
+            throw new IOException("Resposta fora de ordem: esperado " + expectedId + ", recebido " + requestId);
+        }
+        if (status == PrimeProtocol.STATUS_BUSY) {
+            throw new ServerBusyException();
+        }
+        if (status == PrimeProtocol.STATUS_ERROR) {
+            byte[] text = new byte[body.getInt()];
+            body.get(text);
+            throw new IOException("Erro do servidor: " + new String(text, StandardCharsets.UTF_8));
+        }
+        return body;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Conexão encerrada pelo servidor.");
+            }
+        }
+    }
+
+    /**
+     * Lançada quando o servidor recusa uma requisição por estar sobrecarregado.
+     * O cliente pode tentar novamente mais tarde.
+     */
+    public static class ServerBusyException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public ServerBusyException() {
+            super("Servidor sobrecarregado; tente novamente mais tarde.");
+        }
+    }
+}
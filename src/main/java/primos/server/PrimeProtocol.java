@@ -0,0 +1,132 @@
+package primos.server;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Protocolo binário usado entre o {@link PrimeServer} e o {@link PrimeClient}.
+ * <p>
+ * Todas as mensagens são quadros no formato {@code [int tamanho][corpo]}, com
+ * inteiros em big-endian e {@code tamanho} contando apenas os bytes do corpo.
+ * <p>
+ * Corpo de uma requisição: {@code [byte operação][int id]} seguido de
+ * <ul>
+ *     <li>{@link #OP_GENERATE}: {@code [int bits][int quantidade][int certeza]}</li>
+ *     <li>{@link #OP_TEST}: {@code [int certeza][int n][n bytes do número]}</li>
+ * </ul>
+ * Corpo de uma resposta: {@code [int id][byte status]} seguido de
+ * <ul>
+ *     <li>{@link #STATUS_OK} para geração: {@code [int quantidade]} e, para cada primo, {@code [int n][n bytes]}</li>
+ *     <li>{@link #STATUS_OK} para teste: {@code [byte 1 se primo, 0 se composto]}</li>
+ *     <li>{@link #STATUS_BUSY}: sem conteúdo; o servidor está sobrecarregado</li>
+ *     <li>{@link #STATUS_ERROR}: {@code [int n][n bytes UTF-8 da mensagem]}</li>
+ * </ul>
+ * Os números trafegam como {@link BigInteger#toByteArray()}.
+ */
+public final class PrimeProtocol {
+
+    public static final byte OP_GENERATE = 1;
+    public static final byte OP_TEST = 2;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_BUSY = 1;
+    public static final byte STATUS_ERROR = 2;
+
+    /**
+     * Tamanho máximo aceito para o corpo de um quadro de requisição.
+     */
+    public static final int MAX_REQUEST_FRAME = 64 * 1024;
+
+    /**
+     * Limites de uma requisição de geração.
+     */
+    public static final int MAX_BIT_LENGTH = 16384;
+    public static final int MAX_COUNT = 10_000;
+
+    private PrimeProtocol() {
+    }
+
+    /**
+     * Monta o quadro de uma requisição de geração.
+     */
+    public static ByteBuffer generateRequest(int requestId, int bitLength, int count, int certainty) {
+        ByteBuffer frame = ByteBuffer.allocate(4 + 1 + 4 + 12);
+        frame.putInt(1 + 4 + 12).put(OP_GENERATE).putInt(requestId)
+                .putInt(bitLength).putInt(count).putInt(certainty);
+        return frame.flip();
+    }
+
+    /**
+     * Monta o quadro de uma requisição de teste de primalidade.
+     */
+    public static ByteBuffer testRequest(int requestId, BigInteger n, int certainty) {
+        byte[] magnitude = n.toByteArray();
+        int bodyLength = 1 + 4 + 4 + 4 + magnitude.length;
+        ByteBuffer frame = ByteBuffer.allocate(4 + bodyLength);
+        frame.putInt(bodyLength).put(OP_TEST).putInt(requestId)
+                .putInt(certainty).putInt(magnitude.length).put(magnitude);
+        return frame.flip();
+    }
+
+    /**
+     * Monta a resposta de uma requisição de geração bem-sucedida.
+     */
+    public static ByteBuffer primesResponse(int requestId, List<BigInteger> primes) {
+        int bodyLength = 4 + 1 + 4;
+        byte[][] encoded = new byte[primes.size()][];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = primes.get(i).toByteArray();
+            bodyLength += 4 + encoded[i].length;
+        }
+        ByteBuffer frame = ByteBuffer.allocate(4 + bodyLength);
+        frame.putInt(bodyLength).putInt(requestId).put(STATUS_OK).putInt(encoded.length);
+        for (byte[] prime : encoded) {
+            frame.putInt(prime.length).put(prime);
+        }
+        return frame.flip();
+    }
+
+    /**
+     * Monta a resposta de uma requisição de teste bem-sucedida.
+     */
+    public static ByteBuffer testResponse(int requestId, boolean prime) {
+        ByteBuffer frame = ByteBuffer.allocate(4 + 4 + 1 + 1);
+        frame.putInt(4 + 1 + 1).putInt(requestId).put(STATUS_OK).put((byte) (prime ? 1 : 0));
+        return frame.flip();
+    }
+
+    /**
+     * Monta a resposta que avisa que o servidor está sobrecarregado.
+     */
+    public static ByteBuffer busyResponse(int requestId) {
+        ByteBuffer frame = ByteBuffer.allocate(4 + 4 + 1);
+        frame.putInt(4 + 1).putInt(requestId).put(STATUS_BUSY);
+        return frame.flip();
+    }
+
+    /**
+     * Monta uma resposta de erro com uma mensagem legível.
+     */
+    public static ByteBuffer errorResponse(int requestId, String message) {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 4 + 1 + 4 + text.length;
+        ByteBuffer frame = ByteBuffer.allocate(4 + bodyLength);
+        frame.putInt(bodyLength).putInt(requestId).put(STATUS_ERROR).putInt(text.length).put(text);
+        return frame.flip();
+    }
+
+    /**
+     * Lê um número no formato {@code [int n][n bytes]} a partir da posição atual do buffer.
+     */
+    static BigInteger readNumber(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Tamanho de número inválido: " + length);
+        }
+        byte[] magnitude = new byte[length];
+        buffer.get(magnitude);
+        return new BigInteger(magnitude);
+    }
+}
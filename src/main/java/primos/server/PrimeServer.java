@@ -0,0 +1,519 @@
+package primos.server;
+
+import primos.ExperimentRunner;
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.PrimalityTester;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor local de números primos baseado em NIO não bloqueante.
+ * <p>
+ * Uma única thread atende todas as conexões com um {@link Selector}, lendo e
+ * escrevendo quadros do {@link PrimeProtocol}. O trabalho pesado roda em um pool
+ * de threads de busca, de modo que a JVM do servidor aquece o JIT e inicializa
+ * os geradores uma só vez para todos os clientes.
+ * <p>
+ * Requisições de geração com o mesmo tamanho em bits e a mesma certeza são
+ * agrupadas em um {@link SearchBatch}: as threads de busca trabalham para o lote
+ * inteiro, e cada primo encontrado vai para a requisição mais antiga ainda
+ * incompleta. Assim, vários clientes pedindo primos de 2048 bits ao mesmo tempo
+ * compartilham a mesma busca paralela. Um lote sai do mapa assim que a sua
+ * última requisição é atendida, e cada thread de busca guarda os seus geradores
+ * (até {@link #GENERATORS_PER_WORKER} tamanhos) para reaproveitá-los entre primos,
+ * lotes e requisições: com o BBS, criar um gerador custa a busca de dois primos de Blum.
+ * <p>
+ * Há duas formas de contrapressão:
+ * <ul>
+ *     <li>Se o total de primos pendentes passar de {@code maxPendingPrimes}, novas
+ *     requisições recebem {@link PrimeProtocol#STATUS_BUSY} imediatamente.</li>
+ *     <li>Se um cliente não consumir suas respostas e a fila de saída dele passar
+ *     de {@link #MAX_QUEUED_BYTES}, o servidor para de ler dessa conexão até que
+ *     a fila seja esvaziada.</li>
+ * </ul>
+ */
+public class PrimeServer implements Closeable {
+
+    /**
+     * Limite de bytes aguardando envio em uma conexão antes de pausar sua leitura.
+     */
+    static final int MAX_QUEUED_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * Quantos tamanhos em bits cada thread de busca mantém com gerador pronto.
+     */
+    static final int GENERATORS_PER_WORKER = 8;
+
+    private final Class<? extends PseudoRandomGenerator> generatorClass;
+    private final PrimalityTester tester;
+    private final int workers;
+    private final int maxPendingPrimes;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService pool;
+
+    private final Map<Long, SearchBatch> batches = new ConcurrentHashMap<>();
+    private final Queue<Response> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingPrimes = new AtomicInteger();
+
+    /**
+     * Os geradores de cada thread de busca, por tamanho em bits, do menos para o mais recentemente usado.
+     */
+    private final ThreadLocal<Map<Integer, PseudoRandomGenerator>> generators =
+            ThreadLocal.withInitial(() -> new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, PseudoRandomGenerator> eldest) {
+                    return size() > GENERATORS_PER_WORKER;
+                }
+            });
+
+    private volatile boolean running = true;
+
+    /**
+     * Cria o servidor e abre o socket em {@code localhost}.
+     *
+     * @param port             A porta TCP (0 escolhe uma porta livre).
+     * @param generatorClass   A CLASSE do gerador de candidatos.
+     * @param tester           O testador de primalidade, compartilhado pelas threads de busca.
+     * @param workers          O número de threads de busca.
+     * @param maxPendingPrimes O número máximo de primos pedidos e ainda não entregues.
+     * @throws IOException se o socket não puder ser aberto.
+     */
+    public PrimeServer(int port,
+                       Class<? extends PseudoRandomGenerator> generatorClass,
+                       PrimalityTester tester,
+                       int workers,
+                       int maxPendingPrimes) throws IOException {
+        this.generatorClass = generatorClass;
+        this.tester = tester;
+        this.workers = workers;
+        this.maxPendingPrimes = maxPendingPrimes;
+
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.pool = Executors.newFixedThreadPool(workers);
+    }
+
+    /**
+     * Retorna a porta em que o servidor está escutando.
+     */
+    public int port() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Executa o laço do seletor até que {@link #close()} seja chamado.
+     *
+     * @throws IOException se o seletor falhar.
+     */
+    public void serve() throws IOException {
+        try {
+            while (running) {
+                selector.select();
+                drainCompleted();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        closeConnection(key);
+                    }
+                }
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Interrompe o servidor. O laço de {@link #serve()} termina na próxima volta.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void shutdown() throws IOException {
+        pool.shutdownNow();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        int read = connection.channel.read(connection.input);
+        if (read < 0) {
+            closeConnection(key);
+            return;
+        }
+
+        // Processa todos os quadros completos que já chegaram.
+        ByteBuffer input = connection.input;
+        input.flip();
+        while (input.remaining() >= 4) {
+            int length = input.getInt(input.position());
+            if (length < 5 || length > PrimeProtocol.MAX_REQUEST_FRAME) {
+                closeConnection(key);
+                return;
+            }
+            if (input.remaining() < 4 + length) {
+                break;
+            }
+            input.getInt();
+            ByteBuffer body = input.slice();
+            body.limit(length);
+            input.position(input.position() + length);
+            handleRequest(connection, body);
+        }
+        input.compact();
+    }
+
+    private void handleRequest(Connection connection, ByteBuffer body) {
+        byte operation = body.get();
+        int requestId = body.getInt();
+        try {
+            switch (operation) {
+                case PrimeProtocol.OP_GENERATE:
+                    handleGenerate(connection, requestId, body.getInt(), body.getInt(), body.getInt());
+                    break;
+                case PrimeProtocol.OP_TEST:
+                    int certainty = body.getInt();
+                    handleTest(connection, requestId, PrimeProtocol.readNumber(body), certainty);
+                    break;
+                default:
+                    enqueue(connection, PrimeProtocol.errorResponse(requestId, "Operação desconhecida: " + operation));
+            }
+        } catch (RuntimeException e) {
+            enqueue(connection, PrimeProtocol.errorResponse(requestId, "Requisição inválida: " + e.getMessage()));
+        }
+    }
+
+    private void handleGenerate(Connection connection, int requestId, int bitLength, int count, int certainty) {
+        if (bitLength < 2 || bitLength > PrimeProtocol.MAX_BIT_LENGTH
+                || count < 1 || count > PrimeProtocol.MAX_COUNT || certainty < 1) {
+            enqueue(connection, PrimeProtocol.errorResponse(requestId, "Parâmetros de geração fora dos limites."));
+            return;
+        }
+        if (count > maxPendingPrimes) {
+            // nunca caberia na reserva: responder BUSY faria o cliente tentar para sempre
+            enqueue(connection, PrimeProtocol.errorResponse(requestId,
+                    "Quantidade acima do limite do servidor (" + maxPendingPrimes + " primos por requisição)."));
+            return;
+        }
+        if (!reserve(count)) {
+            enqueue(connection, PrimeProtocol.busyResponse(requestId));
+            return;
+        }
+
+        long batchKey = ((long) bitLength << 32) | (certainty & 0xffffffffL);
+        PendingGenerate request = new PendingGenerate(connection, requestId, count);
+        // um lote recém-esvaziado recusa a requisição; então ela abre um lote novo
+        while (!batches.computeIfAbsent(batchKey, k -> new SearchBatch(k, bitLength, certainty)).add(request)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void handleTest(Connection connection, int requestId, BigInteger n, int certainty) {
+        if (certainty < 1 || n.bitLength() > PrimeProtocol.MAX_BIT_LENGTH) {
+            enqueue(connection, PrimeProtocol.errorResponse(requestId, "Parâmetros de teste fora dos limites."));
+            return;
+        }
+        if (!reserve(1)) {
+            enqueue(connection, PrimeProtocol.busyResponse(requestId));
+            return;
+        }
+        pool.execute(() -> {
+            ByteBuffer response;
+            try {
+                response = PrimeProtocol.testResponse(requestId, tester.isPrime(n, certainty));
+            } catch (RuntimeException e) {
+                response = PrimeProtocol.errorResponse(requestId, "Falha no teste: " + e);
+            }
+            // libera antes de responder, como no lote: o cliente pode mandar o próximo pedido logo
+            pendingPrimes.decrementAndGet();
+            complete(connection, response);
+        });
+    }
+
+    /**
+     * Reserva espaço para {@code amount} unidades de trabalho, respeitando o limite global.
+     */
+    private boolean reserve(int amount) {
+        while (true) {
+            int current = pendingPrimes.get();
+            if (current + amount > maxPendingPrimes) {
+                return false;
+            }
+            if (pendingPrimes.compareAndSet(current, current + amount)) {
+                return true;
+            }
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        while (!connection.output.isEmpty()) {
+            ByteBuffer head = connection.output.peek();
+            connection.queuedBytes -= connection.channel.write(head);
+            if (head.hasRemaining()) {
+                break;
+            }
+            connection.output.poll();
+        }
+        updateInterest(key, connection);
+    }
+
+    /**
+     * Enfileira uma resposta produzida na própria thread do seletor.
+     */
+    private void enqueue(Connection connection, ByteBuffer frame) {
+        connection.output.add(frame);
+        connection.queuedBytes += frame.remaining();
+        SelectionKey key = connection.channel.keyFor(selector);
+        if (key != null && key.isValid()) {
+            updateInterest(key, connection);
+        }
+    }
+
+    /**
+     * Entrega uma resposta produzida por uma thread de busca ao seletor.
+     */
+    private void complete(Connection connection, ByteBuffer frame) {
+        completed.add(new Response(connection, frame));
+        selector.wakeup();
+    }
+
+    private void drainCompleted() {
+        Response response;
+        while ((response = completed.poll()) != null) {
+            if (response.connection.channel.isOpen()) {
+                enqueue(response.connection, response.frame);
+            }
+        }
+    }
+
+    private void updateInterest(SelectionKey key, Connection connection) {
+        int interest = 0;
+        if (connection.queuedBytes < MAX_QUEUED_BYTES) {
+            interest |= SelectionKey.OP_READ;
+        }
+        if (!connection.output.isEmpty()) {
+            interest |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(interest);
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // a conexão já está sendo descartada
+        }
+    }
+
+    /**
+     * Estado de uma conexão; acessado apenas pela thread do seletor.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(PrimeProtocol.MAX_REQUEST_FRAME + 4);
+        final Queue<ByteBuffer> output = new ArrayDeque<>();
+        long queuedBytes;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class Response {
+        final Connection connection;
+        final ByteBuffer frame;
+
+        Response(Connection connection, ByteBuffer frame) {
+            this.connection = connection;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * Uma requisição de geração aguardando seus primos.
+     */
+    private static final class PendingGenerate {
+        final Connection connection;
+        final int requestId;
+        final List<BigInteger> primes;
+        final int count;
+
+        PendingGenerate(Connection connection, int requestId, int count) {
+            this.connection = connection;
+            this.requestId = requestId;
+            this.count = count;
+            this.primes = new ArrayList<>(count);
+        }
+    }
+
+    /**
+     * Agrupa as requisições pendentes de um mesmo tamanho em bits e certeza.
+     * <p>
+     * Cada tarefa submetida ao pool encontra um único primo e, se ainda houver
+     * demanda, se submete novamente. Isso mantém o número de tarefas ativas
+     * limitado a {@code min(workers, primos pendentes)} e permite que lotes de
+     * tamanhos diferentes se revezem nas mesmas threads. Quando a última tarefa
+     * termina sem demanda, o lote se fecha e sai de {@link #batches}.
+     */
+    private final class SearchBatch {
+        final long key;
+        final int bitLength;
+        final int certainty;
+        final ArrayDeque<PendingGenerate> waiting = new ArrayDeque<>();
+        int outstanding;
+        int activeTasks;
+        boolean closed;
+
+        SearchBatch(long key, int bitLength, int certainty) {
+            this.key = key;
+            this.bitLength = bitLength;
+            this.certainty = certainty;
+        }
+
+        /**
+         * @return {@code false} se o lote já tiver se fechado.
+         */
+        boolean add(PendingGenerate request) {
+            int toStart;
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                waiting.add(request);
+                outstanding += request.count;
+                toStart = Math.min(workers, outstanding) - activeTasks;
+                if (toStart > 0) {
+                    activeTasks += toStart;
+                }
+            }
+            for (int i = 0; i < toStart; i++) {
+                pool.execute(this::searchOne);
+            }
+            return true;
+        }
+
+        private void searchOne() {
+            BigInteger prime;
+            Map<Integer, PseudoRandomGenerator> mine = generators.get();
+            try {
+                PseudoRandomGenerator generator = mine.get(bitLength);
+                if (generator == null) {
+                    generator = generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength);
+                    mine.put(bitLength, generator);
+                }
+                prime = ExperimentRunner.findPrime(tester, generator, certainty);
+            } catch (ReflectiveOperationException e) {
+                failAll("Falha ao instanciar o gerador: " + e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                // sem isso a tarefa morreria calada, e o lote e a reserva nunca seriam liberados
+                mine.remove(bitLength);
+                failAll("Falha na busca: " + e);
+                return;
+            }
+
+            boolean again;
+            synchronized (this) {
+                PendingGenerate head = waiting.peek();
+                if (head != null) {
+                    head.primes.add(prime);
+                    outstanding--;
+                    if (head.primes.size() == head.count) {
+                        waiting.poll();
+                        pendingPrimes.addAndGet(-head.count);
+                        complete(head.connection, PrimeProtocol.primesResponse(head.requestId, head.primes));
+                    }
+                }
+                again = outstanding >= activeTasks;
+                if (!again) {
+                    taskFinished();
+                }
+            }
+            if (again) {
+                pool.execute(this::searchOne);
+            }
+        }
+
+        private void failAll(String message) {
+            synchronized (this) {
+                PendingGenerate request;
+                while ((request = waiting.poll()) != null) {
+                    pendingPrimes.addAndGet(-request.count);
+                    complete(request.connection, PrimeProtocol.errorResponse(request.requestId, message));
+                }
+                outstanding = 0;
+                taskFinished();
+            }
+        }
+
+        /**
+         * Chamado com o monitor do lote; fecha o lote quando a última tarefa termina sem demanda.
+         */
+        private void taskFinished() {
+            activeTasks--;
+            if (activeTasks == 0 && waiting.isEmpty()) {
+                closed = true;
+                batches.remove(key, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package primos.sieve;
+
+import java.util.Arrays;
+
+/**
+ * Um padrão de constelação de primos: os deslocamentos {@code 0 = o_0 < o_1 < ... < o_(k-1)}
+ * tais que {@code n + o_i} são todos primos.
+ * <p>
+ * Os padrões padrão são os menores de cada tamanho (mais o primo, o primo-irmão
+ * e o "sexy"). Um padrão é admissível se, para cada primo {@code p <= k}, os
+ * deslocamentos não cobrem todas as classes de resto módulo {@code p}; caso
+ * contrário, um dos membros seria sempre múltiplo de {@code p}, e só pode haver
+ * um número finito de ocorrências.
+ */
+public final class Constellation {
+
+    public static final Constellation TWIN = new Constellation("twin", 0, 2);
+    public static final Constellation COUSIN = new Constellation("cousin", 0, 4);
+    public static final Constellation SEXY = new Constellation("sexy", 0, 6);
+    public static final Constellation TRIPLET = new Constellation("triplet", 0, 2, 6);
+    public static final Constellation TRIPLET_B = new Constellation("triplet-b", 0, 4, 6);
+    public static final Constellation QUADRUPLET = new Constellation("quadruplet", 0, 2, 6, 8);
+    public static final Constellation QUINTUPLET = new Constellation("quintuplet", 0, 2, 6, 8, 12);
+    public static final Constellation SEXTUPLET = new Constellation("sextuplet", 0, 4, 6, 10, 12, 16);
+
+    private static final Constellation[] STANDARD = {
+            TWIN, COUSIN, SEXY, TRIPLET, TRIPLET_B, QUADRUPLET, QUINTUPLET, SEXTUPLET
+    };
+
+    private final String name;
+    private final int[] offsets;
+
+    private Constellation(String name, int... offsets) {
+        this.name = name;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Os padrões com nome, do par de primos gêmeos à sêxtupla.
+     */
+    public static Constellation[] standard() {
+        return STANDARD.clone();
+    }
+
+    /**
+     * Converte um nome de padrão ({@code twin}, {@code triplet}, ...) ou uma lista de
+     * deslocamentos separados por vírgula ({@code 0,2,6,8}).
+     *
+     * @throws IllegalArgumentException se o nome não existir ou o padrão não for admissível.
+     */
+    public static Constellation parse(String spec) {
+        for (Constellation constellation : STANDARD) {
+            if (constellation.name.equalsIgnoreCase(spec)) {
+                return constellation;
+            }
+        }
+        String[] parts = spec.split(",");
+        int[] offsets = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                offsets[i] = Integer.parseInt(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Padrão de constelação inválido: " + spec);
+        }
+        return of(offsets);
+    }
+
+    /**
+     * Cria um padrão a partir dos deslocamentos.
+     *
+     * @throws IllegalArgumentException se os deslocamentos não começarem em 0, não forem
+     *                                  estritamente crescentes ou o padrão não for admissível.
+     */
+    public static Constellation of(int... offsets) {
+        if (offsets.length < 2 || offsets[0] != 0) {
+            throw new IllegalArgumentException("O padrão precisa de pelo menos dois deslocamentos, começando em 0.");
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] <= offsets[i - 1]) {
+                throw new IllegalArgumentException("Os deslocamentos devem ser estritamente crescentes.");
+            }
+        }
+        Constellation constellation = new Constellation(join(offsets), offsets.clone());
+        int blocker = constellation.blockingPrime();
+        if (blocker != 0) {
+            throw new IllegalArgumentException("Padrão " + join(offsets) + " não admissível: um membro é sempre múltiplo de "
+                    + blocker + ".");
+        }
+        return constellation;
+    }
+
+    /**
+     * O menor primo {@code p <= k} cujas classes de resto são todas cobertas, ou 0 se o padrão for admissível.
+     */
+    private int blockingPrime() {
+        for (int p = 2; p <= offsets.length; p++) {
+            if (!isSmallPrime(p)) {
+                continue;
+            }
+            boolean[] covered = new boolean[p];
+            int classes = 0;
+            for (int offset : offsets) {
+                if (!covered[offset % p]) {
+                    covered[offset % p] = true;
+                    classes++;
+                }
+            }
+            if (classes == p) {
+                return p;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isSmallPrime(int p) {
+        for (int d = 2; d * d <= p; d++) {
+            if (p % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String join(int[] offsets) {
+        StringBuilder text = new StringBuilder();
+        for (int offset : offsets) {
+            if (text.length() > 0) {
+                text.append(',');
+            }
+            text.append(offset);
+        }
+        return text.toString();
+    }
+
+    /**
+     * O nome do padrão, ou os deslocamentos para um padrão sem nome.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Quantos primos formam a constelação.
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * O deslocamento do membro {@code i}.
+     */
+    public int offset(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * A distância entre o primeiro e o último membro.
+     */
+    public int diameter() {
+        return offsets[offsets.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + Arrays.toString(offsets);
+    }
+}
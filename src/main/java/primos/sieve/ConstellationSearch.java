@@ -0,0 +1,350 @@
+package primos.sieve;
+
+import primos.io.PrimeWriter;
+import primos.primality.PrimalityTester;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Busca constelações de primos grandes ({@link Constellation}): pares de gêmeos,
+ * trios, quádruplas etc.
+ * <p>
+ * Os primos 2, 3, 5 e 7 são tratados por uma roda: só as classes de resto módulo
+ * {@link #WHEEL} em que nenhum membro é múltiplo deles são admissíveis (uma única
+ * classe para a sêxtupla, 15 para os gêmeos). A faixa do tamanho pedido é dividida
+ * em janelas de {@link #WINDOW} candidatos {@code n = B + 210i}, uma por bloco de
+ * {@code WINDOW * WHEEL} números e classe admissível. Para cada primo {@code p} do crivo e cada deslocamento
+ * {@code o} do padrão, são riscados os {@code i} em que {@code p} divide {@code n + o}:
+ * um único resto {@code B mod p} serve para todos os deslocamentos. Só os {@code n}
+ * em que nenhum membro foi riscado chegam ao {@link PrimalityTester}, que testa os
+ * membros em ordem e para no primeiro composto.
+ * <p>
+ * Cada execução sorteia uma única janela inicial; a partir dela, a thread {@code t} de
+ * {@code T} pega as janelas {@code t, t + T, t + 2T, ...}, dando a volta ao chegar ao fim
+ * da faixa. As janelas não se sobrepõem, então nenhuma constelação aparece duas vezes sem
+ * que a faixa inteira tenha sido percorrida; quando isso acontece, a busca para com as que
+ * houver. Como em {@code BulkGenerator}, as constelações encontradas passam por uma fila
+ * limitada até a thread que chamou {@link #run}, a única que escreve na saída, e a memória
+ * não depende da quantidade pedida.
+ */
+public class ConstellationSearch {
+
+    /**
+     * Candidatos por janela crivada.
+     */
+    static final int WINDOW = 1 << 16;
+
+    /**
+     * O passo entre candidatos, 2 * 3 * 5 * 7.
+     */
+    static final int WHEEL = 210;
+
+    /**
+     * Maior primo usado no crivo. Com k deslocamentos, a fração de candidatos que
+     * sobrevive cai como (1 / ln(limite))^k, então padrões maiores ganham mais com
+     * um crivo fundo.
+     */
+    static final int SIEVE_LIMIT = 1 << 18;
+
+    /**
+     * Menor tamanho aceito para o primeiro membro: a partir dele, todo membro é maior que
+     * {@link #SIEVE_LIMIT}, e o crivo não risca um membro que seja ele mesmo um primo do crivo.
+     */
+    static final int MIN_BIT_LENGTH = 19;
+
+    private static final int QUEUE_SLOTS_PER_THREAD = 16;
+    private static final long PROGRESS_INTERVAL_NS = 1_000_000_000L;
+
+    private final Constellation pattern;
+    private final PrimalityTester tester;
+    private final int certainty;
+    private final int threads;
+    private final int[] residues;
+
+    private final LongAdder candidates = new LongAdder();
+    private final LongAdder survivors = new LongAdder();
+
+    /**
+     * @param pattern   O padrão procurado.
+     * @param tester    O testador de primalidade, compartilhado pelas threads.
+     * @param certainty O parâmetro de certeza do teste.
+     * @param threads   O número de threads de busca.
+     */
+    public ConstellationSearch(Constellation pattern, PrimalityTester tester, int certainty, int threads) {
+        this.pattern = pattern;
+        this.tester = tester;
+        this.certainty = certainty;
+        this.threads = threads;
+        this.residues = admissibleResidues(pattern);
+    }
+
+    /**
+     * As classes de resto módulo {@link #WHEEL} em que nenhum membro do padrão é par
+     * ou múltiplo de 3, 5 ou 7.
+     */
+    private static int[] admissibleResidues(Constellation pattern) {
+        List<Integer> residues = new ArrayList<>();
+        for (int r = 0; r < WHEEL; r++) {
+            boolean admissible = true;
+            for (int j = 0; j < pattern.size() && admissible; j++) {
+                int member = (r + pattern.offset(j)) % WHEEL;
+                admissible = member % 2 != 0 && member % 3 != 0 && member % 5 != 0 && member % 7 != 0;
+            }
+            if (admissible) {
+                residues.add(r);
+            }
+        }
+        return residues.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Encontra {@code count} constelações cujo primeiro membro tem {@code bitLength} bits
+     * e escreve esse primeiro membro em {@code writer}; os demais são ele mais os deslocamentos.
+     *
+     * @param bitLength O tamanho em bits do primeiro membro, pelo menos {@link #MIN_BIT_LENGTH}.
+     * @param count     Quantas constelações encontrar.
+     * @param writer    O destino dos primeiros membros.
+     * @param progress  Onde imprimir o progresso e o resumo final.
+     * @return Quantas constelações foram escritas.
+     * @throws IOException          se a escrita falhar.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public long run(int bitLength, long count, PrimeWriter writer, PrintStream progress)
+            throws IOException, InterruptedException {
+        if (bitLength < MIN_BIT_LENGTH) {
+            throw new IllegalArgumentException("A busca de constelações precisa de pelo menos "
+                    + MIN_BIT_LENGTH + " bits.");
+        }
+        int[] primes = primesAboveWheel(SIEVE_LIMIT);
+        int[] wheelInverses = new int[primes.length];
+        for (int k = 0; k < primes.length; k++) {
+            wheelInverses[k] = BigInteger.valueOf(WHEEL).modInverse(BigInteger.valueOf(primes[k])).intValue();
+        }
+
+        // a faixa começa no múltiplo de 210 logo abaixo de 2^(bitLength-1)
+        BigInteger low = BigInteger.ONE.shiftLeft(bitLength - 1);
+        low = low.subtract(low.mod(BigInteger.valueOf(WHEEL)));
+        BigInteger span = BigInteger.valueOf((long) WINDOW * WHEEL);
+        BigInteger blocks = BigInteger.ONE.shiftLeft(bitLength).subtract(low).add(span).subtract(BigInteger.ONE)
+                .divide(span);
+        BigInteger windows = blocks.multiply(BigInteger.valueOf(residues.length));
+        BigInteger start = new BigInteger(windows.bitLength() + 64, new SecureRandom()).mod(windows);
+        WindowRange range = new WindowRange(bitLength, low, windows, start);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        BlockingQueue<BigInteger> found = new ArrayBlockingQueue<>(threads * QUEUE_SLOTS_PER_THREAD);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                try {
+                    search(range, thread, primes, wheelInverses, found);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        pool.shutdown();
+
+        long startTime = System.nanoTime();
+        long lastReport = startTime;
+        long written = 0;
+        boolean exhausted = false;
+        try {
+            while (written < count) {
+                BigInteger first = found.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    writer.write(first);
+                    written++;
+                } else if (failure.get() != null) {
+                    throw new IOException("Falha em uma thread de busca", failure.get());
+                } else if (pool.isTerminated() && found.isEmpty()) {
+                    exhausted = true; // todas as janelas da faixa foram crivadas
+                    break;
+                }
+
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NS) {
+                    lastReport = now;
+                    progress.printf("Progresso: %d/%d constelações, %.1f por hora, %d candidatos crivados%n",
+                            written, count, perHour(written, now - startTime), candidates.sum());
+                }
+            }
+            writer.flush();
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        long elapsedNs = System.nanoTime() - startTime;
+        progress.printf("Concluído: %d constelação(ões) %s de %d bits em %.3f s (%.1f por hora); "
+                        + "%d candidatos, %d sobreviveram ao crivo%n",
+                written, pattern.name(), bitLength, elapsedNs / 1e9, perHour(written, elapsedNs),
+                candidates.sum(), survivors.sum());
+        if (exhausted) {
+            progress.printf("A faixa de %d bits se esgotou antes das %d constelações pedidas.%n", bitLength, count);
+        }
+        return written;
+    }
+
+    /**
+     * A faixa de janelas de uma execução: {@code windows} janelas a partir de {@code low},
+     * percorridas a partir da janela sorteada {@code start}.
+     */
+    private static final class WindowRange {
+        final int bitLength;
+        final BigInteger low;
+        final BigInteger windows;
+        final BigInteger start;
+
+        WindowRange(int bitLength, BigInteger low, BigInteger windows, BigInteger start) {
+            this.bitLength = bitLength;
+            this.low = low;
+            this.windows = windows;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Laço de uma thread: criva as janelas {@code thread, thread + threads, ...} da faixa
+     * até percorrê-la inteira ou ser interrompida.
+     */
+    private void search(WindowRange range, int thread, int[] primes, int[] wheelInverses,
+                        BlockingQueue<BigInteger> found) throws InterruptedException {
+        BigInteger wheel = BigInteger.valueOf(WHEEL);
+        BigInteger classes = BigInteger.valueOf(residues.length);
+        BigInteger span = BigInteger.valueOf((long) WINDOW * WHEEL);
+        boolean[] composite = new boolean[WINDOW];
+        int members = pattern.size();
+        int bitLength = range.bitLength;
+
+        for (long k = thread; BigInteger.valueOf(k).compareTo(range.windows) < 0
+                && !Thread.currentThread().isInterrupted(); k += threads) {
+            // janela j: bloco j / classes, classe admissível j % classes
+            BigInteger[] blockAndClass = range.start.add(BigInteger.valueOf(k)).mod(range.windows)
+                    .divideAndRemainder(classes);
+            BigInteger base = range.low.add(blockAndClass[0].multiply(span))
+                    .add(BigInteger.valueOf(residues[blockAndClass[1].intValue()]));
+            sieveWindow(base, primes, wheelInverses, composite);
+
+            int tested = 0;
+            for (int i = 0; i < WINDOW; i++) {
+                if (composite[i]) {
+                    continue;
+                }
+                BigInteger n = base.add(wheel.multiply(BigInteger.valueOf(i)));
+                if (n.bitLength() < bitLength) {
+                    continue; // o primeiro bloco começa um pouco abaixo da faixa
+                }
+                if (n.bitLength() > bitLength) {
+                    break; // o último bloco passa do tamanho pedido
+                }
+                tested++;
+                int j = 0;
+                while (j < members && tester.isPrime(n.add(BigInteger.valueOf(pattern.offset(j))), certainty)) {
+                    j++;
+                }
+                if (j == members) {
+                    found.put(n);
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+            candidates.add(WINDOW);
+            survivors.add(tested);
+        }
+    }
+
+    /**
+     * Marca em {@code composite} os {@code i} em que algum membro {@code base + 210i + o}
+     * tem um fator em {@code primes}.
+     */
+    private void sieveWindow(BigInteger base, int[] primes, int[] wheelInverses, boolean[] composite) {
+        Arrays.fill(composite, false);
+        int[] words = magnitudeWords(base);
+        for (int k = 0; k < primes.length; k++) {
+            int p = primes[k];
+            long baseMod = 0;
+            for (int word : words) {
+                baseMod = ((baseMod << 32) | (word & 0xffffffffL)) % p;
+            }
+            for (int j = 0; j < pattern.size(); j++) {
+                // base + 210i + o = 0 (mod p)  <=>  i = -(base + o) / 210 (mod p)
+                long residue = (baseMod + pattern.offset(j)) % p;
+                int i = (int) ((p - residue) % p * wheelInverses[k] % p);
+                for (; i < WINDOW; i += p) {
+                    composite[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * A magnitude em palavras de 32 bits, da mais para a menos significativa.
+     */
+    private static int[] magnitudeWords(BigInteger n) {
+        byte[] bytes = n.toByteArray();
+        int[] words = new int[(n.bitLength() + 31) / 32];
+        for (int b = 0; b < bytes.length; b++) {
+            int fromEnd = bytes.length - 1 - b;
+            int word = words.length - 1 - fromEnd / 4;
+            if (word >= 0) {
+                words[word] |= (bytes[b] & 0xff) << (8 * (fromEnd % 4));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Primos maiores que 7 (os da roda) e menores que {@code limit}, por um crivo simples.
+     */
+    private static int[] primesAboveWheel(int limit) {
+        boolean[] composite = new boolean[limit];
+        List<Integer> primes = new ArrayList<>();
+        for (int i = 3; i < limit; i += 2) {
+            if (!composite[i]) {
+                if (i > 7) {
+                    primes.add(i);
+                }
+                for (long j = (long) i * i; j < limit; j += 2L * i) {
+                    composite[(int) j] = true;
+                }
+            }
+        }
+        return primes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double perHour(long tuples, long elapsedNs) {
+        return tuples * 3600e9 / Math.max(1, elapsedNs);
+    }
+
+    /**
+     * Quantos candidatos foram crivados até agora.
+     */
+    public long candidates() {
+        return candidates.sum();
+    }
+
+    /**
+     * Quantos candidatos sobreviveram ao crivo e foram entregues ao testador.
+     */
+    public long survivors() {
+        return survivors.sum();
+    }
+}
@@ -0,0 +1,482 @@
+package primos.sieve;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Crivo de Eratóstenes segmentado e paralelo para enumerar todos os primos de um intervalo.
+ * <p>
+ * Características:
+ * <ul>
+ *     <li>Apenas os ímpares são representados: o bit {@code k} corresponde ao número {@code 2k + 1}.</li>
+ *     <li>Roda (wheel) de 2·3·5·7, estendida a 11 e 13: cada segmento começa como uma
+ *     cópia de um padrão pré-crivado com esses primos, então eles nunca são riscados
+ *     um a um.</li>
+ *     <li>Segmentos de {@link #SEGMENT_BYTES} bytes, do tamanho de uma cache L2, processados
+ *     em lotes de {@link #SEGMENTS_PER_TASK} por tarefa em um pool de threads.</li>
+ *     <li>Cada thread guarda as posições de corte dos primos-base entre uma tarefa e outra:
+ *     se a próxima tarefa começa onde a anterior terminou (sempre, com uma thread), elas
+ *     continuam valendo; senão, são recalculadas uma vez para a tarefa, não por segmento.</li>
+ *     <li>Os primos-base maiores que um segmento riscam no máximo um número por segmento.
+ *     Eles ficam em baldes, um por segmento, com o segmento do seu próximo múltiplo; cada
+ *     segmento só percorre o seu balde, em vez de todos os primos-base.</li>
+ *     <li>As tarefas terminam fora de ordem, mas seus resultados são consumidos na ordem
+ *     do intervalo, através de uma janela limitada. A memória usada depende do número
+ *     de threads e da raiz quadrada do limite superior, nunca do tamanho do intervalo.</li>
+ * </ul>
+ * O limite superior aceito é {@link #MAX_LIMIT}. Lá, os primos-base vão até 10^8: são
+ * cerca de 5,8 milhões, que ocupam 23 MB em um {@code int[]} compartilhado, mais uns 46 MB
+ * de entradas nos baldes de cada thread, alocados uma vez por chamada e reaproveitados de
+ * tarefa em tarefa. Acima disso, essas tabelas crescem com √fim e passariam de centenas de
+ * megabytes por thread.
+ */
+public class SegmentedSieve {
+
+    /**
+     * Maior limite superior aceito (10^16).
+     */
+    public static final long MAX_LIMIT = 10_000_000_000_000_000L;
+
+    static final int SEGMENT_BYTES = 256 * 1024;
+    private static final int SEGMENT_WORDS = SEGMENT_BYTES / Long.BYTES;
+    private static final long SEGMENT_BITS = SEGMENT_WORDS * 64L;
+    static final int SEGMENTS_PER_TASK = 8;
+
+    /**
+     * Primos incluídos no padrão pré-crivado, e o período do padrão em palavras de 64 bits.
+     */
+    private static final int[] WHEEL_PRIMES = {3, 5, 7, 11, 13};
+    private static final int PATTERN_WORDS = 3 * 5 * 7 * 11 * 13;
+    private static final long[] PATTERN = buildPattern();
+
+    private final int threads;
+
+    /**
+     * @param threads O número de threads de crivo.
+     */
+    public SegmentedSieve(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Conta os primos em {@code [from, to]}.
+     *
+     * @param from O início do intervalo (inclusivo).
+     * @param to   O fim do intervalo (inclusivo), no máximo {@link #MAX_LIMIT}.
+     * @return A quantidade de primos no intervalo.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public long count(long from, long to) throws InterruptedException {
+        return run(from, to, null);
+    }
+
+    /**
+     * Entrega ao consumidor, em ordem crescente, todos os primos em {@code [from, to]}.
+     *
+     * @param from     O início do intervalo (inclusivo).
+     * @param to       O fim do intervalo (inclusivo), no máximo {@link #MAX_LIMIT}.
+     * @param consumer O destino de cada primo; chamado sempre pela thread que chamou este método.
+     * @return A quantidade de primos entregues.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public long stream(long from, long to, LongConsumer consumer) throws InterruptedException {
+        return run(from, to, consumer);
+    }
+
+    private long run(long from, long to, LongConsumer consumer) throws InterruptedException {
+        if (to > MAX_LIMIT) {
+            throw new IllegalArgumentException("O limite superior deve ser no máximo " + MAX_LIMIT + ".");
+        }
+        from = Math.max(from, 2);
+        if (from > to) {
+            return 0;
+        }
+
+        long found = 0;
+        if (from == 2) {
+            // o único primo par fica fora do bitset de ímpares
+            if (consumer != null) {
+                consumer.accept(2);
+            }
+            found++;
+            from = 3;
+            if (from > to) {
+                return found;
+            }
+        }
+
+        int[] basePrimes = basePrimes((int) Math.sqrt((double) to) + 1);
+
+        // índices de ímpares: o número n (ímpar) tem índice (n - 1) / 2
+        long firstIndex = (from - 1) / 2;
+        long lastIndex = (to - 1) / 2;
+        long taskBits = SEGMENT_BITS * SEGMENTS_PER_TASK;
+        long alignedStart = firstIndex - Math.floorMod(firstIndex, 64L);
+
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(basePrimes, alignedStart));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<TaskResult>> window = new ArrayDeque<>();
+        try {
+            long taskStart = alignedStart;
+            while (taskStart <= lastIndex || !window.isEmpty()) {
+                while (taskStart <= lastIndex && window.size() < 2 * threads) {
+                    long start = taskStart;
+                    long end = Math.min(start + taskBits, lastIndex + 1);
+                    window.add(pool.submit(() -> workers.get().sieveTask(start, end, firstIndex, consumer != null)));
+                    taskStart = end;
+                }
+                TaskResult result = window.poll().get();
+                found += result.count;
+                if (consumer != null) {
+                    result.emit(consumer);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma tarefa do crivo", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        return found;
+    }
+
+    /**
+     * Copia o padrão pré-crivado para as primeiras {@code words} palavras do segmento.
+     */
+    private static void copyPattern(long[] bits, long globalWord, int words) {
+        int patternPosition = (int) (globalWord % PATTERN_WORDS);
+        int copied = 0;
+        while (copied < words) {
+            int length = Math.min(words - copied, PATTERN_WORDS - patternPosition);
+            System.arraycopy(PATTERN, patternPosition, bits, copied, length);
+            copied += length;
+            patternPosition = 0;
+        }
+    }
+
+    /**
+     * O padrão risca 1 e os próprios primos da roda; aqui eles são corrigidos quando caem no segmento.
+     */
+    private static void fixSmallNumbers(long[] bits, long segmentStart, int segmentBits) {
+        if (segmentStart > 0) {
+            return;
+        }
+        bits[0] &= ~1L; // o número 1 não é primo
+        for (int q : WHEEL_PRIMES) {
+            int k = (q - 1) / 2;
+            if (k < segmentBits) {
+                bits[0] |= 1L << k;
+            }
+        }
+    }
+
+    private static long[] buildPattern() {
+        long[] pattern = new long[PATTERN_WORDS];
+        Arrays.fill(pattern, -1L);
+        long totalBits = PATTERN_WORDS * 64L;
+        for (int q : WHEEL_PRIMES) {
+            // 2k + 1 = 0 (mod q)  <=>  k = (q - 1) / 2 (mod q)
+            for (long k = (q - 1) / 2; k < totalBits; k += q) {
+                pattern[(int) (k >>> 6)] &= ~(1L << k);
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Primos-base ímpares maiores que 13 e até {@code limit}, por um crivo simples.
+     * <p>
+     * Como o crivo principal, representa só os ímpares, um bit cada (o bit {@code k} é o
+     * número {@code 2k + 1}): para {@code limit} = 10^8 são 6 MB, em vez dos 100 MB de um
+     * {@code boolean[]} com todos os números.
+     */
+    static int[] basePrimes(int limit) {
+        int lastIndex = (limit - 1) / 2;
+        long[] composite = new long[lastIndex / 64 + 1];
+        for (int k = 1; ; k++) {
+            long p = 2L * k + 1;
+            if (p * p > limit) {
+                break;
+            }
+            if ((composite[k >>> 6] & (1L << k)) == 0) {
+                for (long j = (p * p - 1) / 2; j <= lastIndex; j += p) {
+                    composite[(int) (j >>> 6)] |= 1L << j;
+                }
+            }
+        }
+
+        // o primeiro primo fora da roda é 17, de índice 8
+        int count = 0;
+        for (int k = 8; k <= lastIndex; k++) {
+            if ((composite[k >>> 6] & (1L << k)) == 0) {
+                count++;
+            }
+        }
+        int[] primes = new int[count];
+        int index = 0;
+        for (int k = 8; k <= lastIndex; k++) {
+            if ((composite[k >>> 6] & (1L << k)) == 0) {
+                primes[index++] = 2 * k + 1;
+            }
+        }
+        return primes;
+    }
+
+    /**
+     * O estado de crivo de uma thread do pool: o segmento e as posições de corte dos
+     * primos-base, que passam de uma tarefa para a seguinte.
+     * <p>
+     * Os primos menores que um segmento ({@code small} primeiros) guardam o índice absoluto
+     * do próximo múltiplo e são percorridos em todo segmento. Os demais vão para o balde do
+     * segmento do próximo múltiplo, como um {@code long} com o primo nos 32 bits altos e a
+     * posição dentro do segmento nos baixos. Cada balde é uma cadeia de blocos de
+     * {@link #BUCKET_BLOCK} entradas, lidos e escritos em sequência, que voltam a uma pilha
+     * de blocos livres depois de esvaziados. Os baldes formam um anel: um primo {@code p}
+     * nunca salta mais que {@code p / SEGMENT_BITS + 1} segmentos, então o anel só precisa
+     * cobrir o maior primo-base.
+     */
+    private static final class Worker {
+        private static final int BUCKET_BLOCK = 1024;
+
+        private final int[] primes;
+        private final int small;
+        private final long origin;
+        private final long[] bits = new long[SEGMENT_WORDS];
+        private final long[] next;
+
+        /**
+         * O primeiro bloco de cada balde do anel, ou -1.
+         */
+        private final int[] heads;
+        private long[][] blocks = new long[64][];
+        private int[] blockSize = new int[64];
+        private int[] blockNext = new int[64];
+        private int blockCount;
+        private int[] free = new int[64];
+        private int freeCount;
+
+        /**
+         * Quantos primos, do menor em diante, já têm o quadrado antes da posição atual.
+         */
+        private int active;
+
+        /**
+         * O índice em que as posições guardadas valem: o fim da última tarefa, ou -1.
+         */
+        private long position = -1;
+
+        /**
+         * @param primes Os primos-base, em ordem crescente.
+         * @param origin O índice do primeiro segmento; todos os segmentos da chamada começam
+         *               em {@code origin + m * SEGMENT_BITS}.
+         */
+        Worker(int[] primes, long origin) {
+            this.primes = primes;
+            this.origin = origin;
+            int count = 0;
+            while (count < primes.length && primes[count] < SEGMENT_BITS) {
+                count++;
+            }
+            this.small = count;
+            this.next = new long[small];
+            int largest = primes.length == 0 ? 0 : primes[primes.length - 1];
+            this.heads = new int[(int) (largest / SEGMENT_BITS) + 2];
+        }
+
+        /**
+         * Criva os índices de ímpares {@code [start, end)}, segmento a segmento.
+         * {@code start} é múltiplo de 64; bits anteriores a {@code firstIndex} são ignorados.
+         */
+        TaskResult sieveTask(long start, long end, long firstIndex, boolean keepBits) {
+            if (start != position) {
+                seed(start);
+            }
+            int segments = (int) ((end - start + SEGMENT_BITS - 1) / SEGMENT_BITS);
+            TaskResult result = new TaskResult(start, keepBits ? segments : 0);
+
+            for (int segment = 0; segment < segments; segment++) {
+                long segmentStart = start + segment * SEGMENT_BITS;
+                int segmentBits = (int) Math.min(SEGMENT_BITS, end - segmentStart);
+                int words = (segmentBits + 63) / 64;
+
+                copyPattern(bits, segmentStart / 64, words);
+                fixSmallNumbers(bits, segmentStart, segmentBits);
+                crossOff(segmentStart, segmentBits);
+
+                // descarta bits fora do intervalo pedido
+                if (segmentStart < firstIndex) {
+                    for (long k = segmentStart; k < firstIndex; k++) {
+                        int local = (int) (k - segmentStart);
+                        bits[local >>> 6] &= ~(1L << local);
+                    }
+                }
+                if ((segmentBits & 63) != 0) {
+                    bits[words - 1] &= (1L << (segmentBits & 63)) - 1;
+                }
+
+                long count = 0;
+                for (int w = 0; w < words; w++) {
+                    count += Long.bitCount(bits[w]);
+                }
+                result.count += count;
+                if (keepBits) {
+                    long[] copy = new long[words];
+                    System.arraycopy(bits, 0, copy, 0, words);
+                    result.segments[segment] = copy;
+                }
+            }
+            position = end;
+            return result;
+        }
+
+        /**
+         * Recalcula, para uma tarefa que não continua a anterior, o primeiro múltiplo a partir
+         * de {@code start} de cada primo cujo quadrado já ficou para trás.
+         */
+        private void seed(long start) {
+            Arrays.fill(heads, -1);
+            freeCount = 0;
+            for (int b = 0; b < blockCount; b++) {
+                free[freeCount++] = b;
+            }
+            long startNumber = 2 * start + 1;
+            active = 0;
+            while (active < primes.length && squareIndex(primes[active]) < start) {
+                long p = primes[active];
+                long multiple = (startNumber + p - 1) / p * p;
+                if ((multiple & 1) == 0) {
+                    multiple += p;
+                }
+                place(active, (multiple - 1) / 2);
+                active++;
+            }
+            position = start;
+        }
+
+        /**
+         * Risca os múltiplos dos primos-base no segmento que começa no índice {@code segmentStart}.
+         */
+        private void crossOff(long segmentStart, int segmentBits) {
+            long segmentEnd = segmentStart + segmentBits;
+            // primos cujo quadrado cai neste segmento começam a riscar por ele
+            while (active < primes.length && squareIndex(primes[active]) < segmentEnd) {
+                place(active, squareIndex(primes[active]));
+                active++;
+            }
+
+            long[] bits = this.bits;
+            int[] primes = this.primes;
+            long[] next = this.next;
+            int walked = Math.min(active, small);
+            for (int i = 0; i < walked; i++) {
+                long p = primes[i];
+                long k = next[i] - segmentStart;
+                while (k < segmentBits) {
+                    bits[(int) (k >>> 6)] &= ~(1L << k);
+                    k += p;
+                }
+                next[i] = k + segmentStart;
+            }
+
+            int ring = (int) ((segmentStart - origin) / SEGMENT_BITS % heads.length);
+            int block = heads[ring];
+            heads[ring] = -1;
+            while (block != -1) {
+                long[] entries = blocks[block];
+                int size = blockSize[block];
+                for (int e = 0; e < size; e++) {
+                    long entry = entries[e];
+                    int p = (int) (entry >>> 32);
+                    int k = (int) entry;
+                    if (k < segmentBits) {
+                        bits[k >>> 6] &= ~(1L << k);
+                    }
+                    // p >= SEGMENT_BITS: o próximo múltiplo está em um segmento posterior
+                    placeLarge(p, segmentStart + k + p);
+                }
+                int following = blockNext[block];
+                free[freeCount++] = block;
+                block = following;
+            }
+        }
+
+        /**
+         * Registra {@code index} como o próximo múltiplo do primo de posição {@code i}.
+         */
+        private void place(int i, long index) {
+            if (i < small) {
+                next[i] = index;
+            } else {
+                placeLarge(primes[i], index);
+            }
+        }
+
+        /**
+         * Acrescenta o primo {@code p} ao balde do segmento que contém {@code index}.
+         */
+        private void placeLarge(long p, long index) {
+            long relative = index - origin;
+            int ring = (int) (relative / SEGMENT_BITS % heads.length);
+            int block = heads[ring];
+            if (block == -1 || blockSize[block] == BUCKET_BLOCK) {
+                int fresh = freeCount > 0 ? free[--freeCount] : allocateBlock();
+                blockSize[fresh] = 0;
+                blockNext[fresh] = block;
+                heads[ring] = fresh;
+                block = fresh;
+            }
+            blocks[block][blockSize[block]++] = p << 32 | relative % SEGMENT_BITS;
+        }
+
+        private int allocateBlock() {
+            if (blockCount == blocks.length) {
+                int capacity = 2 * blockCount;
+                blocks = Arrays.copyOf(blocks, capacity);
+                blockSize = Arrays.copyOf(blockSize, capacity);
+                blockNext = Arrays.copyOf(blockNext, capacity);
+                free = Arrays.copyOf(free, capacity);
+            }
+            blocks[blockCount] = new long[BUCKET_BLOCK];
+            return blockCount++;
+        }
+
+        private static long squareIndex(long p) {
+            return (p * p - 1) / 2;
+        }
+    }
+
+    /**
+     * Resultado de uma tarefa: a contagem e, no modo de enumeração, os bits de cada segmento.
+     */
+    private static final class TaskResult {
+        final long start;
+        final long[][] segments;
+        long count;
+
+        TaskResult(long start, int segments) {
+            this.start = start;
+            this.segments = new long[segments][];
+        }
+
+        void emit(LongConsumer consumer) {
+            for (int s = 0; s < segments.length; s++) {
+                long base = start + s * SEGMENT_BITS;
+                long[] bits = segments[s];
+                for (int w = 0; w < bits.length; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        int bit = Long.numberOfTrailingZeros(word);
+                        consumer.accept(2 * (base + 64L * w + bit) + 1);
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package primos.tuning;
+
+import primos.ExperimentRunner;
+import primos.generators.ChaCha20Generator;
+import primos.generators.LcgGenerator;
+import primos.generators.PseudoRandomGenerator;
+import primos.generators.VectorLcgGenerator;
+import primos.generators.XoshiroGenerator;
+import primos.primality.MillerRabinTester;
+import primos.primality.MontgomeryMillerRabinTester;
+import primos.primality.PrimalityTester;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calibra, nesta máquina, a melhor configuração de busca para cada tamanho em bits e a
+ * devolve como um {@link TuningProfile}.
+ * <p>
+ * O espaço de parâmetros é percorrido por coordenadas, a partir da configuração padrão
+ * (LCG, Miller-Rabin, sem crivo, lote {@link ExperimentRunner#BATCHSIZE}, uma thread):
+ * primeiro o gerador, depois o testador junto com a profundidade do crivo, depois o lote
+ * e por fim o número de threads, cada passo mantendo o melhor dos anteriores. São cerca
+ * de 20 medidas por tamanho, em vez das centenas do produto cartesiano. O BBS fica de
+ * fora: escolhê-lo é uma decisão de segurança, não de desempenho.
+ * <p>
+ * Cada medida roda a busca por um tempo fixo e conta os candidatos testados, em vez
+ * dos primos achados: como o número de candidatos por primo só depende do tamanho
+ * (cerca de {@code b * ln(2) / 2} ímpares para {@code b} bits), os candidatos por
+ * segundo ordenam as configurações com muito menos ruído que os poucos primos de uma
+ * medida curta. A vazão é essa taxa dividida pelos candidatos por primo; a latência
+ * soma o tempo de criar os geradores e o testador, que uma busca nova paga.
+ * <p>
+ * A certeza não é calibrada, porque a configuração mais rápida seria sempre a de menos
+ * rodadas. Ela segue {@link #certaintyFor}: o mínimo de rodadas de Miller-Rabin para um
+ * erro de no máximo 2^-80 sobre candidatos aleatórios, ou um valor fixo escolhido pelo usuário.
+ */
+public class AutoTuner {
+
+    private static final List<Class<? extends PseudoRandomGenerator>> GENERATORS = List.of(
+            LcgGenerator.class, XoshiroGenerator.class, ChaCha20Generator.class, VectorLcgGenerator.class);
+
+    private static final List<Class<? extends PrimalityTester>> TESTERS = List.of(
+            MillerRabinTester.class, MontgomeryMillerRabinTester.class);
+
+    private static final int[] SIEVE_LIMITS = {0, 256, 2000, 16000};
+
+    private static final int[] BATCH_SIZES = {1, 4, ExperimentRunner.BATCHSIZE};
+
+    /**
+     * Rodadas de Miller-Rabin para erro de no máximo 2^-80 sobre candidatos aleatórios de
+     * pelo menos {@code [i][0]} bits (Damgård, Landrock e Pomerance; Handbook of Applied
+     * Cryptography, tabela 4.4).
+     */
+    private static final int[][] ROUNDS = {
+            {1300, 2}, {850, 3}, {650, 4}, {550, 5}, {450, 6}, {400, 7},
+            {350, 8}, {300, 9}, {250, 12}, {200, 15}, {150, 18}, {100, 27}
+    };
+
+    /**
+     * Rodadas abaixo de 100 bits, onde a tabela não vale: o limite geral de 4^-k.
+     */
+    private static final int SMALL_ROUNDS = 40;
+
+    private final TuningProfile.Goal goal;
+    private final long trialNanos;
+    private final int fixedCertainty;
+    private final int maxThreads;
+
+    /**
+     * @param goal           O que otimizar.
+     * @param trialMillis    Duração de cada medida.
+     * @param fixedCertainty Certeza fixa, ou 0 para seguir {@link #certaintyFor}.
+     * @param maxThreads     Maior número de threads a experimentar.
+     */
+    public AutoTuner(TuningProfile.Goal goal, long trialMillis, int fixedCertainty, int maxThreads) {
+        this.goal = goal;
+        this.trialNanos = trialMillis * 1_000_000L;
+        this.fixedCertainty = fixedCertainty;
+        this.maxThreads = Math.max(1, maxThreads);
+    }
+
+    /**
+     * Rodadas de Miller-Rabin para erro de no máximo 2^-80 em candidatos aleatórios de {@code bitLength} bits.
+     */
+    public static int certaintyFor(int bitLength) {
+        for (int[] row : ROUNDS) {
+            if (bitLength >= row[0]) {
+                return row[1];
+            }
+        }
+        return SMALL_ROUNDS;
+    }
+
+    /**
+     * Calibra todos os tamanhos.
+     *
+     * @param bitLengths Os tamanhos em bits.
+     * @param progress   Onde imprimir cada medida.
+     * @return O perfil, com uma entrada por tamanho.
+     */
+    public TuningProfile tune(List<Integer> bitLengths, PrintStream progress) throws ReflectiveOperationException {
+        List<TuningProfile.Entry> entries = new ArrayList<>();
+        for (int bitLength : bitLengths) {
+            entries.add(tune(bitLength, progress));
+        }
+        return TuningProfile.of(goal, entries);
+    }
+
+    /**
+     * Calibra um tamanho, por coordenadas.
+     */
+    public TuningProfile.Entry tune(int bitLength, PrintStream progress) throws ReflectiveOperationException {
+        int certainty = fixedCertainty > 0 ? fixedCertainty : certaintyFor(bitLength);
+        TuningProfile.Entry baseline = new TuningProfile.Entry(bitLength, LcgGenerator.class,
+                MillerRabinTester.class, 0, ExperimentRunner.BATCHSIZE, certainty, 1, 0, 0);
+        measure(baseline, null); // aquecimento do JIT, descartado
+        TuningProfile.Entry best = measure(baseline, progress);
+
+        for (Class<? extends PseudoRandomGenerator> generator : GENERATORS) {
+            best = better(best, measure(with(best, generator, best.testerClass(), best.sieveLimit(),
+                    best.batchSize(), best.threads()), progress));
+        }
+        for (Class<? extends PrimalityTester> tester : TESTERS) {
+            for (int sieveLimit : SIEVE_LIMITS) {
+                best = better(best, measure(with(best, best.generatorClass(), tester, sieveLimit,
+                        best.batchSize(), best.threads()), progress));
+            }
+        }
+        for (int batchSize : BATCH_SIZES) {
+            best = better(best, measure(with(best, best.generatorClass(), best.testerClass(), best.sieveLimit(),
+                    batchSize, best.threads()), progress));
+        }
+        for (int threads = 2; threads < 2 * maxThreads; threads *= 2) {
+            best = better(best, measure(with(best, best.generatorClass(), best.testerClass(), best.sieveLimit(),
+                    best.batchSize(), Math.min(threads, maxThreads)), progress));
+        }
+        return best;
+    }
+
+    private static TuningProfile.Entry with(TuningProfile.Entry base,
+                                            Class<? extends PseudoRandomGenerator> generator,
+                                            Class<? extends PrimalityTester> tester,
+                                            int sieveLimit,
+                                            int batchSize,
+                                            int threads) {
+        return new TuningProfile.Entry(base.bitLength(), generator, tester, sieveLimit, batchSize,
+                base.certainty(), threads, 0, 0);
+    }
+
+    private TuningProfile.Entry better(TuningProfile.Entry a, TuningProfile.Entry b) {
+        if (goal == TuningProfile.Goal.LATENCY) {
+            return b.millisPerPrime() < a.millisPerPrime() ? b : a;
+        }
+        return b.primesPerSecond() > a.primesPerSecond() ? b : a;
+    }
+
+    /**
+     * Roda a configuração por {@link #trialNanos} e devolve a entrada com a vazão e a latência medidas.
+     */
+    TuningProfile.Entry measure(TuningProfile.Entry config, PrintStream progress) throws ReflectiveOperationException {
+        int threads = config.threads();
+        int bitLength = config.bitLength();
+
+        // o que uma busca nova paga antes do primeiro candidato, sem o carregamento das classes
+        config.newTester();
+        config.newGenerator(bitLength);
+        long setupStart = System.nanoTime();
+        PrimalityTester tester = config.newTester();
+        PseudoRandomGenerator[] generators = new PseudoRandomGenerator[threads];
+        for (int t = 0; t < threads; t++) {
+            generators[t] = config.newGenerator(bitLength);
+        }
+        long setupNs = System.nanoTime() - setupStart;
+
+        AtomicLong tested = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + trialNanos;
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            PseudoRandomGenerator generator = generators[t];
+            Thread worker = new Thread(() -> {
+                long count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        tester.isPrime(ExperimentRunner.nextCandidate(generator, config.batchSize()), config.certainty());
+                        count++;
+                    }
+                } finally {
+                    tested.addAndGet(count);
+                    done.countDown();
+                }
+            }, "calibracao-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNs = System.nanoTime() - start;
+
+        double candidatesPerSecond = tested.get() * 1e9 / elapsedNs;
+        double candidatesPerPrime = bitLength * Math.log(2) / 2;
+        double primesPerSecond = candidatesPerSecond / candidatesPerPrime;
+        double millisPerPrime = setupNs / 1e6 + 1000 / Math.max(primesPerSecond, 1e-9);
+        TuningProfile.Entry measured = new TuningProfile.Entry(bitLength, config.generatorClass(),
+                config.testerClass(), config.sieveLimit(), config.batchSize(), config.certainty(), threads,
+                primesPerSecond, millisPerPrime);
+        if (progress != null) {
+            progress.printf("  %-5d | %-85s | %10.2f primos/s | %10.3f ms/primo%n",
+                    bitLength, measured.describe(), primesPerSecond, millisPerPrime);
+        }
+        return measured;
+    }
+}
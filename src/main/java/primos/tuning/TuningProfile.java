@@ -0,0 +1,373 @@
+package primos.tuning;
+
+import primos.ExperimentRunner;
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.PrimalityTester;
+import primos.primality.StagedPrimalityTester;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Perfil de busca calibrado por {@link AutoTuner}: para cada tamanho em bits, o gerador,
+ * o testador, a profundidade do crivo (divisão por primos pequenos antes do teste), o
+ * tamanho do lote, a certeza e o número de threads que se saíram melhor nesta máquina.
+ * <p>
+ * O perfil é gravado como um arquivo de propriedades, uma chave
+ * {@code <bits>.<parâmetro>} por linha, e pode ser editado à mão. Para um tamanho sem
+ * calibração, vale a entrada do tamanho calibrado mais próximo em escala logarítmica.
+ * <p>
+ * {@link #current()} carrega o perfil padrão na primeira chamada: o arquivo indicado pela
+ * propriedade de sistema {@value #PATH_PROPERTY} ou, sem ela,
+ * {@code ~/.primos/perfil.properties}. Sem arquivo, o perfil fica vazio e valem os
+ * padrões de {@link ExperimentRunner}. Só {@link ExperimentRunner#findPrime(int)} (o modo
+ * {@code -auto}) consulta esse perfil; as demais buscas não dependem do que houver no disco.
+ */
+public final class TuningProfile {
+
+    /**
+     * Propriedade de sistema com o caminho do perfil padrão.
+     */
+    public static final String PATH_PROPERTY = "primos.profile";
+
+    /**
+     * O que a calibração otimiza.
+     */
+    public enum Goal {
+        /**
+         * Primos por segundo em buscas independentes, uma por thread; o custo de criar o gerador se dilui.
+         */
+        THROUGHPUT("vazao"),
+        /**
+         * Tempo até o primeiro primo de uma busca nova, incluindo a criação do gerador; as threads competem pelo mesmo primo.
+         */
+        LATENCY("latencia");
+
+        private final String shortName;
+
+        Goal(String shortName) {
+            this.shortName = shortName;
+        }
+
+        public String shortName() {
+            return shortName;
+        }
+
+        /**
+         * @throws IllegalArgumentException se o nome não for {@code vazao} nem {@code latencia}.
+         */
+        public static Goal parse(String name) {
+            for (Goal goal : values()) {
+                if (goal.shortName.equalsIgnoreCase(name) || goal.name().equalsIgnoreCase(name)) {
+                    return goal;
+                }
+            }
+            throw new IllegalArgumentException("Objetivo inválido: " + name + " (use vazao ou latencia).");
+        }
+    }
+
+    /**
+     * A configuração escolhida para um tamanho em bits, com as medidas que a justificaram.
+     */
+    public static final class Entry {
+        private final int bitLength;
+        private final Class<? extends PseudoRandomGenerator> generatorClass;
+        private final Class<? extends PrimalityTester> testerClass;
+        private final int sieveLimit;
+        private final int batchSize;
+        private final int certainty;
+        private final int threads;
+        private final double primesPerSecond;
+        private final double millisPerPrime;
+
+        /**
+         * @param bitLength       O tamanho em bits calibrado.
+         * @param generatorClass  O gerador; precisa de um construtor {@code (int bitLength)}.
+         * @param testerClass     O testador final; precisa de um construtor sem argumentos.
+         * @param sieveLimit      Limite da divisão por primos pequenos antes do testador, ou 0 para nenhuma.
+         * @param batchSize       Quantos números gerar por candidato (ver {@link ExperimentRunner#nextCandidate}).
+         * @param certainty       O parâmetro de certeza.
+         * @param threads         Threads por busca.
+         * @param primesPerSecond A vazão medida.
+         * @param millisPerPrime  A latência medida.
+         */
+        public Entry(int bitLength,
+                     Class<? extends PseudoRandomGenerator> generatorClass,
+                     Class<? extends PrimalityTester> testerClass,
+                     int sieveLimit,
+                     int batchSize,
+                     int certainty,
+                     int threads,
+                     double primesPerSecond,
+                     double millisPerPrime) {
+            this.bitLength = bitLength;
+            this.generatorClass = generatorClass;
+            this.testerClass = testerClass;
+            this.sieveLimit = sieveLimit;
+            this.batchSize = batchSize;
+            this.certainty = certainty;
+            this.threads = threads;
+            this.primesPerSecond = primesPerSecond;
+            this.millisPerPrime = millisPerPrime;
+        }
+
+        public int bitLength() {
+            return bitLength;
+        }
+
+        public Class<? extends PseudoRandomGenerator> generatorClass() {
+            return generatorClass;
+        }
+
+        public Class<? extends PrimalityTester> testerClass() {
+            return testerClass;
+        }
+
+        public int sieveLimit() {
+            return sieveLimit;
+        }
+
+        public int batchSize() {
+            return batchSize;
+        }
+
+        public int certainty() {
+            return certainty;
+        }
+
+        public int threads() {
+            return threads;
+        }
+
+        public double primesPerSecond() {
+            return primesPerSecond;
+        }
+
+        public double millisPerPrime() {
+            return millisPerPrime;
+        }
+
+        /**
+         * Cria um gerador de {@code bitLength} bits da classe escolhida.
+         */
+        public PseudoRandomGenerator newGenerator(int bitLength) throws ReflectiveOperationException {
+            return generatorClass.getDeclaredConstructor(int.class).newInstance(bitLength);
+        }
+
+        /**
+         * Cria o testador: o escolhido, precedido da divisão por primos pequenos se {@link #sieveLimit()} > 0.
+         */
+        public PrimalityTester newTester() throws ReflectiveOperationException {
+            PrimalityTester tester = testerClass.getDeclaredConstructor().newInstance();
+            if (sieveLimit <= 0) {
+                return tester;
+            }
+            return new StagedPrimalityTester(List.of(
+                    StagedPrimalityTester.trialDivision(sieveLimit),
+                    StagedPrimalityTester.fromTester(testerClass.getSimpleName(), tester)));
+        }
+
+        /**
+         * Descrição curta para tabelas: {@code gerador, testador[+td=limite], lote, certeza, threads}.
+         */
+        public String describe() {
+            return generatorClass.getSimpleName() + ", " + testerClass.getSimpleName()
+                    + (sieveLimit > 0 ? "+td=" + sieveLimit : "")
+                    + ", lote " + batchSize + ", k=" + certainty + ", " + threads + " thread(s)";
+        }
+    }
+
+    private final Goal goal;
+    private final TreeMap<Integer, Entry> entries;
+
+    private TuningProfile(Goal goal, Map<Integer, Entry> entries) {
+        this.goal = goal;
+        this.entries = new TreeMap<>(entries);
+    }
+
+    /**
+     * Um perfil a partir das entradas calibradas.
+     */
+    public static TuningProfile of(Goal goal, Collection<Entry> entries) {
+        Map<Integer, Entry> byBits = new TreeMap<>();
+        for (Entry entry : entries) {
+            byBits.put(entry.bitLength, entry);
+        }
+        return new TuningProfile(goal, byBits);
+    }
+
+    /**
+     * O perfil sem nenhuma entrada, em que valem os padrões.
+     */
+    public static TuningProfile empty() {
+        return new TuningProfile(Goal.THROUGHPUT, Collections.emptyMap());
+    }
+
+    public Goal goal() {
+        return goal;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * As entradas, em ordem de tamanho em bits.
+     */
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * A entrada do tamanho calibrado mais próximo de {@code bitLength} em escala logarítmica.
+     *
+     * @return A entrada, ou {@code null} se o perfil estiver vazio.
+     */
+    public Entry entryFor(int bitLength) {
+        Map.Entry<Integer, Entry> below = entries.floorEntry(bitLength);
+        Map.Entry<Integer, Entry> above = entries.ceilingEntry(bitLength);
+        if (below == null) {
+            return above == null ? null : above.getValue();
+        }
+        if (above == null) {
+            return below.getValue();
+        }
+        // compara as razões: bitLength / abaixo contra acima / bitLength
+        return (long) bitLength * bitLength <= (long) below.getKey() * above.getKey()
+                ? below.getValue() : above.getValue();
+    }
+
+    /**
+     * O tamanho de lote para {@code bitLength}, ou {@link ExperimentRunner#BATCHSIZE} sem calibração.
+     */
+    public int batchSize(int bitLength) {
+        Entry entry = entryFor(bitLength);
+        return entry == null ? ExperimentRunner.BATCHSIZE : entry.batchSize;
+    }
+
+    /**
+     * Grava o perfil como propriedades.
+     *
+     * @param path    O arquivo; os diretórios que faltarem são criados.
+     * @param comment O comentário do cabeçalho (máquina, data etc.).
+     */
+    public void save(Path path, String comment) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("objetivo", goal.shortName());
+        for (Entry entry : entries.values()) {
+            String prefix = entry.bitLength + ".";
+            properties.setProperty(prefix + "gerador", entry.generatorClass.getName());
+            properties.setProperty(prefix + "testador", entry.testerClass.getName());
+            properties.setProperty(prefix + "crivo", Integer.toString(entry.sieveLimit));
+            properties.setProperty(prefix + "lote", Integer.toString(entry.batchSize));
+            properties.setProperty(prefix + "certeza", Integer.toString(entry.certainty));
+            properties.setProperty(prefix + "threads", Integer.toString(entry.threads));
+            properties.setProperty(prefix + "primosPorSegundo", String.format(Locale.ROOT, "%.3f", entry.primesPerSecond));
+            properties.setProperty(prefix + "msPorPrimo", String.format(Locale.ROOT, "%.3f", entry.millisPerPrime));
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            properties.store(out, comment);
+        }
+    }
+
+    /**
+     * Lê um perfil gravado por {@link #save}.
+     *
+     * @throws IOException              se o arquivo não puder ser lido.
+     * @throws IllegalArgumentException se alguma entrada estiver incompleta ou com classe desconhecida.
+     */
+    public static TuningProfile load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        Goal goal = Goal.parse(properties.getProperty("objetivo", Goal.THROUGHPUT.shortName()));
+        Map<Integer, Entry> entries = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".gerador")) {
+                continue;
+            }
+            String prefix = key.substring(0, key.length() - "gerador".length());
+            try {
+                int bitLength = Integer.parseInt(prefix.substring(0, prefix.length() - 1));
+                Entry entry = new Entry(bitLength,
+                        Class.forName(properties.getProperty(key)).asSubclass(PseudoRandomGenerator.class),
+                        Class.forName(required(properties, prefix + "testador")).asSubclass(PrimalityTester.class),
+                        Integer.parseInt(properties.getProperty(prefix + "crivo", "0")),
+                        Integer.parseInt(properties.getProperty(prefix + "lote", Integer.toString(ExperimentRunner.BATCHSIZE))),
+                        Integer.parseInt(required(properties, prefix + "certeza")),
+                        Integer.parseInt(properties.getProperty(prefix + "threads", "1")),
+                        Double.parseDouble(properties.getProperty(prefix + "primosPorSegundo", "0")),
+                        Double.parseDouble(properties.getProperty(prefix + "msPorPrimo", "0")));
+                if (bitLength < 2 || entry.sieveLimit < 0 || entry.batchSize < 1 || entry.certainty < 1
+                        || entry.threads < 1) {
+                    throw new IllegalArgumentException("Entrada inválida no perfil " + path + " (" + prefix
+                            + "*): bits, lote, certeza e threads devem ser positivos, e o crivo, não negativo.");
+                }
+                entries.put(bitLength, entry);
+            } catch (NumberFormatException | ClassNotFoundException | ClassCastException e) {
+                throw new IllegalArgumentException("Entrada inválida no perfil " + path + " (" + prefix + "*): " + e.getMessage());
+            }
+        }
+        return new TuningProfile(goal, entries);
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Falta a chave " + key + ".");
+        }
+        return value;
+    }
+
+    /**
+     * O caminho do perfil padrão: a propriedade {@value #PATH_PROPERTY} ou {@code ~/.primos/perfil.properties}.
+     */
+    public static Path defaultPath() {
+        String configured = System.getProperty(PATH_PROPERTY);
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".primos", "perfil.properties");
+    }
+
+    /**
+     * O perfil padrão, lido de {@link #defaultPath()} na primeira chamada. Um arquivo
+     * ausente dá o perfil vazio; um arquivo ilegível também, com um aviso na saída de erro.
+     */
+    public static TuningProfile current() {
+        return Holder.CURRENT;
+    }
+
+    private static final class Holder {
+        static final TuningProfile CURRENT = loadDefault();
+
+        private static TuningProfile loadDefault() {
+            Path path = defaultPath();
+            if (!Files.isRegularFile(path)) {
+                return empty();
+            }
+            try {
+                return load(path);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("AVISO: perfil " + path + " ignorado: " + e.getMessage());
+                return empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package primos.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import primos.generators.LcgGenerator;
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.MillerRabinTester;
+import primos.primality.PrimalityTester;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere o prazo, o cancelamento e o encerramento do {@link AsyncPrimeFinder}, com
+ * testadores que nunca acham um primo ou que seguram a thread até serem liberados.
+ */
+class AsyncPrimeFinderTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Gerador cujo construtor sempre falha.
+     */
+    static final class BrokenGenerator implements PseudoRandomGenerator {
+        BrokenGenerator(int bitLength) {
+            throw new IllegalStateException("construtor quebrado");
+        }
+
+        @Override
+        public List<BigInteger> generate(int n) {
+            return List.of();
+        }
+
+        @Override
+        public String name() {
+            return "quebrado";
+        }
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void findsAPrime() throws Exception {
+        AsyncPrimeFinder finder = new AsyncPrimeFinder(executor);
+        BigInteger prime = finder.findPrime(LcgGenerator.class, new MillerRabinTester(), 128, 20, null)
+                .get(30, TimeUnit.SECONDS);
+        assertTrue(prime.isProbablePrime(50));
+    }
+
+    @Test
+    void timeoutCarriesTheStatistics() {
+        AsyncPrimeFinder finder = new AsyncPrimeFinder(executor);
+        PrimalityTester never = (n, certainty) -> false;
+        CompletableFuture<BigInteger> future = finder.findPrime(LcgGenerator.class, never, 64, 20, Duration.ofMillis(20));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+        SearchTimeoutException timeout = assertInstanceOf(SearchTimeoutException.class, failure.getCause());
+        assertEquals(64, timeout.stats().bitLength());
+        assertTrue(timeout.stats().candidatesTested() > 0);
+        assertTrue(timeout.stats().elapsedNs() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void cancelStopsTheWorkerWithinOneCandidate() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong calls = new AtomicLong();
+        PrimalityTester blocking = (n, certainty) -> {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        };
+        AsyncPrimeFinder finder = new AsyncPrimeFinder(executor);
+        CompletableFuture<BigInteger> future = finder.findPrime(LcgGenerator.class, blocking, 64, 20, null);
+
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        release.countDown();
+        // a busca sai do laço antes do próximo candidato; a tarefa seguinte só roda depois dela
+        executor.submit(() -> null).get(10, TimeUnit.SECONDS);
+        assertEquals(1, calls.get());
+        assertThrows(CancellationException.class, future::join);
+    }
+
+    @Test
+    void closingAnOwnedExecutorCancelsRunningSearches() throws Exception {
+        CountDownLatch entered = new CountDownLatch(2);
+        PrimalityTester never = (n, certainty) -> {
+            entered.countDown();
+            return false;
+        };
+        AsyncPrimeFinder finder = AsyncPrimeFinder.withVirtualThreads();
+        CompletableFuture<BigInteger> first = finder.findPrime(LcgGenerator.class, never, 64, 20, null);
+        CompletableFuture<BigInteger> second = finder.findPrime(LcgGenerator.class, never, 64, 20, null);
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        finder.close();
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    void constructorFailureCompletesTheFutureExceptionally() {
+        AsyncPrimeFinder finder = new AsyncPrimeFinder(executor);
+        CompletableFuture<BigInteger> future = finder.findPrime(BrokenGenerator.class, new MillerRabinTester(), 64, 20, null);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        // a reflexão embrulha a exceção do construtor
+        InvocationTargetException wrapped = assertInstanceOf(InvocationTargetException.class, failure.getCause());
+        assertEquals("construtor quebrado", wrapped.getCause().getMessage());
+    }
+}
@@ -0,0 +1,141 @@
+package primos.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import primos.generators.XoshiroGenerator;
+import primos.primality.MillerRabinTester;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere a contrapressão de {@link PrimePublisher}: entrega só o que foi pedido,
+ * divide os trabalhadores entre os assinantes e para de buscar no cancelamento.
+ */
+class PrimePublisherTest {
+
+    private static final int PARALLELISM = 4;
+
+    private final PrimeFlow flow = new PrimeFlow(XoshiroGenerator::new, new MillerRabinTester(), 20, PARALLELISM);
+
+    @AfterEach
+    void close() throws InterruptedException {
+        flow.close();
+    }
+
+    @Test
+    void deliversOnlyWhatWasRequested() throws InterruptedException {
+        PrimePublisher publisher = flow.publisher(128);
+        RecordingSubscriber subscriber = new RecordingSubscriber(5);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(5);
+        assertTrue(subscriber.received.await(30, TimeUnit.SECONDS));
+
+        awaitIdle(publisher);
+        Thread.sleep(100);
+        assertEquals(5, subscriber.primes.size());
+        for (BigInteger prime : subscriber.primes) {
+            assertTrue(prime.isProbablePrime(50), prime + " não é primo");
+        }
+        // no máximo a reserva além do pedido
+        assertTrue(publisher.found() <= 5 + PARALLELISM, "primos encontrados: " + publisher.found());
+    }
+
+    @Test
+    void subscribersOfTheSameSizeShareOnePublisher() throws InterruptedException {
+        PrimePublisher publisher = flow.publisher(96);
+        assertSame(publisher, flow.publisher(96));
+
+        RecordingSubscriber first = new RecordingSubscriber(20);
+        RecordingSubscriber second = new RecordingSubscriber(20);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        first.subscription.request(20);
+        second.subscription.request(20);
+        assertTrue(first.received.await(30, TimeUnit.SECONDS));
+        assertTrue(second.received.await(30, TimeUnit.SECONDS));
+        assertTrue(publisher.activeWorkers() <= PARALLELISM);
+        awaitIdle(publisher);
+    }
+
+    @Test
+    void cancellationStopsTheWorkers() throws InterruptedException {
+        PrimePublisher publisher = flow.publisher(256);
+        RecordingSubscriber subscriber = new RecordingSubscriber(3);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.received.await(30, TimeUnit.SECONDS));
+        subscriber.subscription.cancel();
+
+        awaitIdle(publisher);
+        long tested = publisher.tested();
+        Thread.sleep(100);
+        assertEquals(tested, publisher.tested(), "a busca continuou depois do cancelamento");
+    }
+
+    @Test
+    void nonPositiveRequestSignalsError() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        flow.publisher(64).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+    }
+
+    @Test
+    void closeCompletesSubscribers() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        flow.publisher(64).subscribe(subscriber);
+        flow.close();
+        assertTrue(subscriber.completed);
+    }
+
+    private static void awaitIdle(PrimePublisher publisher) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (publisher.activeWorkers() > 0) {
+            assertTrue(System.nanoTime() < deadline, "os trabalhadores não pararam");
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<BigInteger> {
+        final List<BigInteger> primes = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        RecordingSubscriber(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(BigInteger prime) {
+            primes.add(prime);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package primos.budget;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import primos.ExperimentRunner;
+import primos.generators.BbsCrtGenerator;
+import primos.generators.BbsGenerator;
+import primos.generators.ChaCha20Generator;
+import primos.generators.LcgGenerator;
+import primos.generators.PseudoRandomGenerator;
+import primos.generators.VectorLcgGenerator;
+import primos.generators.XoshiroGenerator;
+import primos.primality.FermatTester;
+import primos.primality.LucasTester;
+import primos.primality.MillerRabinTester;
+import primos.primality.MontgomeryMillerRabinTester;
+import primos.primality.PrimalityTester;
+import primos.primality.StagedPrimalityTester;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Confere que a busca de primos não ultrapassa os orçamentos de alocação e de
+ * tempo de CPU de {@code budgets.properties}.
+ * <p>
+ * São medidos, para cada combinação de gerador, testador e tamanho em bits:
+ * {@code generate} (por 1000 números), {@code isPrime} (por chamada, sobre primos,
+ * para que todas as rodadas rodem) e {@code findPrime} (por candidato testado, o que
+ * tira do orçamento a variação do número de candidatos até cada primo).
+ * Cada chave do arquivo tem a forma {@code <medida>.<sujeito>.<bits>.<bytes|cpuMs>};
+ * se ela não existir, vale {@code <medida>.default.<bits>.<bytes|cpuMs>}.
+ * <p>
+ * Os orçamentos de CPU dependem da máquina; a propriedade de sistema
+ * {@code budget.cpuScale} multiplica todos eles (ex: {@code -Dbudget.cpuScale=3}
+ * em uma máquina de integração lenta). Com {@code -Dbudget.report=true}, cada medida é
+ * impressa ao lado do seu orçamento, para recalibrar o arquivo.
+ */
+class ResourceBudgetTest {
+
+    private static final List<Integer> BIT_LENGTHS = List.of(256, 1024);
+    private static final int FIND_PRIME_BITS = 256;
+    private static final int CERTAINTY = 20;
+
+    private static final Map<String, Class<? extends PseudoRandomGenerator>> GENERATORS = new LinkedHashMap<>();
+    private static final Map<String, Supplier<PrimalityTester>> TESTERS = new LinkedHashMap<>();
+
+    static {
+        GENERATORS.put("LCG", LcgGenerator.class);
+        GENERATORS.put("BBS", BbsGenerator.class);
+        GENERATORS.put("BBS-CRT", BbsCrtGenerator.class);
+        GENERATORS.put("Xoshiro", XoshiroGenerator.class);
+        GENERATORS.put("ChaCha20", ChaCha20Generator.class);
+        GENERATORS.put("LCG-SIMD", VectorLcgGenerator.class);
+
+        TESTERS.put("MillerRabin", MillerRabinTester::new);
+        TESTERS.put("Fermat", FermatTester::new);
+        TESTERS.put("Montgomery", MontgomeryMillerRabinTester::new);
+        TESTERS.put("Lucas", LucasTester::new);
+        TESTERS.put("Chain", StagedPrimalityTester::new);
+    }
+
+    private static Properties budgets;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        assumeTrue(ResourceMeter.isSupported(), "A JVM não mede alocação e CPU por thread.");
+        budgets = new Properties();
+        try (InputStream in = ResourceBudgetTest.class.getResourceAsStream("/budgets.properties")) {
+            assertNotNull(in, "budgets.properties não encontrado");
+            budgets.load(in);
+        }
+    }
+
+    @TestFactory
+    List<DynamicTest> generateStaysWithinBudget() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Map.Entry<String, Class<? extends PseudoRandomGenerator>> generator : GENERATORS.entrySet()) {
+            for (int bitLength : BIT_LENGTHS) {
+                String subject = generator.getKey();
+                tests.add(DynamicTest.dynamicTest("generate " + subject + " " + bitLength, () -> {
+                    PseudoRandomGenerator instance = generator.getValue()
+                            .getDeclaredConstructor(int.class).newInstance(bitLength);
+                    // o BBS produz um bit por quadrado modular: mede-se uma amostra menor
+                    int count = instance instanceof BbsGenerator ? 20 : 1000;
+                    instance.generate(count);
+
+                    ResourceUsage usage = ResourceMeter.measure(count, () -> instance.generate(count));
+                    check("generate", subject, bitLength, 1000 * usage.bytesPerOperation(),
+                            1000 * usage.cpuMsPerOperation());
+                }));
+            }
+        }
+        return tests;
+    }
+
+    @TestFactory
+    List<DynamicTest> isPrimeStaysWithinBudget() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Map.Entry<String, Supplier<PrimalityTester>> tester : TESTERS.entrySet()) {
+            for (int bitLength : BIT_LENGTHS) {
+                String subject = tester.getKey();
+                tests.add(DynamicTest.dynamicTest("isPrime " + subject + " " + bitLength, () -> {
+                    PrimalityTester instance = tester.getValue().get();
+                    Random random = new Random(bitLength);
+                    List<BigInteger> primes = new ArrayList<>();
+                    for (int i = 0; i < 20; i++) {
+                        primes.add(BigInteger.probablePrime(bitLength, random));
+                    }
+                    for (BigInteger prime : primes) {
+                        instance.isPrime(prime, CERTAINTY);
+                    }
+
+                    ResourceUsage usage = ResourceMeter.measure(primes.size(), () -> {
+                        for (BigInteger prime : primes) {
+                            assertTrue(instance.isPrime(prime, CERTAINTY));
+                        }
+                    });
+                    check("isPrime", subject, bitLength, usage.bytesPerOperation(), usage.cpuMsPerOperation());
+                }));
+            }
+        }
+        return tests;
+    }
+
+    @TestFactory
+    List<DynamicTest> findPrimeStaysWithinBudget() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Map.Entry<String, Class<? extends PseudoRandomGenerator>> generator : GENERATORS.entrySet()) {
+            for (Map.Entry<String, Supplier<PrimalityTester>> tester : TESTERS.entrySet()) {
+                String subject = generator.getKey() + "+" + tester.getKey();
+                tests.add(DynamicTest.dynamicTest("findPrime " + subject + " " + FIND_PRIME_BITS, () -> {
+                    PseudoRandomGenerator instance = generator.getValue()
+                            .getDeclaredConstructor(int.class).newInstance(FIND_PRIME_BITS);
+                    PrimalityTester delegate = tester.getValue().get();
+                    long[] candidates = new long[1];
+                    PrimalityTester testerInstance = (n, certainty) -> {
+                        candidates[0]++;
+                        return delegate.isPrime(n, certainty);
+                    };
+                    ExperimentRunner.findPrime(testerInstance, instance, CERTAINTY);
+
+                    int primes = 5;
+                    candidates[0] = 0;
+                    ResourceUsage usage = ResourceMeter.measure(primes, () -> {
+                        for (int i = 0; i < primes; i++) {
+                            ExperimentRunner.findPrime(testerInstance, instance, CERTAINTY);
+                        }
+                    });
+                    check("findPrime", subject, FIND_PRIME_BITS, (double) usage.bytes() / candidates[0],
+                            usage.cpuNs() / 1e6 / candidates[0]);
+                }));
+            }
+        }
+        return tests;
+    }
+
+    private static void check(String operation, String subject, int bitLength, double bytes, double cpuMs) {
+        double cpuScale = Double.parseDouble(System.getProperty("budget.cpuScale", "1"));
+        double bytesBudget = budget(operation, subject, bitLength, "bytes");
+        double cpuBudget = budget(operation, subject, bitLength, "cpuMs") * cpuScale;
+
+        String label = operation + " " + subject + " " + bitLength + " bits";
+        if (Boolean.getBoolean("budget.report")) {
+            System.out.printf("%-45s | %12.0f / %12.0f bytes | %10.3f / %10.3f ms de CPU%n",
+                    label, bytes, bytesBudget, cpuMs, cpuBudget);
+        }
+        assertTrue(bytes <= bytesBudget, String.format(
+                "%s alocou %.0f bytes por operação; orçamento: %.0f", label, bytes, bytesBudget));
+        assertTrue(cpuMs <= cpuBudget, String.format(
+                "%s gastou %.3f ms de CPU por operação; orçamento: %.3f", label, cpuMs, cpuBudget));
+    }
+
+    private static double budget(String operation, String subject, int bitLength, String metric) {
+        String value = budgets.getProperty(operation + "." + subject + "." + bitLength + "." + metric,
+                budgets.getProperty(operation + ".default." + bitLength + "." + metric));
+        assertNotNull(value, "Sem orçamento para " + operation + "." + subject + "." + bitLength + "." + metric);
+        return Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,230 @@
+package primos.distributed;
+
+import org.junit.jupiter.api.Test;
+import primos.io.OutputFormat;
+import primos.io.PrimeWriter;
+import primos.primality.MillerRabinTester;
+import primos.primality.PrimalityTester;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conversa com o {@link SearchWorker} e com o {@link SearchCoordinator} por pipes, no
+ * mesmo processo: o protocolo das fatias, a redistribuição após uma queda, a recusa de
+ * mensagens inválidas e a deduplicação dos primos.
+ */
+class SearchWorkerTest {
+
+    private static final int BITS = 48;
+
+    private final PrimalityTester tester = new MillerRabinTester();
+
+    /**
+     * As duas pontas de um trabalhador em teste.
+     */
+    private static final class Pipes {
+        final PipedInputStream workerIn = new PipedInputStream(64 * 1024);
+        final PipedOutputStream toWorker = new PipedOutputStream();
+        final PipedInputStream coordinatorIn = new PipedInputStream(64 * 1024);
+        final PipedOutputStream fromWorker = new PipedOutputStream();
+
+        Pipes() throws IOException {
+            workerIn.connect(toWorker);
+            coordinatorIn.connect(fromWorker);
+        }
+
+        BufferedReader workerReader() {
+            return new BufferedReader(new InputStreamReader(workerIn, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static void send(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static Thread start(String name, ThrowingRunnable body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Exception e) {
+                // o fim abrupto faz parte de alguns cenários
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    void jobLineRoundTrip() {
+        SearchJob job = new SearchJob(42, BITS, 20, true, BigInteger.ONE.shiftLeft(BITS - 1).add(BigInteger.TEN), 300);
+        SearchJob parsed = SearchJob.parse(job.toLine());
+        assertEquals(job.id(), parsed.id());
+        assertEquals(job.bitLength(), parsed.bitLength());
+        assertEquals(job.certainty(), parsed.certainty());
+        assertEquals(job.safe(), parsed.safe());
+        assertEquals(job.start(), parsed.start());
+        assertEquals(job.count(), parsed.count());
+
+        BigInteger first = job.firstCandidate();
+        assertEquals(11, first.mod(BigInteger.valueOf(12)).intValue());
+        assertTrue(job.contains(first));
+        assertTrue(job.contains(first.add(BigInteger.valueOf(12 * 299))));
+        assertFalse(job.contains(first.add(BigInteger.valueOf(12 * 300))));
+        assertFalse(job.contains(first.add(BigInteger.TWO)));
+        assertFalse(job.contains(first.subtract(BigInteger.valueOf(12))));
+
+        assertThrows(IllegalArgumentException.class, () -> SearchJob.parse("JOB 1 48 20 0 zz 10"));
+        assertThrows(IllegalArgumentException.class, () -> SearchJob.parse("JOB 1 48 20 0"));
+        assertThrows(IllegalArgumentException.class, () -> SearchJob.parse("JOB 1 48 0 0 ff 10"));
+    }
+
+    @Test
+    void workerServesJobsOverPipes() throws Exception {
+        Pipes pipes = new Pipes();
+        Thread worker = start("trabalhador", () -> new SearchWorker(tester).serve(pipes.workerIn, pipes.fromWorker));
+
+        SearchJob job = new SearchJob(7, BITS, 20, false, BigInteger.ONE.shiftLeft(BITS - 1), 1000);
+        send(pipes.toWorker, job.toLine());
+        send(pipes.toWorker, "JOB quebrado");
+        send(pipes.toWorker, "STOP");
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(pipes.coordinatorIn, StandardCharsets.US_ASCII));
+        assertEquals("READY", in.readLine());
+        String[] prime = in.readLine().split(" ");
+        assertEquals("PRIME", prime[0]);
+        assertEquals("7", prime[1]);
+        BigInteger p = new BigInteger(prime[2], 16);
+        assertTrue(job.contains(p));
+        assertTrue(p.isProbablePrime(50));
+        String[] done = in.readLine().split(" ");
+        assertEquals("DONE", done[0]);
+        assertEquals("7", done[1]);
+        assertTrue(Long.parseLong(done[2]) >= 1);
+        assertTrue(in.readLine().startsWith("ERROR - "));
+        worker.join(5000);
+        assertFalse(worker.isAlive());
+    }
+
+    @Test
+    void coordinatorRequeuesDropsAndDeduplicates() throws Exception {
+        SearchCoordinator coordinator = new SearchCoordinator(tester, BITS, 20, false, 2000);
+        Set<Long> dyingJobs = new HashSet<>();
+        CountDownLatch dyingDone = new CountDownLatch(1);
+        CountDownLatch liarDropped = new CountDownLatch(1);
+        CountDownLatch garbageDropped = new CountDownLatch(1);
+        List<Long> duplicatorJobs = new ArrayList<>();
+
+        // recebe as suas fatias e cai sem responder
+        Pipes dying = new Pipes();
+        coordinator.connect(dying.coordinatorIn, dying.toWorker, "que cai", () -> { });
+        start("que-cai", () -> {
+            BufferedReader in = dying.workerReader();
+            send(dying.fromWorker, "READY");
+            for (int i = 0; i < SearchCoordinator.JOBS_PER_WORKER; i++) {
+                synchronized (dyingJobs) {
+                    dyingJobs.add(SearchJob.parse(in.readLine()).id());
+                }
+            }
+            dying.fromWorker.close();
+            dyingDone.countDown();
+        });
+
+        // relata um "primo" fora da fatia
+        Pipes liar = new Pipes();
+        coordinator.connect(liar.coordinatorIn, liar.toWorker, "mentiroso", liarDropped::countDown);
+        start("mentiroso", () -> {
+            BufferedReader in = liar.workerReader();
+            send(liar.fromWorker, "READY");
+            send(liar.fromWorker, "PRIME " + SearchJob.parse(in.readLine()).id() + " 3");
+        });
+
+        // manda uma linha malformada
+        Pipes garbage = new Pipes();
+        coordinator.connect(garbage.coordinatorIn, garbage.toWorker, "malformado", garbageDropped::countDown);
+        start("malformado", () -> {
+            send(garbage.fromWorker, "READY");
+            send(garbage.fromWorker, "DONE");
+        });
+
+        // só começa depois das quedas e relata cada primo duas vezes
+        Pipes duplicator = new Pipes();
+        coordinator.connect(duplicator.coordinatorIn, duplicator.toWorker, "repetidor", () -> { });
+        start("repetidor", () -> {
+            BufferedReader in = duplicator.workerReader();
+            send(duplicator.fromWorker, "READY");
+            dyingDone.await(10, TimeUnit.SECONDS);
+            liarDropped.await(10, TimeUnit.SECONDS);
+            garbageDropped.await(10, TimeUnit.SECONDS);
+            String line;
+            while ((line = in.readLine()) != null && !line.equals("STOP")) {
+                SearchJob job = SearchJob.parse(line);
+                synchronized (duplicatorJobs) {
+                    duplicatorJobs.add(job.id());
+                }
+                BigInteger candidate = job.firstCandidate();
+                long tested = 0;
+                for (int i = 0; i < job.count(); i++, candidate = candidate.add(job.step())) {
+                    tested++;
+                    if (job.isHit(tester, candidate)) {
+                        send(duplicator.fromWorker, "PRIME " + job.id() + " " + candidate.toString(16));
+                        send(duplicator.fromWorker, "PRIME " + job.id() + " " + candidate.toString(16));
+                        break;
+                    }
+                }
+                send(duplicator.fromWorker, "DONE " + job.id() + " " + tested);
+            }
+        });
+
+        ByteArrayOutputStream primes = new ByteArrayOutputStream();
+        ByteArrayOutputStream progressBytes = new ByteArrayOutputStream();
+        try (PrimeWriter writer = new PrimeWriter(Channels.newChannel(primes), OutputFormat.DECIMAL);
+             PrintStream progress = new PrintStream(progressBytes, true, StandardCharsets.UTF_8)) {
+            coordinator.run(12, writer, progress);
+            coordinator.close();
+        }
+
+        String[] lines = primes.toString(StandardCharsets.US_ASCII).trim().split("\n");
+        assertEquals(12, lines.length);
+        assertEquals(12, Set.of(lines).size());
+        for (String line : lines) {
+            BigInteger p = new BigInteger(line.trim());
+            assertEquals(BITS, p.bitLength());
+            assertTrue(p.isProbablePrime(50));
+        }
+
+        String progress = progressBytes.toString(StandardCharsets.UTF_8);
+        assertTrue(progress.contains("que cai caiu; 2 fatia(s) redistribuída(s)"), progress);
+        assertTrue(progress.contains("mentiroso enviou uma mensagem inválida"), progress);
+        assertTrue(progress.contains("malformado enviou uma mensagem inválida"), progress);
+        synchronized (duplicatorJobs) {
+            assertTrue(duplicatorJobs.containsAll(dyingJobs), "fatias da queda refeitas pelo repetidor");
+        }
+    }
+}
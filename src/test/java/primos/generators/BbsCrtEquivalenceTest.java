@@ -0,0 +1,105 @@
+package primos.generators;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere que o modo CRT do {@link BbsGenerator} produz exatamente a mesma sequência
+ * que o quadrado módulo M, com os mesmos p, q e semente, por {@code generate}, por
+ * {@code fill} e intercalando os dois.
+ */
+class BbsCrtEquivalenceTest {
+
+    /**
+     * Tamanhos de M: pequenos (p e q de menos de 32 bits), de uma palavra, e de 1024 a 4096 bits.
+     */
+    private static final List<Integer> BIT_LENGTHS = List.of(20, 64, 100, 1024, 2048, 4096);
+
+    @TestFactory
+    List<DynamicTest> generateMatchesFullModulus() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (int bitLength : BIT_LENGTHS) {
+            tests.add(DynamicTest.dynamicTest("generate " + bitLength, () -> {
+                BbsGenerator[] pair = pair(bitLength, bitLength);
+                int count = bitLength >= 2048 ? 2 : 8;
+                assertEquals(pair[0].generate(count), pair[1].generate(count));
+            }));
+        }
+        return tests;
+    }
+
+    @TestFactory
+    List<DynamicTest> fillMatchesFullModulus() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (int bitLength : BIT_LENGTHS) {
+            tests.add(DynamicTest.dynamicTest("fill " + bitLength, () -> {
+                BbsGenerator[] pair = pair(bitLength, bitLength);
+                int bytes = bitLength >= 2048 ? 64 : 256;
+                assertArrayEquals(fill(pair[0], bytes), fill(pair[1], bytes));
+            }));
+        }
+        return tests;
+    }
+
+    @Test
+    void interleavedCallsShareTheState() {
+        BbsGenerator[] pair = pair(512, 512);
+        for (int i = 0; i < 4; i++) {
+            assertArrayEquals(fill(pair[0], 13), fill(pair[1], 13));
+            assertEquals(pair[0].generate(1), pair[1].generate(1));
+        }
+    }
+
+    @Test
+    void orderOfPrimesDoesNotMatter() {
+        // com p < q e com p > q, Xq pode ser maior ou menor que p antes da subtração
+        for (long seed = 1; seed <= 4; seed++) {
+            Random random = new Random(seed);
+            BigInteger p = BbsGenerator.findBlumPrime(128, random);
+            BigInteger q = BbsGenerator.findBlumPrime(128, random);
+            BigInteger x0 = new BigInteger(256, random).pow(2).mod(p.multiply(q));
+            BbsGenerator full = new BbsGenerator(p, q, x0, 256, false);
+            BbsGenerator crt = new BbsGenerator(q, p, x0, 256, true);
+            assertArrayEquals(fill(full, 64), fill(crt, 64));
+        }
+    }
+
+    @Test
+    void crtGeneratorIsSelectableByName() {
+        assertEquals("BBS-CRT", new BbsCrtGenerator(64).name());
+        assertEquals("BBS", new BbsGenerator(64).name());
+    }
+
+    /**
+     * Dois geradores, comum e CRT, com os mesmos primos e a mesma semente.
+     */
+    private static BbsGenerator[] pair(int bitLength, long seed) {
+        Random random = new Random(seed);
+        BigInteger p = BbsGenerator.findBlumPrime(bitLength / 2, random);
+        BigInteger q;
+        do {
+            q = BbsGenerator.findBlumPrime(bitLength / 2, random);
+        } while (q.equals(p));
+        BigInteger m = p.multiply(q);
+        BigInteger x0 = new BigInteger(bitLength, random).pow(2).mod(m);
+        return new BbsGenerator[]{
+                new BbsGenerator(p, q, x0, bitLength, false),
+                new BbsGenerator(p, q, x0, bitLength, true)};
+    }
+
+    private static byte[] fill(BbsGenerator generator, int bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        generator.fill(buffer);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,41 @@
+package primos.generators;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere que {@link BbsGenerator#findBlumPrime} devolve primos ≡ 3 (mod 4) com o tamanho
+ * pedido, tanto pelo caminho sem crivo (menos de 32 bits) quanto pela janela peneirada.
+ */
+class BlumPrimeTest {
+
+    private static final List<Integer> BIT_LENGTHS = List.of(3, 8, 16, 31, 32, 33, 64, 100, 256, 512, 1024, 2048);
+
+    @TestFactory
+    List<DynamicTest> blumPrimesHaveTheRequestedSize() {
+        BigInteger four = BigInteger.valueOf(4);
+        BigInteger three = BigInteger.valueOf(3);
+        List<DynamicTest> tests = new ArrayList<>();
+        for (int bits : BIT_LENGTHS) {
+            tests.add(DynamicTest.dynamicTest(bits + " bits", () -> {
+                Random random = new Random(bits);
+                int samples = bits > 512 ? 2 : 20;
+                for (int i = 0; i < samples; i++) {
+                    BigInteger p = BbsGenerator.findBlumPrime(bits, random);
+                    assertEquals(bits, p.bitLength(), p.toString());
+                    assertEquals(three, p.mod(four), p.toString());
+                    assertTrue(p.isProbablePrime(50), p + " não é primo");
+                }
+            }));
+        }
+        return tests;
+    }
+}
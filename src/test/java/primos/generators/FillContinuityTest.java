@@ -0,0 +1,93 @@
+package primos.generators;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Confere que {@code fill} produz um fluxo contínuo: encher um buffer grande de uma vez
+ * ou vários pedaços de tamanhos ímpares, que cortam os números e as palavras no meio,
+ * dá os mesmos bytes. Também fixa o comportamento da implementação padrão, que descarta
+ * o resto do último número.
+ */
+class FillContinuityTest {
+
+    private static final int TOTAL_BYTES = 1000;
+
+    /**
+     * Tamanhos dos pedaços, repetidos em ciclo; nenhum é múltiplo de 8 e alguns são menores que um número.
+     */
+    private static final int[] CHUNKS = {1, 3, 7, 13, 29, 61, 5};
+
+    @TestFactory
+    List<DynamicTest> chunkedFillMatchesSingleFill() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (int bitLength : new int[]{61, 64, 100, 256}) {
+            tests.add(check("LCG " + bitLength, () -> new LcgGenerator(bitLength, BigInteger.valueOf(12345))));
+            tests.add(check("LCG-SIMD " + bitLength, () -> new VectorLcgGenerator(bitLength, true, 12345)));
+            tests.add(check("Xoshiro " + bitLength, () -> new XoshiroGenerator(bitLength, 12345)));
+        }
+        tests.add(check("ChaCha20", () -> new ChaCha20Generator(256, new int[8], 0, new int[3])));
+        Random random = new Random(7);
+        BigInteger p = BbsGenerator.findBlumPrime(64, random);
+        BigInteger q = BbsGenerator.findBlumPrime(64, random);
+        BigInteger x0 = new BigInteger(128, random).pow(2).mod(p.multiply(q));
+        tests.add(check("BBS", () -> new BbsGenerator(p, q, x0, 128, false)));
+        tests.add(check("BBS-CRT", () -> new BbsGenerator(p, q, x0, 128, true)));
+        return tests;
+    }
+
+    private static DynamicTest check(String name, Supplier<PseudoRandomGenerator> factory) {
+        return DynamicTest.dynamicTest(name, () -> {
+            ByteBuffer whole = ByteBuffer.allocate(TOTAL_BYTES);
+            factory.get().fill(whole);
+
+            PseudoRandomGenerator generator = factory.get();
+            ByteBuffer pieces = ByteBuffer.allocate(TOTAL_BYTES);
+            for (int i = 0; pieces.hasRemaining(); i++) {
+                int length = Math.min(CHUNKS[i % CHUNKS.length], pieces.remaining());
+                generator.fill(pieces.slice(pieces.position(), length));
+                pieces.position(pieces.position() + length);
+            }
+            assertArrayEquals(whole.array(), pieces.array());
+        });
+    }
+
+    @Test
+    void defaultFillDropsTheRestOfTheLastNumber() {
+        PseudoRandomGenerator counter = new PseudoRandomGenerator() {
+            private int next = 0x010203;
+
+            @Override
+            public List<BigInteger> generate(int n) {
+                List<BigInteger> numbers = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    numbers.add(BigInteger.valueOf(next));
+                    next += 0x010101;
+                }
+                return numbers;
+            }
+
+            @Override
+            public String name() {
+                return "contador";
+            }
+        };
+        ByteBuffer first = ByteBuffer.allocate(4);
+        counter.fill(first);
+        ByteBuffer second = ByteBuffer.allocate(3);
+        counter.fill(second);
+        // 01 02 03 | 02 (03 04 descartados) | 03 04 05
+        assertArrayEquals(new byte[]{1, 2, 3, 2}, first.array());
+        assertArrayEquals(new byte[]{3, 4, 5}, second.array());
+    }
+}
@@ -0,0 +1,77 @@
+package primos.generators;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere o {@link ChaCha20Generator} e o {@link XoshiroGenerator} contra as saídas
+ * publicadas: o bloco da seção 2.3.2 da RFC 8439 e as primeiras palavras do
+ * xoshiro256** de referência (xoshiro256starstar.c) a partir do estado {1, 2, 3, 4}.
+ */
+class ReferenceVectorTest {
+
+    /**
+     * Chave 00:01:02:...:1f, em palavras little-endian.
+     */
+    private static final int[] RFC_KEY = {
+            0x03020100, 0x07060504, 0x0b0a0908, 0x0f0e0d0c,
+            0x13121110, 0x17161514, 0x1b1a1918, 0x1f1e1d1c
+    };
+
+    /**
+     * Nonce 00:00:00:09:00:00:00:4a:00:00:00:00, em palavras little-endian.
+     */
+    private static final int[] RFC_NONCE = {0x09000000, 0x4a000000, 0x00000000};
+
+    /**
+     * Bloco serializado da seção 2.3.2, com o contador em 1.
+     */
+    private static final String RFC_BLOCK =
+            "10f1e7e4d13b5915500fdd1fa32071c4"
+            + "c7d1f4c733c068030422aa9ac3d46c4e"
+            + "d2826446079faa0914c2d705d98b02a2"
+            + "b5129cd1de164eb9cbd083e8a2503c4e";
+
+    /**
+     * As dez primeiras saídas, em decimal sem sinal como no programa de referência.
+     */
+    private static final String[] XOSHIRO_OUTPUT = {
+            "11520", "0", "1509978240", "1215971899390074240", "1216172134540287360",
+            "607988272756665600", "16172922978634559625", "8476171486693032832",
+            "10595114339597558777", "2904607092377533576"
+    };
+
+    @Test
+    void chaChaMatchesRfc8439Block() {
+        ChaCha20Generator generator = new ChaCha20Generator(256, RFC_KEY, 1, RFC_NONCE);
+        ByteBuffer block = ByteBuffer.allocate(64);
+        generator.fill(block);
+        assertArrayEquals(HexFormat.of().parseHex(RFC_BLOCK), block.array());
+    }
+
+    @Test
+    void chaChaGenerateReadsTheSameKeystream() {
+        ChaCha20Generator generator = new ChaCha20Generator(256, RFC_KEY, 1, RFC_NONCE);
+        List<BigInteger> numbers = generator.generate(2);
+        assertEquals(new BigInteger(RFC_BLOCK.substring(0, 64), 16), numbers.get(0));
+        assertEquals(new BigInteger(RFC_BLOCK.substring(64), 16), numbers.get(1));
+    }
+
+    @Test
+    void xoshiroMatchesReferenceOutput() {
+        XoshiroGenerator generator = new XoshiroGenerator(64, 1, 2, 3, 4);
+        ByteBuffer words = ByteBuffer.allocate(XOSHIRO_OUTPUT.length * Long.BYTES);
+        generator.fill(words);
+        words.flip();
+        for (String expected : XOSHIRO_OUTPUT) {
+            assertEquals(Long.parseUnsignedLong(expected), words.getLong());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package primos.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Lê de volta o que o {@link PrimeWriter} grava, com janelas pequenas que cortam os
+ * números no meio, e confere a recusa de registros binários truncados ou com um
+ * cabeçalho de tamanho absurdo.
+ */
+class MappedNumberReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackAcrossWindowBoundaries() throws IOException {
+        Random random = new Random(3);
+        List<BigInteger> numbers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            numbers.add(new BigInteger(1 + random.nextInt(300), random).add(BigInteger.ONE));
+        }
+        for (OutputFormat format : List.of(OutputFormat.DECIMAL, OutputFormat.HEX, OutputFormat.RAW)) {
+            Path file = dir.resolve("numeros." + format);
+            try (PrimeWriter writer = PrimeWriter.open(file, format)) {
+                for (BigInteger n : numbers) {
+                    writer.write(n);
+                }
+            }
+            try (MappedNumberReader reader = new MappedNumberReader(file, format, 257)) {
+                for (BigInteger n : numbers) {
+                    assertEquals(n, reader.next(), format.toString());
+                }
+                assertNull(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void rejectsTruncatedAndOversizedRecords() throws IOException {
+        Path truncated = dir.resolve("truncado.raw");
+        Files.write(truncated, ByteBuffer.allocate(6).putInt(10).put((byte) 1).put((byte) 2).array());
+        try (MappedNumberReader reader = new MappedNumberReader(truncated, OutputFormat.RAW, 64)) {
+            assertThrows(IOException.class, reader::next);
+        }
+
+        // 4 + length estoura um int: o cabeçalho precisa ser recusado, não remapeado
+        Path oversized = dir.resolve("enorme.raw");
+        Files.write(oversized, ByteBuffer.allocate(8).putInt(Integer.MAX_VALUE - 1).putInt(7).array());
+        try (MappedNumberReader reader = new MappedNumberReader(oversized, OutputFormat.RAW, 64)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package primos.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara as codificações de {@link OutputFormat} e a exibição de {@link DecimalPreview}
+ * com as conversões de referência do JDK ({@code toString}, {@code toByteArray}, {@link Base64}).
+ */
+class OutputFormatTest {
+
+    /**
+     * Inclui os casos de borda: zero, um byte, o bit mais alto ligado (byte de sinal no
+     * complemento de dois), tamanhos em torno de 127 e 255 bytes (forma curta e longa do DER)
+     * e números maiores que o buffer do {@link PrimeWriter}.
+     */
+    private static List<BigInteger> samples() {
+        List<BigInteger> numbers = new ArrayList<>();
+        numbers.add(BigInteger.ZERO);
+        numbers.add(BigInteger.ONE);
+        numbers.add(BigInteger.valueOf(15));
+        numbers.add(BigInteger.valueOf(255));
+        numbers.add(BigInteger.valueOf(256));
+        Random random = new Random(42);
+        for (int bits : new int[]{7, 8, 9, 64, 1015, 1016, 1017, 2040, 2048, 4096, 100_000, 1_000_000}) {
+            numbers.add(new BigInteger(bits, random).setBit(bits - 1));
+            numbers.add(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE));
+        }
+        return numbers;
+    }
+
+    @Test
+    void textFormatsMatchReferenceConversions() throws IOException {
+        List<BigInteger> numbers = samples();
+        StringBuilder dec = new StringBuilder();
+        StringBuilder hex = new StringBuilder();
+        StringBuilder base64 = new StringBuilder();
+        for (BigInteger n : numbers) {
+            dec.append(n).append('\n');
+            hex.append(n.toString(16)).append('\n');
+            base64.append(Base64.getEncoder().encodeToString(magnitude(n))).append('\n');
+        }
+        assertEquals(dec.toString(), new String(write(OutputFormat.DECIMAL, numbers), StandardCharsets.US_ASCII));
+        assertEquals(hex.toString(), new String(write(OutputFormat.HEX, numbers), StandardCharsets.US_ASCII));
+        assertEquals(base64.toString(), new String(write(OutputFormat.BASE64, numbers), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void derIsTagLengthAndTwosComplement() throws IOException {
+        List<BigInteger> numbers = samples();
+        ByteBuffer der = ByteBuffer.wrap(write(OutputFormat.DER, numbers));
+        for (BigInteger n : numbers) {
+            assertEquals(n, readDerInteger(der));
+        }
+        assertEquals(0, der.remaining());
+
+        // exemplos conhecidos: 0 -> 02 01 00, 128 -> 02 02 00 80
+        assertArrayEquals(new byte[]{2, 1, 0}, write(OutputFormat.DER, List.of(BigInteger.ZERO)));
+        assertArrayEquals(new byte[]{2, 2, 0, (byte) 0x80}, write(OutputFormat.DER, List.of(BigInteger.valueOf(128))));
+    }
+
+    @Test
+    void pemWrapsTheDerInBase64Lines() throws IOException {
+        for (BigInteger n : samples()) {
+            String pem = new String(write(OutputFormat.PEM, List.of(n)), StandardCharsets.US_ASCII);
+            String[] lines = pem.split("\n");
+            assertEquals("-----BEGIN INTEGER-----", lines[0]);
+            assertEquals("-----END INTEGER-----", lines[lines.length - 1]);
+
+            StringBuilder body = new StringBuilder();
+            for (int i = 1; i < lines.length - 1; i++) {
+                assertTrue(lines[i].length() <= 64, "linha de PEM com mais de 64 caracteres");
+                body.append(lines[i]);
+            }
+            ByteBuffer der = ByteBuffer.wrap(Base64.getDecoder().decode(body.toString()));
+            assertEquals(n, readDerInteger(der));
+            assertEquals(0, der.remaining());
+        }
+    }
+
+    @Test
+    void decimalPreviewMatchesTruncatedToString() {
+        Random random = new Random(7);
+        for (int bits = 1; bits <= 600; bits++) {
+            BigInteger n = new BigInteger(bits, random).setBit(bits - 1);
+            check(n);
+            // potências de 10 e vizinhas, onde a estimativa de dígitos muda
+            BigInteger power = BigInteger.TEN.pow(bits / 3);
+            check(power);
+            check(power.subtract(BigInteger.ONE));
+            check(power.add(BigInteger.ONE));
+        }
+        check(BigInteger.ZERO);
+        check(new BigInteger(4096, random));
+    }
+
+    private static void check(BigInteger n) {
+        String text = n.toString();
+        assertEquals(text.length(), DecimalPreview.digitCount(n), "dígitos de " + text);
+        String expected = text.length() > 70 ? text.substring(0, 35) + "..." + text.substring(text.length() - 35) : text;
+        assertEquals(expected, DecimalPreview.truncate(n, 35));
+    }
+
+    private static byte[] write(OutputFormat format, List<BigInteger> numbers) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrimeWriter writer = new PrimeWriter(Channels.newChannel(bytes), format)) {
+            for (BigInteger n : numbers) {
+                writer.write(n);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] magnitude(BigInteger n) {
+        byte[] bytes = n.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+
+    private static BigInteger readDerInteger(ByteBuffer der) {
+        assertEquals(0x02, der.get());
+        int length = der.get() & 0xff;
+        if (length >= 0x80) {
+            int lengthBytes = length & 0x7f;
+            length = 0;
+            for (int i = 0; i < lengthBytes; i++) {
+                length = (length << 8) | (der.get() & 0xff);
+            }
+        }
+        byte[] content = new byte[length];
+        der.get(content);
+        // DER exige o complemento de dois mínimo: sem byte 00 desnecessário à esquerda
+        assertTrue(length == 1 || content[0] != 0 || (content[1] & 0x80) != 0, "INTEGER não mínimo");
+        return new BigInteger(content);
+    }
+}
@@ -0,0 +1,34 @@
+package primos.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere que fechar o escritor da saída padrão não fecha o descritor. Nada é escrito
+ * nela, para não misturar bytes à saída do próprio executor de testes.
+ */
+class PrimeWriterTest {
+
+    @Test
+    void closingStandardOutputKeepsTheDescriptorOpen() throws IOException {
+        PrimeWriter writer = PrimeWriter.open(null, OutputFormat.DECIMAL);
+        writer.close();
+        assertTrue(FileDescriptor.out.valid());
+
+        WritableByteChannel channel = PrimeWriter.openChannel(null);
+        assertTrue(channel.isOpen());
+        channel.close();
+        assertFalse(channel.isOpen());
+        assertThrows(ClosedChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+        assertTrue(FileDescriptor.out.valid());
+    }
+}
@@ -0,0 +1,142 @@
+package primos.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere as operações do {@link MontgomeryKernel} contra {@link BigInteger#multiply} e
+ * {@link BigInteger#modPow}, com módulos ímpares sorteados de 64 a 4096 bits, módulos cuja
+ * palavra mais alta é toda de uns (onde o resultado intermediário usa a palavra extra) e
+ * pseudoprimos e números de Carmichael pequenos.
+ */
+class MontgomeryKernelTest {
+
+    private static List<BigInteger> moduli() {
+        Random random = new Random(30);
+        List<BigInteger> moduli = new ArrayList<>();
+        for (int bits : new int[]{64, 512, 2048, 4096}) {
+            moduli.add(new BigInteger(bits, random).setBit(bits - 1).setBit(0));
+            // palavra mais alta 0xffffffff
+            moduli.add(new BigInteger(bits - 32, random).setBit(0)
+                    .or(BigInteger.valueOf(0xffffffffL).shiftLeft(bits - 32)));
+            moduli.add(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE));
+        }
+        for (long n : new long[]{3, 5, 2047, 3215031751L, 561, 41041, 825265}) {
+            moduli.add(BigInteger.valueOf(n));
+        }
+        // uma palavra a mais só por um bit
+        moduli.add(BigInteger.ONE.shiftLeft(64).add(BigInteger.ONE));
+        return moduli;
+    }
+
+    @Test
+    void multiplyAndSquareMatchBigInteger() {
+        Random random = new Random(31);
+        for (BigInteger n : moduli()) {
+            MontgomeryKernel kernel = new MontgomeryKernel(n);
+            int[] a = kernel.newElement();
+            int[] b = kernel.newElement();
+            int[] out = kernel.newElement();
+            List<BigInteger> values = new ArrayList<>(List.of(BigInteger.ZERO, BigInteger.ONE,
+                    n.subtract(BigInteger.ONE)));
+            for (int i = 0; i < 20; i++) {
+                values.add(new BigInteger(n.bitLength() + 8, random).mod(n));
+            }
+            for (int i = 0; i < values.size(); i++) {
+                BigInteger x = values.get(i);
+                BigInteger y = values.get((i * 7 + 3) % values.size());
+                kernel.load(x, a);
+                assertEquals(x, kernel.toBigInteger(a), "load de " + x);
+                kernel.toMontgomery(a, a);
+                kernel.load(y, b);
+                kernel.toMontgomery(b, b);
+
+                kernel.multiply(a, b, out);
+                kernel.fromMontgomery(out, out);
+                assertEquals(x.multiply(y).mod(n), kernel.toBigInteger(out), x + " * " + y + " mod " + n);
+
+                kernel.square(a, out);
+                kernel.fromMontgomery(out, out);
+                assertEquals(x.multiply(x).mod(n), kernel.toBigInteger(out), x + "^2 mod " + n);
+
+                // no lugar, como o Miller-Rabin usa
+                kernel.square(a, a);
+                kernel.fromMontgomery(a, a);
+                assertEquals(x.multiply(x).mod(n), kernel.toBigInteger(a), x + "^2 mod " + n + " no lugar");
+            }
+        }
+    }
+
+    @Test
+    void powMatchesModPow() {
+        Random random = new Random(32);
+        for (BigInteger n : moduli()) {
+            MontgomeryKernel kernel = new MontgomeryKernel(n);
+            int[] base = kernel.newElement();
+            int[] out = kernel.newElement();
+            int rounds = n.bitLength() > 1024 ? 2 : 10;
+            for (int i = 0; i < rounds; i++) {
+                BigInteger x = new BigInteger(n.bitLength() + 8, random).mod(n);
+                for (BigInteger e : List.of(BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(16),
+                        new BigInteger(n.bitLength(), random), n.subtract(BigInteger.ONE))) {
+                    kernel.load(x, base);
+                    kernel.toMontgomery(base, base);
+                    kernel.pow(base, e, out);
+                    kernel.fromMontgomery(out, out);
+                    assertEquals(x.modPow(e, n), kernel.toBigInteger(out), x + "^" + e + " mod " + n);
+                }
+            }
+        }
+    }
+
+    @Test
+    void recognizesOneAndMinusOne() {
+        for (BigInteger n : moduli()) {
+            MontgomeryKernel kernel = new MontgomeryKernel(n);
+            int[] a = kernel.newElement();
+            kernel.setOne(a);
+            assertTrue(kernel.isOne(a));
+            kernel.load(n.subtract(BigInteger.ONE), a);
+            kernel.toMontgomery(a, a);
+            assertTrue(kernel.isMinusOne(a));
+            assertFalse(kernel.isOne(a));
+            kernel.load(BigInteger.TWO, a);
+            kernel.toMontgomery(a, a);
+            assertFalse(kernel.isOne(a));
+            assertEquals(n.equals(BigInteger.valueOf(3)), kernel.isMinusOne(a));
+        }
+    }
+
+    @Test
+    void randomBasesStayInRange() {
+        Random random = new Random(33);
+        for (BigInteger n : moduli()) {
+            if (n.compareTo(BigInteger.valueOf(5)) < 0) {
+                continue; // [2, n - 2] vazio
+            }
+            MontgomeryKernel kernel = new MontgomeryKernel(n);
+            int[] a = kernel.newElement();
+            for (int i = 0; i < 200; i++) {
+                kernel.randomBase(random, a);
+                BigInteger value = kernel.toBigInteger(a);
+                assertTrue(value.compareTo(BigInteger.TWO) >= 0 && value.compareTo(n.subtract(BigInteger.TWO)) <= 0,
+                        value + " fora de [2, " + n + " - 2]");
+            }
+        }
+    }
+
+    @Test
+    void rejectsEvenAndTinyModuli() {
+        assertThrows(IllegalArgumentException.class, () -> new MontgomeryKernel(BigInteger.valueOf(10)));
+        assertThrows(IllegalArgumentException.class, () -> new MontgomeryKernel(BigInteger.ONE));
+    }
+}
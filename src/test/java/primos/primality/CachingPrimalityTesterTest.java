@@ -0,0 +1,141 @@
+package primos.primality;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere os acertos, a complementação de certeza, o limite de memória com a admissão
+ * por frequência e o uso concorrente do {@link CachingPrimalityTester}, contando as
+ * chamadas que chegam ao testador decorado.
+ */
+class CachingPrimalityTesterTest {
+
+    /**
+     * Testador que conta as chamadas e as rodadas pedidas.
+     */
+    private static final class CountingTester implements PrimalityTester {
+        private final PrimalityTester delegate = new MillerRabinTester();
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong rounds = new AtomicLong();
+
+        @Override
+        public boolean isPrime(BigInteger n, int certainty) {
+            calls.incrementAndGet();
+            rounds.addAndGet(certainty);
+            return delegate.isPrime(n, certainty);
+        }
+    }
+
+    @Test
+    void repeatedQueriesHitAndHigherCertaintyRunsOnlyTheDifference() {
+        CountingTester counting = new CountingTester();
+        CachingPrimalityTester cache = new CachingPrimalityTester(counting, 1 << 20);
+        BigInteger prime = BigInteger.probablePrime(256, new Random(1));
+        BigInteger composite = prime.multiply(BigInteger.valueOf(3));
+
+        assertTrue(cache.isPrime(prime, 10));
+        assertTrue(cache.isPrime(prime, 10));
+        assertTrue(cache.isPrime(new BigInteger(prime.toByteArray()), 5));
+        assertEquals(1, counting.calls.get());
+        assertEquals(2, cache.hits());
+
+        assertTrue(cache.isPrime(prime, 25));
+        assertEquals(2, counting.calls.get());
+        assertEquals(25, counting.rounds.get());
+        assertEquals(1, cache.upgrades());
+
+        // um composto é definitivo: atende qualquer certeza
+        assertFalse(cache.isPrime(composite, 1));
+        assertFalse(cache.isPrime(composite, 100));
+        assertEquals(3, counting.calls.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void staysWithinTheLimitAndKeepsTheHotEntry() {
+        CountingTester counting = new CountingTester();
+        long maxBytes = CachingPrimalityTester.STRIPES * 400L;
+        CachingPrimalityTester cache = new CachingPrimalityTester(counting, maxBytes);
+        Random random = new Random(2);
+        BigInteger hot = BigInteger.probablePrime(64, random);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.isPrime(hot, 10);
+            cache.isPrime(new BigInteger(64, random), 10);
+            assertTrue(cache.weightedSize() <= maxBytes);
+        }
+        assertTrue(cache.evictions() + cache.rejections() > 0);
+        // os números de uma vez só não desalojam o que é pedido sempre
+        assertEquals(999, cache.hits());
+    }
+
+    @Test
+    void concurrentQueriesAgreeWithTheDelegate() throws Exception {
+        CountingTester counting = new CountingTester();
+        CachingPrimalityTester cache = new CachingPrimalityTester(counting, 64 * 1024);
+        Random random = new Random(3);
+        List<BigInteger> numbers = new ArrayList<>();
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            BigInteger p = BigInteger.probablePrime(128, random);
+            numbers.add(p);
+            expected.add(true);
+            numbers.add(p.add(BigInteger.TWO).multiply(BigInteger.valueOf(3)));
+            expected.add(false);
+        }
+
+        int threads = 8;
+        int queriesPerThread = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                futures.add(pool.submit(() -> {
+                    Random local = new Random(seed);
+                    for (int i = 0; i < queriesPerThread; i++) {
+                        int index = local.nextInt(numbers.size());
+                        assertEquals(expected.get(index), cache.isPrime(numbers.get(index), 20));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals((long) threads * queriesPerThread, cache.hits() + cache.misses());
+        assertEquals(counting.calls.get(), cache.misses());
+        assertTrue(cache.hits() > cache.misses());
+        assertTrue(cache.weightedSize() <= 64 * 1024);
+    }
+
+    @Test
+    void hashSeesEveryWord() {
+        // só uma palavra do meio muda: o hashCode percorre a magnitude inteira
+        BigInteger base = BigInteger.ONE.shiftLeft(1023).add(BigInteger.valueOf(12345));
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            hashes.add(CachingPrimalityTester.hash(base.add(BigInteger.valueOf(i).shiftLeft(512))));
+        }
+        assertEquals(10_000, hashes.size());
+        assertEquals(CachingPrimalityTester.hash(base), CachingPrimalityTester.hash(new BigInteger(base.toString())));
+    }
+}
@@ -0,0 +1,78 @@
+package primos.primality;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere o {@link MontgomeryMillerRabinTester} contra o {@link BigInteger#isProbablePrime}:
+ * números pequenos, primos e compostos sorteados de 64 a 4096 bits, primos cuja palavra mais
+ * alta é toda de uns, pseudoprimos fortes na base 2 e números de Carmichael.
+ */
+class MontgomeryMillerRabinTesterTest {
+
+    private final PrimalityTester tester = new MontgomeryMillerRabinTester();
+
+    @Test
+    void agreesWithProbablePrimeOnSmallNumbers() {
+        for (int n = 0; n < 20_000; n++) {
+            BigInteger value = BigInteger.valueOf(n);
+            assertEquals(value.isProbablePrime(50), tester.isPrime(value, 20), Integer.toString(n));
+        }
+        // o isProbablePrime olha o valor absoluto; aqui negativos não são primos
+        assertFalse(tester.isPrime(BigInteger.valueOf(-7), 20));
+    }
+
+    @Test
+    void agreesWithProbablePrimeOnLargeNumbers() {
+        Random random = new Random(34);
+        for (int bits : new int[]{64, 512, 2048}) {
+            int certainty = bits > 1024 ? 3 : 20;
+            for (int i = 0; i < 3; i++) {
+                BigInteger p = BigInteger.probablePrime(bits, random);
+                assertTrue(tester.isPrime(p, certainty), p.toString());
+                BigInteger q = BigInteger.probablePrime(bits / 2, random);
+                assertFalse(tester.isPrime(p.multiply(q), certainty), p + " * " + q);
+            }
+        }
+        // gerar primos de 4096 bits custa segundos; aqui bastam ímpares sorteados, quase todos compostos
+        for (int bits : new int[]{64, 512, 2048, 4096}) {
+            for (int i = 0; i < 5; i++) {
+                BigInteger odd = new BigInteger(bits, random).setBit(bits - 1).setBit(0);
+                assertEquals(odd.isProbablePrime(50), tester.isPrime(odd, 3), odd.toString());
+            }
+        }
+    }
+
+    @Test
+    void acceptsPrimesWhoseTopWordIsAllOnes() {
+        // 2^64 - 59 e primos de Mersenne: todas as palavras altas valem 0xffffffff
+        assertTrue(tester.isPrime(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.valueOf(59)), 20));
+        for (int p : new int[]{61, 89, 127, 521, 607, 1279}) {
+            assertTrue(tester.isPrime(BigInteger.ONE.shiftLeft(p).subtract(BigInteger.ONE), 10), "2^" + p + " - 1");
+        }
+        assertFalse(tester.isPrime(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE), 20));
+        assertFalse(tester.isPrime(BigInteger.ONE.shiftLeft(1024).subtract(BigInteger.ONE), 10));
+    }
+
+    @Test
+    void rejectsStrongPseudoprimesAndCarmichaelNumbers() {
+        long[] strongBase2 = {2047, 3277, 4033, 4681, 8321, 15841, 29341, 42799, 49141, 52633, 3215031751L};
+        long[] carmichael = {561, 1105, 1729, 2465, 2821, 6601, 8911, 10585, 15841, 29341, 41041, 825265,
+                321197185, 5394826801L, 232250619601L, 9746347772161L};
+        for (long n : strongBase2) {
+            assertFalse(tester.isPrime(BigInteger.valueOf(n), 20), Long.toString(n));
+        }
+        for (long n : carmichael) {
+            BigInteger value = BigInteger.valueOf(n);
+            // passam no teste de Fermat na base 2, mas não no de Miller-Rabin
+            assertEquals(BigInteger.ONE, BigInteger.TWO.modPow(value.subtract(BigInteger.ONE), value), Long.toString(n));
+            assertFalse(tester.isPrime(value, 20), Long.toString(n));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package primos.primality;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere os primos de {@link ProvablePrimeGenerator} e os seus certificados, inclusive
+ * que certificados adulterados são recusados.
+ */
+class ProvablePrimeGeneratorTest {
+
+    private final ProvablePrimeGenerator generator = new ProvablePrimeGenerator(new Random(2024));
+
+    @Test
+    void generatesCertifiedPrimesOfTheRequestedSize() {
+        for (int bits : new int[]{2, 3, 16, 32, 33, 34, 64, 100, 255, 256, 512, 1024}) {
+            PrimeCertificate certificate = generator.generate(bits);
+            BigInteger prime = certificate.prime();
+            assertEquals(bits, prime.bitLength(), "tamanho do primo de " + bits + " bits");
+            assertTrue(prime.isProbablePrime(50), "não é primo: " + prime);
+            assertTrue(certificate.verify(), "certificado recusado para " + prime);
+        }
+    }
+
+    @Test
+    void certificateSurvivesTextRoundTrip() {
+        PrimeCertificate certificate = generator.generate(768);
+        PrimeCertificate parsed = PrimeCertificate.parse(certificate.toText());
+        assertEquals(certificate.prime(), parsed.prime());
+        assertEquals(certificate.depth(), parsed.depth());
+        assertEquals(certificate.toText(), parsed.toText());
+        assertTrue(parsed.verify());
+    }
+
+    @Test
+    void tamperedCertificatesAreRejected() {
+        String[] lines = generator.generate(512).toText().split("\n");
+
+        // o primo do topo trocado por outro ímpar
+        String[] top = lines[0].split(" ");
+        String changedPrime = new BigInteger(top[0], 16).add(BigInteger.TWO).toString(16) + " " + top[1];
+        assertFalse(PrimeCertificate.parse(replace(lines, 0, changedPrime)).verify());
+
+        // testemunha fora do intervalo [2, n - 2]
+        assertFalse(PrimeCertificate.parse(replace(lines, 0, top[0] + " 1")).verify());
+
+        // folha composta
+        assertFalse(PrimeCertificate.parse(replace(lines, lines.length - 1, "f")).verify());
+
+        // um nível intermediário removido: q deixa de dividir n - 1
+        StringBuilder skipped = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            if (i != 1) {
+                skipped.append(lines[i]).append('\n');
+            }
+        }
+        assertFalse(PrimeCertificate.parse(skipped.toString()).verify());
+    }
+
+    @Test
+    void compositeWithValidLookingChainIsRejected() {
+        // 561 = 3 * 11 * 17 é de Carmichael: a^560 = 1 para todo a coprimo, mas 560 = 2 * 280 * 1
+        // não tem um fator primo q > sqrt(561) que o certificado possa usar
+        PrimeCertificate fake = PrimeCertificate.parse("231 2\n5\n");
+        assertFalse(fake.verify());
+    }
+
+    @Test
+    void malformedTextIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PrimeCertificate.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> PrimeCertificate.parse("abc 2\n"));
+        assertThrows(IllegalArgumentException.class, () -> PrimeCertificate.parse("xyz\n"));
+    }
+
+    private static String replace(String[] lines, int index, String line) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            text.append(i == index ? line : lines[i]).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package primos.primality;
+
+import org.junit.jupiter.api.Test;
+import primos.math.NttSquarer;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere Lucas-Lehmer, Proth e o quadrado pela NTT do {@link SpecialFormTester}
+ * contra o {@link BigInteger#isProbablePrime} e o {@link BigInteger#multiply}.
+ */
+class SpecialFormTesterTest {
+
+    private static final Set<Integer> MERSENNE_EXPONENTS =
+            Set.of(2, 3, 5, 7, 13, 17, 19, 31, 61, 89, 107, 127, 521, 607, 1279);
+
+    private final SpecialFormTester tester = new SpecialFormTester();
+
+    @Test
+    void lucasLehmerFindsTheKnownMersennePrimes() {
+        for (int p = 2; p <= 1300; p++) {
+            assertEquals(MERSENNE_EXPONENTS.contains(p), tester.isMersennePrime(p), "2^" + p + " - 1");
+        }
+    }
+
+    @Test
+    void prothAgreesWithProbablePrime() {
+        for (int m = 1; m <= 200; m++) {
+            for (long k = 1; k < 64 && (m >= 63 || k < 1L << m); k += 2) {
+                BigInteger n = BigInteger.valueOf(k).shiftLeft(m).add(BigInteger.ONE);
+                boolean expected = n.isProbablePrime(50);
+                assertEquals(expected, tester.isProthPrime(k, m), k + " * 2^" + m + " + 1");
+                // abaixo de 64 bits o número vai para o Miller-Rabin de reserva, que precisa de várias rodadas
+                assertEquals(expected, tester.isPrime(n, 64), "detecção de " + k + " * 2^" + m + " + 1");
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> tester.isProthPrime(4, 10));
+        assertThrows(IllegalArgumentException.class, () -> tester.isProthPrime(33, 5));
+    }
+
+    @Test
+    void otherNumbersGoToTheFallback() {
+        Random random = new Random(46);
+        for (int i = 0; i < 200; i++) {
+            BigInteger n = new BigInteger(192, random);
+            assertEquals(n.isProbablePrime(50), tester.isPrime(n, 30), n.toString());
+        }
+    }
+
+    @Test
+    void nttSquaringPathGivesTheSameAnswers() {
+        SpecialFormTester ntt = new SpecialFormTester(new MillerRabinTester(), 64);
+        assertTrue(ntt.isMersennePrime(2203));
+        assertFalse(ntt.isMersennePrime(2207));
+        assertTrue(ntt.isProthPrime(3, 2208));
+        assertFalse(ntt.isProthPrime(3, 2206));
+    }
+
+    @Test
+    void nttSquareMatchesMultiply() {
+        Random random = new Random(2046);
+        for (int bits : new int[]{1, 8, 15, 16, 17, 24, 25, 1000, 4096, 50_000, 400_000}) {
+            BigInteger x = new BigInteger(bits, random).setBit(bits - 1);
+            assertEquals(x.multiply(x), NttSquarer.square(x), bits + " bits");
+            assertEquals(x.multiply(x), NttSquarer.square(x.negate()), "-x com " + bits + " bits");
+        }
+        BigInteger allOnes = BigInteger.ONE.shiftLeft(100_000).subtract(BigInteger.ONE);
+        assertEquals(allOnes.multiply(allOnes), NttSquarer.square(allOnes));
+        assertEquals(BigInteger.ZERO, NttSquarer.square(BigInteger.ZERO));
+    }
+}
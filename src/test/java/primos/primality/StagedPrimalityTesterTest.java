@@ -0,0 +1,105 @@
+package primos.primality;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere as cadeias do {@link StagedPrimalityTester} e o {@link LucasTester} contra o
+ * {@link BigInteger#isProbablePrime} abaixo de 10^5, os pseudoprimos fortes de Lucas, que
+ * só a cadeia com Fermat na base 2 recusa, e a recusa de especificações malformadas.
+ */
+class StagedPrimalityTesterTest {
+
+    private static final int LIMIT = 100_000;
+
+    /**
+     * Os primeiros pseudoprimos fortes de Lucas com os parâmetros de Selfridge (OEIS A217255).
+     */
+    private static final long[] STRONG_LUCAS_PSEUDOPRIMES =
+            {5459, 5777, 10877, 16109, 18971, 22499, 24569, 25199, 40309, 58519, 75077, 97439};
+
+    private static List<Boolean> expected() {
+        List<Boolean> expected = new ArrayList<>(LIMIT);
+        for (int n = 0; n < LIMIT; n++) {
+            expected.add(BigInteger.valueOf(n).isProbablePrime(50));
+        }
+        return expected;
+    }
+
+    @Test
+    void chainsAgreeWithProbablePrimeBelowOneHundredThousand() {
+        List<Boolean> expected = expected();
+        // td=400 sozinho: abaixo de 400^2 = 160000, a divisão decide todos os números
+        for (String spec : new String[]{StagedPrimalityTester.DEFAULT_CHAIN, "td=400", "f2,lucas", "td=50,f2,lucas,mr"}) {
+            StagedPrimalityTester tester = StagedPrimalityTester.parse(spec);
+            for (int n = 0; n < LIMIT; n++) {
+                assertEquals(expected.get(n), tester.isPrime(BigInteger.valueOf(n), 20), spec + ": " + n);
+            }
+        }
+    }
+
+    @Test
+    void trialDivisionDeclaresSmallNumbersPrimeWithoutLaterStages() {
+        StagedPrimalityTester tester = StagedPrimalityTester.parse("td=1000,f2,mr");
+        List<Boolean> expected = expected();
+        long primes = 0;
+        for (int n = 5; n < LIMIT; n += 2) {
+            tester.isPrime(BigInteger.valueOf(n), 20);
+            if (expected.get(n)) {
+                primes++;
+            }
+        }
+        // abaixo de 1000^2 nenhum número chega ao Fermat
+        assertEquals(LIMIT / 2 - 2, tester.entered(0));
+        assertEquals(0, tester.entered(1));
+        assertEquals(LIMIT / 2 - 2 - primes, tester.rejected(0));
+    }
+
+    @Test
+    void lucasAgreesWithProbablePrimeExceptOnItsPseudoprimes() {
+        List<Boolean> expected = expected();
+        LucasTester lucas = new LucasTester();
+        List<Long> pseudoprimes = new ArrayList<>();
+        for (int n = 0; n < LIMIT; n++) {
+            boolean result = lucas.isPrime(BigInteger.valueOf(n), 1);
+            if (result != expected.get(n)) {
+                assertTrue(result, "o Lucas recusou o primo " + n);
+                pseudoprimes.add((long) n);
+            }
+        }
+        assertEquals(STRONG_LUCAS_PSEUDOPRIMES.length, pseudoprimes.size());
+        for (int i = 0; i < STRONG_LUCAS_PSEUDOPRIMES.length; i++) {
+            assertEquals(STRONG_LUCAS_PSEUDOPRIMES[i], pseudoprimes.get(i));
+        }
+    }
+
+    @Test
+    void fermatBase2RejectsStrongLucasPseudoprimes() {
+        StagedPrimalityTester chain = StagedPrimalityTester.parse("f2,lucas");
+        StagedPrimalityTester lucasOnly = StagedPrimalityTester.parse("lucas");
+        for (long n : STRONG_LUCAS_PSEUDOPRIMES) {
+            BigInteger value = BigInteger.valueOf(n);
+            assertTrue(lucasOnly.isPrime(value, 1), n + " deveria passar no Lucas");
+            assertFalse(chain.isPrime(value, 1), n + " deveria cair no Fermat");
+        }
+        assertEquals(STRONG_LUCAS_PSEUDOPRIMES.length, chain.rejected(0));
+        assertEquals(0, chain.entered(1));
+    }
+
+    @Test
+    void rejectsMalformedChains() {
+        for (String spec : new String[]{"", ",", "mr,,f2", "td=", "td=abc", "td=2", "td=-5", "miller", "f2;mr"}) {
+            assertThrows(IllegalArgumentException.class, () -> StagedPrimalityTester.parse(spec), spec);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StagedPrimalityTester(List.of()));
+        assertEquals("td=1000,f2,mr", StagedPrimalityTester.parse(" TD , f2 ,MR").chain());
+    }
+}
@@ -0,0 +1,158 @@
+package primos.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import primos.generators.LcgGenerator;
+import primos.generators.PseudoRandomGenerator;
+import primos.primality.MillerRabinTester;
+import primos.primality.PrimalityTester;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conversa com o {@link PrimeServer} pelo {@link PrimeClient}, por um socket local: geração,
+ * teste, o limite de primos pendentes, requisições inválidas e falhas na busca, que precisam
+ * virar uma resposta de erro e liberar a reserva.
+ */
+class PrimeServerTest {
+
+    private final List<PrimeServer> servers = new ArrayList<>();
+
+    /**
+     * Gerador cuja busca sempre falha com uma exceção não verificada.
+     */
+    static final class FailingGenerator implements PseudoRandomGenerator {
+        FailingGenerator(int bitLength) {
+        }
+
+        @Override
+        public List<BigInteger> generate(int n) {
+            throw new IllegalStateException("gerador quebrado");
+        }
+
+        @Override
+        public String name() {
+            return "quebrado";
+        }
+    }
+
+    private PrimeServer start(Class<? extends PseudoRandomGenerator> generator, PrimalityTester tester,
+                              int maxPendingPrimes) throws IOException {
+        PrimeServer server = new PrimeServer(0, generator, tester, 2, maxPendingPrimes);
+        servers.add(server);
+        Thread thread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                // o teste falha pelo lado do cliente
+            }
+        }, "servidor");
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    @AfterEach
+    void closeServers() {
+        servers.forEach(PrimeServer::close);
+    }
+
+    @Test
+    void generatesAndTests() throws IOException {
+        PrimeServer server = start(LcgGenerator.class, new MillerRabinTester(), 100);
+        try (PrimeClient client = new PrimeClient(server.port())) {
+            List<BigInteger> primes = client.generate(64, 5, 20);
+            assertEquals(5, primes.size());
+            for (BigInteger p : primes) {
+                assertTrue(p.isProbablePrime(50));
+                assertTrue(p.bitLength() <= 64);
+            }
+            assertTrue(client.isPrime(BigInteger.valueOf(2147483647), 20));
+            assertFalse(client.isPrime(BigInteger.valueOf(2047), 20));
+        }
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws IOException {
+        PrimeServer server = start(LcgGenerator.class, new MillerRabinTester(), 10);
+        try (PrimeClient client = new PrimeClient(server.port())) {
+            assertThrows(IOException.class, () -> client.generate(1, 1, 20));
+            assertThrows(IOException.class, () -> client.generate(64, 0, 20));
+            assertThrows(IOException.class, () -> client.isPrime(BigInteger.TEN, 0));
+            // acima da reserva inteira: erro, não BUSY
+            IOException tooMany = assertThrows(IOException.class, () -> client.generate(64, 11, 20));
+            assertFalse(tooMany instanceof PrimeClient.ServerBusyException);
+            // a conexão continua utilizável
+            assertEquals(1, client.generate(64, 1, 20).size());
+        }
+    }
+
+    @Test
+    void answersBusyAboveThePendingLimit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PrimalityTester blocking = (n, certainty) -> {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return n.isProbablePrime(certainty);
+        };
+        PrimeServer server = start(LcgGenerator.class, blocking, 2);
+        try (PrimeClient first = new PrimeClient(server.port());
+             PrimeClient second = new PrimeClient(server.port())) {
+            CompletableFuture<List<BigInteger>> pending = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return first.generate(32, 2, 20);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            assertThrows(PrimeClient.ServerBusyException.class, () -> second.isPrime(BigInteger.TEN, 5));
+            assertThrows(PrimeClient.ServerBusyException.class, () -> second.generate(32, 1, 5));
+
+            release.countDown();
+            assertEquals(2, pending.get(30, TimeUnit.SECONDS).size());
+            // a reserva foi devolvida
+            assertFalse(second.isPrime(BigInteger.TEN, 5));
+        }
+    }
+
+    @Test
+    void failingSearchReportsAnErrorAndReleasesTheReservation() throws IOException {
+        PrimeServer server = start(FailingGenerator.class, new MillerRabinTester(), 4);
+        try (PrimeClient client = new PrimeClient(server.port())) {
+            for (int i = 0; i < 3; i++) {
+                // com a reserva vazada, a segunda volta já receberia BUSY
+                IOException error = assertThrows(IOException.class, () -> client.generate(64, 4, 20));
+                assertFalse(error instanceof PrimeClient.ServerBusyException, error.getMessage());
+                assertTrue(error.getMessage().contains("gerador quebrado"), error.getMessage());
+            }
+        }
+
+        PrimalityTester broken = (n, certainty) -> {
+            throw new ArithmeticException("testador quebrado");
+        };
+        PrimeServer other = start(LcgGenerator.class, broken, 1);
+        try (PrimeClient client = new PrimeClient(other.port())) {
+            for (int i = 0; i < 2; i++) {
+                IOException error = assertThrows(IOException.class, () -> client.isPrime(BigInteger.TEN, 5));
+                assertTrue(error.getMessage().contains("testador quebrado"), error.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package primos.sieve;
+
+import org.junit.jupiter.api.Test;
+import primos.io.OutputFormat;
+import primos.io.PrimeWriter;
+import primos.primality.MillerRabinTester;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere a leitura e a admissibilidade dos padrões de {@link Constellation}, que
+ * todos os membros das constelações encontradas por {@link ConstellationSearch} são primos
+ * e que, ao percorrer a faixa inteira de um tamanho pequeno, cada constelação aparece uma
+ * única vez.
+ */
+class ConstellationSearchTest {
+
+    @Test
+    void parsesNamesAndOffsets() {
+        assertSame(Constellation.QUADRUPLET, Constellation.parse("Quadruplet"));
+        Constellation custom = Constellation.parse("0, 2, 6, 8, 12");
+        assertEquals(5, custom.size());
+        assertEquals(12, custom.diameter());
+    }
+
+    @Test
+    void rejectsInadmissiblePatterns() {
+        // 0, 2, 4 cobre todas as classes módulo 3
+        assertThrows(IllegalArgumentException.class, () -> Constellation.of(0, 2, 4));
+        // 0, 1: um dos dois é sempre par
+        assertThrows(IllegalArgumentException.class, () -> Constellation.of(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Constellation.of(0, 6, 2));
+        assertThrows(IllegalArgumentException.class, () -> Constellation.parse("gêmeos"));
+    }
+
+    @Test
+    void everyMemberOfEveryTupleIsPrime() throws Exception {
+        for (Constellation pattern : Constellation.standard()) {
+            int bits = pattern.size() <= 3 ? 96 : 48;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (PrimeWriter writer = new PrimeWriter(Channels.newChannel(out), OutputFormat.DECIMAL)) {
+                new ConstellationSearch(pattern, new MillerRabinTester(), 20, 2)
+                        .run(bits, 3, writer, new PrintStream(OutputStream.nullOutputStream()));
+            }
+            String[] lines = out.toString(StandardCharsets.US_ASCII).trim().split("\n");
+            assertEquals(3, lines.length, pattern.name());
+            for (String line : lines) {
+                BigInteger first = new BigInteger(line);
+                assertEquals(bits, first.bitLength(), "tamanho do primeiro membro de " + pattern);
+                for (int j = 0; j < pattern.size(); j++) {
+                    BigInteger member = first.add(BigInteger.valueOf(pattern.offset(j)));
+                    assertTrue(member.isProbablePrime(50), pattern + ": " + member + " não é primo");
+                }
+            }
+        }
+    }
+
+    @Test
+    void exhaustingTheRangeFindsEachTupleExactlyOnce() throws Exception {
+        // 19 bits: um bloco só; 26 bits: três blocos, com a volta ao fim da faixa
+        assertExhaustive(Constellation.parse("twin"), ConstellationSearch.MIN_BIT_LENGTH, 2);
+        assertExhaustive(Constellation.QUADRUPLET, 26, 3);
+    }
+
+    /**
+     * Pede mais constelações do que existem no tamanho e compara o que foi escrito,
+     * na ordem de chegada, com todas as do tamanho achadas por um crivo de Eratóstenes.
+     */
+    private static void assertExhaustive(Constellation pattern, int bits, int threads) throws Exception {
+        int low = 1 << (bits - 1);
+        int high = 1 << bits;
+        BitSet composite = new BitSet(high + pattern.diameter() + 1);
+        for (int i = 2; (long) i * i <= high + pattern.diameter(); i++) {
+            if (!composite.get(i)) {
+                for (int j = i * i; j <= high + pattern.diameter(); j += i) {
+                    composite.set(j);
+                }
+            }
+        }
+        Set<BigInteger> expected = new HashSet<>();
+        for (int n = low; n < high; n++) {
+            boolean all = true;
+            for (int j = 0; j < pattern.size() && all; j++) {
+                all = !composite.get(n + pattern.offset(j));
+            }
+            if (all) {
+                expected.add(BigInteger.valueOf(n));
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        long written;
+        try (PrimeWriter writer = new PrimeWriter(Channels.newChannel(out), OutputFormat.DECIMAL);
+             PrintStream progress = new PrintStream(summary, true, StandardCharsets.UTF_8)) {
+            written = new ConstellationSearch(pattern, new MillerRabinTester(), 20, threads)
+                    .run(bits, Long.MAX_VALUE, writer, progress);
+        }
+        List<BigInteger> found = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.US_ASCII).trim().split("\n")) {
+            found.add(new BigInteger(line));
+        }
+        assertEquals(expected.size(), written, pattern + " com " + bits + " bits");
+        assertEquals(expected.size(), found.size());
+        assertEquals(expected, new HashSet<>(found));
+        assertTrue(summary.toString(StandardCharsets.UTF_8).contains("se esgotou"));
+    }
+
+    @Test
+    void rejectsSizesCoveredByOneWindow() {
+        ConstellationSearch search = new ConstellationSearch(Constellation.parse("twin"), new MillerRabinTester(), 20, 1);
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        assertThrows(IllegalArgumentException.class, () -> search.run(ConstellationSearch.MIN_BIT_LENGTH - 1, 1,
+                new PrimeWriter(Channels.newChannel(OutputStream.nullOutputStream()), OutputFormat.DECIMAL), discard));
+    }
+}
@@ -0,0 +1,102 @@
+package primos.sieve;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Confere o {@link SegmentedSieve} contra valores conhecidos de π(x) e contra o teste
+ * de primalidade do JDK em intervalos que atravessam as fronteiras de segmento e de
+ * tarefa, inclusive perto de {@link SegmentedSieve#MAX_LIMIT}, e as posições de corte levadas
+ * de uma tarefa para a seguinte contra as recalculadas em cada tarefa.
+ */
+class SegmentedSieveTest {
+
+    /**
+     * Quantos números (ímpares e pares) cabem em um segmento e em uma tarefa.
+     */
+    private static final long SEGMENT_SPAN = 2L * SegmentedSieve.SEGMENT_BYTES * 8;
+    private static final long TASK_SPAN = SEGMENT_SPAN * SegmentedSieve.SEGMENTS_PER_TASK;
+
+    @Test
+    void countsMatchKnownPrimeCountingValues() throws InterruptedException {
+        SegmentedSieve sieve = new SegmentedSieve(2);
+        assertEquals(0, sieve.count(0, 1));
+        assertEquals(1, sieve.count(0, 2));
+        assertEquals(4, sieve.count(1, 10));
+        assertEquals(6, sieve.count(1, 13));
+        assertEquals(25, sieve.count(1, 100));
+        assertEquals(168, sieve.count(1, 1000));
+        assertEquals(78498, sieve.count(1, 1_000_000));
+        assertEquals(664579, sieve.count(1, 10_000_000));
+        assertEquals(5761455, sieve.count(1, 100_000_000));
+        // π(10^8) - π(10^8 - 10^6), pelas duas contagens
+        assertEquals(5761455 - sieve.count(1, 99_000_000), sieve.count(99_000_001, 100_000_000));
+    }
+
+    @Test
+    void rangesAcrossSegmentAndTaskBoundaries() throws InterruptedException {
+        SegmentedSieve sieve = new SegmentedSieve(3);
+        for (long boundary : new long[]{SEGMENT_SPAN, TASK_SPAN, 3 * TASK_SPAN + SEGMENT_SPAN,
+                1_000_000L * TASK_SPAN, SegmentedSieve.MAX_LIMIT / SEGMENT_SPAN * SEGMENT_SPAN}) {
+            long from = boundary - 3000;
+            long to = Math.min(boundary + 3000, SegmentedSieve.MAX_LIMIT);
+            List<Long> streamed = new ArrayList<>();
+            long count = sieve.stream(from, to, streamed::add);
+
+            List<Long> expected = new ArrayList<>();
+            for (long n = from; n <= to; n++) {
+                if (BigInteger.valueOf(n).isProbablePrime(50)) {
+                    expected.add(n);
+                }
+            }
+            assertEquals(expected, streamed, "em torno de " + boundary);
+            assertEquals(expected.size(), count);
+            assertEquals(count, sieve.count(from, to));
+        }
+    }
+
+    @Test
+    void carriedOffsetsMatchFreshlySeededTasks() throws InterruptedException {
+        // com uma thread, as posições de corte e os baldes passam de tarefa em tarefa;
+        // cada contagem avulsa recalcula tudo a partir do próprio início
+        SegmentedSieve single = new SegmentedSieve(1);
+        SegmentedSieve pooled = new SegmentedSieve(3);
+        for (long from : new long[]{1_000_000_000_000_000L + 12345, SegmentedSieve.MAX_LIMIT - 3 * TASK_SPAN}) {
+            long to = from + 3 * TASK_SPAN;
+            long pieces = 0;
+            for (long start = from; start <= to; start += TASK_SPAN + 999) {
+                pieces += single.count(start, Math.min(start + TASK_SPAN + 998, to));
+            }
+            assertEquals(pieces, single.count(from, to), "a partir de " + from);
+            assertEquals(pieces, pooled.count(from, to), "a partir de " + from);
+        }
+    }
+
+    @Test
+    void basePrimesMatchTrialDivision() {
+        int[] primes = SegmentedSieve.basePrimes(10_000);
+        List<Integer> expected = new ArrayList<>();
+        for (int n = 17; n <= 10_000; n += 2) {
+            if (BigInteger.valueOf(n).isProbablePrime(50)) {
+                expected.add(n);
+            }
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), primes);
+        assertEquals(0, SegmentedSieve.basePrimes(2).length);
+        assertEquals(0, SegmentedSieve.basePrimes(16).length);
+        assertArrayEquals(new int[]{17}, SegmentedSieve.basePrimes(17));
+    }
+
+    @Test
+    void rejectsLimitsAboveTheMaximum() {
+        SegmentedSieve sieve = new SegmentedSieve(1);
+        assertThrows(IllegalArgumentException.class, () -> sieve.count(1, SegmentedSieve.MAX_LIMIT + 1));
+    }
+}
@@ -0,0 +1,108 @@
+package primos.tuning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primos.ExperimentRunner;
+import primos.generators.ChaCha20Generator;
+import primos.generators.LcgGenerator;
+import primos.generators.VectorLcgGenerator;
+import primos.generators.XoshiroGenerator;
+import primos.primality.MillerRabinTester;
+import primos.primality.MontgomeryMillerRabinTester;
+import primos.primality.PrimalityTester;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere a gravação e a leitura do {@link TuningProfile}, a escolha da entrada mais
+ * próxima e uma calibração curta do {@link AutoTuner}.
+ */
+class TuningProfileTest {
+
+    private static TuningProfile.Entry entry(int bits, int batchSize) {
+        return new TuningProfile.Entry(bits, XoshiroGenerator.class, MontgomeryMillerRabinTester.class,
+                2000, batchSize, AutoTuner.certaintyFor(bits), 2, 123.5, 8.25);
+    }
+
+    @Test
+    void saveAndLoadRoundTrip(@TempDir Path dir) throws Exception {
+        TuningProfile profile = TuningProfile.of(TuningProfile.Goal.LATENCY, List.of(entry(256, 4), entry(1024, 1)));
+        Path path = dir.resolve("sub").resolve("perfil.properties");
+        profile.save(path, "teste");
+
+        TuningProfile loaded = TuningProfile.load(path);
+        assertEquals(TuningProfile.Goal.LATENCY, loaded.goal());
+        assertEquals(2, loaded.entries().size());
+        TuningProfile.Entry e = loaded.entryFor(1024);
+        assertEquals(XoshiroGenerator.class, e.generatorClass());
+        assertEquals(MontgomeryMillerRabinTester.class, e.testerClass());
+        assertEquals(2000, e.sieveLimit());
+        assertEquals(1, e.batchSize());
+        assertEquals(3, e.certainty());
+        assertEquals(2, e.threads());
+        assertEquals(123.5, e.primesPerSecond(), 1e-9);
+        assertEquals(8.25, e.millisPerPrime(), 1e-9);
+    }
+
+    @Test
+    void loadRejectsNonPositiveBatchAndThreads(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("perfil.properties");
+        TuningProfile.of(TuningProfile.Goal.THROUGHPUT, List.of(entry(256, 4))).save(path, "teste");
+        String saved = Files.readString(path);
+
+        Files.writeString(path, saved.replace("256.lote=4", "256.lote=0"));
+        assertThrows(IllegalArgumentException.class, () -> TuningProfile.load(path));
+        Files.writeString(path, saved.replace("256.threads=2", "256.threads=0"));
+        assertThrows(IllegalArgumentException.class, () -> TuningProfile.load(path));
+        Files.writeString(path, saved);
+        assertEquals(4, TuningProfile.load(path).batchSize(256));
+    }
+
+    @Test
+    void entryForPicksTheNearestOnALogScale() {
+        TuningProfile profile = TuningProfile.of(TuningProfile.Goal.THROUGHPUT,
+                List.of(entry(64, 1), entry(512, 4), entry(2048, 10)));
+        assertEquals(64, profile.entryFor(16).bitLength());
+        assertEquals(64, profile.entryFor(150).bitLength());
+        assertEquals(512, profile.entryFor(200).bitLength());
+        assertEquals(512, profile.entryFor(1024).bitLength());
+        assertEquals(2048, profile.entryFor(1100).bitLength());
+        assertEquals(2048, profile.entryFor(8192).bitLength());
+        assertEquals(4, profile.batchSize(600));
+
+        assertNull(TuningProfile.empty().entryFor(256));
+        assertEquals(ExperimentRunner.BATCHSIZE, TuningProfile.empty().batchSize(256));
+    }
+
+    @Test
+    void certaintyFollowsTheRoundsTable() {
+        assertEquals(40, AutoTuner.certaintyFor(64));
+        assertEquals(6, AutoTuner.certaintyFor(512));
+        assertEquals(3, AutoTuner.certaintyFor(1024));
+        assertEquals(2, AutoTuner.certaintyFor(2048));
+    }
+
+    @Test
+    void shortTuneProducesAUsableEntry() throws Exception {
+        AutoTuner tuner = new AutoTuner(TuningProfile.Goal.THROUGHPUT, 20, 0, 2);
+        TuningProfile profile = tuner.tune(List.of(64), null);
+
+        TuningProfile.Entry best = profile.entryFor(64);
+        assertTrue(best.primesPerSecond() > 0);
+        assertTrue(List.of(LcgGenerator.class, XoshiroGenerator.class, ChaCha20Generator.class,
+                VectorLcgGenerator.class).contains(best.generatorClass()));
+        assertTrue(List.of(MillerRabinTester.class, MontgomeryMillerRabinTester.class).contains(best.testerClass()));
+
+        PrimalityTester tester = best.newTester();
+        BigInteger p = ExperimentRunner.findPrime(tester, best.newGenerator(64), best.certainty());
+        assertTrue(p.isProbablePrime(50));
+    }
+}